@@ -23,14 +23,41 @@ public abstract class AzureStorageBlobDefinition extends AzureStorageContainerDe
 
     public static final String RETURN_REMOTE_FOLDER = "remoteFolder"; //$NON-NLS-1$
 
+    public static final String RETURN_TRANSFERRED_FILES = "transferredFiles"; //$NON-NLS-1$
+
+    public static final String RETURN_TRANSFERRED_BYTES = "transferredBytes"; //$NON-NLS-1$
+
+    public static final String RETURN_THROUGHPUT = "throughput"; //$NON-NLS-1$
+
+    public static final String RETURN_DELETED_BLOBS = "deletedBlobs"; //$NON-NLS-1$
+
+    public static final String RETURN_DELETE_THROUGHPUT = "deleteThroughput"; //$NON-NLS-1$
+
     public static final Property<String> RETURN_CURRENT_BLOB_PROP = PropertyFactory.newString(RETURN_CURRENT_BLOB);
 
     public static final Property<String> RETURN_LOCAL_FOLDER_PROP = PropertyFactory.newString(RETURN_LOCAL_FOLDER);
 
     public static final Property<String> RETURN_REMOTE_FOLDER_PROP = PropertyFactory.newString(RETURN_REMOTE_FOLDER);
 
+    public static final Property<Integer> RETURN_TRANSFERRED_FILES_PROP = PropertyFactory.newInteger(RETURN_TRANSFERRED_FILES);
+
+    public static final Property<Long> RETURN_TRANSFERRED_BYTES_PROP = PropertyFactory.newProperty(Long.class,
+            RETURN_TRANSFERRED_BYTES);
+
+    /** Bytes transferred per second */
+    public static final Property<Double> RETURN_THROUGHPUT_PROP = PropertyFactory.newProperty(Double.class,
+            RETURN_THROUGHPUT);
+
+    public static final Property<Integer> RETURN_DELETED_BLOBS_PROP = PropertyFactory.newInteger(RETURN_DELETED_BLOBS);
+
+    /** Blobs deleted per second */
+    public static final Property<Double> RETURN_DELETE_THROUGHPUT_PROP = PropertyFactory.newProperty(Double.class,
+            RETURN_DELETE_THROUGHPUT);
+
     public AzureStorageBlobDefinition(String componentName) {
         super(componentName);
-        setupI18N(new Property<?>[] { RETURN_CURRENT_BLOB_PROP, RETURN_LOCAL_FOLDER_PROP, RETURN_REMOTE_FOLDER_PROP });
+        setupI18N(new Property<?>[] { RETURN_CURRENT_BLOB_PROP, RETURN_LOCAL_FOLDER_PROP, RETURN_REMOTE_FOLDER_PROP,
+                RETURN_TRANSFERRED_FILES_PROP, RETURN_TRANSFERRED_BYTES_PROP, RETURN_THROUGHPUT_PROP, RETURN_DELETED_BLOBS_PROP,
+                RETURN_DELETE_THROUGHPUT_PROP });
     }
 }
@@ -12,10 +12,14 @@
 //============================================================================
 package org.talend.components.azurestorage.blob;
 
+import com.microsoft.azure.storage.ResultContinuation;
+import com.microsoft.azure.storage.ResultSegment;
 import com.microsoft.azure.storage.StorageErrorCodeStrings;
 import com.microsoft.azure.storage.StorageException;
 import com.microsoft.azure.storage.blob.BlobContainerPublicAccessType;
 import com.microsoft.azure.storage.blob.BlobListingDetails;
+import com.microsoft.azure.storage.blob.BlockEntry;
+import com.microsoft.azure.storage.blob.BlockListingFilter;
 import com.microsoft.azure.storage.blob.CloudBlob;
 import com.microsoft.azure.storage.blob.CloudBlobClient;
 import com.microsoft.azure.storage.blob.CloudBlobContainer;
@@ -34,9 +38,12 @@ import org.talend.daikon.i18n.I18nMessages;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.HttpURLConnection;
 import java.net.URISyntaxException;
 import java.security.InvalidKeyException;
+import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.List;
 
 /**
  * This class encapsulate and provide azure storage blob services
@@ -127,6 +134,20 @@ public class AzureStorageBlobService {
                 AzureStorageUtils.getTalendOperationContext());
     }
 
+    /**
+     * List one segment of the blobs and, for a hierarchical listing, virtual directories under the prefix.
+     *
+     * @param continuationToken token returned by the previous segment, null for the first segment
+     */
+    public ResultSegment<ListBlobItem> listBlobsSegmented(final String containerName, final String prefix,
+            final boolean useFlatBlobListing, final ResultContinuation continuationToken)
+            throws URISyntaxException, StorageException, InvalidKeyException {
+        CloudBlobClient cloudBlobClient = connection.getCloudStorageAccount().createCloudBlobClient();
+        CloudBlobContainer cloudBlobContainer = cloudBlobClient.getContainerReference(containerName);
+        return cloudBlobContainer.listBlobsSegmented(prefix, useFlatBlobListing, EnumSet.noneOf(BlobListingDetails.class),
+                null, continuationToken, null, AzureStorageUtils.getTalendOperationContext());
+    }
+
     public boolean deleteBlobBlockIfExist(final CloudBlockBlob block) throws StorageException {
         return block.deleteIfExists(DeleteSnapshotsOption.NONE, null, null, AzureStorageUtils.getTalendOperationContext());
     }
@@ -143,4 +164,45 @@ public class AzureStorageBlobService {
         blob.upload(sourceStream, length, null, null, AzureStorageUtils.getTalendOperationContext());
     }
 
+    public CloudBlockBlob getBlockBlobReference(final String containerName, final String blobName)
+            throws URISyntaxException, StorageException, InvalidKeyException {
+        CloudBlobClient cloudBlobClient = connection.getCloudStorageAccount().createCloudBlobClient();
+        CloudBlobContainer cloudBlobContainer = cloudBlobClient.getContainerReference(containerName);
+        return cloudBlobContainer.getBlockBlobReference(blobName);
+    }
+
+    /**
+     * @return blocks which were uploaded to the blob but are not committed yet
+     */
+    public List<BlockEntry> listUncommittedBlocks(final CloudBlockBlob blob) throws StorageException {
+        try {
+            return blob.downloadBlockList(BlockListingFilter.UNCOMMITTED, null, null,
+                    AzureStorageUtils.getTalendOperationContext());
+        } catch (StorageException e) {
+            if (e.getHttpStatusCode() != HttpURLConnection.HTTP_NOT_FOUND) {
+                throw e;
+            }
+            return new ArrayList<>();
+        }
+    }
+
+    public void uploadBlock(final CloudBlockBlob blob, final String blockId, final InputStream sourceStream, final long length)
+            throws StorageException, IOException {
+        blob.uploadBlock(blockId, sourceStream, length, null, null, AzureStorageUtils.getTalendOperationContext());
+    }
+
+    public void commitBlockList(final CloudBlockBlob blob, final List<BlockEntry> blocks) throws StorageException {
+        blob.commitBlockList(blocks, null, null, AzureStorageUtils.getTalendOperationContext());
+    }
+
+    /**
+     * Download a range of the blob.
+     *
+     * @return number of bytes read into the buffer
+     */
+    public int downloadRange(final CloudBlob blob, final long offset, final byte[] buffer) throws StorageException {
+        return blob.downloadRangeToByteArray(offset, (long) buffer.length, buffer, 0, null, null,
+                AzureStorageUtils.getTalendOperationContext());
+    }
+
 }
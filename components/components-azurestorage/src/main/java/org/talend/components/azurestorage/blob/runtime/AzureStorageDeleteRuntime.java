@@ -14,8 +14,17 @@ package org.talend.components.azurestorage.blob.runtime;
 
 import java.net.URISyntaxException;
 import java.security.InvalidKeyException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,6 +32,7 @@ import org.talend.components.api.component.runtime.ComponentDriverInitialization
 import org.talend.components.api.container.RuntimeContainer;
 import org.talend.components.api.exception.ComponentException;
 import org.talend.components.api.properties.ComponentProperties;
+import org.talend.components.azurestorage.blob.AzureStorageBlobDefinition;
 import org.talend.components.azurestorage.blob.AzureStorageBlobService;
 import org.talend.components.azurestorage.blob.AzureStorageContainerDefinition;
 import org.talend.components.azurestorage.blob.helpers.RemoteBlob;
@@ -34,6 +44,7 @@ import org.talend.daikon.i18n.I18nMessages;
 import org.talend.daikon.properties.ValidationResult;
 
 import com.microsoft.azure.storage.StorageException;
+import com.microsoft.azure.storage.blob.CloudBlob;
 import com.microsoft.azure.storage.blob.CloudBlockBlob;
 import com.microsoft.azure.storage.blob.ListBlobItem;
 
@@ -42,6 +53,11 @@ public class AzureStorageDeleteRuntime extends AzureStorageContainerRuntime
 
     private static final long serialVersionUID = -1061435894570205595L;
 
+    /** Number of deletes submitted ahead of the one being processed, per delete thread. */
+    private static final int MAX_PENDING_DELETES_PER_THREAD = 4;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
     private static final Logger LOGGER = LoggerFactory.getLogger(AzureStorageDeleteRuntime.class);
 
     private static final I18nMessages messages = GlobalI18N.getI18nMessageProvider()
@@ -51,6 +67,18 @@ public class AzureStorageDeleteRuntime extends AzureStorageContainerRuntime
 
     public AzureStorageBlobService azureStorageBlobService;
 
+    private int deleteConcurrency;
+
+    private int listConcurrency;
+
+    private transient ExecutorService deleteExecutor;
+
+    private transient Deque<PendingDelete> pendingDeletes;
+
+    private int deletedBlobs;
+
+    private long startTime;
+
     @Override
     public ValidationResult initialize(RuntimeContainer runtimeContainer, ComponentProperties properties) {
         ValidationResult validationResult = super.initialize(runtimeContainer, properties);
@@ -61,6 +89,10 @@ public class AzureStorageDeleteRuntime extends AzureStorageContainerRuntime
         TAzureStorageDeleteProperties componentProperties = (TAzureStorageDeleteProperties) properties;
         remoteBlobsTable = componentProperties.remoteBlobs;
         this.dieOnError = componentProperties.dieOnError.getValue();
+        Integer concurrency = componentProperties.deleteConcurrency.getValue();
+        this.deleteConcurrency = concurrency != null ? concurrency : 1;
+        concurrency = componentProperties.listConcurrency.getValue();
+        this.listConcurrency = concurrency != null ? concurrency : 1;
         this.azureStorageBlobService = new AzureStorageBlobService(getAzureConnection(runtimeContainer));
 
         return componentProperties.remoteBlobs.getValidationResult();
@@ -73,27 +105,106 @@ public class AzureStorageDeleteRuntime extends AzureStorageContainerRuntime
     }
 
     public void deleteIfExist(RuntimeContainer runtimeContainer) {
-
+        startTime = System.currentTimeMillis();
+        pendingDeletes = new ArrayDeque<>();
+        if (deleteConcurrency > 1) {
+            deleteExecutor = Executors.newFixedThreadPool(deleteConcurrency, new DeleteThreadFactory());
+        }
         try {
-            for (RemoteBlob rmtb : createRemoteBlobFilter()) {
-                for (ListBlobItem blob : azureStorageBlobService.listBlobs(containerName, rmtb.prefix, rmtb.include)) {
-                    if (blob instanceof CloudBlockBlob) {
-                        // FIXME - problem with blobs with space in name...
-                        boolean successfulyDeleted = azureStorageBlobService.deleteBlobBlockIfExist((CloudBlockBlob) blob);
-                        if (!successfulyDeleted) {
-                            LOGGER.warn(messages.getMessage("warn.FaildDelete", ((CloudBlockBlob) blob).getName()));
-                        }
+            if (listConcurrency > 1) {
+                try (BlobLister lister = new BlobLister(azureStorageBlobService, containerName, createRemoteBlobFilter(),
+                        listConcurrency)) {
+                    CloudBlob blob;
+                    while ((blob = lister.nextBlob()) != null) {
+                        delete(blob);
+                    }
+                }
+            } else {
+                for (RemoteBlob rmtb : createRemoteBlobFilter()) {
+                    for (ListBlobItem blob : azureStorageBlobService.listBlobs(containerName, rmtb.prefix, rmtb.include)) {
+                        delete(blob);
                     }
                 }
             }
+            while (!pendingDeletes.isEmpty()) {
+                completeDelete(pendingDeletes.poll());
+            }
         } catch (StorageException | URISyntaxException | InvalidKeyException e) {
             LOGGER.error(e.getLocalizedMessage());
             if (dieOnError) {
                 throw new ComponentException(e);
             }
+        } finally {
+            if (deleteExecutor != null) {
+                deleteExecutor.shutdownNow();
+                deleteExecutor = null;
+            }
+            pendingDeletes.clear();
+        }
+    }
+
+    /**
+     * Delete a listed block blob. Up to deleteConcurrency deletes run at the same time, their outcome is processed on
+     * the calling thread in listing order.
+     */
+    private void delete(ListBlobItem blob) throws StorageException {
+        if (!(blob instanceof CloudBlockBlob)) {
+            return;
+        }
+        // FIXME - problem with blobs with space in name...
+        final CloudBlockBlob blockBlob = (CloudBlockBlob) blob;
+        if (deleteExecutor == null) {
+            completeDelete(blockBlob.getName(), azureStorageBlobService.deleteBlobBlockIfExist(blockBlob));
+            return;
+        }
+
+        while (pendingDeletes.size() >= deleteConcurrency * MAX_PENDING_DELETES_PER_THREAD
+                || (!pendingDeletes.isEmpty() && pendingDeletes.peek().future.isDone())) {
+            completeDelete(pendingDeletes.poll());
+        }
+        pendingDeletes.add(new PendingDelete(blockBlob.getName(), deleteExecutor.submit(new Callable<Boolean>() {
+
+            @Override
+            public Boolean call() throws StorageException {
+                return azureStorageBlobService.deleteBlobBlockIfExist(blockBlob);
+            }
+        })));
+    }
+
+    private void completeDelete(PendingDelete pendingDelete) throws StorageException {
+        try {
+            completeDelete(pendingDelete.name, pendingDelete.future.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ComponentException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof StorageException) {
+                throw (StorageException) e.getCause();
+            }
+            throw new ComponentException(e.getCause());
+        }
+    }
+
+    private void completeDelete(String blobName, boolean successfulyDeleted) {
+        if (successfulyDeleted) {
+            deletedBlobs++;
+        } else {
+            LOGGER.warn(messages.getMessage("warn.FaildDelete", blobName));
         }
     }
 
+    int getDeletedBlobs() {
+        return deletedBlobs;
+    }
+
+    /**
+     * @return blobs deleted per second since the deletion started
+     */
+    double getDeleteThroughput() {
+        long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+        return deletedBlobs * 1000.0 / elapsed;
+    }
+
     /**
      * Create remote blob table used in filtering remote blob
      */
@@ -121,6 +232,33 @@ public class AzureStorageDeleteRuntime extends AzureStorageContainerRuntime
         String containerKey = AzureStorageUtils.getStudioNameFromProperty(AzureStorageContainerDefinition.RETURN_CONTAINER);
 
         runtimeContainer.setComponentData(componentId, containerKey, this.containerName);
+        runtimeContainer.setComponentData(componentId,
+                AzureStorageUtils.getStudioNameFromProperty(AzureStorageBlobDefinition.RETURN_DELETED_BLOBS), deletedBlobs);
+        runtimeContainer.setComponentData(componentId,
+                AzureStorageUtils.getStudioNameFromProperty(AzureStorageBlobDefinition.RETURN_DELETE_THROUGHPUT),
+                getDeleteThroughput());
+    }
+
+    private static class PendingDelete {
+
+        private final String name;
+
+        private final Future<Boolean> future;
+
+        PendingDelete(String name, Future<Boolean> future) {
+            this.name = name;
+            this.future = future;
+        }
+    }
+
+    private static class DeleteThreadFactory implements ThreadFactory {
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "azure-blob-delete-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
     }
 
 }
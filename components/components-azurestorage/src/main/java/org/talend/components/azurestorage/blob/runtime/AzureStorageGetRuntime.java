@@ -13,8 +13,6 @@
 package org.talend.components.azurestorage.blob.runtime;
 
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.net.URISyntaxException;
 import java.security.InvalidKeyException;
 import java.util.ArrayList;
@@ -57,6 +55,10 @@ public class AzureStorageGetRuntime extends AzureStorageContainerRuntime
 
     private RemoteBlobsGetTable remoteBlobsGet;
 
+    private int fileConcurrency;
+
+    private int blockConcurrency;
+
     /** keep this attribute public for test purpose */
     public AzureStorageBlobService azureStorageBlobService;
 
@@ -71,6 +73,10 @@ public class AzureStorageGetRuntime extends AzureStorageContainerRuntime
         localFolder = componentProperties.localFolder.getValue();
         keepRemoteDirStructure = componentProperties.keepRemoteDirStructure.getValue();
         remoteBlobsGet = componentProperties.remoteBlobsGet;
+        Integer concurrency = componentProperties.fileConcurrency.getValue();
+        fileConcurrency = concurrency != null ? concurrency : 1;
+        concurrency = componentProperties.blockConcurrency.getValue();
+        blockConcurrency = concurrency != null ? concurrency : 1;
         this.dieOnError = componentProperties.dieOnError.getValue();
         azureStorageBlobService = new AzureStorageBlobService(getAzureConnection(runtimeContainer));
 
@@ -95,19 +101,17 @@ public class AzureStorageGetRuntime extends AzureStorageContainerRuntime
     }
 
     private void download(RuntimeContainer runtimeContainer) {
-        FileOutputStream fos = null;
-
-        try {
+        BlobTransferReporter reporter = new BlobTransferReporter(runtimeContainer, dieOnError);
+        try (BlobTransferManager transferManager = new BlobTransferManager(azureStorageBlobService, fileConcurrency,
+                blockConcurrency, reporter)) {
             List<RemoteBlobGet> remoteBlobs = createRemoteBlobsGet();
             for (RemoteBlobGet rmtb : remoteBlobs) {
                 for (ListBlobItem blob : azureStorageBlobService.listBlobs(containerName, rmtb.prefix, rmtb.include)) {
                     if (blob instanceof CloudBlob) {
+                        File pathToWrite;
                         // TODO - Action when create is false and include is true ???
                         if (keepRemoteDirStructure) {
-                            if (rmtb.create) {
-                                new File(localFolder + "/" + ((CloudBlob) blob).getName()).getParentFile().mkdirs();
-                            }
-                            fos = new FileOutputStream(localFolder + "/" + ((CloudBlob) blob).getName());
+                            pathToWrite = new File(localFolder + "/" + ((CloudBlob) blob).getName());
                         } else {
                             String blobFullName = ((CloudBlob) blob).getName();
                             String resultFileName = blobFullName;
@@ -116,30 +120,23 @@ public class AzureStorageGetRuntime extends AzureStorageContainerRuntime
                                 resultFileName = blobFullName.substring(prefixDir.length());
                             }
 
-                            File pathToWrite = new File(localFolder + "/" + resultFileName);
-                            if (rmtb.create) {
-                                pathToWrite.getParentFile().mkdirs();
-                            }
-
-                            fos = new FileOutputStream(pathToWrite);
+                            pathToWrite = new File(localFolder + "/" + resultFileName);
+                        }
+                        if (rmtb.create) {
+                            pathToWrite.getParentFile().mkdirs();
                         }
-                        azureStorageBlobService.download((CloudBlob) blob, fos);
+                        transferManager.download((CloudBlob) blob, pathToWrite);
                     }
                 }
             }
-        } catch (StorageException | URISyntaxException | FileNotFoundException | InvalidKeyException e) {
+            transferManager.awaitCompletion();
+        } catch (StorageException | URISyntaxException | InvalidKeyException e) {
             LOGGER.error(e.getLocalizedMessage());
             if (dieOnError) {
                 throw new ComponentException(e);
             }
-        } finally {
-            try {
-                fos.close();
-            } catch (Exception e) {
-                // ignore
-            }
         }
-
+        reporter.setReturnValues();
     }
 
     public List<RemoteBlobGet> createRemoteBlobsGet() {
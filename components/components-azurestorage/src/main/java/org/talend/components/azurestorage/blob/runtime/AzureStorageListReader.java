@@ -49,6 +49,11 @@ public class AzureStorageListReader extends AzureStorageReader<IndexedRecord> {
 
     private CloudBlob currentBlob;
 
+    private BlobLister blobLister;
+
+    /** Blob returned after the current one when blobs are listed in parallel. */
+    private CloudBlob nextBlob;
+
     private IndexedRecord currentRecord;
 
     private boolean startable;
@@ -74,17 +79,24 @@ public class AzureStorageListReader extends AzureStorageReader<IndexedRecord> {
         // build a list with remote blobs to fetch
         List<RemoteBlob> remoteBlobs = ((AzureStorageSource) getCurrentSource()).getRemoteBlobs();
         try {
-
-            for (RemoteBlob rmtb : remoteBlobs) {
-                for (ListBlobItem blob : azureStorageBlobService.listBlobs(mycontainer, rmtb.prefix, rmtb.include)) {
-                    if (blob instanceof CloudBlob) {
-                        blobs.add((CloudBlob) blob);
+            Integer listConcurrency = properties.listConcurrency.getValue();
+            if (listConcurrency != null && listConcurrency > 1) {
+                // Blobs are returned while the listing goes on
+                blobLister = new BlobLister(azureStorageBlobService, mycontainer, remoteBlobs, listConcurrency);
+                nextBlob = blobLister.nextBlob();
+                startable = nextBlob != null;
+            } else {
+                for (RemoteBlob rmtb : remoteBlobs) {
+                    for (ListBlobItem blob : azureStorageBlobService.listBlobs(mycontainer, rmtb.prefix, rmtb.include)) {
+                        if (blob instanceof CloudBlob) {
+                            blobs.add((CloudBlob) blob);
+                        }
                     }
                 }
-            }
 
-            startable = !blobs.isEmpty();
-            blobsIterator = blobs.iterator();
+                startable = !blobs.isEmpty();
+                blobsIterator = blobs.iterator();
+            }
         } catch (StorageException | URISyntaxException | InvalidKeyException e) {
             LOGGER.error(e.getLocalizedMessage());
             if (properties.dieOnError.getValue()) {
@@ -94,7 +106,7 @@ public class AzureStorageListReader extends AzureStorageReader<IndexedRecord> {
 
         if (startable) {
             dataCount++;
-            currentBlob = blobsIterator.next();
+            currentBlob = nextBlob();
             IndexedRecord dataRecord = new GenericData.Record(properties.schema.schema.getValue());
             dataRecord.put(0, currentBlob.getName());
             Schema rootSchema = RootSchemaUtils.createRootSchema(properties.schema.schema.getValue(), properties.outOfBandSchema);
@@ -107,10 +119,11 @@ public class AzureStorageListReader extends AzureStorageReader<IndexedRecord> {
 
     @Override
     public boolean advance() throws IOException {
-        advanceable = blobsIterator.hasNext();
+        CloudBlob blob = nextBlob();
+        advanceable = blob != null;
         if (advanceable) {
             dataCount++;
-            currentBlob = blobsIterator.next();
+            currentBlob = blob;
             IndexedRecord dataRecord = new GenericData.Record(properties.schema.schema.getValue());
             dataRecord.put(0, currentBlob.getName());
             currentRecord.put(0, dataRecord);
@@ -120,6 +133,36 @@ public class AzureStorageListReader extends AzureStorageReader<IndexedRecord> {
         return advanceable;
     }
 
+    /**
+     * @return next listed blob, null when all blobs are read
+     */
+    private CloudBlob nextBlob() {
+        if (blobLister == null) {
+            return blobsIterator.hasNext() ? blobsIterator.next() : null;
+        }
+        CloudBlob blob = nextBlob;
+        if (blob != null) {
+            try {
+                nextBlob = blobLister.nextBlob();
+            } catch (StorageException | URISyntaxException | InvalidKeyException e) {
+                LOGGER.error(e.getLocalizedMessage());
+                nextBlob = null;
+                if (properties.dieOnError.getValue()) {
+                    throw new ComponentException(e);
+                }
+            }
+        }
+        return blob;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (blobLister != null) {
+            blobLister.close();
+        }
+        super.close();
+    }
+
     @Override
     public IndexedRecord getCurrent() {
         if (!startable || (advanceable != null && !advanceable)) {
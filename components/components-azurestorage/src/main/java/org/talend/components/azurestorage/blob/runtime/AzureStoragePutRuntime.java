@@ -13,10 +13,6 @@
 package org.talend.components.azurestorage.blob.runtime;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.net.URISyntaxException;
-import java.security.InvalidKeyException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -38,8 +34,6 @@ import org.talend.daikon.i18n.GlobalI18N;
 import org.talend.daikon.i18n.I18nMessages;
 import org.talend.daikon.properties.ValidationResult;
 
-import com.microsoft.azure.storage.StorageException;
-
 /**
  * Upload a set of files form a local folder to Azure blob storage
  */
@@ -63,6 +57,10 @@ public class AzureStoragePutRuntime extends AzureStorageContainerRuntime
 
     private Boolean allowEscapePlusSymbol;
 
+    private int fileConcurrency;
+
+    private int blockConcurrency;
+
     public AzureStorageBlobService azureStorageBlobService;
 
     @Override
@@ -78,6 +76,10 @@ public class AzureStoragePutRuntime extends AzureStorageContainerRuntime
         useFileList = componentProperties.useFileList.getValue();
         allowEscapePlusSymbol = componentProperties.allowEscapePlusSymbol.getValue();
         files = componentProperties.files;
+        Integer concurrency = componentProperties.fileConcurrency.getValue();
+        fileConcurrency = concurrency != null ? concurrency : 1;
+        concurrency = componentProperties.blockConcurrency.getValue();
+        blockConcurrency = concurrency != null ? concurrency : 1;
         this.dieOnError = componentProperties.dieOnError.getValue();
         this.azureStorageBlobService = new AzureStorageBlobService(getAzureConnection(runtimeContainer));
 
@@ -124,20 +126,16 @@ public class AzureStoragePutRuntime extends AzureStorageContainerRuntime
         } else {
             fileMap = utils.genAzureObjectList(new File(localFolder), remoteFolder);
         }
-        for (Map.Entry<String, String> entry : fileMap.entrySet()) {
-            File source = new File(entry.getKey());
-            try (FileInputStream stream = new FileInputStream(source)) { // see try-with-resources concept
-
+        BlobTransferReporter reporter = new BlobTransferReporter(runtimeContainer, dieOnError);
+        try (BlobTransferManager transferManager = new BlobTransferManager(azureStorageBlobService, fileConcurrency,
+                blockConcurrency, reporter)) {
+            for (Map.Entry<String, String> entry : fileMap.entrySet()) {
                 // TODO Any Action ??? if remoteFolder doesn't exist it will fail...
-                azureStorageBlobService.upload(containerName, entry.getValue(), stream, source.length());
-
-            } catch (StorageException | URISyntaxException | IOException | InvalidKeyException e) {
-                LOGGER.error(e.getLocalizedMessage());
-                if (dieOnError) {
-                    throw new ComponentException(e);
-                }
+                transferManager.upload(containerName, new File(entry.getKey()), entry.getValue());
             }
+            transferManager.awaitCompletion();
         }
+        reporter.setReturnValues();
     }
 
     public void setReturnValues(RuntimeContainer runtimeContainer) {
@@ -0,0 +1,184 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.azurestorage.blob.runtime;
+
+import java.net.URISyntaxException;
+import java.security.InvalidKeyException;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.talend.components.api.exception.ComponentException;
+import org.talend.components.azurestorage.blob.AzureStorageBlobService;
+import org.talend.components.azurestorage.blob.helpers.RemoteBlob;
+
+import com.microsoft.azure.storage.ResultContinuation;
+import com.microsoft.azure.storage.ResultSegment;
+import com.microsoft.azure.storage.StorageException;
+import com.microsoft.azure.storage.blob.CloudBlob;
+import com.microsoft.azure.storage.blob.CloudBlobDirectory;
+import com.microsoft.azure.storage.blob.ListBlobItem;
+
+/**
+ * Lists blobs of a container with concurrent segmented listings.
+ *
+ * <p>A prefix which includes sub-directories is listed hierarchically: its blobs are returned and each virtual
+ * directory found is listed by its own task, down to {@link #FAN_OUT_DEPTH} levels below the prefix. Deeper
+ * directories are listed flat. A prefix which does not include sub-directories is listed by a single task.
+ *
+ * <p>Listed blobs are returned through a bounded buffer, in no particular order, from the thread which calls
+ * {@link #nextBlob()}.
+ */
+class BlobLister implements AutoCloseable {
+
+    /** Number of directory levels below a prefix which are listed by separate tasks. */
+    static final int FAN_OUT_DEPTH = 3;
+
+    /** Capacity of the buffer of listed blobs, a listing segment holds up to 5000 items. */
+    private static final int BUFFER_CAPACITY = 10000;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    /** Marks the end of the listing in the buffer. */
+    private static final Object END_OF_LISTING = new Object();
+
+    private final AzureStorageBlobService blobService;
+
+    private final String containerName;
+
+    private final BlockingQueue<Object> buffer = new LinkedBlockingQueue<>(BUFFER_CAPACITY);
+
+    /** Number of listing tasks which are submitted and not complete. */
+    private final AtomicInteger pendingListings = new AtomicInteger();
+
+    private final ExecutorService executor;
+
+    private boolean complete;
+
+    BlobLister(AzureStorageBlobService blobService, String containerName, List<RemoteBlob> remoteBlobs, int concurrency) {
+        this.blobService = blobService;
+        this.containerName = containerName;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, concurrency), new ListingThreadFactory());
+        if (remoteBlobs.isEmpty()) {
+            complete = true;
+            return;
+        }
+        // All roots are counted before the first listing can complete
+        pendingListings.set(remoteBlobs.size());
+        for (RemoteBlob remoteBlob : remoteBlobs) {
+            boolean include = remoteBlob.include != null && remoteBlob.include;
+            submit(remoteBlob.prefix, include ? 0 : -1);
+        }
+    }
+
+    /**
+     * Take the next listed blob, wait until one is available.
+     *
+     * @return next blob or null when all prefixes are listed
+     */
+    CloudBlob nextBlob() throws StorageException, URISyntaxException, InvalidKeyException {
+        if (complete) {
+            return null;
+        }
+        Object item;
+        try {
+            item = buffer.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ComponentException(e);
+        }
+        if (item instanceof CloudBlob) {
+            return (CloudBlob) item;
+        }
+        complete = true;
+        if (item instanceof StorageException) {
+            throw (StorageException) item;
+        } else if (item instanceof URISyntaxException) {
+            throw (URISyntaxException) item;
+        } else if (item instanceof InvalidKeyException) {
+            throw (InvalidKeyException) item;
+        } else if (item instanceof RuntimeException) {
+            throw (RuntimeException) item;
+        }
+        return null;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param depth directory level below the listed prefix, -1 to list the prefix without sub-directories
+     */
+    private void submit(final String prefix, final int depth) {
+        try {
+            executor.submit(new Runnable() {
+
+                @Override
+                public void run() {
+                    list(prefix, depth);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The lister is closed
+        }
+    }
+
+    private void list(String prefix, int depth) {
+        // Sub-directories deeper than the fan out depth are listed with their parent
+        boolean flat = depth >= FAN_OUT_DEPTH;
+        try {
+            ResultContinuation continuationToken = null;
+            do {
+                ResultSegment<ListBlobItem> segment = blobService.listBlobsSegmented(containerName, prefix, flat,
+                        continuationToken);
+                for (ListBlobItem item : segment.getResults()) {
+                    if (item instanceof CloudBlob) {
+                        buffer.put(item);
+                    } else if (item instanceof CloudBlobDirectory && depth >= 0) {
+                        pendingListings.incrementAndGet();
+                        submit(((CloudBlobDirectory) item).getPrefix(), depth + 1);
+                    }
+                }
+                continuationToken = segment.getContinuationToken();
+            } while (continuationToken != null);
+            if (pendingListings.decrementAndGet() == 0) {
+                buffer.put(END_OF_LISTING);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (StorageException | URISyntaxException | InvalidKeyException | RuntimeException e) {
+            try {
+                buffer.put(e);
+            } catch (InterruptedException e1) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static class ListingThreadFactory implements ThreadFactory {
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "azure-blob-list-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
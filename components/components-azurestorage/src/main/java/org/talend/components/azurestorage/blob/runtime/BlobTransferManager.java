@@ -0,0 +1,368 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.azurestorage.blob.runtime;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.talend.components.azurestorage.blob.AzureStorageBlobService;
+
+import com.microsoft.azure.storage.blob.BlockEntry;
+import com.microsoft.azure.storage.blob.CloudBlob;
+import com.microsoft.azure.storage.blob.CloudBlockBlob;
+
+/**
+ * Transfers files between the local file system and Azure blob storage.
+ *
+ * <p>Up to {@code fileConcurrency} files are transferred at the same time. Files larger than the block size are
+ * transferred block by block, with up to {@code blockConcurrency} block requests at the same time shared by all files.
+ *
+ * <p>Ids of uploaded blocks are derived from block index, file length and file modification time. An upload which
+ * failed half way is resumed by the next upload of the same file, which skips blocks found in the uncommitted block
+ * list of the blob. Ranged downloads are written to a temporary file which replaces the target file when complete.
+ *
+ * <p>Outcome of every transfer is reported to the {@link TransferListener} on the thread which submitted transfers,
+ * in submission order.
+ */
+public class BlobTransferManager implements AutoCloseable {
+
+    /** Default size of a block, files up to this size are transferred with a single request. */
+    public static final int DEFAULT_BLOCK_SIZE = 4 * 1024 * 1024;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private static final String PART_FILE_SUFFIX = ".part";
+
+    private final AzureStorageBlobService blobService;
+
+    private final int fileConcurrency;
+
+    private final int blockConcurrency;
+
+    private final TransferListener listener;
+
+    private int blockSize = DEFAULT_BLOCK_SIZE;
+
+    private ExecutorService fileExecutor;
+
+    private ExecutorService blockExecutor;
+
+    private final Deque<PendingTransfer> pendingTransfers = new ArrayDeque<>();
+
+    public BlobTransferManager(AzureStorageBlobService blobService, int fileConcurrency, int blockConcurrency,
+            TransferListener listener) {
+        this.blobService = blobService;
+        this.fileConcurrency = Math.max(1, fileConcurrency);
+        this.blockConcurrency = Math.max(1, blockConcurrency);
+        this.listener = listener;
+    }
+
+    public void setBlockSize(int blockSize) {
+        this.blockSize = blockSize;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Upload a local file to a block blob.
+     */
+    public void upload(final String containerName, final File source, final String blobName) {
+        submit(blobName, new Callable<Long>() {
+
+            @Override
+            public Long call() throws Exception {
+                return uploadFile(containerName, source, blobName);
+            }
+        });
+    }
+
+    /**
+     * Download a blob to a local file.
+     */
+    public void download(final CloudBlob blob, final File target) {
+        submit(blob.getName(), new Callable<Long>() {
+
+            @Override
+            public Long call() throws Exception {
+                return downloadFile(blob, target);
+            }
+        });
+    }
+
+    /**
+     * Wait until all submitted transfers are complete.
+     */
+    public void awaitCompletion() {
+        while (!pendingTransfers.isEmpty()) {
+            completeTransfer(pendingTransfers.poll());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (fileExecutor != null) {
+            fileExecutor.shutdownNow();
+        }
+        if (blockExecutor != null) {
+            blockExecutor.shutdownNow();
+        }
+    }
+
+    private void submit(String name, Callable<Long> transfer) {
+        if (fileConcurrency == 1) {
+            try {
+                listener.transferred(name, transfer.call());
+            } catch (Exception e) {
+                listener.failed(name, e);
+            }
+            return;
+        }
+
+        // Keep at most fileConcurrency transfers in flight, report completed transfers in submission order.
+        while (pendingTransfers.size() >= fileConcurrency
+                || (!pendingTransfers.isEmpty() && pendingTransfers.peek().future.isDone())) {
+            completeTransfer(pendingTransfers.poll());
+        }
+        if (fileExecutor == null) {
+            fileExecutor = Executors.newFixedThreadPool(fileConcurrency, new TransferThreadFactory());
+        }
+        pendingTransfers.add(new PendingTransfer(name, fileExecutor.submit(transfer)));
+    }
+
+    private void completeTransfer(PendingTransfer pendingTransfer) {
+        Long bytes;
+        try {
+            bytes = pendingTransfer.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            listener.failed(pendingTransfer.name, e);
+            return;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            try {
+                listener.failed(pendingTransfer.name, cause instanceof Exception ? (Exception) cause : e);
+            } catch (RuntimeException | Error failure) {
+                // The listener stops the transfers
+                close();
+                throw failure;
+            }
+            return;
+        }
+        listener.transferred(pendingTransfer.name, bytes);
+    }
+
+    private long uploadFile(String containerName, File source, String blobName) throws Exception {
+        long length = source.length();
+        if (blockConcurrency == 1 || length <= blockSize) {
+            try (FileInputStream stream = new FileInputStream(source)) {
+                blobService.upload(containerName, blobName, stream, length);
+            }
+            return length;
+        }
+
+        final CloudBlockBlob blob = blobService.getBlockBlobReference(containerName, blobName);
+        Map<String, Long> uncommittedBlocks = new HashMap<>();
+        for (BlockEntry entry : blobService.listUncommittedBlocks(blob)) {
+            uncommittedBlocks.put(entry.getId(), entry.getSize());
+        }
+
+        long lastModified = source.lastModified();
+        List<BlockEntry> blocks = new ArrayList<>();
+        List<Future<?>> uploads = new ArrayList<>();
+        try (final FileChannel channel = FileChannel.open(source.toPath(), StandardOpenOption.READ)) {
+            for (long offset = 0; offset < length; offset += blockSize) {
+                final long blockOffset = offset;
+                final int size = (int) Math.min(blockSize, length - offset);
+                final String blockId = blockId(blocks.size(), length, lastModified);
+                blocks.add(new BlockEntry(blockId));
+                Long uploadedSize = uncommittedBlocks.get(blockId);
+                if (uploadedSize != null && uploadedSize == size) {
+                    // Uploaded by a previous attempt
+                    continue;
+                }
+                uploads.add(getBlockExecutor().submit(new Callable<Void>() {
+
+                    @Override
+                    public Void call() throws Exception {
+                        byte[] buffer = new byte[size];
+                        read(channel, buffer, blockOffset);
+                        blobService.uploadBlock(blob, blockId, new ByteArrayInputStream(buffer), size);
+                        return null;
+                    }
+                }));
+            }
+            awaitBlocks(uploads);
+        }
+        blobService.commitBlockList(blob, blocks);
+        return length;
+    }
+
+    private long downloadFile(final CloudBlob blob, File target) throws Exception {
+        long length = blockConcurrency > 1 && blob.getProperties() != null ? blob.getProperties().getLength() : 0;
+        if (length <= blockSize) {
+            try (FileOutputStream stream = new FileOutputStream(target)) {
+                blobService.download(blob, stream);
+            }
+            return target.length();
+        }
+
+        File partFile = new File(target.getPath() + PART_FILE_SUFFIX);
+        List<Future<?>> downloads = new ArrayList<>();
+        boolean downloaded = false;
+        try (final FileChannel channel = FileChannel.open(partFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (long offset = 0; offset < length; offset += blockSize) {
+                final long rangeOffset = offset;
+                final int size = (int) Math.min(blockSize, length - offset);
+                downloads.add(getBlockExecutor().submit(new Callable<Void>() {
+
+                    @Override
+                    public Void call() throws Exception {
+                        byte[] buffer = new byte[size];
+                        int read = blobService.downloadRange(blob, rangeOffset, buffer);
+                        if (read != size) {
+                            throw new EOFException(blob.getName() + ": expected " + size + " bytes at offset "
+                                    + rangeOffset + ", received " + read);
+                        }
+                        write(channel, buffer, rangeOffset);
+                        return null;
+                    }
+                }));
+            }
+            awaitBlocks(downloads);
+            downloaded = true;
+        } finally {
+            if (!downloaded) {
+                // A failed or interrupted download does not leave a partial file behind
+                partFile.delete();
+            }
+        }
+        Files.move(partFile.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return length;
+    }
+
+    private synchronized ExecutorService getBlockExecutor() {
+        if (blockExecutor == null) {
+            blockExecutor = Executors.newFixedThreadPool(blockConcurrency, new TransferThreadFactory());
+        }
+        return blockExecutor;
+    }
+
+    /**
+     * Wait for block transfers of a file, cancel remaining transfers of the file when one fails.
+     */
+    private static void awaitBlocks(List<Future<?>> transfers) throws Exception {
+        try {
+            for (Future<?> transfer : transfers) {
+                transfer.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        } finally {
+            for (Future<?> transfer : transfers) {
+                transfer.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Block ids of a blob must have the same length, the id also identifies the content of the file.
+     */
+    static String blockId(int index, long length, long lastModified) {
+        String id = String.format("%08d-%016x-%016x", index, length, lastModified);
+        return Base64.getEncoder().encodeToString(id.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void read(FileChannel channel, byte[] buffer, long position) throws IOException {
+        ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+        while (byteBuffer.hasRemaining()) {
+            if (channel.read(byteBuffer, position + byteBuffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    private static void write(FileChannel channel, byte[] buffer, long position) throws IOException {
+        ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+        while (byteBuffer.hasRemaining()) {
+            channel.write(byteBuffer, position + byteBuffer.position());
+        }
+    }
+
+    /**
+     * Receives outcome of transfers.
+     */
+    public interface TransferListener {
+
+        void transferred(String name, long bytes);
+
+        /**
+         * Handle failure of a transfer, throw an exception to stop all transfers.
+         */
+        void failed(String name, Exception e);
+    }
+
+    private static class PendingTransfer {
+
+        private final String name;
+
+        private final Future<Long> future;
+
+        PendingTransfer(String name, Future<Long> future) {
+            this.name = name;
+            this.future = future;
+        }
+    }
+
+    private static class TransferThreadFactory implements ThreadFactory {
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "azure-blob-transfer-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
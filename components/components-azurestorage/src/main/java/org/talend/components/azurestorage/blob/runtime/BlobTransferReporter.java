@@ -0,0 +1,96 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.azurestorage.blob.runtime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.components.api.container.RuntimeContainer;
+import org.talend.components.api.exception.ComponentException;
+import org.talend.components.azurestorage.blob.AzureStorageBlobDefinition;
+import org.talend.components.azurestorage.utils.AzureStorageUtils;
+import org.talend.daikon.i18n.GlobalI18N;
+import org.talend.daikon.i18n.I18nMessages;
+
+/**
+ * Reports progress of blob transfers to the runtime container: number of transferred files, transferred bytes and
+ * throughput are updated after every file.
+ */
+class BlobTransferReporter implements BlobTransferManager.TransferListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BlobTransferReporter.class);
+
+    private static final I18nMessages messages = GlobalI18N.getI18nMessageProvider()
+            .getI18nMessages(BlobTransferReporter.class);
+
+    private final RuntimeContainer runtimeContainer;
+
+    private final boolean dieOnError;
+
+    private final long startTime = System.currentTimeMillis();
+
+    private int transferredFiles;
+
+    private long transferredBytes;
+
+    BlobTransferReporter(RuntimeContainer runtimeContainer, boolean dieOnError) {
+        this.runtimeContainer = runtimeContainer;
+        this.dieOnError = dieOnError;
+    }
+
+    @Override
+    public void transferred(String name, long bytes) {
+        transferredFiles++;
+        transferredBytes += bytes;
+        LOGGER.debug(messages.getMessage("debug.BlobTransferred", name, bytes));
+        setReturnValues();
+    }
+
+    @Override
+    public void failed(String name, Exception e) {
+        LOGGER.error(e.getLocalizedMessage());
+        if (dieOnError) {
+            throw new ComponentException(e);
+        }
+    }
+
+    int getTransferredFiles() {
+        return transferredFiles;
+    }
+
+    long getTransferredBytes() {
+        return transferredBytes;
+    }
+
+    /**
+     * @return bytes transferred per second since the first transfer was submitted
+     */
+    double getThroughput() {
+        long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+        return transferredBytes * 1000.0 / elapsed;
+    }
+
+    void setReturnValues() {
+        if (runtimeContainer == null) {
+            return;
+        }
+        String componentId = runtimeContainer.getCurrentComponentId();
+        runtimeContainer.setComponentData(componentId,
+                AzureStorageUtils.getStudioNameFromProperty(AzureStorageBlobDefinition.RETURN_TRANSFERRED_FILES),
+                transferredFiles);
+        runtimeContainer.setComponentData(componentId,
+                AzureStorageUtils.getStudioNameFromProperty(AzureStorageBlobDefinition.RETURN_TRANSFERRED_BYTES),
+                transferredBytes);
+        runtimeContainer.setComponentData(componentId,
+                AzureStorageUtils.getStudioNameFromProperty(AzureStorageBlobDefinition.RETURN_THROUGHPUT), getThroughput());
+    }
+}
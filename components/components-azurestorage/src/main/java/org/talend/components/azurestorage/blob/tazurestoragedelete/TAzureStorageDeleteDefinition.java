@@ -34,7 +34,8 @@ public class TAzureStorageDeleteDefinition extends AzureStorageBlobDefinition {
     @SuppressWarnings("rawtypes")
     @Override
     public Property[] getReturnProperties() {
-        return new Property[] { RETURN_ERROR_MESSAGE_PROP, RETURN_CONTAINER_PROP };
+        return new Property[] { RETURN_ERROR_MESSAGE_PROP, RETURN_CONTAINER_PROP, RETURN_DELETED_BLOBS_PROP,
+                RETURN_DELETE_THROUGHPUT_PROP };
     }
 
     @Override
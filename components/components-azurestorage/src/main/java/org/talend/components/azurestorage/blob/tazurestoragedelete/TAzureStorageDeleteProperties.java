@@ -17,11 +17,19 @@ import static org.talend.daikon.properties.presentation.Widget.widget;
 import org.talend.components.azurestorage.blob.AzureStorageBlobProperties;
 import org.talend.daikon.properties.presentation.Form;
 import org.talend.daikon.properties.presentation.Widget;
+import org.talend.daikon.properties.property.Property;
+import org.talend.daikon.properties.property.PropertyFactory;
 
 public class TAzureStorageDeleteProperties extends AzureStorageBlobProperties {
 
     private static final long serialVersionUID = 7196168162793040603L;
 
+    /** Number of blobs deleted at the same time. */
+    public Property<Integer> deleteConcurrency = PropertyFactory.newInteger("deleteConcurrency"); //$NON-NLS-1$
+
+    /** Number of virtual directories listed at the same time. */
+    public Property<Integer> listConcurrency = PropertyFactory.newInteger("listConcurrency"); //$NON-NLS-1$
+
     public TAzureStorageDeleteProperties(String name) {
         super(name);
     }
@@ -33,5 +41,16 @@ public class TAzureStorageDeleteProperties extends AzureStorageBlobProperties {
         Form mainForm = getForm(Form.MAIN);
         mainForm.addRow(widget(remoteBlobs).setWidgetType(Widget.TABLE_WIDGET_TYPE));
         mainForm.addRow(dieOnError);
+
+        Form advancedForm = new Form(this, Form.ADVANCED);
+        advancedForm.addRow(deleteConcurrency);
+        advancedForm.addColumn(listConcurrency);
+    }
+
+    @Override
+    public void setupProperties() {
+        super.setupProperties();
+        deleteConcurrency.setValue(8);
+        listConcurrency.setValue(1);
     }
 }
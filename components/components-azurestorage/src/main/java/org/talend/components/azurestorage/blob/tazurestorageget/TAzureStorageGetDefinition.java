@@ -34,7 +34,8 @@ public class TAzureStorageGetDefinition extends AzureStorageBlobDefinition {
     @SuppressWarnings("rawtypes")
     @Override
     public Property[] getReturnProperties() {
-        return new Property[] { RETURN_ERROR_MESSAGE_PROP, RETURN_CONTAINER_PROP, RETURN_LOCAL_FOLDER_PROP };
+        return new Property[] { RETURN_ERROR_MESSAGE_PROP, RETURN_CONTAINER_PROP, RETURN_LOCAL_FOLDER_PROP,
+                RETURN_TRANSFERRED_FILES_PROP, RETURN_TRANSFERRED_BYTES_PROP, RETURN_THROUGHPUT_PROP };
     }
 
     @Override
@@ -33,6 +33,12 @@ public class TAzureStorageGetProperties extends AzureStorageBlobProperties imple
 
     public RemoteBlobsGetTable remoteBlobsGet = new RemoteBlobsGetTable("remoteBlobsGet"); //$NON-NLS-1$
 
+    /** Number of files transferred at the same time. */
+    public Property<Integer> fileConcurrency = PropertyFactory.newInteger("fileConcurrency"); //$NON-NLS-1$
+
+    /** Number of block requests executed at the same time for files larger than a block. */
+    public Property<Integer> blockConcurrency = PropertyFactory.newInteger("blockConcurrency"); //$NON-NLS-1$
+
     public TAzureStorageGetProperties(String name) {
         super(name);
     }
@@ -46,6 +52,10 @@ public class TAzureStorageGetProperties extends AzureStorageBlobProperties imple
         mainForm.addRow(keepRemoteDirStructure);
         mainForm.addRow(widget(remoteBlobsGet).setWidgetType(Widget.TABLE_WIDGET_TYPE));
         mainForm.addRow(dieOnError);
+
+        Form advancedForm = new Form(this, Form.ADVANCED);
+        advancedForm.addRow(fileConcurrency);
+        advancedForm.addColumn(blockConcurrency);
     }
 
     @Override
@@ -53,6 +63,8 @@ public class TAzureStorageGetProperties extends AzureStorageBlobProperties imple
         super.setupProperties();
         localFolder.setValue("");
         keepRemoteDirStructure.setValue(false);
+        fileConcurrency.setValue(1);
+        blockConcurrency.setValue(1);
     }
 
     @Override
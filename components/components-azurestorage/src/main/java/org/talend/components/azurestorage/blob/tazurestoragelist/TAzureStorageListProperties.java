@@ -27,6 +27,8 @@ import org.talend.daikon.avro.AvroUtils;
 import org.talend.daikon.avro.SchemaConstants;
 import org.talend.daikon.properties.presentation.Form;
 import org.talend.daikon.properties.presentation.Widget;
+import org.talend.daikon.properties.property.Property;
+import org.talend.daikon.properties.property.PropertyFactory;
 
 public class TAzureStorageListProperties extends AzureStorageBlobProperties {
 
@@ -45,6 +47,9 @@ public class TAzureStorageListProperties extends AzureStorageBlobProperties {
         outOfBandSchema.setFields(Collections.singletonList(currentBlobField));
     }
 
+    /** Number of virtual directories listed at the same time. */
+    public Property<Integer> listConcurrency = PropertyFactory.newInteger("listConcurrency"); //$NON-NLS-1$
+
     public TAzureStorageListProperties(String name) {
         super(name);
     }
@@ -57,6 +62,9 @@ public class TAzureStorageListProperties extends AzureStorageBlobProperties {
         mainForm.addRow(widget(remoteBlobs).setWidgetType(Widget.TABLE_WIDGET_TYPE));
         mainForm.addRow(schema.getForm(Form.REFERENCE));
         mainForm.addRow(dieOnError);
+
+        Form advancedForm = new Form(this, Form.ADVANCED);
+        advancedForm.addRow(listConcurrency);
     }
 
     @Override
@@ -67,6 +75,7 @@ public class TAzureStorageListProperties extends AzureStorageBlobProperties {
                 .prop(SchemaConstants.TALEND_IS_LOCKED, "true")//$NON-NLS-1$
                 .type(AvroUtils._string()).noDefault().endRecord();
         schema.schema.setValue(s);
+        listConcurrency.setValue(1);
     }
     
     @Override
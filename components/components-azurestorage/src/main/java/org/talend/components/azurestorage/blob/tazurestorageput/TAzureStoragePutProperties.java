@@ -35,6 +35,12 @@ public class TAzureStoragePutProperties extends AzureStorageBlobProperties {
 
     public Property<Boolean> allowEscapePlusSymbol = PropertyFactory.newBoolean("allowEscapePlusSymbol"); //$NON-NLS-1$
 
+    /** Number of files transferred at the same time. */
+    public Property<Integer> fileConcurrency = PropertyFactory.newInteger("fileConcurrency"); //$NON-NLS-1$
+
+    /** Number of block requests executed at the same time for files larger than a block. */
+    public Property<Integer> blockConcurrency = PropertyFactory.newInteger("blockConcurrency"); //$NON-NLS-1$
+
     public TAzureStoragePutProperties(String name) {
         super(name);
     }
@@ -48,6 +54,8 @@ public class TAzureStoragePutProperties extends AzureStorageBlobProperties {
         useFileList.setValue(false);
 
         allowEscapePlusSymbol.setValue(false);
+        fileConcurrency.setValue(1);
+        blockConcurrency.setValue(1);
     }
 
     @Override
@@ -63,6 +71,8 @@ public class TAzureStoragePutProperties extends AzureStorageBlobProperties {
 
         Form advancedForm = new Form(this, Form.ADVANCED);
         advancedForm.addRow(allowEscapePlusSymbol);
+        advancedForm.addRow(fileConcurrency);
+        advancedForm.addColumn(blockConcurrency);
     }
 
     @Override
@@ -17,6 +17,7 @@ import com.microsoft.azure.storage.StorageException;
 import com.microsoft.azure.storage.queue.CloudQueue;
 import com.microsoft.azure.storage.queue.CloudQueueClient;
 import com.microsoft.azure.storage.queue.CloudQueueMessage;
+import com.microsoft.azure.storage.queue.MessageUpdateFields;
 import com.microsoft.azure.storage.queue.QueueListingDetails;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +28,7 @@ import org.talend.daikon.i18n.I18nMessages;
 
 import java.net.URISyntaxException;
 import java.security.InvalidKeyException;
+import java.util.EnumSet;
 
 /**
  * This class encapsulate and provide azure storage blob services
@@ -113,6 +115,19 @@ public class AzureStorageQueueService {
         queueRef.deleteMessage(message, null, AzureStorageUtils.getTalendOperationContext());
     }
 
+    /**
+     * Make the message invisible for the given time from now on. Pop receipt and next visible time of the message are
+     * updated.
+     */
+    public void updateMessageVisibility(String queueName, CloudQueueMessage message, int visibilityTimeoutInSeconds)
+            throws InvalidKeyException, URISyntaxException, StorageException {
+
+        CloudQueueClient client = connection.getCloudStorageAccount().createCloudQueueClient();
+        CloudQueue queueRef = client.getQueueReference(queueName);
+        queueRef.updateMessage(message, visibilityTimeoutInSeconds, EnumSet.of(MessageUpdateFields.VISIBILITY), null,
+                AzureStorageUtils.getTalendOperationContext());
+    }
+
     public Iterable<CloudQueue> listQueues() throws InvalidKeyException, URISyntaxException {
 
         CloudQueueClient client = connection.getCloudStorageAccount().createCloudQueueClient();
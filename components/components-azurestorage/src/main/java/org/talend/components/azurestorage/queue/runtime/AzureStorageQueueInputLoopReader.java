@@ -15,8 +15,21 @@ package org.talend.components.azurestorage.queue.runtime;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.security.InvalidKeyException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.avro.generic.IndexedRecord;
 import org.slf4j.Logger;
@@ -28,9 +41,38 @@ import org.talend.daikon.i18n.GlobalI18N;
 import org.talend.daikon.i18n.I18nMessages;
 
 import com.microsoft.azure.storage.StorageException;
+import com.microsoft.azure.storage.queue.CloudQueueMessage;
 
+/**
+ * Reads messages from a queue endlessly.
+ *
+ * <p>Messages are retrieved in batches by a background prefetcher into a buffer of one batch. The prefetcher polls
+ * again immediately while the queue returns messages; after an empty poll it waits, starting with
+ * {@link #MIN_BACKOFF_MILLIS} and doubling the wait after every empty poll up to the loop wait time.
+ *
+ * <p>A message is acknowledged when the next one is requested and deleted afterwards by a pool of delete threads, in
+ * batches of up to {@link #DELETE_BATCH_SIZE} messages. Messages which waited in the buffer until they are about to
+ * become visible again get their visibility timeout extended before they are emitted.
+ */
 public class AzureStorageQueueInputLoopReader extends AzureStorageQueueInputReader {
 
+    /** First wait after an empty poll. */
+    static final long MIN_BACKOFF_MILLIS = 100;
+
+    /** Maximum number of acknowledged messages deleted by a single delete task. */
+    static final int DELETE_BATCH_SIZE = 32;
+
+    /** Maximum number of delete tasks running at the same time. */
+    static final int DELETE_CONCURRENCY = 4;
+
+    /** Visibility timeout set by {@code AzureStorageQueueService.retrieveMessages(String, int)}. */
+    private static final int VISIBILITY_TIMEOUT = 30;
+
+    /** Messages which become visible again within this time get their visibility timeout extended. */
+    private static final long VISIBILITY_MARGIN_MILLIS = 5000;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
     private int loopWaitTime;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AzureStorageQueueInputLoopReader.class);
@@ -38,6 +80,20 @@ public class AzureStorageQueueInputLoopReader extends AzureStorageQueueInputRead
     private static final I18nMessages i18nMessages = GlobalI18N.getI18nMessageProvider()
             .getI18nMessages(AzureStorageQueueInputLoopReader.class);
 
+    private BlockingQueue<CloudQueueMessage> prefetchedMessages;
+
+    private ExecutorService prefetchExecutor;
+
+    private ExecutorService deleteExecutor;
+
+    private volatile boolean running;
+
+    private List<CloudQueueMessage> acknowledgedMessages = new ArrayList<>();
+
+    private final Deque<Future<?>> pendingDeletes = new ArrayDeque<>();
+
+    private int visibilityExtensions;
+
     public AzureStorageQueueInputLoopReader(RuntimeContainer container, BoundedSource source,
             TAzureStorageQueueInputLoopProperties properties) {
 
@@ -48,33 +104,25 @@ public class AzureStorageQueueInputLoopReader extends AzureStorageQueueInputRead
 
     @Override
     public boolean start() throws IOException {
-        // acquire queue and first messages
-        startable = retrieveMessages(false); // no sleep
-        while (!startable) {
-            startable = retrieveMessages(true); // sleep and retry
-        }
+        running = true;
+        prefetchedMessages = new LinkedBlockingQueue<>(nbMsg);
+        prefetchExecutor = Executors.newSingleThreadExecutor(new LoopThreadFactory());
+        prefetchExecutor.submit(new Runnable() {
+
+            @Override
+            public void run() {
+                prefetchMessages();
+            }
+        });
 
+        startable = nextMessage();
         return startable;
     }
 
     @Override
     public boolean advance() throws IOException {
-        advanceable = messages.hasNext();
-        if (messages.hasNext()) {
-            current = messages.next();
-            dataCount++;
-            try {
-                queueService.deleteMessage(queueName, current);
-            } catch (InvalidKeyException | URISyntaxException | StorageException e) {
-                LOGGER.error(e.getLocalizedMessage());
-            }
-            return true;
-        }
-
-        while (!advanceable) {
-            advanceable = retrieveMessages(true);
-        }
-
+        acknowledge(current);
+        advanceable = nextMessage();
         return advanceable;
     }
 
@@ -88,27 +136,163 @@ public class AzureStorageQueueInputLoopReader extends AzureStorageQueueInputRead
         return super.getReturnValues();
     }
 
-    private boolean retrieveMessages(boolean sleepFirst) {
+    @Override
+    public void close() throws IOException {
+        running = false;
+        if (prefetchExecutor != null) {
+            prefetchExecutor.shutdownNow();
+        }
+        if (current != null && startable && (advanceable == null || advanceable)) {
+            acknowledgedMessages.add(current);
+            // Acknowledged once, closing again has no effect
+            current = null;
+        }
+        flushDeletes();
+        while (!pendingDeletes.isEmpty()) {
+            awaitDelete(pendingDeletes.poll());
+        }
+        if (deleteExecutor != null) {
+            deleteExecutor.shutdown();
+        }
+    }
+
+    /**
+     * @return number of messages which got their visibility timeout extended
+     */
+    int getVisibilityExtensions() {
+        return visibilityExtensions;
+    }
 
+    /**
+     * Take the next message from the prefetch buffer, wait until a message is available.
+     */
+    private boolean nextMessage() {
         try {
+            while (true) {
+                CloudQueueMessage message = prefetchedMessages.take();
+                if (extendVisibility(message)) {
+                    current = message;
+                    dataCount++;
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
 
-            if (sleepFirst) {
-                Thread.sleep((long) loopWaitTime * 1000);
+    /**
+     * Extend visibility timeout of the message if it becomes visible again soon.
+     *
+     * @return false if the message cannot be kept invisible, it is delivered again later
+     */
+    private boolean extendVisibility(CloudQueueMessage message) {
+        Date nextVisibleTime = message.getNextVisibleTime();
+        if (nextVisibleTime == null || nextVisibleTime.getTime() - System.currentTimeMillis() > VISIBILITY_MARGIN_MILLIS) {
+            return true;
+        }
+        try {
+            queueService.updateMessageVisibility(queueName, message, VISIBILITY_TIMEOUT);
+            visibilityExtensions++;
+            LOGGER.debug(i18nMessages.getMessage("debug.VisibilityExtended", message.getId(), visibilityExtensions));
+            return true;
+        } catch (InvalidKeyException | URISyntaxException | StorageException e) {
+            LOGGER.warn(i18nMessages.getMessage("warn.VisibilityNotExtended", message.getId(), e.getLocalizedMessage()));
+            return false;
+        }
+    }
+
+    private void prefetchMessages() {
+        long backoff = 0;
+        while (running) {
+            try {
+                if (backoff > 0) {
+                    Thread.sleep(backoff);
+                }
+                int received = 0;
+                for (CloudQueueMessage message : queueService.retrieveMessages(queueName, nbMsg)) {
+                    prefetchedMessages.put(message);
+                    received++;
+                }
+                if (received > 0) {
+                    backoff = 0;
+                } else {
+                    LOGGER.debug(i18nMessages.getMessage("debug.Checking"));
+                    backoff = nextBackoff(backoff);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (InvalidKeyException | URISyntaxException | StorageException | RuntimeException e) {
+                LOGGER.error(e.getLocalizedMessage());
+                backoff = nextBackoff(backoff);
             }
+        }
+    }
+
+    private long nextBackoff(long backoff) {
+        long maxBackoff = Math.max(MIN_BACKOFF_MILLIS, loopWaitTime * 1000L);
+        return backoff == 0 ? Math.min(MIN_BACKOFF_MILLIS, maxBackoff) : Math.min(backoff * 2, maxBackoff);
+    }
+
+    /**
+     * Queue the message for deletion, deletes are started when a batch is full or no other message is waiting.
+     */
+    private void acknowledge(CloudQueueMessage message) {
+        acknowledgedMessages.add(message);
+        if (acknowledgedMessages.size() >= DELETE_BATCH_SIZE || prefetchedMessages.isEmpty()) {
+            flushDeletes();
+        }
+    }
 
-            messages = queueService.retrieveMessages(queueName, nbMsg).iterator();
-            if (messages.hasNext()) {
-                current = messages.next();
-                dataCount++;
-                queueService.deleteMessage(queueName, current);
-                return true;
+    private void flushDeletes() {
+        while (!pendingDeletes.isEmpty()
+                && (pendingDeletes.size() >= DELETE_CONCURRENCY || pendingDeletes.peek().isDone())) {
+            awaitDelete(pendingDeletes.poll());
+        }
+        if (acknowledgedMessages.isEmpty()) {
+            return;
+        }
+        if (deleteExecutor == null) {
+            deleteExecutor = Executors.newFixedThreadPool(DELETE_CONCURRENCY, new LoopThreadFactory());
+        }
+        final List<CloudQueueMessage> batch = acknowledgedMessages;
+        acknowledgedMessages = new ArrayList<>();
+        pendingDeletes.add(deleteExecutor.submit(new Runnable() {
+
+            @Override
+            public void run() {
+                for (CloudQueueMessage message : batch) {
+                    try {
+                        queueService.deleteMessage(queueName, message);
+                    } catch (InvalidKeyException | URISyntaxException | StorageException e) {
+                        LOGGER.error(i18nMessages.getMessage("error.Cannotdelete", message.getId(),
+                                e.getLocalizedMessage()));
+                    }
+                }
             }
+        }));
+    }
 
-        } catch (InterruptedException | StorageException | InvalidKeyException | URISyntaxException e) {
-            LOGGER.error(e.getLocalizedMessage());
+    private void awaitDelete(Future<?> delete) {
+        try {
+            delete.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            LOGGER.error(e.getCause().getLocalizedMessage());
         }
+    }
+
+    private static class LoopThreadFactory implements ThreadFactory {
 
-        return false;
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "azure-queue-loop-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
     }
 
 }
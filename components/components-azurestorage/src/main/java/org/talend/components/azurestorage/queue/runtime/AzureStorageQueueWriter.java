@@ -15,10 +15,18 @@ package org.talend.components.azurestorage.queue.runtime;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.security.InvalidKeyException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
-import java.util.function.Consumer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.avro.Schema;
 import org.apache.avro.Schema.Field;
@@ -42,8 +50,21 @@ import com.microsoft.azure.storage.StorageException;
 import com.microsoft.azure.storage.queue.CloudQueue;
 import com.microsoft.azure.storage.queue.CloudQueueMessage;
 
+/**
+ * Adds messages to a queue.
+ *
+ * <p>Messages are sent by a dedicated pool of {@code writeConcurrency} threads. Up to
+ * {@link #MAX_IN_FLIGHT_PER_THREAD} messages per thread are in flight; when the window is full the writer waits for the
+ * oldest message only, so sending never stops for a whole batch. Outcome of sent messages is processed on the writer
+ * thread in input order.
+ */
 public class AzureStorageQueueWriter implements WriterWithFeedback<Result, IndexedRecord, IndexedRecord> {
 
+    /** Number of messages in flight per I/O thread. */
+    static final int MAX_IN_FLIGHT_PER_THREAD = 4;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
     private AzureStorageQueueWriteOperation wope;
 
     private AzureStorageQueueSink sink;
@@ -56,13 +77,23 @@ public class AzureStorageQueueWriter implements WriterWithFeedback<Result, Index
 
     private Schema writeSchema;
 
+    private GenericIndexedRecordConverter converter;
+
+    private Field msgContent;
+
+    private int ttl;
+
+    private int visibility;
+
     private Result result;
 
-    private List<QueueMessage> messagesBuffer;
+    private int writeConcurrency;
 
-    private List<IndexedRecord> successfulWrites = new ArrayList<>();
+    private ExecutorService ioExecutor;
 
-    private static final int MAX_MSG_TO_ENQUEUE = 1000;
+    private final Deque<PendingMessage> pendingMessages = new ArrayDeque<>();
+
+    private List<IndexedRecord> successfulWrites = new ArrayList<>();
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AzureStorageQueueWriter.class);
 
@@ -75,8 +106,6 @@ public class AzureStorageQueueWriter implements WriterWithFeedback<Result, Index
         this.runtime = runtime;
         this.sink = (AzureStorageQueueSink) getWriteOperation().getSink();
         this.props = (TAzureStorageQueueOutputProperties) this.sink.properties;
-
-        this.messagesBuffer = new ArrayList<>();
     }
 
     @Override
@@ -89,6 +118,10 @@ public class AzureStorageQueueWriter implements WriterWithFeedback<Result, Index
                 writeSchema = null;
             }
         }
+        ttl = props.timeToLiveInSeconds.getValue();
+        visibility = props.initialVisibilityDelayInSeconds.getValue();
+        Integer concurrency = props.writeConcurrency.getValue();
+        writeConcurrency = concurrency != null ? Math.max(1, concurrency) : 1;
         try {
             queue = sink.getCloudQueue(runtime, props.queueName.getValue());
         } catch (InvalidKeyException | URISyntaxException | StorageException e) {
@@ -105,15 +138,15 @@ public class AzureStorageQueueWriter implements WriterWithFeedback<Result, Index
             return;
         cleanWrites();
         result.totalCount++;
-        if (writeSchema == null) {
-            writeSchema = ((IndexedRecord) object).getSchema();
+        if (converter == null) {
+            if (writeSchema == null) {
+                writeSchema = ((IndexedRecord) object).getSchema();
+            }
+            converter = new GenericIndexedRecordConverter();
+            converter.setSchema(writeSchema);
+            msgContent = writeSchema.getField(AzureStorageQueueProperties.FIELD_MESSAGE_CONTENT);
         }
-        GenericIndexedRecordConverter factory = new GenericIndexedRecordConverter();
-        factory.setSchema(writeSchema);
-        IndexedRecord inputRecord = factory.convertToAvro((IndexedRecord) object);
-        Field msgContent = writeSchema.getField(AzureStorageQueueProperties.FIELD_MESSAGE_CONTENT);
-        int ttl = props.timeToLiveInSeconds.getValue();
-        int visibility = props.initialVisibilityDelayInSeconds.getValue();
+        IndexedRecord inputRecord = converter.convertToAvro((IndexedRecord) object);
 
         if (msgContent == null) {
             LOGGER.error(i18nMessages.getMessage("error.VacantMessage"));
@@ -122,43 +155,70 @@ public class AzureStorageQueueWriter implements WriterWithFeedback<Result, Index
             }
         } else {
             content = (String) inputRecord.get(msgContent.pos());
-            messagesBuffer.add(new QueueMessage(new CloudQueueMessage(content), ttl, visibility));
-        }
-
-        if (messagesBuffer.size() >= MAX_MSG_TO_ENQUEUE) {
-            sendParallelMessages();
+            sendMessage(new QueueMessage(new CloudQueueMessage(content), ttl, visibility), content);
         }
     }
 
     @Override
     public Result close() throws IOException {
-        sendParallelMessages();
+        try {
+            while (!pendingMessages.isEmpty()) {
+                processPendingMessage(pendingMessages.poll());
+            }
+        } finally {
+            if (ioExecutor != null) {
+                ioExecutor.shutdownNow();
+                ioExecutor = null;
+            }
+        }
         queue = null;
         return result;
     }
 
-    private void sendParallelMessages() {
-        messagesBuffer.parallelStream().forEach(new Consumer<QueueMessage>() {
+    private void sendMessage(final QueueMessage queueMessage, String content) throws IOException {
+        // Process completed messages and keep the window of messages in flight bounded
+        while (!pendingMessages.isEmpty() && (pendingMessages.size() >= writeConcurrency * MAX_IN_FLIGHT_PER_THREAD
+                || pendingMessages.peek().future.isDone())) {
+            processPendingMessage(pendingMessages.poll());
+        }
+        if (ioExecutor == null) {
+            ioExecutor = Executors.newFixedThreadPool(writeConcurrency, new QueueWriterThreadFactory());
+        }
+        final CloudQueue targetQueue = queue;
+        Future<Void> future = ioExecutor.submit(new Callable<Void>() {
 
             @Override
-            public void accept(QueueMessage queueMessage) {
-                try {
-                    queue.addMessage(queueMessage.getMsg(), queueMessage.getTimeToLiveInSeconds(),
-                            queueMessage.getInitialVisibilityDelayInSeconds(), null, null);
-                    synchronized (this) {
-                        result.successCount++;
-                        IndexedRecord record = new Record(writeSchema);
-                        record.put(0, queueMessage.getMsg().getMessageContentAsString());
-                        successfulWrites.add(record);
-                    }
-                } catch (StorageException e) {
-                    result.rejectCount++;
-                    LOGGER.error(e.getLocalizedMessage());
-                }
+            public Void call() throws Exception {
+                targetQueue.addMessage(queueMessage.getMsg(), queueMessage.getTimeToLiveInSeconds(),
+                        queueMessage.getInitialVisibilityDelayInSeconds(), null, null);
+                return null;
             }
         });
+        pendingMessages.add(new PendingMessage(content, future));
+    }
 
-        messagesBuffer.clear();
+    private void processPendingMessage(PendingMessage pendingMessage) throws IOException {
+        try {
+            pendingMessage.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof StorageException) {
+                result.rejectCount++;
+                LOGGER.error(cause.getLocalizedMessage());
+                return;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new ComponentException(cause);
+        }
+        result.successCount++;
+        IndexedRecord record = new Record(writeSchema);
+        record.put(0, pendingMessage.content);
+        successfulWrites.add(record);
     }
 
     @Override
@@ -180,4 +240,26 @@ public class AzureStorageQueueWriter implements WriterWithFeedback<Result, Index
     public void cleanWrites() {
         successfulWrites.clear();
     }
+
+    private static class PendingMessage {
+
+        private final String content;
+
+        private final Future<Void> future;
+
+        PendingMessage(String content, Future<Void> future) {
+            this.content = content;
+            this.future = future;
+        }
+    }
+
+    private static class QueueWriterThreadFactory implements ThreadFactory {
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "azure-queue-write-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
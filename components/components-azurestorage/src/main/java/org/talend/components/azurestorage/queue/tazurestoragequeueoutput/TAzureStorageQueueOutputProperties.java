@@ -34,6 +34,9 @@ public class TAzureStorageQueueOutputProperties extends AzureStorageQueuePropert
     
     public Property<Boolean> dieOnError = PropertyFactory.newBoolean("dieOnError");
 
+    /** Number of threads sending messages. */
+    public Property<Integer> writeConcurrency = PropertyFactory.newInteger("writeConcurrency");
+
     public transient PropertyPathConnector FLOW_CONNECTOR = new PropertyPathConnector(Connector.MAIN_NAME, "schemaFlow");
 
     public SchemaProperties schemaFlow = new SchemaProperties("schemaFlow");
@@ -48,6 +51,7 @@ public class TAzureStorageQueueOutputProperties extends AzureStorageQueuePropert
     public void setupProperties() {
         super.setupProperties();
         dieOnError.setValue(true);
+        writeConcurrency.setValue(8);
 
         Schema s = SchemaBuilder.builder().record("Main").fields()//
                 // .name(FIELD_MESSAGE_ID).prop(SchemaConstants.TALEND_COLUMN_IS_KEY,
@@ -75,6 +79,7 @@ public class TAzureStorageQueueOutputProperties extends AzureStorageQueuePropert
         Form advanced = new Form(this, Form.ADVANCED);
         advanced.addRow(timeToLiveInSeconds);
         advanced.addRow(initialVisibilityDelayInSeconds);
+        advanced.addRow(writeConcurrency);
     }
 
     @Override
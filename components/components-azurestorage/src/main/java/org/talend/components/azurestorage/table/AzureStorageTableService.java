@@ -12,6 +12,8 @@
 //============================================================================
 package org.talend.components.azurestorage.table;
 
+import com.microsoft.azure.storage.ResultContinuation;
+import com.microsoft.azure.storage.ResultSegment;
 import com.microsoft.azure.storage.StorageErrorCodeStrings;
 import com.microsoft.azure.storage.StorageException;
 import com.microsoft.azure.storage.table.CloudTable;
@@ -58,6 +60,20 @@ public class AzureStorageTableService {
         return cloudTable.execute(partitionQuery, null, AzureStorageUtils.getTalendOperationContext());
     }
 
+    /**
+     * Execute a single segment of the query.
+     *
+     * @param continuationToken token returned by the previous segment, null for the first segment
+     */
+    public ResultSegment<DynamicTableEntity> executeQuerySegmented(String tableName,
+            TableQuery<DynamicTableEntity> partitionQuery, ResultContinuation continuationToken)
+            throws InvalidKeyException, URISyntaxException, StorageException {
+
+        CloudTable cloudTable = connection.getCloudStorageAccount().createCloudTableClient().getTableReference(tableName);
+        return cloudTable.executeSegmented(partitionQuery, continuationToken, null,
+                AzureStorageUtils.getTalendOperationContext());
+    }
+
     public void handleActionOnTable(String tableName, ActionOnTable actionTable)
             throws IOException, StorageException, InvalidKeyException, URISyntaxException {
 
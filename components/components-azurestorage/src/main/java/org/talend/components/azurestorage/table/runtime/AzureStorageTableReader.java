@@ -16,6 +16,7 @@ import java.io.IOException;
 import java.net.URISyntaxException;
 import java.security.InvalidKeyException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 
@@ -48,6 +49,8 @@ public class AzureStorageTableReader extends AbstractBoundedReader<IndexedRecord
 
     private transient Iterator<DynamicTableEntity> recordsIterator;
 
+    private transient PartitionedTableQuery partitionedQuery;
+
     private transient Schema querySchema;
 
     private transient AzureStorageTableAdaptorFactory factory;
@@ -60,6 +63,9 @@ public class AzureStorageTableReader extends AbstractBoundedReader<IndexedRecord
 
     private Result result;
 
+    /** Maximum number of entities returned by a query request. */
+    private static final int MAX_TAKE_COUNT = 1000;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(AzureStorageTableReader.class);
 
     private static final I18nMessages i18nMessages = GlobalI18N.getI18nMessageProvider()
@@ -107,17 +113,39 @@ public class AzureStorageTableReader extends AbstractBoundedReader<IndexedRecord
             filter = properties.filterExpression.generateCombinedFilterConditions();
             LOGGER.debug(i18nMessages.getMessage("debug.FilterApplied", filter));
         }
+        Integer takeCount = properties.takeCount.getValue();
+        if (takeCount == null || takeCount <= 0 || takeCount > MAX_TAKE_COUNT) {
+            takeCount = MAX_TAKE_COUNT;
+        }
+        Integer readConcurrency = properties.readConcurrency.getValue();
+        AzureStorageTableSource source = (AzureStorageTableSource) getCurrentSource();
         try {
-            TableQuery<DynamicTableEntity> partitionQuery;
-            if (filter.isEmpty()) {
-                partitionQuery = TableQuery.from(DynamicTableEntity.class);
+            if (!source.isPartitionRangeSet() && PartitionedTableQuery.isPartitionedRead(readConcurrency)) {
+                List<String> boundaries = PartitionedTableQuery
+                        .parseBoundaries(properties.partitionKeyBoundaries.getValue());
+                if (boundaries.isEmpty()) {
+                    boundaries = PartitionedTableQuery.sampleBoundaries(tableService, tableName, filter, readConcurrency);
+                }
+                LOGGER.debug(i18nMessages.getMessage("debug.PartitionRanges", boundaries.size() + 1, boundaries));
+                partitionedQuery = new PartitionedTableQuery(tableService, tableName, filter, takeCount, boundaries,
+                        readConcurrency, properties.dieOnError.getValue());
+                recordsIterator = partitionedQuery;
             } else {
-                partitionQuery = TableQuery.from(DynamicTableEntity.class).where(filter);
+                if (source.isPartitionRangeSet()) {
+                    filter = PartitionedTableQuery.rangeFilter(filter, source.getLowerPartitionKey(),
+                            source.getUpperPartitionKey());
+                }
+                TableQuery<DynamicTableEntity> partitionQuery;
+                if (filter.isEmpty()) {
+                    partitionQuery = TableQuery.from(DynamicTableEntity.class).take(takeCount);
+                } else {
+                    partitionQuery = TableQuery.from(DynamicTableEntity.class).where(filter).take(takeCount);
+                }
+                // Using execute will automatically and lazily follow the continuation tokens from page to page of results.
+                // So, we bypass the 1000 entities limit.
+                Iterable<DynamicTableEntity> entities = tableService.executeQuery(tableName, partitionQuery);
+                recordsIterator = entities.iterator();
             }
-            // Using execute will automatically and lazily follow the continuation tokens from page to page of results.
-            // So, we bypass the 1000 entities limit.
-            Iterable<DynamicTableEntity> entities = tableService.executeQuery(tableName, partitionQuery);
-            recordsIterator = entities.iterator();
             if (recordsIterator.hasNext()) {
                 started = true;
                 result.totalCount++;
@@ -170,4 +198,11 @@ public class AzureStorageTableReader extends AbstractBoundedReader<IndexedRecord
     public Map<String, Object> getReturnValues() {
         return result.toMap();
     }
+
+    @Override
+    public void close() throws IOException {
+        if (partitionedQuery != null) {
+            partitionedQuery.close();
+        }
+    }
 }
@@ -12,11 +12,14 @@
 //============================================================================
 package org.talend.components.azurestorage.table.runtime;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.talend.components.api.component.runtime.BoundedReader;
 import org.talend.components.api.component.runtime.BoundedSource;
 import org.talend.components.api.container.RuntimeContainer;
+import org.talend.components.azurestorage.table.AzureStorageTableService;
 import org.talend.components.azurestorage.table.tazurestorageinputtable.TAzureStorageInputTableProperties;
 import org.talend.daikon.properties.ValidationResult;
 
@@ -24,6 +27,15 @@ public class AzureStorageTableSource extends AzureStorageTableSourceOrSink imple
 
     private static final long serialVersionUID = -2453758634165235002L;
 
+    /** Whether this source reads a PartitionKey range only. */
+    private boolean partitionRangeSet;
+
+    /** Inclusive lower bound of the PartitionKey range, null when unbounded. */
+    private String lowerPartitionKey;
+
+    /** Exclusive upper bound of the PartitionKey range, null when unbounded. */
+    private String upperPartitionKey;
+
     @SuppressWarnings("rawtypes")
     @Override
     public BoundedReader createReader(RuntimeContainer container) {
@@ -43,10 +55,64 @@ public class AzureStorageTableSource extends AzureStorageTableSourceOrSink imple
         return ValidationResult.OK;
     }
 
+    /**
+     * Split the table into one bundle per PartitionKey range. Ranges are delimited by the configured boundaries or by
+     * boundaries sampled from the table for the configured read concurrency. The table is not split when the read
+     * concurrency is 1.
+     */
     @Override
     public List<? extends BoundedSource> splitIntoBundles(long desiredBundleSizeBytes, RuntimeContainer adaptor)
             throws Exception {
-        return null;
+        if (partitionRangeSet || !(properties instanceof TAzureStorageInputTableProperties)) {
+            return Collections.singletonList(this);
+        }
+        TAzureStorageInputTableProperties inputProperties = (TAzureStorageInputTableProperties) properties;
+        Integer readConcurrency = inputProperties.readConcurrency.getValue();
+        if (!PartitionedTableQuery.isPartitionedRead(readConcurrency)) {
+            return Collections.singletonList(this);
+        }
+        List<String> boundaries = PartitionedTableQuery.parseBoundaries(inputProperties.partitionKeyBoundaries.getValue());
+        if (boundaries.isEmpty()) {
+            String filter = "";
+            if (inputProperties.useFilterExpression.getValue()) {
+                filter = inputProperties.filterExpression.generateCombinedFilterConditions();
+            }
+            boundaries = PartitionedTableQuery.sampleBoundaries(new AzureStorageTableService(getAzureConnection(adaptor)),
+                    inputProperties.tableName.getValue(), filter, readConcurrency);
+        }
+        if (boundaries.isEmpty()) {
+            return Collections.singletonList(this);
+        }
+
+        List<AzureStorageTableSource> bundles = new ArrayList<>();
+        for (int i = 0; i <= boundaries.size(); i++) {
+            AzureStorageTableSource bundle = new AzureStorageTableSource();
+            bundle.initialize(adaptor, properties);
+            bundle.setPartitionRange(i > 0 ? boundaries.get(i - 1) : null, i < boundaries.size() ? boundaries.get(i) : null);
+            bundles.add(bundle);
+        }
+        return bundles;
+    }
+
+    /**
+     * Restrict this source to the PartitionKey range [lowerPartitionKey, upperPartitionKey).
+     */
+    public void setPartitionRange(String lowerPartitionKey, String upperPartitionKey) {
+        this.partitionRangeSet = true;
+        this.lowerPartitionKey = lowerPartitionKey;
+        this.upperPartitionKey = upperPartitionKey;
+    }
+
+    public boolean isPartitionRangeSet() {
+        return partitionRangeSet;
+    }
+
+    public String getLowerPartitionKey() {
+        return lowerPartitionKey;
+    }
+
+    public String getUpperPartitionKey() {
+        return upperPartitionKey;
     }
 
     @Override
@@ -17,12 +17,23 @@ import java.net.URISyntaxException;
 import java.security.InvalidKeyException;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import org.apache.avro.Schema;
@@ -51,6 +62,7 @@ import com.microsoft.azure.storage.table.DynamicTableEntity;
 import com.microsoft.azure.storage.table.EntityProperty;
 import com.microsoft.azure.storage.table.TableBatchOperation;
 import com.microsoft.azure.storage.table.TableOperation;
+import com.microsoft.azure.storage.table.TableResult;
 
 public class AzureStorageTableWriter implements WriterWithFeedback<Result, IndexedRecord, IndexedRecord> {
 
@@ -96,6 +108,25 @@ public class AzureStorageTableWriter implements WriterWithFeedback<Result, Index
 
     private boolean dieOnError;
 
+    /** Per PartitionKey buffers of operations, used when batches are grouped by PartitionKey. */
+    private PartitionedBatchBuffer partitionedBatches;
+
+    /** Maximum number of batches executed at the same time when batches are grouped by PartitionKey. */
+    private int batchConcurrency = 1;
+
+    private ExecutorService batchExecutor;
+
+    /** Batches being executed in background, in submission order. */
+    private Deque<PendingBatch> pendingBatches = new ArrayDeque<>();
+
+    /** PartitionKeys of the batches being executed, a partition has at most one batch in flight to keep its order. */
+    private Set<String> inFlightPartitions = new HashSet<>();
+
+    /** Batches waiting for the batch in flight of their partition, in release order. */
+    private Map<String, Deque<PartitionedBatchBuffer.Batch>> waitingBatches = new HashMap<>();
+
+    private int waitingBatchesCount;
+
     private static final Logger LOGGER = LoggerFactory.getLogger(AzureStorageTableWriter.class);
 
     private static final I18nMessages i18nMessages = GlobalI18N.getI18nMessageProvider()
@@ -126,6 +157,11 @@ public class AzureStorageTableWriter implements WriterWithFeedback<Result, Index
         if (nameMappings != null) {
             useNameMappings = true;
         }
+        if (processOperationInBatch && Boolean.TRUE.equals(sink.getProperties().groupBatchesByPartitionKey.getValue())) {
+            partitionedBatches = new PartitionedBatchBuffer();
+            Integer concurrency = sink.getProperties().batchConcurrency.getValue();
+            batchConcurrency = concurrency != null ? Math.max(1, concurrency) : 1;
+        }
     }
 
     @Override
@@ -158,7 +194,11 @@ public class AzureStorageTableWriter implements WriterWithFeedback<Result, Index
 
         if (processOperationInBatch) {
             DynamicTableEntity entity = createDynamicEntityFromInputRecord(inputRecord, writeSchema);
-            addOperationToBatch(entity, inputRecord);
+            if (partitionedBatches != null) {
+                addOperationToPartitionBatch(entity, inputRecord);
+            } else {
+                addOperationToBatch(entity, inputRecord);
+            }
         } else {
             recordToEnqueue.add(inputRecord);
             if (recordToEnqueue.size() >= MAX_RECORDS_TO_ENQUEUE) {
@@ -292,6 +332,19 @@ public class AzureStorageTableWriter implements WriterWithFeedback<Result, Index
             processParallelRecords();
         }
 
+        if (partitionedBatches != null) {
+            try {
+                for (PartitionedBatchBuffer.Batch batch : partitionedBatches.drain()) {
+                    submitBatch(batch);
+                }
+                while (!pendingBatches.isEmpty()) {
+                    completeBatch(pendingBatches.poll());
+                }
+            } finally {
+                shutdownBatchExecutor();
+            }
+        }
+
         return result;
     }
 
@@ -360,6 +413,107 @@ public class AzureStorageTableWriter implements WriterWithFeedback<Result, Index
         latestPartitionKey = entity.getPartitionKey();
     }
 
+    private void addOperationToPartitionBatch(DynamicTableEntity entity, IndexedRecord record) {
+        for (PartitionedBatchBuffer.Batch batch : partitionedBatches.add(entity, getTableOperation(entity), record)) {
+            submitBatch(batch);
+        }
+        // Collect batches which are already executed, in submission order
+        while (!pendingBatches.isEmpty() && pendingBatches.peek().result.isDone()) {
+            completeBatch(pendingBatches.poll());
+        }
+    }
+
+    /**
+     * Submit a batch for execution in background. If the number of batches being executed reached concurrency, waits for
+     * the oldest one. A batch of a partition which already has a batch in flight waits until that batch is complete, as
+     * operations of consecutive batches may apply to the same entity.
+     */
+    private void submitBatch(PartitionedBatchBuffer.Batch batch) {
+        if (batchExecutor == null) {
+            batchExecutor = Executors.newFixedThreadPool(batchConcurrency, new BatchThreadFactory());
+        }
+        if (inFlightPartitions.contains(batch.getPartitionKey())) {
+            Deque<PartitionedBatchBuffer.Batch> waiting = waitingBatches.get(batch.getPartitionKey());
+            if (waiting == null) {
+                waiting = new ArrayDeque<>();
+                waitingBatches.put(batch.getPartitionKey(), waiting);
+            }
+            waiting.add(batch);
+            waitingBatchesCount++;
+            // Completing batches starts the batches waiting for them
+            while (waitingBatchesCount > batchConcurrency && !pendingBatches.isEmpty()) {
+                completeBatch(pendingBatches.poll());
+            }
+            return;
+        }
+        while (pendingBatches.size() >= batchConcurrency) {
+            completeBatch(pendingBatches.poll());
+        }
+        executeBatch(batch);
+    }
+
+    private void executeBatch(final PartitionedBatchBuffer.Batch batch) {
+        inFlightPartitions.add(batch.getPartitionKey());
+        LOGGER.debug(i18nMessages.getMessage("debug.ExecutingPartitionBatch", batch.size(), batch.getPartitionKey()));
+        Future<List<TableResult>> future = batchExecutor.submit(new Callable<List<TableResult>>() {
+
+            @Override
+            public List<TableResult> call() throws Exception {
+                return tableservice.executeOperation(tableName, batch.getOperations());
+            }
+        });
+        pendingBatches.add(new PendingBatch(batch, future));
+    }
+
+    /**
+     * Wait for a batch executed in background and report its records to success or reject flow.
+     */
+    private void completeBatch(PendingBatch pendingBatch) {
+        List<IndexedRecord> records = pendingBatch.batch.getRecords();
+        try {
+            pendingBatch.result.get();
+            handleBatchSuccess(records);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            shutdownBatchExecutor();
+            throw new ComponentException(e);
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof StorageException)) {
+                shutdownBatchExecutor();
+                throw new ComponentException(e.getCause()); // connection problem so next operation will also fail
+            }
+            StorageException storageException = (StorageException) e.getCause();
+            LOGGER.error(i18nMessages.getMessage("error.ProcessBatch", actionData, storageException.getLocalizedMessage()));
+            handleBatchReject(records, storageException);
+            if (dieOnError) {
+                shutdownBatchExecutor();
+                throw new ComponentException(storageException);
+            }
+        }
+        String partition = pendingBatch.batch.getPartitionKey();
+        inFlightPartitions.remove(partition);
+        Deque<PartitionedBatchBuffer.Batch> waiting = waitingBatches.get(partition);
+        if (waiting != null) {
+            PartitionedBatchBuffer.Batch next = waiting.poll();
+            if (waiting.isEmpty()) {
+                waitingBatches.remove(partition);
+            }
+            waitingBatchesCount--;
+            executeBatch(next);
+        }
+    }
+
+    private void shutdownBatchExecutor() {
+        if (batchExecutor != null) {
+            batchExecutor.shutdownNow();
+            batchExecutor = null;
+        }
+        pendingBatches.clear();
+        inFlightPartitions.clear();
+        waitingBatches.clear();
+        waitingBatchesCount = 0;
+    }
+
     private void processBatch() throws IOException {
         TableBatchOperation batch = new TableBatchOperation();
         batch.addAll(batchOperations);
@@ -398,6 +552,41 @@ public class AzureStorageTableWriter implements WriterWithFeedback<Result, Index
         }
     }
 
+    private void handleBatchSuccess(List<IndexedRecord> records) {
+        result.successCount = result.successCount + records.size();
+        if (writeSchema == null || writeSchema.getFields().isEmpty())
+            return;
+        successfulWrites.addAll(records);
+    }
+
+    private void handleBatchReject(List<IndexedRecord> records, StorageException e) {
+        result.rejectCount = result.rejectCount + records.size();
+
+        if (rejectSchema == null || rejectSchema.getFields().isEmpty()) {
+            LOGGER.warn(i18nMessages.getMessage("warn.NoRejectSchema"));
+            return;
+        }
+        // an entity group transaction fails as a whole, so every record of the batch is rejected
+        for (IndexedRecord r : records) {
+            rejectedWrites.add(createRejectRecord(r, e));
+        }
+    }
+
+    private IndexedRecord createRejectRecord(IndexedRecord record, StorageException e) {
+        IndexedRecord reject = new GenericData.Record(rejectSchema);
+        reject.put(rejectSchema.getField("errorCode").pos(), e.getErrorCode());
+        reject.put(rejectSchema.getField("errorMessage").pos(), e.getLocalizedMessage());
+        for (Schema.Field outField : reject.getSchema().getFields()) {
+            Object outValue;
+            Schema.Field inField = record.getSchema().getField(outField.name());
+            if (inField != null) {
+                outValue = record.get(inField.pos());
+                reject.put(outField.pos(), outValue);
+            }
+        }
+        return reject;
+    }
+
     private void handleReject(IndexedRecord record, StorageException e, int counted) {
         result.rejectCount = result.rejectCount + counted;
 
@@ -411,34 +600,42 @@ public class AzureStorageTableWriter implements WriterWithFeedback<Result, Index
         } else {
             if (processOperationInBatch) {
                 for (IndexedRecord r : batchRecords) {
-                    IndexedRecord reject = new GenericData.Record(rejectSchema);
-                    reject.put(rejectSchema.getField("errorCode").pos(), e.getErrorCode());
-                    reject.put(rejectSchema.getField("errorMessage").pos(), e.getLocalizedMessage());
-                    for (Schema.Field outField : reject.getSchema().getFields()) {
-                        Object outValue;
-                        Schema.Field inField = r.getSchema().getField(outField.name());
-                        if (inField != null) {
-                            outValue = r.get(inField.pos());
-                            reject.put(outField.pos(), outValue);
-                        }
-                    }
-                    rejectedWrites.add(reject);
+                    rejectedWrites.add(createRejectRecord(r, e));
                 }
 
             } else {
-                IndexedRecord reject = new GenericData.Record(rejectSchema);
-                reject.put(rejectSchema.getField("errorCode").pos(), e.getErrorCode());
-                reject.put(rejectSchema.getField("errorMessage").pos(), e.getLocalizedMessage());
-                for (Schema.Field outField : reject.getSchema().getFields()) {
-                    Object outValue;
-                    Schema.Field inField = record.getSchema().getField(outField.name());
-                    if (inField != null) {
-                        outValue = record.get(inField.pos());
-                        reject.put(outField.pos(), outValue);
-                    }
-                }
-                rejectedWrites.add(reject);
+                rejectedWrites.add(createRejectRecord(record, e));
             }
         }
     }
+
+    /**
+     * Batch of a partition being executed in background.
+     */
+    private static class PendingBatch {
+
+        private final PartitionedBatchBuffer.Batch batch;
+
+        private final Future<List<TableResult>> result;
+
+        PendingBatch(PartitionedBatchBuffer.Batch batch, Future<List<TableResult>> result) {
+            this.batch = batch;
+            this.result = result;
+        }
+    }
+
+    /**
+     * Creates daemon threads, so that an unclosed writer does not prevent the JVM from exiting.
+     */
+    private static class BatchThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "azure-table-batch-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
@@ -0,0 +1,210 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.azurestorage.table.runtime;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.avro.generic.IndexedRecord;
+
+import com.microsoft.azure.storage.table.DynamicTableEntity;
+import com.microsoft.azure.storage.table.EntityProperty;
+import com.microsoft.azure.storage.table.TableBatchOperation;
+import com.microsoft.azure.storage.table.TableOperation;
+
+/**
+ * Buffers table operations per PartitionKey, so that unsorted input still produces full entity group transactions.
+ *
+ * A partition buffer is released as a batch when it reaches 100 operations or 4MB, the limits of an entity group
+ * transaction, or when it already holds an operation on the RowKey of the next one, as a transaction cannot contain two
+ * operations on the same entity. Buffers are kept in least recently used order; the least recently used buffers are released early when
+ * the number of buffered partitions or the estimated size of all buffered entities exceeds its budget.
+ */
+class PartitionedBatchBuffer {
+
+    /** Maximum number of operations of an entity group transaction. */
+    static final int MAX_BATCH_OPERATIONS = 100;
+
+    /** Maximum payload of an entity group transaction. */
+    static final long MAX_BATCH_BYTES = 4L * 1024 * 1024;
+
+    /** Default maximum number of partitions buffered at the same time. */
+    static final int DEFAULT_MAX_PARTITIONS = 1000;
+
+    /** Default maximum estimated size of all buffered entities. */
+    static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+
+    /** Estimated payload overhead of an operation, in addition to its properties. */
+    private static final int OPERATION_OVERHEAD = 512;
+
+    private final int maxPartitions;
+
+    private final long memoryBudget;
+
+    /** Buffers by PartitionKey, in access order. */
+    private final LinkedHashMap<String, Batch> partitions = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long bufferedBytes;
+
+    PartitionedBatchBuffer() {
+        this(DEFAULT_MAX_PARTITIONS, DEFAULT_MEMORY_BUDGET);
+    }
+
+    PartitionedBatchBuffer(int maxPartitions, long memoryBudget) {
+        this.maxPartitions = maxPartitions;
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Add an operation to the buffer of its partition.
+     *
+     * @param entity entity of the operation
+     * @param operation operation to add
+     * @param record input record of the operation
+     * @return batches released by this call, in the order they should be executed
+     */
+    List<Batch> add(DynamicTableEntity entity, TableOperation operation, IndexedRecord record) {
+        List<Batch> released = new ArrayList<>();
+        String partitionKey = entity.getPartitionKey();
+        long size = estimateSize(entity);
+
+        Batch batch = partitions.get(partitionKey);
+        if (batch != null && (batch.bytes + size > MAX_BATCH_BYTES || batch.containsRowKey(entity.getRowKey()))) {
+            released.add(release(partitionKey));
+            batch = null;
+        }
+        if (batch == null) {
+            batch = new Batch(partitionKey);
+            partitions.put(partitionKey, batch);
+        }
+        batch.add(operation, record, size);
+        bufferedBytes += size;
+        if (batch.size() == MAX_BATCH_OPERATIONS) {
+            released.add(release(partitionKey));
+        }
+
+        Iterator<Map.Entry<String, Batch>> eldest = partitions.entrySet().iterator();
+        while (eldest.hasNext() && (partitions.size() > maxPartitions || bufferedBytes > memoryBudget)) {
+            Batch evicted = eldest.next().getValue();
+            eldest.remove();
+            bufferedBytes -= evicted.bytes;
+            released.add(evicted);
+        }
+        return released;
+    }
+
+    /**
+     * Release all buffered batches.
+     *
+     * @return buffered batches, least recently used first
+     */
+    List<Batch> drain() {
+        List<Batch> released = new ArrayList<>(partitions.values());
+        partitions.clear();
+        bufferedBytes = 0;
+        return released;
+    }
+
+    boolean isEmpty() {
+        return partitions.isEmpty();
+    }
+
+    private Batch release(String partitionKey) {
+        Batch batch = partitions.remove(partitionKey);
+        bufferedBytes -= batch.bytes;
+        return batch;
+    }
+
+    /**
+     * Estimate payload size of an entity.
+     */
+    static long estimateSize(DynamicTableEntity entity) {
+        long size = OPERATION_OVERHEAD + length(entity.getPartitionKey()) + length(entity.getRowKey());
+        for (Map.Entry<String, EntityProperty> property : entity.getProperties().entrySet()) {
+            size += length(property.getKey()) + 32;
+            EntityProperty value = property.getValue();
+            if (value.getIsNull()) {
+                continue;
+            }
+            switch (value.getEdmType()) {
+            case STRING:
+                size += length(value.getValueAsString());
+                break;
+            case BINARY:
+                // Base64 encoded
+                size += value.getValueAsByteArray().length * 4L / 3 + 4;
+                break;
+            default:
+                size += 32;
+            }
+        }
+        return size;
+    }
+
+    private static long length(String value) {
+        // Worst case of UTF-8 encoding of a UTF-16 code unit.
+        return value != null ? value.length() * 3L : 0;
+    }
+
+    /**
+     * Operations of a single partition which are executed as one entity group transaction.
+     */
+    static class Batch {
+
+        private final String partitionKey;
+
+        private final TableBatchOperation operations = new TableBatchOperation();
+
+        private final List<IndexedRecord> records = new ArrayList<>();
+
+        private final Set<String> rowKeys = new HashSet<>();
+
+        private long bytes;
+
+        Batch(String partitionKey) {
+            this.partitionKey = partitionKey;
+        }
+
+        void add(TableOperation operation, IndexedRecord record, long size) {
+            operations.add(operation);
+            rowKeys.add(operation.getEntity().getRowKey());
+            records.add(record);
+            bytes += size;
+        }
+
+        boolean containsRowKey(String rowKey) {
+            return rowKeys.contains(rowKey);
+        }
+
+        String getPartitionKey() {
+            return partitionKey;
+        }
+
+        TableBatchOperation getOperations() {
+            return operations;
+        }
+
+        List<IndexedRecord> getRecords() {
+            return records;
+        }
+
+        int size() {
+            return records.size();
+        }
+    }
+}
@@ -0,0 +1,284 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.azurestorage.table.runtime;
+
+import java.net.URISyntaxException;
+import java.security.InvalidKeyException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.components.api.exception.ComponentException;
+import org.talend.components.azurestorage.table.AzureStorageTableProperties;
+import org.talend.components.azurestorage.table.AzureStorageTableService;
+
+import com.microsoft.azure.storage.ResultContinuation;
+import com.microsoft.azure.storage.ResultSegment;
+import com.microsoft.azure.storage.StorageException;
+import com.microsoft.azure.storage.table.DynamicTableEntity;
+import com.microsoft.azure.storage.table.TableQuery;
+import com.microsoft.azure.storage.table.TableQuery.Operators;
+import com.microsoft.azure.storage.table.TableQuery.QueryComparisons;
+
+/**
+ * Reads a table with concurrent segmented queries, one per PartitionKey range.
+ *
+ * <p>Ranges are delimited by sorted boundaries: {@code n} boundaries give {@code n + 1} ranges, the first range has
+ * no lower bound and the last one no upper bound. Each range is read by its own thread, page by page, into a bounded
+ * buffer from which the iterator returns entities. At most {@code concurrency} ranges are read at the same time, the
+ * others wait for a free thread. Entities of different ranges are interleaved.
+ */
+class PartitionedTableQuery implements Iterator<DynamicTableEntity>, AutoCloseable {
+
+    /** Number of probe queries per range used to sample PartitionKey boundaries. */
+    static final int PROBES_PER_RANGE = 4;
+
+    /** Maximum number of segments read by a probe query until it returns a key. */
+    private static final int MAX_PROBE_SEGMENTS = 5;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedTableQuery.class);
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    /** Marks the end of a range in the buffer. */
+    private static final Object END_OF_RANGE = new Object();
+
+    private final AzureStorageTableService tableService;
+
+    private final String tableName;
+
+    private final boolean dieOnError;
+
+    private final BlockingQueue<Object> buffer;
+
+    private final ExecutorService executor;
+
+    private int remainingRanges;
+
+    private DynamicTableEntity next;
+
+    PartitionedTableQuery(AzureStorageTableService tableService, String tableName, String filter, int takeCount,
+            List<String> boundaries, int concurrency, boolean dieOnError) {
+        this.tableService = tableService;
+        this.tableName = tableName;
+        this.dieOnError = dieOnError;
+        this.buffer = new LinkedBlockingQueue<>(Math.max(takeCount, 1) * 4);
+
+        List<String> lowerBounds = new ArrayList<>();
+        lowerBounds.add(null);
+        lowerBounds.addAll(boundaries);
+        remainingRanges = lowerBounds.size();
+        executor = Executors.newFixedThreadPool(Math.max(1, Math.min(concurrency, remainingRanges)),
+                new QueryThreadFactory());
+        for (int i = 0; i < lowerBounds.size(); i++) {
+            String lower = lowerBounds.get(i);
+            String upper = i < boundaries.size() ? boundaries.get(i) : null;
+            final TableQuery<DynamicTableEntity> query = TableQuery.from(DynamicTableEntity.class).take(takeCount);
+            String queryFilter = rangeFilter(filter, lower, upper);
+            if (!queryFilter.isEmpty()) {
+                query.where(queryFilter);
+            }
+            executor.submit(new Runnable() {
+
+                @Override
+                public void run() {
+                    readRange(query);
+                }
+            });
+        }
+    }
+
+    private void readRange(TableQuery<DynamicTableEntity> query) {
+        try {
+            ResultContinuation continuationToken = null;
+            do {
+                ResultSegment<DynamicTableEntity> segment = tableService.executeQuerySegmented(tableName, query,
+                        continuationToken);
+                for (DynamicTableEntity entity : segment.getResults()) {
+                    buffer.put(entity);
+                }
+                continuationToken = segment.getContinuationToken();
+            } while (continuationToken != null);
+            buffer.put(END_OF_RANGE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (InvalidKeyException | URISyntaxException | StorageException | RuntimeException e) {
+            try {
+                buffer.put(e);
+            } catch (InterruptedException e1) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null && remainingRanges > 0) {
+            Object item;
+            try {
+                item = buffer.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ComponentException(e);
+            }
+            if (item instanceof DynamicTableEntity) {
+                next = (DynamicTableEntity) item;
+            } else {
+                remainingRanges--;
+                if (item instanceof Exception) {
+                    LOGGER.error(((Exception) item).getLocalizedMessage());
+                    if (dieOnError) {
+                        close();
+                        throw new ComponentException((Exception) item);
+                    }
+                }
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public DynamicTableEntity next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        DynamicTableEntity entity = next;
+        next = null;
+        return entity;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Whether a table is read by PartitionKey ranges, for both bundles and concurrent queries. Configured boundaries
+     * are ignored when it is not.
+     */
+    static boolean isPartitionedRead(Integer readConcurrency) {
+        return readConcurrency != null && readConcurrency > 1;
+    }
+
+    /**
+     * Restrict a filter to the PartitionKey range [lower, upper).
+     *
+     * @param filter filter to restrict, may be empty
+     * @param lower inclusive lower bound or null
+     * @param upper exclusive upper bound or null
+     * @return filter of the range, empty if neither filter nor bounds are set
+     */
+    static String rangeFilter(String filter, String lower, String upper) {
+        String rangeFilter = StringUtils.defaultString(filter);
+        if (lower != null) {
+            rangeFilter = and(rangeFilter, TableQuery.generateFilterCondition(AzureStorageTableProperties.TABLE_PARTITION_KEY,
+                    QueryComparisons.GREATER_THAN_OR_EQUAL, lower));
+        }
+        if (upper != null) {
+            rangeFilter = and(rangeFilter, TableQuery.generateFilterCondition(AzureStorageTableProperties.TABLE_PARTITION_KEY,
+                    QueryComparisons.LESS_THAN, upper));
+        }
+        return rangeFilter;
+    }
+
+    private static String and(String filter, String condition) {
+        return filter.isEmpty() ? condition : TableQuery.combineFilters(filter, Operators.AND, condition);
+    }
+
+    /**
+     * Parse comma separated PartitionKey boundaries.
+     *
+     * @return sorted distinct boundaries
+     */
+    static List<String> parseBoundaries(String boundaries) {
+        TreeSet<String> result = new TreeSet<>();
+        if (boundaries != null) {
+            for (String boundary : boundaries.split(",")) {
+                if (!boundary.trim().isEmpty()) {
+                    result.add(boundary.trim());
+                }
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Discover PartitionKey boundaries which split the table into ranges of similar key space.
+     *
+     * <p>Probe queries start at points spread over the printable ASCII range and return the first PartitionKey at or
+     * after each point. Boundaries are picked evenly from the sorted distinct keys found, so ranges follow the part of
+     * the key space which is actually used.
+     *
+     * @param ranges desired number of ranges
+     * @return sorted boundaries, at most {@code ranges - 1}
+     */
+    static List<String> sampleBoundaries(AzureStorageTableService tableService, String tableName, String filter, int ranges)
+            throws InvalidKeyException, URISyntaxException, StorageException {
+        if (ranges <= 1) {
+            return new ArrayList<>();
+        }
+        int probes = ranges * PROBES_PER_RANGE;
+        TreeSet<String> keys = new TreeSet<>();
+        for (int i = 0; i < probes; i++) {
+            String start = String.valueOf((char) (' ' + 1 + i * ('~' - ' ') / probes));
+            TableQuery<DynamicTableEntity> query = TableQuery.from(DynamicTableEntity.class)
+                    .where(rangeFilter(filter, start, null))
+                    .select(new String[] { AzureStorageTableProperties.TABLE_PARTITION_KEY }).take(1);
+            ResultContinuation continuationToken = null;
+            for (int segments = 0; segments < MAX_PROBE_SEGMENTS; segments++) {
+                ResultSegment<DynamicTableEntity> segment = tableService.executeQuerySegmented(tableName, query,
+                        continuationToken);
+                if (!segment.getResults().isEmpty()) {
+                    keys.add(segment.getResults().get(0).getPartitionKey());
+                    break;
+                }
+                continuationToken = segment.getContinuationToken();
+                if (continuationToken == null) {
+                    break;
+                }
+            }
+        }
+
+        List<String> sortedKeys = new ArrayList<>(keys);
+        TreeSet<String> boundaries = new TreeSet<>();
+        for (int i = 1; i < ranges && !sortedKeys.isEmpty(); i++) {
+            String boundary = sortedKeys.get(i * sortedKeys.size() / ranges);
+            // The first key starts the first range which has no lower bound
+            if (!boundary.equals(sortedKeys.get(0))) {
+                boundaries.add(boundary);
+            }
+        }
+        return new ArrayList<>(boundaries);
+    }
+
+    private static class QueryThreadFactory implements ThreadFactory {
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "azure-table-query-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
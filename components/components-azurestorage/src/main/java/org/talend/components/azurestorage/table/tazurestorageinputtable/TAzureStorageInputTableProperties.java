@@ -46,6 +46,15 @@ public class TAzureStorageInputTableProperties extends AzureStorageTableProperti
     public Property<String> producedFilter = newString("producedFilter");
     
     public Property<Boolean> dieOnError = PropertyFactory.newBoolean("dieOnError");
+
+    /** Maximum number of entities returned by a query request, at most 1000. */
+    public Property<Integer> takeCount = PropertyFactory.newInteger("takeCount");
+
+    /** Number of PartitionKey ranges read concurrently. */
+    public Property<Integer> readConcurrency = PropertyFactory.newInteger("readConcurrency");
+
+    /** Comma separated PartitionKey boundaries of ranges, discovered by sampling the table when empty. */
+    public Property<String> partitionKeyBoundaries = PropertyFactory.newString("partitionKeyBoundaries");
     
     public TAzureStorageInputTableProperties(String name) {
         super(name);
@@ -93,6 +102,9 @@ public class TAzureStorageInputTableProperties extends AzureStorageTableProperti
         useFilterExpression.setValue(false);
         producedFilter.setValue("");
         producedFilter.setTaggedValue(ADD_QUOTES, true);
+        takeCount.setValue(1000);
+        readConcurrency.setValue(1);
+        partitionKeyBoundaries.setValue("");
 
     }
 
@@ -110,6 +122,11 @@ public class TAzureStorageInputTableProperties extends AzureStorageTableProperti
         //
         mainForm.addRow(dieOnError);
 
+        Form advancedForm = getForm(Form.ADVANCED);
+        advancedForm.addRow(takeCount);
+        advancedForm.addRow(readConcurrency);
+        advancedForm.addColumn(partitionKeyBoundaries);
+
     }
 
     @Override
@@ -60,6 +60,10 @@ public class TAzureStorageOutputTableProperties extends AzureStorageTablePropert
 
     public Property<Boolean> processOperationInBatch = PropertyFactory.newBoolean("processOperationInBatch");
 
+    public Property<Boolean> groupBatchesByPartitionKey = PropertyFactory.newBoolean("groupBatchesByPartitionKey");
+
+    public Property<Integer> batchConcurrency = PropertyFactory.newInteger("batchConcurrency");
+
     public Property<Boolean> dieOnError = PropertyFactory.newBoolean("dieOnError");
 
     public Property<List<String>> partitionKey = PropertyFactory.newStringList("partitionKey");
@@ -87,6 +91,8 @@ public class TAzureStorageOutputTableProperties extends AzureStorageTablePropert
         actionOnData.setValue(ActionOnData.Insert);
         actionOnTable.setValue(ActionOnTable.Default);
         processOperationInBatch.setValue(false);
+        groupBatchesByPartitionKey.setValue(false);
+        batchConcurrency.setValue(4);
 
         Schema s = SchemaBuilder.record("Main").fields()
                 //
@@ -124,6 +130,8 @@ public class TAzureStorageOutputTableProperties extends AzureStorageTablePropert
         mainForm.addRow(actionOnData);
         mainForm.addColumn(actionOnTable);
         mainForm.addRow(processOperationInBatch);
+        mainForm.addRow(groupBatchesByPartitionKey);
+        mainForm.addColumn(batchConcurrency);
         mainForm.addRow(dieOnError);
     }
 
@@ -131,6 +139,21 @@ public class TAzureStorageOutputTableProperties extends AzureStorageTablePropert
     public void refreshLayout(Form form) {
         super.refreshLayout(form);
         updateOutputSchemas();
+
+        if (Form.MAIN.equals(form.getName()) && form.getWidget(groupBatchesByPartitionKey.getName()) != null) {
+            boolean inBatch = Boolean.TRUE.equals(processOperationInBatch.getValue());
+            form.getWidget(groupBatchesByPartitionKey.getName()).setHidden(!inBatch);
+            form.getWidget(batchConcurrency.getName())
+                    .setHidden(!inBatch || !Boolean.TRUE.equals(groupBatchesByPartitionKey.getValue()));
+        }
+    }
+
+    public void afterProcessOperationInBatch() {
+        refreshLayout(getForm(Form.MAIN));
+    }
+
+    public void afterGroupBatchesByPartitionKey() {
+        refreshLayout(getForm(Form.MAIN));
     }
 
     public void updatePartitionKeyAndRowKey() {
@@ -48,7 +48,7 @@ public class TAzureStorageDeleteDefinitionTest extends AzureStorageContainerDefi
     @Override
     public void testGetReturnProperties() {
         assertNotNull(azureStorageContainerDefinition.getReturnProperties());
-        assertEquals(2, azureStorageContainerDefinition.getReturnProperties().length);
+        assertEquals(4, azureStorageContainerDefinition.getReturnProperties().length);
     }
 
 }
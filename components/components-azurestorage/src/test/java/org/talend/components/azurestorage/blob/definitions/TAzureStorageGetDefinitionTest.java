@@ -48,7 +48,7 @@ public class TAzureStorageGetDefinitionTest extends AzureStorageContainerDefinit
     @Override
     public void testGetReturnProperties() {
         assertNotNull(azureStorageContainerDefinition.getReturnProperties());
-        assertEquals(3, azureStorageContainerDefinition.getReturnProperties().length);
+        assertEquals(6, azureStorageContainerDefinition.getReturnProperties().length);
     }
 
 }
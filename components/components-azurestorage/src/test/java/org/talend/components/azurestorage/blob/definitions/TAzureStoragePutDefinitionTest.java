@@ -48,6 +48,6 @@ public class TAzureStoragePutDefinitionTest extends AzureStorageContainerDefinit
     @Override
     public void testGetReturnProperties() {
         assertNotNull(azureStorageContainerDefinition.getReturnProperties());
-        assertEquals(4, azureStorageContainerDefinition.getReturnProperties().length);
+        assertEquals(7, azureStorageContainerDefinition.getReturnProperties().length);
     }
 }
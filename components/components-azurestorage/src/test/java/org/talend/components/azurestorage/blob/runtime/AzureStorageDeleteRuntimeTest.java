@@ -17,6 +17,8 @@ import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.net.URI;
@@ -148,6 +150,34 @@ public class AzureStorageDeleteRuntimeTest {
 
     }
 
+    @Test
+    public void testRunAtDriverDeleteInParallel() throws Exception {
+        properties.remoteBlobs.include.setValue(Arrays.asList(true));
+        properties.remoteBlobs.prefix.setValue(Arrays.asList("block1"));
+        properties.deleteConcurrency.setValue(4);
+        ValidationResult validationResult = deleteBlock.initialize(runtimeContainer, properties);
+        assertEquals(ValidationResult.OK.getStatus(), validationResult.getStatus());
+        deleteBlock.azureStorageBlobService = blobService;
+
+        final List<CloudBlockBlob> list = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            list.add(new CloudBlockBlob(new URI("https://storagesample.blob.core.windows.net/mycontainer/blob" + i + ".txt")));
+        }
+        when(blobService.listBlobs(anyString(), anyString(), anyBoolean())).thenReturn(new Iterable<ListBlobItem>() {
+
+            @Override
+            public Iterator<ListBlobItem> iterator() {
+                return new DummyListBlobItemIterator(list);
+            }
+        });
+        when(blobService.deleteBlobBlockIfExist(any(CloudBlockBlob.class))).thenReturn(true);
+        when(blobService.deleteBlobBlockIfExist(list.get(7))).thenReturn(false);
+
+        deleteBlock.runAtDriver(runtimeContainer);
+        verify(blobService, times(50)).deleteBlobBlockIfExist(any(CloudBlockBlob.class));
+        assertEquals(49, deleteBlock.getDeletedBlobs());
+    }
+
     @Test
     public void testRunAtDriverHandleError() {
         properties.remoteBlobs.include.setValue(Arrays.asList(true));
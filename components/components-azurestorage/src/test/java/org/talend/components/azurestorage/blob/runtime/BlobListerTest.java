@@ -0,0 +1,156 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.azurestorage.blob.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.stubbing.Answer;
+import org.talend.components.azurestorage.blob.AzureStorageBlobService;
+import org.talend.components.azurestorage.blob.helpers.RemoteBlob;
+
+import com.microsoft.azure.storage.ResultContinuation;
+import com.microsoft.azure.storage.ResultSegment;
+import com.microsoft.azure.storage.StorageException;
+import com.microsoft.azure.storage.blob.CloudBlob;
+import com.microsoft.azure.storage.blob.CloudBlobDirectory;
+import com.microsoft.azure.storage.blob.CloudBlockBlob;
+import com.microsoft.azure.storage.blob.ListBlobItem;
+
+public class BlobListerTest {
+
+    private static final String BLOB_URI = "https://storagesample.blob.core.windows.net/container/";
+
+    @Rule
+    public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private AzureStorageBlobService blobService;
+
+    private final String[] blobNames = { "logs/a.txt", "logs/2017/b.txt", "logs/2017/01/c.txt", "logs/2017/01/31/d.txt",
+            "logs/2017/01/31/12/e.txt", "logs/2018/f.txt" };
+
+    /**
+     * Simulate listings of a container holding {@link #blobNames}.
+     */
+    @Before
+    public void setup() throws Exception {
+        // Mocks are created up front, listings run on the lister threads
+        final Map<String, CloudBlobDirectory> directories = new HashMap<>();
+        for (String name : blobNames) {
+            for (int separator = name.indexOf('/'); separator >= 0; separator = name.indexOf('/', separator + 1)) {
+                String prefix = name.substring(0, separator + 1);
+                if (!directories.containsKey(prefix)) {
+                    CloudBlobDirectory directory = mock(CloudBlobDirectory.class);
+                    when(directory.getPrefix()).thenReturn(prefix);
+                    directories.put(prefix, directory);
+                }
+            }
+        }
+        when(blobService.listBlobsSegmented(anyString(), anyString(), anyBoolean(), (ResultContinuation) any()))
+                .thenAnswer(new Answer<ResultSegment<ListBlobItem>>() {
+
+                    @Override
+                    public ResultSegment<ListBlobItem> answer(InvocationOnMock invocation) throws Throwable {
+                        String prefix = (String) invocation.getArguments()[1];
+                        boolean flat = (Boolean) invocation.getArguments()[2];
+                        ArrayList<ListBlobItem> results = new ArrayList<>();
+                        Set<String> listedDirectories = new HashSet<>();
+                        for (String name : blobNames) {
+                            if (!name.startsWith(prefix)) {
+                                continue;
+                            }
+                            int separator = name.indexOf('/', prefix.length());
+                            if (flat || separator < 0) {
+                                results.add(new CloudBlockBlob(new URI(BLOB_URI + name)));
+                            } else if (listedDirectories.add(name.substring(0, separator + 1))) {
+                                results.add(directories.get(name.substring(0, separator + 1)));
+                            }
+                        }
+                        return new ResultSegment<>(results, 5000, null);
+                    }
+                });
+    }
+
+    private Set<String> listAll(BlobLister lister) throws Exception {
+        Set<String> names = new HashSet<>();
+        CloudBlob blob;
+        while ((blob = lister.nextBlob()) != null) {
+            names.add(blob.getName());
+        }
+        return names;
+    }
+
+    @Test
+    public void testListSubDirectoriesInParallel() throws Exception {
+        try (BlobLister lister = new BlobLister(blobService, "container",
+                Collections.singletonList(new RemoteBlob("logs/", true)), 4)) {
+            assertEquals(new HashSet<>(Arrays.asList(blobNames)), listAll(lister));
+            assertNull(lister.nextBlob());
+        }
+        verify(blobService).listBlobsSegmented("container", "logs/2017/", false, null);
+        verify(blobService).listBlobsSegmented("container", "logs/2017/01/", false, null);
+        // Below the fan out depth, sub-directories are listed with their parent
+        verify(blobService).listBlobsSegmented("container", "logs/2017/01/31/", true, null);
+        verify(blobService, never()).listBlobsSegmented(anyString(), eq("logs/2017/01/31/12/"), anyBoolean(),
+                (ResultContinuation) any());
+    }
+
+    @Test
+    public void testListWithoutSubDirectories() throws Exception {
+        try (BlobLister lister = new BlobLister(blobService, "container",
+                Arrays.asList(new RemoteBlob("logs/", false), new RemoteBlob("logs/2018/", false)), 4)) {
+            assertEquals(new HashSet<>(Arrays.asList("logs/a.txt", "logs/2018/f.txt")), listAll(lister));
+        }
+        verify(blobService, never()).listBlobsSegmented(anyString(), eq("logs/2017/"), anyBoolean(),
+                (ResultContinuation) any());
+    }
+
+    @Test
+    public void testListingError() throws Exception {
+        when(blobService.listBlobsSegmented(anyString(), eq("logs/2018/"), anyBoolean(), (ResultContinuation) any()))
+                .thenThrow(new StorageException("some error code", "dummy message", new RuntimeException()));
+        try (BlobLister lister = new BlobLister(blobService, "container",
+                Collections.singletonList(new RemoteBlob("logs/", true)), 4)) {
+            listAll(lister);
+            fail("should throw the listing error");
+        } catch (StorageException e) {
+            assertEquals("some error code", e.getErrorCode());
+        }
+    }
+}
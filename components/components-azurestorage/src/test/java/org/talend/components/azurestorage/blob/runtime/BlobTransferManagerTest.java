@@ -0,0 +1,156 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.azurestorage.blob.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.talend.components.api.exception.ComponentException;
+import org.talend.components.azurestorage.blob.AzureStorageBlobService;
+
+import com.microsoft.azure.storage.StorageException;
+import com.microsoft.azure.storage.blob.BlockEntry;
+import com.microsoft.azure.storage.blob.CloudBlockBlob;
+
+public class BlobTransferManagerTest {
+
+    @Rule
+    public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Mock
+    private AzureStorageBlobService blobService;
+
+    private File createFile(String name, int length) throws Exception {
+        File file = temporaryFolder.newFile(name);
+        byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) i;
+        }
+        Files.write(file.toPath(), content);
+        return file;
+    }
+
+    @Test
+    public void testUploadSmallFilesInParallel() throws Exception {
+        BlobTransferReporter reporter = new BlobTransferReporter(null, true);
+        try (BlobTransferManager transferManager = new BlobTransferManager(blobService, 2, 2, reporter)) {
+            for (int i = 0; i < 5; i++) {
+                transferManager.upload("container", createFile("file" + i, 10), "blob" + i);
+            }
+            transferManager.awaitCompletion();
+        }
+
+        verify(blobService, times(5)).upload(eq("container"), anyString(), any(InputStream.class), eq(10L));
+        assertEquals(5, reporter.getTransferredFiles());
+        assertEquals(50, reporter.getTransferredBytes());
+    }
+
+    @Test
+    public void testResumeBlockUpload() throws Exception {
+        File source = createFile("file", 10);
+        CloudBlockBlob blob = new CloudBlockBlob(new URI("https://storagesample.blob.core.windows.net/container/blob"));
+        when(blobService.getBlockBlobReference("container", "blob")).thenReturn(blob);
+        // First block was uploaded by a previous attempt
+        BlockEntry uploaded = new BlockEntry(BlobTransferManager.blockId(0, 10, source.lastModified()));
+        uploaded.setSize(4);
+        when(blobService.listUncommittedBlocks(blob)).thenReturn(new ArrayList<>(Arrays.asList(uploaded)));
+
+        BlobTransferReporter reporter = new BlobTransferReporter(null, true);
+        try (BlobTransferManager transferManager = new BlobTransferManager(blobService, 1, 3, reporter)) {
+            transferManager.setBlockSize(4);
+            transferManager.upload("container", source, "blob");
+            transferManager.awaitCompletion();
+        }
+
+        verify(blobService, never()).upload(anyString(), anyString(), any(InputStream.class), anyLong());
+        verify(blobService, never()).uploadBlock(eq(blob), eq(uploaded.getId()), any(InputStream.class), anyLong());
+        verify(blobService).uploadBlock(eq(blob), eq(BlobTransferManager.blockId(1, 10, source.lastModified())),
+                any(InputStream.class), eq(4L));
+        verify(blobService).uploadBlock(eq(blob), eq(BlobTransferManager.blockId(2, 10, source.lastModified())),
+                any(InputStream.class), eq(2L));
+
+        ArgumentCaptor<List> blocks = ArgumentCaptor.forClass(List.class);
+        verify(blobService).commitBlockList(eq(blob), blocks.capture());
+        assertEquals(3, blocks.getValue().size());
+        assertEquals(uploaded.getId(), ((BlockEntry) blocks.getValue().get(0)).getId());
+        assertEquals(1, reporter.getTransferredFiles());
+        assertEquals(10, reporter.getTransferredBytes());
+    }
+
+    @Test
+    public void testStopOnError() throws Exception {
+        doThrow(new StorageException("some error code", "some storage exception", new RuntimeException()))
+                .when(blobService).upload(anyString(), eq("blob1"), any(InputStream.class), anyLong());
+
+        BlobTransferReporter reporter = new BlobTransferReporter(null, true);
+        try (BlobTransferManager transferManager = new BlobTransferManager(blobService, 2, 1, reporter)) {
+            for (int i = 0; i < 5; i++) {
+                transferManager.upload("container", createFile("file" + i, 10), "blob" + i);
+            }
+            transferManager.awaitCompletion();
+            fail("should stop on error");
+        } catch (ComponentException e) {
+            assertTrue(e.getCause() instanceof StorageException);
+        }
+        assertEquals(1, reporter.getTransferredFiles());
+    }
+
+    @Test
+    public void testContinueOnError() throws Exception {
+        doThrow(new StorageException("some error code", "some storage exception", new RuntimeException()))
+                .when(blobService).upload(anyString(), eq("blob1"), any(InputStream.class), anyLong());
+
+        BlobTransferReporter reporter = new BlobTransferReporter(null, false);
+        try (BlobTransferManager transferManager = new BlobTransferManager(blobService, 2, 1, reporter)) {
+            for (int i = 0; i < 5; i++) {
+                transferManager.upload("container", createFile("file" + i, 10), "blob" + i);
+            }
+            transferManager.awaitCompletion();
+        }
+        assertEquals(4, reporter.getTransferredFiles());
+    }
+
+    @Test
+    public void testBlockIdLength() {
+        assertEquals(BlobTransferManager.blockId(0, 1, 0).length(),
+                BlobTransferManager.blockId(99999, Long.MAX_VALUE, -1).length());
+    }
+}
@@ -19,19 +19,26 @@ import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.security.InvalidKeyException;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import org.apache.avro.Schema.Field;
 import org.apache.avro.generic.IndexedRecord;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -71,6 +78,14 @@ public class AzureStorageQueueInputLoopReaderTest extends AzureBaseTest {
         properties.queueName.setValue("some-queue-name");
     }
 
+    @After
+    public void tearDown() throws IOException {
+        // Stop the prefetch and delete threads of the reader
+        if (reader != null) {
+            reader.close();
+        }
+    }
+
     @Test
     public void testStartAsStartable() {
         try {
@@ -233,4 +248,68 @@ public class AzureStorageQueueInputLoopReaderTest extends AzureBaseTest {
         }
     }
 
+    @Test
+    public void testDeleteAcknowledgedMessages() throws Exception {
+        AzureStorageQueueSource source = new AzureStorageQueueSource();
+        ValidationResult vr = source.initialize(getDummyRuntimeContiner(), properties);
+        assertEquals(ValidationResult.OK.getStatus(), vr.getStatus());
+
+        reader = (AzureStorageQueueInputLoopReader) source.createReader(getDummyRuntimeContiner());
+        reader.queueService = queueService; // inject mocked service
+
+        final List<CloudQueueMessage> messages = new ArrayList<>();
+        messages.add(new CloudQueueMessage("message-1"));
+        messages.add(new CloudQueueMessage("message-2"));
+        messages.add(new CloudQueueMessage("message-3"));
+        when(queueService.retrieveMessages(anyString(), anyInt())).thenReturn(new Iterable<CloudQueueMessage>() {
+
+            @Override
+            public Iterator<CloudQueueMessage> iterator() {
+                return new DummyCloudQueueMessageIterator(messages);
+            }
+        });
+
+        assertTrue(reader.start());
+        assertTrue(reader.advance());
+        assertTrue(reader.advance());
+        reader.close();
+
+        // every emitted message is deleted once it is acknowledged
+        verify(queueService, times(3)).deleteMessage(anyString(), any(CloudQueueMessage.class));
+    }
+
+    @Test
+    public void testExtendVisibilityTimeout() throws Exception {
+        AzureStorageQueueSource source = new AzureStorageQueueSource();
+        ValidationResult vr = source.initialize(getDummyRuntimeContiner(), properties);
+        assertEquals(ValidationResult.OK.getStatus(), vr.getStatus());
+
+        reader = (AzureStorageQueueInputLoopReader) source.createReader(getDummyRuntimeContiner());
+        reader.queueService = queueService; // inject mocked service
+
+        // first message becomes visible again now and cannot be extended, second one can
+        CloudQueueMessage expired = mock(CloudQueueMessage.class);
+        when(expired.getNextVisibleTime()).thenReturn(new Date());
+        CloudQueueMessage expiring = mock(CloudQueueMessage.class);
+        when(expiring.getNextVisibleTime()).thenReturn(new Date());
+        doThrow(new StorageException("MessageNotFound", "message not found", new RuntimeException())).when(queueService)
+                .updateMessageVisibility(anyString(), eq(expired), anyInt());
+
+        final List<CloudQueueMessage> messages = new ArrayList<>();
+        messages.add(expired);
+        messages.add(expiring);
+        when(queueService.retrieveMessages(anyString(), anyInt())).thenReturn(new Iterable<CloudQueueMessage>() {
+
+            @Override
+            public Iterator<CloudQueueMessage> iterator() {
+                return new DummyCloudQueueMessageIterator(messages);
+            }
+        });
+
+        assertTrue(reader.start());
+        assertEquals(1, reader.getVisibilityExtensions());
+        verify(queueService).updateMessageVisibility(anyString(), eq(expiring), anyInt());
+        reader.close();
+    }
+
 }
@@ -15,6 +15,13 @@ package org.talend.components.azurestorage.queue.runtime;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import java.io.IOException;
 
@@ -23,9 +30,18 @@ import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.IndexedRecord;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentMatcher;
+import org.talend.components.api.component.runtime.Result;
+import org.talend.components.api.container.RuntimeContainer;
 import org.talend.components.azurestorage.queue.tazurestoragequeueoutput.TAzureStorageQueueOutputProperties;
 import org.talend.daikon.avro.AvroUtils;
 
+import com.microsoft.azure.storage.OperationContext;
+import com.microsoft.azure.storage.StorageException;
+import com.microsoft.azure.storage.queue.CloudQueue;
+import com.microsoft.azure.storage.queue.CloudQueueMessage;
+import com.microsoft.azure.storage.queue.QueueRequestOptions;
+
 public class AzureStorageQueueWriterTest {
 
     AzureStorageQueueWriter writer;
@@ -102,4 +118,49 @@ public class AzureStorageQueueWriterTest {
     public final void testGetWriteOperation() {
         assertNotNull(writer.getWriteOperation());
     }
+
+    @Test
+    public final void testWriteConcurrently() throws Exception {
+        final CloudQueue queue = mock(CloudQueue.class);
+        doThrow(new StorageException("some error code", "some storage exception", new RuntimeException())).when(queue)
+                .addMessage(argThat(new ArgumentMatcher<CloudQueueMessage>() {
+
+                    @Override
+                    public boolean matches(CloudQueueMessage message) {
+                        try {
+                            return "message-42".equals(message.getMessageContentAsString());
+                        } catch (StorageException e) {
+                            return false;
+                        }
+                    }
+                }), anyInt(), anyInt(), (QueueRequestOptions) any(), (OperationContext) any());
+
+        AzureStorageQueueSink sink = new AzureStorageQueueSink() {
+
+            @Override
+            public CloudQueue getCloudQueue(RuntimeContainer runtime, String queueName) {
+                return queue;
+            }
+        };
+        TAzureStorageQueueOutputProperties p = new TAzureStorageQueueOutputProperties("test");
+        p.connection.setupProperties();
+        p.setupProperties();
+        p.writeConcurrency.setValue(3);
+        sink.initialize(null, p);
+        writer = (AzureStorageQueueWriter) sink.createWriteOperation().createWriter(null);
+
+        writer.open("testWriteConcurrently");
+        for (int i = 0; i < 100; i++) {
+            IndexedRecord record = new GenericData.Record(p.schema.schema.getValue());
+            record.put(0, "message-" + i);
+            writer.write(record);
+        }
+        Result result = writer.close();
+
+        verify(queue, times(100)).addMessage(any(CloudQueueMessage.class), anyInt(), anyInt(), (QueueRequestOptions) any(),
+                (OperationContext) any());
+        assertEquals(100, result.getTotalCount());
+        assertEquals(99, result.getSuccessCount());
+        assertEquals(1, result.getRejectCount());
+    }
 }
@@ -23,8 +23,10 @@ import java.util.*;
 
 import org.junit.*;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
+import org.mockito.stubbing.Answer;
 import org.talend.components.api.component.ComponentDefinition;
 import org.talend.components.api.container.RuntimeContainer;
 import org.talend.components.api.exception.ComponentException;
@@ -36,6 +38,8 @@ import org.talend.components.azurestorage.tazurestorageconnection.TAzureStorageC
 import org.talend.components.azurestorage.tazurestorageconnection.TAzureStorageConnectionProperties.Protocol;
 import org.talend.daikon.properties.ValidationResult;
 
+import com.microsoft.azure.storage.ResultContinuation;
+import com.microsoft.azure.storage.ResultSegment;
 import com.microsoft.azure.storage.StorageException;
 import com.microsoft.azure.storage.table.DynamicTableEntity;
 import com.microsoft.azure.storage.table.TableQuery;
@@ -303,6 +307,48 @@ public class AzureStorageTableReaderTest {
 
     }
 
+    /**
+     * Test the reader reads every PartitionKey range when reading in parallel
+     */
+    @Test
+    public void testReadPartitionRangesInParallel() throws Exception {
+
+        // setup
+        properties.dieOnError.setValue(true);
+        properties.useFilterExpression.setValue(false);
+        properties.readConcurrency.setValue(2);
+        properties.partitionKeyBoundaries.setValue("M");
+
+        assertEquals(ValidationResult.Result.OK, source.initialize(container, properties).getStatus());
+        reader = (AzureStorageTableReader) source.createReader(container);
+
+        // mock
+        reader.tableService = tableService;
+        when(tableService.executeQuerySegmented(anyString(), any(TableQuery.class), (ResultContinuation) any()))
+                .thenAnswer(new Answer<ResultSegment<DynamicTableEntity>>() {
+
+                    @Override
+                    public ResultSegment<DynamicTableEntity> answer(InvocationOnMock invocation) throws Throwable {
+                        TableQuery<?> query = (TableQuery<?>) invocation.getArguments()[1];
+                        String partitionKey = query.getFilterString().contains("ge 'M'") ? "Paris" : "Lyon";
+                        ArrayList<DynamicTableEntity> results = new ArrayList<>();
+                        results.add(new DynamicTableEntity(partitionKey, "1"));
+                        results.add(new DynamicTableEntity(partitionKey, "2"));
+                        return new ResultSegment<>(results, 1000, null);
+                    }
+                });
+
+        // assert
+        assertTrue(reader.start());
+        int dataCount = 1;
+        while (reader.advance()) {
+            dataCount++;
+        }
+        reader.close();
+        assertEquals(4, dataCount);
+        assertEquals(4, reader.getReturnValues().get(ComponentDefinition.RETURN_TOTAL_RECORD_COUNT));
+    }
+
     /**
      * Test reader close
      */
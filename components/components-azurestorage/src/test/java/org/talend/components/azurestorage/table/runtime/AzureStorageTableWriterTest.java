@@ -14,6 +14,7 @@ package org.talend.components.azurestorage.table.runtime;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
@@ -23,7 +24,12 @@ import static org.mockito.Mockito.when;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.security.InvalidKeyException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.avro.generic.GenericData.Record;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.Before;
 import org.junit.Rule;
@@ -34,6 +40,7 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 import org.mockito.stubbing.Answer;
+import org.talend.components.api.component.runtime.Result;
 import org.talend.components.api.component.runtime.WriteOperation;
 import org.talend.components.api.container.RuntimeContainer;
 import org.talend.components.api.exception.ComponentException;
@@ -48,6 +55,7 @@ import org.talend.components.azurestorage.tazurestorageconnection.TAzureStorageC
 import org.talend.daikon.properties.ValidationResult;
 
 import com.microsoft.azure.storage.StorageException;
+import com.microsoft.azure.storage.table.TableBatchOperation;
 import com.microsoft.azure.storage.table.TableOperation;
 import com.microsoft.azure.storage.table.TableResult;
 
@@ -319,6 +327,111 @@ public class AzureStorageTableWriterTest {
 
     }
 
+    @Test
+    public void testWriteUnsortedRecordsInPartitionBatches() throws Exception {
+        properties.processOperationInBatch.setValue(true);
+        properties.groupBatchesByPartitionKey.setValue(true);
+        properties.batchConcurrency.setValue(3);
+
+        assertEquals(ValidationResult.Result.OK, sink.initialize(container, properties).getStatus());
+        WriteOperation<?> writeOperation = sink.createWriteOperation();
+        writeOperation.initialize(container);
+        writer = (AzureStorageTableWriter) writeOperation.createWriter(container);
+
+        // mock
+        writer.tableservice = tableService;
+        final List<TableBatchOperation> batches = Collections.synchronizedList(new ArrayList<TableBatchOperation>());
+        when(tableService.executeOperation(anyString(), any(TableBatchOperation.class)))
+                .then(new Answer<ArrayList<TableResult>>() {
+
+                    @Override
+                    public ArrayList<TableResult> answer(InvocationOnMock invocation) throws Throwable {
+                        TableBatchOperation batch = (TableBatchOperation) invocation.getArguments()[1];
+                        batches.add(batch);
+                        if ("partition1".equals(batch.get(0).getEntity().getPartitionKey())) {
+                            throw new StorageException("500", "insertion problem", new RuntimeException());
+                        }
+                        return new ArrayList<>();
+                    }
+                });
+
+        writer.open(RandomStringUtils.random(12));
+        int rejected = 0;
+        for (int i = 0; i < 500; i++) {
+            Record record = TableHelper.getRecord(i);
+            record.put("PartitionKey", "partition" + (i % 5));
+            writer.write(record);
+            for (Object reject : writer.getRejectedWrites()) {
+                rejected++;
+            }
+        }
+        Result result = writer.close();
+        for (Object reject : writer.getRejectedWrites()) {
+            rejected++;
+        }
+
+        // each partition is written in a single batch of 100 operations
+        assertEquals(5, batches.size());
+        for (TableBatchOperation batch : batches) {
+            assertEquals(100, batch.size());
+            String partitionKey = batch.get(0).getEntity().getPartitionKey();
+            for (TableOperation operation : batch) {
+                assertEquals(partitionKey, operation.getEntity().getPartitionKey());
+            }
+        }
+        assertEquals(500, result.totalCount);
+        assertEquals(400, result.successCount);
+        assertEquals(100, result.rejectCount);
+        assertEquals(100, rejected);
+    }
+
+    @Test
+    public void testPartitionBatchesAreExecutedInOrder() throws Exception {
+        properties.processOperationInBatch.setValue(true);
+        properties.groupBatchesByPartitionKey.setValue(true);
+        properties.batchConcurrency.setValue(4);
+
+        assertEquals(ValidationResult.Result.OK, sink.initialize(container, properties).getStatus());
+        WriteOperation<?> writeOperation = sink.createWriteOperation();
+        writeOperation.initialize(container);
+        writer = (AzureStorageTableWriter) writeOperation.createWriter(container);
+
+        // mock
+        writer.tableservice = tableService;
+        final List<Integer> firstRows = Collections.synchronizedList(new ArrayList<Integer>());
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        when(tableService.executeOperation(anyString(), any(TableBatchOperation.class)))
+                .then(new Answer<ArrayList<TableResult>>() {
+
+                    @Override
+                    public ArrayList<TableResult> answer(InvocationOnMock invocation) throws Throwable {
+                        TableBatchOperation batch = (TableBatchOperation) invocation.getArguments()[1];
+                        maxInFlight.set(Math.max(maxInFlight.get(), inFlight.incrementAndGet()));
+                        Thread.sleep(20);
+                        firstRows.add(Integer.valueOf(batch.get(0).getEntity().getRowKey().replaceAll("\\D", "")));
+                        inFlight.decrementAndGet();
+                        return new ArrayList<>();
+                    }
+                });
+
+        writer.open(RandomStringUtils.random(12));
+        for (int i = 0; i < 450; i++) {
+            Record record = TableHelper.getRecord(i);
+            record.put("PartitionKey", "partition");
+            writer.write(record);
+        }
+        Result result = writer.close();
+
+        // batches of the same partition are executed one after the other, in input order
+        assertEquals(5, firstRows.size());
+        assertEquals(1, maxInFlight.get());
+        for (int i = 1; i < firstRows.size(); i++) {
+            assertTrue(firstRows.get(i - 1) < firstRows.get(i));
+        }
+        assertEquals(450, result.successCount);
+    }
+
     @Test
     public void testGetWriteOperation() {
         // setup
@@ -0,0 +1,93 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.azurestorage.table.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.Test;
+import org.talend.components.azurestorage.table.TableHelper;
+
+import com.microsoft.azure.storage.table.DynamicTableEntity;
+import com.microsoft.azure.storage.table.EntityProperty;
+import com.microsoft.azure.storage.table.TableOperation;
+
+public class PartitionedBatchBufferTest {
+
+    private List<PartitionedBatchBuffer.Batch> add(PartitionedBatchBuffer buffer, String partitionKey, int i) {
+        DynamicTableEntity entity = new DynamicTableEntity(partitionKey, "row" + i);
+        entity.setProperties(new HashMap<String, EntityProperty>());
+        entity.getProperties().put("stringCol", new EntityProperty("value" + i));
+        return buffer.add(entity, TableOperation.insert(entity), TableHelper.getRecord(i));
+    }
+
+    @Test
+    public void testReleaseFullPartition() {
+        PartitionedBatchBuffer buffer = new PartitionedBatchBuffer();
+        for (int i = 0; i < 99; i++) {
+            assertTrue(add(buffer, "p" + (i % 2), i).isEmpty());
+        }
+        // p0 has 50 operations, p1 has 49
+        for (int i = 99; i < 148; i++) {
+            assertTrue(add(buffer, "p0", i).isEmpty());
+        }
+        List<PartitionedBatchBuffer.Batch> released = add(buffer, "p0", 148);
+        assertEquals(1, released.size());
+        assertEquals("p0", released.get(0).getPartitionKey());
+        assertEquals(PartitionedBatchBuffer.MAX_BATCH_OPERATIONS, released.get(0).size());
+
+        List<PartitionedBatchBuffer.Batch> remaining = buffer.drain();
+        assertEquals(1, remaining.size());
+        assertEquals("p1", remaining.get(0).getPartitionKey());
+        assertEquals(49, remaining.get(0).size());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsedPartition() {
+        PartitionedBatchBuffer buffer = new PartitionedBatchBuffer(2, Long.MAX_VALUE);
+        assertTrue(add(buffer, "p0", 0).isEmpty());
+        assertTrue(add(buffer, "p1", 1).isEmpty());
+        assertTrue(add(buffer, "p0", 2).isEmpty());
+
+        List<PartitionedBatchBuffer.Batch> released = add(buffer, "p2", 3);
+        assertEquals(1, released.size());
+        assertEquals("p1", released.get(0).getPartitionKey());
+        assertEquals(2, buffer.drain().size());
+    }
+
+    @Test
+    public void testEvictWhenMemoryBudgetExceeded() {
+        PartitionedBatchBuffer buffer = new PartitionedBatchBuffer(100, 1);
+        List<PartitionedBatchBuffer.Batch> released = add(buffer, "p0", 0);
+        assertEquals(1, released.size());
+        assertEquals(1, released.get(0).size());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void testReleaseBatchOnDuplicateRowKey() {
+        PartitionedBatchBuffer buffer = new PartitionedBatchBuffer();
+        assertTrue(add(buffer, "p0", 0).isEmpty());
+        assertTrue(add(buffer, "p0", 1).isEmpty());
+
+        // a transaction cannot hold two operations on row0
+        List<PartitionedBatchBuffer.Batch> released = add(buffer, "p0", 0);
+        assertEquals(1, released.size());
+        assertEquals(2, released.get(0).size());
+        assertEquals(1, buffer.drain().get(0).size());
+    }
+}
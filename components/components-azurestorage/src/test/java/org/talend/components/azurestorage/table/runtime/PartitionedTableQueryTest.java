@@ -0,0 +1,146 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.azurestorage.table.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.mockito.stubbing.Answer;
+import org.talend.components.api.exception.ComponentException;
+import org.talend.components.azurestorage.table.AzureStorageTableService;
+
+import com.microsoft.azure.storage.ResultContinuation;
+import com.microsoft.azure.storage.ResultSegment;
+import com.microsoft.azure.storage.StorageException;
+import com.microsoft.azure.storage.table.DynamicTableEntity;
+import com.microsoft.azure.storage.table.TableQuery;
+
+public class PartitionedTableQueryTest {
+
+    @Rule
+    public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private AzureStorageTableService tableService;
+
+    @Test
+    public void testRangeFilter() {
+        assertEquals("", PartitionedTableQuery.rangeFilter("", null, null));
+        assertEquals("PartitionKey ge 'a'", PartitionedTableQuery.rangeFilter(null, "a", null));
+        assertEquals("(PartitionKey ge 'a') and (PartitionKey lt 'm')", PartitionedTableQuery.rangeFilter("", "a", "m"));
+        assertEquals("(RowKey eq '1') and (PartitionKey lt 'm')", PartitionedTableQuery.rangeFilter("RowKey eq '1'", null, "m"));
+    }
+
+    @Test
+    public void testParseBoundaries() {
+        assertTrue(PartitionedTableQuery.parseBoundaries(null).isEmpty());
+        assertTrue(PartitionedTableQuery.parseBoundaries(" , ").isEmpty());
+        assertEquals(Arrays.asList("a", "m", "t"), PartitionedTableQuery.parseBoundaries("t, m ,a,m"));
+    }
+
+    @Test
+    public void testSampleBoundaries() throws Exception {
+        // Every probe returns the first key at or after its start point
+        final String[] keys = { "apple", "banana", "cherry", "kiwi", "lemon", "mango", "peach", "plum" };
+        when(tableService.executeQuerySegmented(anyString(), any(TableQuery.class), (ResultContinuation) any()))
+                .thenAnswer(new Answer<ResultSegment<DynamicTableEntity>>() {
+
+                    @Override
+                    public ResultSegment<DynamicTableEntity> answer(InvocationOnMock invocation) throws Throwable {
+                        String filter = ((TableQuery<?>) invocation.getArguments()[1]).getFilterString();
+                        String start = filter.substring(filter.indexOf('\'') + 1, filter.lastIndexOf('\''));
+                        ArrayList<DynamicTableEntity> results = new ArrayList<>();
+                        for (String key : keys) {
+                            if (key.compareTo(start) >= 0) {
+                                results.add(new DynamicTableEntity(key, ""));
+                                break;
+                            }
+                        }
+                        return new ResultSegment<>(results, 1, null);
+                    }
+                });
+
+        assertTrue(PartitionedTableQuery.sampleBoundaries(tableService, "table", "", 1).isEmpty());
+        assertEquals(Collections.singletonList("kiwi"), PartitionedTableQuery.sampleBoundaries(tableService, "table", "", 2));
+    }
+
+    @Test
+    public void testReadRanges() throws Exception {
+        when(tableService.executeQuerySegmented(anyString(), any(TableQuery.class), (ResultContinuation) any()))
+                .thenAnswer(new Answer<ResultSegment<DynamicTableEntity>>() {
+
+                    @Override
+                    public ResultSegment<DynamicTableEntity> answer(InvocationOnMock invocation) throws Throwable {
+                        String filter = ((TableQuery<?>) invocation.getArguments()[1]).getFilterString();
+                        ResultContinuation token = (ResultContinuation) invocation.getArguments()[2];
+                        String partitionKey = filter.contains("ge 'm'") ? "n" : "b";
+                        ArrayList<DynamicTableEntity> results = new ArrayList<>();
+                        results.add(new DynamicTableEntity(partitionKey, token == null ? "1" : "2"));
+                        // Two pages per range
+                        ResultContinuation next = null;
+                        if (token == null) {
+                            next = new ResultContinuation();
+                            next.setNextPartitionKey(partitionKey);
+                        }
+                        return new ResultSegment<>(results, 1, next);
+                    }
+                });
+
+        Set<String> read = new HashSet<>();
+        try (PartitionedTableQuery query = new PartitionedTableQuery(tableService, "table", "", 1,
+                Collections.singletonList("m"), 2, true)) {
+            while (query.hasNext()) {
+                DynamicTableEntity entity = query.next();
+                read.add(entity.getPartitionKey() + entity.getRowKey());
+            }
+        }
+        assertEquals(new HashSet<>(Arrays.asList("b1", "b2", "n1", "n2")), read);
+    }
+
+    @Test
+    public void testStopOnError() throws Exception {
+        when(tableService.executeQuerySegmented(anyString(), any(TableQuery.class), (ResultContinuation) any()))
+                .thenThrow(new StorageException("500", "Storage unavailable", new RuntimeException("")));
+
+        try (PartitionedTableQuery query = new PartitionedTableQuery(tableService, "table", "", 1,
+                Collections.singletonList("m"), 2, true)) {
+            query.hasNext();
+            fail("should stop on error");
+        } catch (ComponentException e) {
+            assertTrue(e.getCause() instanceof StorageException);
+        }
+
+        try (PartitionedTableQuery query = new PartitionedTableQuery(tableService, "table", "", 1,
+                Collections.singletonList("m"), 1, false)) {
+            // Both ranges are read on a single thread
+            assertFalse(query.hasNext());
+        }
+    }
+}
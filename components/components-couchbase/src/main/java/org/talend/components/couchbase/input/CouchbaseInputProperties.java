@@ -26,10 +26,20 @@ import org.apache.avro.Schema;
 import org.talend.components.api.component.PropertyPathConnector;
 import org.talend.components.couchbase.CouchbaseProperties;
 import org.talend.components.couchbase.EventSchemaField;
+import org.talend.components.couchbase.runtime.CouchbaseStreamingConnection;
 import org.talend.daikon.avro.AvroUtils;
+import org.talend.daikon.properties.presentation.Form;
+import org.talend.daikon.properties.property.Property;
+import org.talend.daikon.properties.property.PropertyFactory;
 
 public class CouchbaseInputProperties extends CouchbaseProperties {
 
+    /** Number of bytes a node may send before the reader acknowledges them. */
+    public Property<Integer> flowControlBufferSize = PropertyFactory.newInteger("flowControlBufferSize");
+
+    /** Partitions (vBuckets) to stream, such as "0-511", empty to stream all partitions. */
+    public Property<String> partitions = PropertyFactory.newString("partitions");
+
     public CouchbaseInputProperties(String name) {
         super(name);
     }
@@ -39,6 +49,17 @@ public class CouchbaseInputProperties extends CouchbaseProperties {
         super.setupProperties();
 
         schema.schema.setValue(getEventSchema());
+        flowControlBufferSize.setValue(CouchbaseStreamingConnection.DEFAULT_FLOW_CONTROL_BUFFER_SIZE);
+        partitions.setValue("");
+    }
+
+    @Override
+    public void setupLayout() {
+        super.setupLayout();
+
+        Form advancedForm = Form.create(this, Form.ADVANCED);
+        advancedForm.addRow(flowControlBufferSize);
+        advancedForm.addRow(partitions);
     }
 
     @Override
@@ -33,6 +33,12 @@ public class CouchbaseOutputProperties extends CouchbaseProperties {
 
     public Property<Boolean> containsJson = PropertyFactory.newBoolean("containsJson");
 
+    /** Number of records upserted together asynchronously, 1 upserts every record synchronously. */
+    public Property<Integer> batchSize = PropertyFactory.newInteger("batchSize");
+
+    /** Maximum number of upserts of a batch waiting for the server acknowledgement. */
+    public Property<Integer> maxInFlight = PropertyFactory.newInteger("maxInFlight");
+
     public CouchbaseOutputProperties(String name) {
         super(name);
     }
@@ -42,6 +48,8 @@ public class CouchbaseOutputProperties extends CouchbaseProperties {
         super.setupProperties();
         idFieldName.setValue("id");
         containsJson.setValue(false);
+        batchSize.setValue(1);
+        maxInFlight.setValue(128);
     }
 
     @Override
@@ -51,6 +59,10 @@ public class CouchbaseOutputProperties extends CouchbaseProperties {
         getForm(Form.MAIN).addRow(idFieldName);
         getForm(Form.MAIN).addRow(containsJson);
         getForm(Form.MAIN).addRow(dieOnError);
+
+        Form advancedForm = Form.create(this, Form.ADVANCED);
+        advancedForm.addRow(batchSize);
+        advancedForm.addColumn(maxInFlight);
     }
 
     @Override
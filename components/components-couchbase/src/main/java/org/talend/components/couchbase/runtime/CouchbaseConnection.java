@@ -15,16 +15,38 @@
  */
 package org.talend.components.couchbase.runtime;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import com.couchbase.client.core.BackpressureException;
+import com.couchbase.client.core.time.Delay;
 import com.couchbase.client.java.Bucket;
 import com.couchbase.client.java.CouchbaseCluster;
+import com.couchbase.client.java.document.Document;
 import com.couchbase.client.java.document.JsonDocument;
 import com.couchbase.client.java.document.RawJsonDocument;
 import com.couchbase.client.java.document.json.JsonObject;
 import com.couchbase.client.java.env.CouchbaseEnvironment;
 import com.couchbase.client.java.env.DefaultCouchbaseEnvironment;
+import com.couchbase.client.java.error.TemporaryFailureException;
+import com.couchbase.client.java.util.retry.RetryBuilder;
+
+import rx.Observable;
+import rx.functions.Func1;
 
 public class CouchbaseConnection {
 
+    /** Number of retries of an upsert rejected because the server or the client is overloaded. */
+    static final int MAX_UPSERT_RETRIES = 10;
+
+    /** Bounds of the exponential delay between retries, in milliseconds. */
+    private static final long MIN_RETRY_DELAY = 10;
+
+    private static final long MAX_RETRY_DELAY = 2000;
+
+    private final CouchbaseEnvironment environment;
     private final CouchbaseCluster cluster;
     private final String bucketName;
     private final String password;
@@ -32,7 +54,7 @@ public class CouchbaseConnection {
     private int refCounter = 0;
 
     public CouchbaseConnection(String bootstrapNodes, String bucket, String password) {
-        CouchbaseEnvironment environment = new DefaultCouchbaseEnvironment.Builder().connectTimeout(20000L).build();
+        this.environment = new DefaultCouchbaseEnvironment.Builder().connectTimeout(20000L).build();
         this.cluster = CouchbaseCluster.create(environment, bootstrapNodes);
         this.bucketName = bucket;
         this.password = password;
@@ -50,6 +72,38 @@ public class CouchbaseConnection {
         bucket.upsert(JsonDocument.create(id, jsonObject));
     }
 
+    /**
+     * Upsert documents asynchronously, with at most maxInFlight upserts sent and not acknowledged at the same time.
+     * Upserts rejected with a temporary failure or because of backpressure are retried with an exponential delay.
+     * An upsert which is not acknowledged within the key/value timeout of the environment fails with a timeout.
+     * Blocks until every document is either stored or failed.
+     *
+     * @return errors of the documents which were not stored, by document id
+     */
+    public Map<String, Throwable> upsertAll(List<? extends Document<?>> documents, int maxInFlight) {
+        final Map<String, Throwable> errors = new ConcurrentHashMap<>();
+        Observable.from(documents).flatMap(new Func1<Document<?>, Observable<Document<?>>>() {
+
+            @Override
+            public Observable<Document<?>> call(final Document<?> document) {
+                return bucket.async().upsert(document)
+                        .timeout(environment.kvTimeout(), TimeUnit.MILLISECONDS)
+                        .retryWhen(RetryBuilder.anyOf(TemporaryFailureException.class, BackpressureException.class)
+                                .delay(Delay.exponential(TimeUnit.MILLISECONDS, MAX_RETRY_DELAY, MIN_RETRY_DELAY))
+                                .max(MAX_UPSERT_RETRIES).build())
+                        .onErrorResumeNext(new Func1<Throwable, Observable<Document<?>>>() {
+
+                            @Override
+                            public Observable<Document<?>> call(Throwable error) {
+                                errors.put(document.id(), error);
+                                return Observable.empty();
+                            }
+                        });
+            }
+        }, Math.max(1, maxInFlight)).toBlocking().lastOrDefault(null);
+        return errors;
+    }
+
     public void increment() {
         refCounter++;
     }
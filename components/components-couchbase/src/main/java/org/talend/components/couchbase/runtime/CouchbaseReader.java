@@ -37,6 +37,9 @@ import com.couchbase.client.deps.io.netty.buffer.ByteBuf;
 public class CouchbaseReader implements Reader<IndexedRecord> {
     private transient static final Logger LOG = LoggerFactory.getLogger(CouchbaseStreamingConnection.class);
 
+    /** Interval between two logs of the buffering metrics. */
+    private static final long METRICS_LOG_INTERVAL_MILLIS = 10000;
+
     private final RuntimeContainer container;
     private final CouchbaseSource source;
 
@@ -45,6 +48,8 @@ public class CouchbaseReader implements Reader<IndexedRecord> {
     private LinkedBlockingQueue<ByteBuf> resultsQueue;
     private IndexedRecord currentRecord;
     private int recordCount;
+    private int maxQueueDepth;
+    private long lastMetricsLog;
 
     public CouchbaseReader(RuntimeContainer container, CouchbaseSource source) {
         super();
@@ -77,6 +82,7 @@ public class CouchbaseReader implements Reader<IndexedRecord> {
                 return false;
             }
             if (event != null) {
+                updateMetrics();
                 currentRecord = converter.convertToAvro(event);
                 connection.acknowledge(event);
                 event.release();
@@ -90,6 +96,33 @@ public class CouchbaseReader implements Reader<IndexedRecord> {
         return false;
     }
 
+    private void updateMetrics() {
+        int queueDepth = resultsQueue.size() + 1;
+        if (queueDepth > maxQueueDepth) {
+            maxQueueDepth = queueDepth;
+        }
+        long now = System.currentTimeMillis();
+        if (LOG.isDebugEnabled() && now - lastMetricsLog >= METRICS_LOG_INTERVAL_MILLIS) {
+            lastMetricsLog = now;
+            LOG.debug("Read {} events, {} events ({} bytes) buffered, lag {}", recordCount, queueDepth,
+                    connection.getBufferedBytes(), connection.getLag());
+        }
+    }
+
+    /**
+     * @return highest number of events waiting in the results queue
+     */
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    /**
+     * @return number of sequence numbers left to stream, see {@link CouchbaseStreamingConnection#getLag()}
+     */
+    public long getLag() {
+        return connection == null ? 0 : connection.getLag();
+    }
+
     @Override
     public IndexedRecord getCurrent() throws NoSuchElementException {
         return currentRecord;
@@ -102,6 +135,7 @@ public class CouchbaseReader implements Reader<IndexedRecord> {
 
     @Override
     public void close() throws IOException {
+        LOG.debug("Read {} events, at most {} events buffered", recordCount, maxQueueDepth);
         connection.stopStreaming();
     }
 
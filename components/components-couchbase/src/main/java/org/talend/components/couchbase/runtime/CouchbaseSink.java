@@ -35,6 +35,10 @@ public class CouchbaseSink extends CouchbaseSourceOrSink implements Sink {
 
     private boolean containsJson;
 
+    private int batchSize;
+
+    private int maxInFlight;
+
     @Override
     public ValidationResult initialize(RuntimeContainer container, ComponentProperties properties) {
         if (properties instanceof CouchbaseOutputProperties) {
@@ -45,6 +49,10 @@ public class CouchbaseSink extends CouchbaseSourceOrSink implements Sink {
             this.idFieldName = outputProperties.idFieldName.getStringValue();
             this.dieOnError = outputProperties.dieOnError.getValue();
             this.containsJson = outputProperties.containsJson.getValue();
+            Integer batchSize = outputProperties.batchSize.getValue();
+            this.batchSize = batchSize != null ? batchSize : 1;
+            Integer maxInFlight = outputProperties.maxInFlight.getValue();
+            this.maxInFlight = maxInFlight != null ? maxInFlight : 1;
             return ValidationResult.OK;
         }
         return new ValidationResult(Result.ERROR, "Wrong component properties, must be instanceof CouchbaseOutputProperties class");
@@ -77,6 +85,14 @@ public class CouchbaseSink extends CouchbaseSourceOrSink implements Sink {
         return containsJson;
     }
 
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
     public CouchbaseConnection getConnection() {
         if (connection == null) {
             connection = connect();
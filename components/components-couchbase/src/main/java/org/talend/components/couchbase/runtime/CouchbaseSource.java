@@ -16,6 +16,8 @@
 
 package org.talend.components.couchbase.runtime;
 
+import java.util.List;
+
 import org.apache.avro.Schema;
 import org.apache.avro.generic.IndexedRecord;
 import org.talend.components.api.component.runtime.Reader;
@@ -31,6 +33,8 @@ public class CouchbaseSource extends CouchbaseSourceOrSink implements Source {
     private static final long serialVersionUID = 3602741914997413619L;
 
     private Schema schema;
+    private int flowControlBufferSize;
+    private List<Short> partitions;
     private CouchbaseStreamingConnection connection;
 
     @Override
@@ -41,6 +45,14 @@ public class CouchbaseSource extends CouchbaseSourceOrSink implements Source {
             this.bucket = inputProperties.bucket.getStringValue();
             this.password = inputProperties.password.getStringValue();
             this.schema = inputProperties.schema.schema.getValue();
+            Integer bufferSize = inputProperties.flowControlBufferSize.getValue();
+            this.flowControlBufferSize = bufferSize != null && bufferSize > 0 ? bufferSize
+                    : CouchbaseStreamingConnection.DEFAULT_FLOW_CONTROL_BUFFER_SIZE;
+            try {
+                this.partitions = CouchbaseStreamingConnection.parsePartitions(inputProperties.partitions.getValue());
+            } catch (IllegalArgumentException e) {
+                return new ValidationResult(Result.ERROR, e.getMessage());
+            }
             return ValidationResult.OK;
         }
         return new ValidationResult(Result.ERROR, "Wrong component properties, must be instanceof CouchbaseInputProperties class");
@@ -73,7 +85,9 @@ public class CouchbaseSource extends CouchbaseSourceOrSink implements Source {
     }
 
     private CouchbaseStreamingConnection connect(RuntimeContainer runtime) {
-        CouchbaseStreamingConnection connection = new CouchbaseStreamingConnection(bootstrapNodes, bucket, password);
+        CouchbaseStreamingConnection connection = new CouchbaseStreamingConnection(bootstrapNodes, bucket, password,
+                flowControlBufferSize);
+        connection.setPartitions(partitions);
         connection.connect();
         if (runtime != null) {
             runtime.setComponentData(runtime.getCurrentComponentId(), ComponentConstants.CONNECTION_KEY, connection);
@@ -17,9 +17,14 @@
 package org.talend.components.couchbase.runtime;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,20 +35,50 @@ import com.couchbase.client.dcp.DataEventHandler;
 import com.couchbase.client.dcp.StreamFrom;
 import com.couchbase.client.dcp.StreamTo;
 import com.couchbase.client.dcp.config.DcpControl;
+import com.couchbase.client.dcp.state.PartitionState;
+import com.couchbase.client.dcp.state.SessionState;
 import com.couchbase.client.dcp.transport.netty.ChannelFlowController;
 import com.couchbase.client.deps.io.netty.buffer.ByteBuf;
 
+/**
+ * Streams DCP mutations of a bucket into a results queue.
+ *
+ * <p>Memory is bounded by DCP flow control: each node stops sending once {@code flowControlBufferSize} bytes are
+ * unacknowledged on its channel, and events are acknowledged to the node which sent them once the reader consumed
+ * them. The results queue itself is not bounded, blocking the netty IO thread on a full queue would stall the
+ * stream instead of throttling it.
+ *
+ * <p>A subset of the partitions (vBuckets) can be streamed, so that a bucket is split across several readers.
+ */
 public class CouchbaseStreamingConnection {
     private transient static final Logger LOG = LoggerFactory.getLogger(CouchbaseStreamingConnection.class);
     private static AtomicInteger threadId = new AtomicInteger(0);
 
+    /** Default number of unacknowledged bytes a node may send on a channel. */
+    public static final int DEFAULT_FLOW_CONTROL_BUFFER_SIZE = 10 * 1024 * 1024;
+
+    /** Percentage of the flow control buffer which is acknowledged to the node at once. */
+    private static final int BUFFER_ACK_WATERMARK = 60;
+
+    /** Number of partitions of a bucket when the client does not know it yet. */
+    private static final int DEFAULT_NUM_PARTITIONS = 1024;
+
     private final Client client;
     private volatile boolean connected;
     private volatile boolean streaming;
     private volatile BlockingQueue<ByteBuf> resultsQueue;
     private EventHandler dataEventHandler;
+    private Short[] partitions;
+    // Events are acknowledged on the channel they were received from
+    private final Map<ByteBuf, ChannelFlowController> eventControllers = Collections
+            .synchronizedMap(new IdentityHashMap<ByteBuf, ChannelFlowController>());
+    private final AtomicLong bufferedBytes = new AtomicLong();
 
     public CouchbaseStreamingConnection(String bootstrapNodes, String bucket, String password) {
+        this(bootstrapNodes, bucket, password, DEFAULT_FLOW_CONTROL_BUFFER_SIZE);
+    }
+
+    public CouchbaseStreamingConnection(String bootstrapNodes, String bucket, String password, int flowControlBufferSize) {
         connected = false;
         streaming = false;
         client = Client.configure()
@@ -51,8 +86,8 @@ public class CouchbaseStreamingConnection {
                 .hostnames(bootstrapNodes)
                 .bucket(bucket)
                 .password(password == null ? "" : password)
-                .controlParam(DcpControl.Names.CONNECTION_BUFFER_SIZE, 20480)
-                .bufferAckWatermark(60)
+                .controlParam(DcpControl.Names.CONNECTION_BUFFER_SIZE, flowControlBufferSize)
+                .bufferAckWatermark(BUFFER_ACK_WATERMARK)
                 .build();
         client.controlEventHandler(new ControlEventHandler() {
 
@@ -88,11 +123,53 @@ public class CouchbaseStreamingConnection {
         return streaming;
     }
 
+    /**
+     * Restrict streaming to a subset of the partitions, must be called before streaming starts.
+     *
+     * @param partitions partitions to stream, null or empty to stream all partitions of the bucket
+     */
+    public void setPartitions(List<Short> partitions) {
+        this.partitions = partitions == null || partitions.isEmpty() ? null : partitions.toArray(new Short[0]);
+    }
+
+    /**
+     * @return number of bytes received and not acknowledged yet
+     */
+    public long getBufferedBytes() {
+        return bufferedBytes.get();
+    }
+
+    /**
+     * @return number of sequence numbers the streamed partitions still have to go through until the end of the stream
+     */
+    public long getLag() {
+        SessionState sessionState = client.sessionState();
+        if (sessionState == null) {
+            return 0;
+        }
+        long lag = 0;
+        for (short partition : partitionsToStream()) {
+            PartitionState partitionState = sessionState.get(partition);
+            if (partitionState != null && Long.compareUnsigned(partitionState.getStartSeqno(),
+                    partitionState.getEndSeqno()) < 0) {
+                lag += partitionState.getEndSeqno() - partitionState.getStartSeqno();
+            }
+        }
+        return lag;
+    }
+
+    /**
+     * Start streaming the partitions into the results queue.
+     *
+     * @throws IllegalArgumentException if a partition set with {@link #setPartitions(List)} is not a partition of
+     * the bucket
+     */
     public void startStreaming(final BlockingQueue<ByteBuf> resultsQueue) {
         if (streaming) {
             LOG.warn("This connection already in streaming mode, create another one.");
             return;
         }
+        checkPartitions();
         streaming = true;
         this.resultsQueue = resultsQueue;
         client.initializeState(StreamFrom.BEGINNING, StreamTo.NOW).await();
@@ -103,7 +180,7 @@ public class CouchbaseStreamingConnection {
                 try {
                     client.startStreaming(partitionsToStream()).await();
                     while (true) {
-                        if (client.sessionState().isAtEnd()) {
+                        if (isAtEnd()) {
                             break;
                         }
                         try {
@@ -128,22 +205,97 @@ public class CouchbaseStreamingConnection {
             List<ByteBuf> drained = new ArrayList<ByteBuf>();
             queue.drainTo(drained);
             for (ByteBuf byteBuf : drained) {
+                eventControllers.remove(byteBuf);
                 byteBuf.release();
             }
+            bufferedBytes.set(0);
             client.disconnect();
         }
     }
 
     public void acknowledge(ByteBuf event) {
-        dataEventHandler.getController().ack(event);
+        ChannelFlowController controller = eventControllers.remove(event);
+        if (controller == null) {
+            controller = dataEventHandler.getController();
+        }
+        bufferedBytes.addAndGet(-event.readableBytes());
+        controller.ack(event);
+    }
+
+    private boolean isAtEnd() {
+        if (partitions == null) {
+            return client.sessionState().isAtEnd();
+        }
+        SessionState sessionState = client.sessionState();
+        for (short partition : partitions) {
+            PartitionState partitionState = sessionState.get(partition);
+            if (partitionState != null && Long.compareUnsigned(partitionState.getStartSeqno(),
+                    partitionState.getEndSeqno()) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void checkPartitions() {
+        int numPartitions = client.numPartitions();
+        if (partitions == null || numPartitions <= 0) {
+            return;
+        }
+        for (short partition : partitions) {
+            if (partition >= numPartitions) {
+                throw new IllegalArgumentException("Partition " + partition + " does not exist, the bucket has "
+                        + numPartitions + " partitions (0-" + (numPartitions - 1) + ")");
+            }
+        }
     }
 
     private Short[] partitionsToStream() {
-        Short[] partitions = new Short[1024];
-        for (short i = 0; i < 1024; i++) {
-            partitions[i] = i;
+        if (partitions != null) {
+            return partitions;
+        }
+        int numPartitions = client.numPartitions();
+        if (numPartitions <= 0) {
+            numPartitions = DEFAULT_NUM_PARTITIONS;
+        }
+        Short[] allPartitions = new Short[numPartitions];
+        for (short i = 0; i < numPartitions; i++) {
+            allPartitions[i] = i;
+        }
+        return allPartitions;
+    }
+
+    /**
+     * Parse a partition list such as {@code "0-255,512,600-610"}.
+     *
+     * @return sorted distinct partitions, empty for an empty list
+     * @throws IllegalArgumentException if an item is not a partition number or range
+     */
+    public static List<Short> parsePartitions(String partitions) {
+        TreeSet<Short> result = new TreeSet<>();
+        if (partitions == null) {
+            return new ArrayList<>(result);
+        }
+        for (String item : partitions.split(",")) {
+            item = item.trim();
+            if (item.isEmpty()) {
+                continue;
+            }
+            int separator = item.indexOf('-', 1);
+            try {
+                short first = Short.parseShort(separator < 0 ? item : item.substring(0, separator).trim());
+                short last = separator < 0 ? first : Short.parseShort(item.substring(separator + 1).trim());
+                if (first < 0 || last < first) {
+                    throw new IllegalArgumentException("Invalid partition range: " + item);
+                }
+                for (int partition = first; partition <= last; partition++) {
+                    result.add((short) partition);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid partition: " + item, e);
+            }
         }
-        return partitions;
+        return new ArrayList<>(result);
     }
 
     private class EventHandler implements DataEventHandler {
@@ -157,8 +309,12 @@ public class CouchbaseStreamingConnection {
             }
             if (resultsQueue != null) {
                 try {
+                    eventControllers.put(event, controller);
+                    bufferedBytes.addAndGet(event.readableBytes());
                     resultsQueue.put(event);
                 } catch (InterruptedException e) {
+                    eventControllers.remove(event);
+                    bufferedBytes.addAndGet(-event.readableBytes());
                     LOG.error("Unable to put DCP request into the results queue");
                 }
             } else {
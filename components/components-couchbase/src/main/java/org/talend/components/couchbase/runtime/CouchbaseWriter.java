@@ -16,10 +16,17 @@
 
 package org.talend.components.couchbase.runtime;
 
+import com.couchbase.client.java.document.Document;
+import com.couchbase.client.java.document.JsonDocument;
+import com.couchbase.client.java.document.RawJsonDocument;
 import com.couchbase.client.java.document.json.JsonArray;
 import com.couchbase.client.java.document.json.JsonObject;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.avro.Schema;
 import org.apache.avro.generic.IndexedRecord;
@@ -37,6 +44,10 @@ public class CouchbaseWriter implements Writer<Result> {
     private final String idFieldName;
     private final boolean dieOnError;
     private final boolean containsJson;
+    private final int batchSize;
+    private final int maxInFlight;
+    private final List<Document<?>> batch = new ArrayList<>();
+    private final Map<String, IndexedRecord> batchRecords = new HashMap<>();
     private volatile boolean opened;
     private Result result;
     private CouchbaseConnection connection;
@@ -47,6 +58,8 @@ public class CouchbaseWriter implements Writer<Result> {
         this.idFieldName = sink.getIdFieldName();
         this.dieOnError = sink.isDieOnError();
         this.containsJson = sink.getContainsJson();
+        this.batchSize = sink.getBatchSize();
+        this.maxInFlight = sink.getMaxInFlight();
     }
 
     @Override
@@ -87,6 +100,10 @@ public class CouchbaseWriter implements Writer<Result> {
             handleException("Record is not processed. ID is null.", new IllegalArgumentException("ID field should not be null"));
             return;
         }
+        if (batchSize > 1) {
+            addToBatch(id.toString(), schema, record, idPos);
+            return;
+        }
         try {
             if (containsJson){
                 connection.insertJsonDocument(id.toString(), createHierarchicalJson(schema, record, idPos));
@@ -99,6 +116,56 @@ public class CouchbaseWriter implements Writer<Result> {
         }
     }
 
+    private void addToBatch(String id, Schema schema, IndexedRecord record, int idPos) throws IOException {
+        // Upserts of a batch run concurrently, a second upsert of the same document waits for the next batch
+        if (batchRecords.containsKey(id)) {
+            flush();
+        }
+        if (containsJson) {
+            batch.add(JsonDocument.create(id, createHierarchicalJson(schema, record, idPos)));
+        } else {
+            batch.add(RawJsonDocument.create(id, record.toString()));
+        }
+        batchRecords.put(id, record);
+        if (batch.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Upsert the documents of the batch, failed documents are rejected.
+     * When the upsert of the batch itself fails, documents may have been stored or not: they are neither counted
+     * as successes nor as rejects.
+     */
+    private void flush() throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Document<?>> documents = new ArrayList<>(batch);
+        Map<String, IndexedRecord> records = new HashMap<>(batchRecords);
+        batch.clear();
+        batchRecords.clear();
+        Map<String, Throwable> errors;
+        try {
+            errors = connection.upsertAll(documents, maxInFlight);
+        } catch (Exception e) {
+            String message = "Upsert of " + documents.size() + " documents failed, their outcome is unknown";
+            if (dieOnError) {
+                throw new IOException(message, e);
+            }
+            LOGGER.warn(message, e);
+            return;
+        }
+        result.successCount += documents.size() - errors.size();
+        for (Document<?> document : documents) {
+            Throwable error = errors.get(document.id());
+            if (error != null) {
+                handleException("Record is not processed. Failed to upsert value - " + records.get(document.id()),
+                        error instanceof Exception ? (Exception) error : new Exception(error));
+            }
+        }
+    }
+
     public JsonObject createHierarchicalJson(Schema schema, IndexedRecord record, int idPos){
         JsonObject jsonObject = JsonObject.create();
         for (int i = 0; i < schema.getFields().size(); i++){
@@ -131,7 +198,11 @@ public class CouchbaseWriter implements Writer<Result> {
 
     @Override
     public Result close() throws IOException {
-        connection.decrement();
+        try {
+            flush();
+        } finally {
+            connection.decrement();
+        }
         return result;
     }
 
@@ -55,6 +55,11 @@ public class CouchbaseInputPropertiesTest {
 
         Widget schemaWidget = main.getWidget("schema");
         assertThat(schemaWidget, notNullValue());
+
+        Form advanced = properties.getForm(Form.ADVANCED);
+        assertThat(advanced, notNullValue());
+        assertThat(advanced.getWidget("flowControlBufferSize"), notNullValue());
+        assertThat(advanced.getWidget("partitions"), notNullValue());
     }
 
 }
\ No newline at end of file
@@ -1,5 +1,11 @@
 package org.talend.components.couchbase.runtime;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -8,10 +14,15 @@ import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import com.couchbase.client.java.AsyncBucket;
 import com.couchbase.client.java.Bucket;
 import com.couchbase.client.java.CouchbaseCluster;
 import com.couchbase.client.java.document.RawJsonDocument;
 import com.couchbase.client.java.env.CouchbaseEnvironment;
+import com.couchbase.client.java.error.TemporaryFailureException;
+
+import rx.Observable;
+import rx.functions.Func0;
 
 @RunWith(PowerMockRunner.class)
 @PrepareForTest(CouchbaseCluster.class)
@@ -50,6 +61,38 @@ public class CouchbaseConnectionTest {
         Mockito.verify(bucket).upsert(Mockito.any(RawJsonDocument.class));
     }
 
+    @Test
+    public void testUpsertAllRetriesTemporaryFailures() {
+        connection.connect();
+
+        AsyncBucket asyncBucket = Mockito.mock(AsyncBucket.class);
+        Mockito.when(bucket.async()).thenReturn(asyncBucket);
+        final RawJsonDocument stored = RawJsonDocument.create("stored", "{}");
+        final RawJsonDocument retried = RawJsonDocument.create("retried", "{}");
+        final RawJsonDocument failed = RawJsonDocument.create("failed", "{}");
+        final AtomicInteger attempts = new AtomicInteger();
+        Mockito.when(asyncBucket.upsert(stored)).thenReturn(Observable.just(stored));
+        // First attempt is rejected, the retry succeeds
+        Mockito.when(asyncBucket.upsert(retried)).thenReturn(Observable.defer(new Func0<Observable<RawJsonDocument>>() {
+
+            @Override
+            public Observable<RawJsonDocument> call() {
+                if (attempts.incrementAndGet() == 1) {
+                    return Observable.error(new TemporaryFailureException());
+                }
+                return Observable.just(retried);
+            }
+        }));
+        Mockito.when(asyncBucket.upsert(failed))
+                .thenReturn(Observable.<RawJsonDocument> error(new IllegalStateException("not retried")));
+
+        Map<String, Throwable> errors = connection.upsertAll(Arrays.asList(stored, retried, failed), 2);
+
+        Assert.assertEquals(2, attempts.get());
+        Assert.assertEquals(Collections.singleton("failed"), errors.keySet());
+        Assert.assertTrue(errors.get("failed") instanceof IllegalStateException);
+    }
+
     @Test
     public void testIncrementAndDecrement() {
         connection.connect();
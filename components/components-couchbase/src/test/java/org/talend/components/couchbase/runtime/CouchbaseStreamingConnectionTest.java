@@ -1,5 +1,7 @@
 package org.talend.components.couchbase.runtime;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 
@@ -7,6 +9,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
@@ -14,10 +17,13 @@ import org.powermock.modules.junit4.PowerMockRunner;
 
 import com.couchbase.client.dcp.Client;
 import com.couchbase.client.dcp.Client.Builder;
+import com.couchbase.client.dcp.DataEventHandler;
 import com.couchbase.client.dcp.StreamFrom;
 import com.couchbase.client.dcp.StreamTo;
 import com.couchbase.client.dcp.config.DcpControl.Names;
+import com.couchbase.client.dcp.state.PartitionState;
 import com.couchbase.client.dcp.state.SessionState;
+import com.couchbase.client.dcp.transport.netty.ChannelFlowController;
 import com.couchbase.client.deps.io.netty.buffer.ByteBuf;
 
 import rx.Completable;
@@ -108,4 +114,93 @@ public class CouchbaseStreamingConnectionTest {
         Mockito.verify(client, Mockito.times(1)).disconnect();
     }
 
+    @Test
+    public void testStreamPartitionSubset() throws InterruptedException {
+        Mockito.when(client.initializeState(StreamFrom.BEGINNING, StreamTo.NOW)).thenReturn(Completable.complete());
+        Mockito.when(client.startStreaming(Mockito.<Short[]>anyVararg())).thenReturn(Completable.complete());
+        SessionState sessionState = Mockito.mock(SessionState.class);
+        PartitionState partitionState = Mockito.mock(PartitionState.class);
+        Mockito.when(partitionState.getStartSeqno()).thenReturn(10L);
+        Mockito.when(partitionState.getEndSeqno()).thenReturn(15L);
+        Mockito.when(sessionState.get(Mockito.anyInt())).thenReturn(partitionState);
+        Mockito.when(client.sessionState()).thenReturn(sessionState);
+
+        streamingConnection.setPartitions(Arrays.asList((short) 3, (short) 4));
+        streamingConnection.startStreaming(new ArrayBlockingQueue<ByteBuf>(1));
+
+        Thread.sleep(200);
+        Mockito.verify(client).startStreaming((short) 3, (short) 4);
+        Assert.assertEquals(10, streamingConnection.getLag());
+
+        // Streaming ends once every streamed partition reached its end
+        Mockito.when(partitionState.getStartSeqno()).thenReturn(15L);
+        Thread.sleep(1000);
+        Assert.assertFalse(streamingConnection.isStreaming());
+        Assert.assertEquals(0, streamingConnection.getLag());
+    }
+
+    @Test
+    public void testStreamPartitionWithoutState() throws InterruptedException {
+        Mockito.when(client.initializeState(StreamFrom.BEGINNING, StreamTo.NOW)).thenReturn(Completable.complete());
+        Mockito.when(client.startStreaming(Mockito.<Short[]>anyVararg())).thenReturn(Completable.complete());
+        SessionState sessionState = Mockito.mock(SessionState.class);
+        Mockito.when(client.sessionState()).thenReturn(sessionState);
+
+        streamingConnection.setPartitions(Arrays.asList((short) 3));
+        streamingConnection.startStreaming(new ArrayBlockingQueue<ByteBuf>(1));
+
+        Thread.sleep(200);
+        Assert.assertFalse(streamingConnection.isStreaming());
+        Assert.assertEquals(0, streamingConnection.getLag());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStreamPartitionOutOfBucket() {
+        Mockito.when(client.numPartitions()).thenReturn(64);
+
+        streamingConnection.setPartitions(Arrays.asList((short) 3, (short) 64));
+        streamingConnection.startStreaming(new ArrayBlockingQueue<ByteBuf>(1));
+    }
+
+    @Test
+    public void testAcknowledgeOnReceivingChannel() throws InterruptedException {
+        Mockito.when(client.initializeState(StreamFrom.BEGINNING, StreamTo.NOW)).thenReturn(Completable.complete());
+        Mockito.when(client.startStreaming(Mockito.<Short[]>anyVararg())).thenReturn(Completable.complete());
+        SessionState sessionState = Mockito.mock(SessionState.class);
+        Mockito.when(sessionState.isAtEnd()).thenReturn(false, true);
+        Mockito.when(client.sessionState()).thenReturn(sessionState);
+        ArgumentCaptor<DataEventHandler> handler = ArgumentCaptor.forClass(DataEventHandler.class);
+        Mockito.verify(client).dataEventHandler(handler.capture());
+
+        BlockingQueue<ByteBuf> resultsQueue = new ArrayBlockingQueue<>(2);
+        streamingConnection.startStreaming(resultsQueue);
+        ChannelFlowController firstNode = Mockito.mock(ChannelFlowController.class);
+        ChannelFlowController secondNode = Mockito.mock(ChannelFlowController.class);
+        ByteBuf firstEvent = Mockito.mock(ByteBuf.class);
+        Mockito.when(firstEvent.readableBytes()).thenReturn(100);
+        ByteBuf secondEvent = Mockito.mock(ByteBuf.class);
+        Mockito.when(secondEvent.readableBytes()).thenReturn(50);
+        handler.getValue().onEvent(firstNode, firstEvent);
+        handler.getValue().onEvent(secondNode, secondEvent);
+        Assert.assertEquals(150, streamingConnection.getBufferedBytes());
+
+        streamingConnection.acknowledge(resultsQueue.take());
+        Mockito.verify(firstNode).ack(firstEvent);
+        Mockito.verify(secondNode, Mockito.never()).ack(firstEvent);
+        Assert.assertEquals(50, streamingConnection.getBufferedBytes());
+    }
+
+    @Test
+    public void testParsePartitions() {
+        Assert.assertEquals(Arrays.asList((short) 0, (short) 1, (short) 2, (short) 7),
+                CouchbaseStreamingConnection.parsePartitions(" 0-2, 7,1 "));
+        Assert.assertEquals(Collections.emptyList(), CouchbaseStreamingConnection.parsePartitions(""));
+        Assert.assertEquals(Collections.emptyList(), CouchbaseStreamingConnection.parsePartitions(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseInvalidPartitions() {
+        CouchbaseStreamingConnection.parsePartitions("10-2");
+    }
+
 }
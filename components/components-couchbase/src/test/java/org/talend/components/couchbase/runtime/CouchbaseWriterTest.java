@@ -2,8 +2,11 @@ package org.talend.components.couchbase.runtime;
 
 import com.couchbase.client.java.document.json.JsonArray;
 import com.couchbase.client.java.document.json.JsonObject;
+import com.couchbase.client.java.error.TemporaryFailureException;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.apache.avro.Schema;
 import org.apache.avro.SchemaBuilder;
@@ -60,6 +63,59 @@ public class CouchbaseWriterTest {
         Mockito.verify(connection, Mockito.times(1)).decrement();
     }
 
+    @Test
+    public void testBatchedWrite() throws IOException {
+        // Prepare objects.
+        CouchbaseConnection connection = Mockito.mock(CouchbaseConnection.class);
+        Mockito.when(sink.getConnection()).thenReturn(connection);
+        Mockito.when(sink.getBatchSize()).thenReturn(3);
+        Mockito.when(sink.getMaxInFlight()).thenReturn(8);
+        Map<String, Throwable> errors = new HashMap<>();
+        errors.put("2", new TemporaryFailureException());
+        Mockito.when(connection.upsertAll(Mockito.anyList(), Mockito.eq(8)))
+                .thenReturn(errors, new HashMap<String, Throwable>());
+        writer = new CouchbaseWriter(writeOperation);
+
+        Schema schema = SchemaBuilder.builder().record("record").fields().requiredString("idFieldName").endRecord();
+
+        // Calling real methods.
+        writer.open("random");
+        for (String id : new String[] { "1", "2", "3", "4", "4" }) {
+            writer.write(new GenericRecordBuilder(schema).set("idFieldName", id).build());
+        }
+        Result result = writer.close();
+
+        assertEquals(5, result.totalCount);
+        assertEquals(4, result.successCount);
+        assertEquals(1, result.rejectCount);
+        // One full batch, a batch flushed before the second upsert of "4" and the last batch on close.
+        Mockito.verify(connection, Mockito.times(3)).upsertAll(Mockito.anyList(), Mockito.eq(8));
+        Mockito.verify(connection, Mockito.never()).upsert(Mockito.anyString(), Mockito.anyString());
+    }
+
+    @Test
+    public void testFailedBatchIsNotRejected() throws IOException {
+        CouchbaseConnection connection = Mockito.mock(CouchbaseConnection.class);
+        Mockito.when(sink.getConnection()).thenReturn(connection);
+        Mockito.when(sink.getBatchSize()).thenReturn(2);
+        Mockito.when(sink.getMaxInFlight()).thenReturn(8);
+        Mockito.when(connection.upsertAll(Mockito.anyList(), Mockito.eq(8))).thenThrow(new RuntimeException("timeout"));
+        writer = new CouchbaseWriter(writeOperation);
+
+        Schema schema = SchemaBuilder.builder().record("record").fields().requiredString("idFieldName").endRecord();
+
+        writer.open("random");
+        for (String id : new String[] { "1", "2" }) {
+            writer.write(new GenericRecordBuilder(schema).set("idFieldName", id).build());
+        }
+        Result result = writer.close();
+
+        // Documents of the failed batch may have been stored, their outcome is unknown
+        assertEquals(2, result.totalCount);
+        assertEquals(0, result.successCount);
+        assertEquals(0, result.rejectCount);
+    }
+
     @Test
     public void testWriteWithNotOpenedWriter() throws IOException {
         thrown.expect(IOException.class);
@@ -74,10 +74,37 @@ public class MarketoConstants {
 
     public static final String DATETIME_PATTERN_REST = "yyyy-MM-dd'T'HH:mm:ssZ";
 
+    public static final String DATETIME_PATTERN_REST_UTC = "yyyy-MM-dd'T'HH:mm:ss'Z'";
+
     public static final String DATETIME_PATTERN_SOAP = "yyyy-MM-dd'T'HH:mm:ss'.000Z'";
 
     public static final int REST_API_LIMIT = 300;
 
+    /**
+     * Maximum number of days of the createdAt range of a Bulk Extract job.
+     */
+    public static final int BULK_EXTRACT_MAX_DAYS = 31;
+
+    /**
+     * Maximum number of Bulk Extract jobs queued or processing at the same time for an instance.
+     */
+    public static final int BULK_EXTRACT_MAX_CONCURRENT_JOBS = 2;
+
+    /**
+     * Default interval between two status requests of a Bulk Extract job, in seconds.
+     */
+    public static final int BULK_EXTRACT_POLL_INTERVAL = 60;
+
+    /**
+     * Maximum size of a Bulk Import file, in megabytes.
+     */
+    public static final int BULK_IMPORT_MAX_FILE_SIZE = 10;
+
+    /**
+     * Maximum number of Bulk Import jobs queued or processing at the same time for an instance.
+     */
+    public static final int BULK_IMPORT_MAX_CONCURRENT_JOBS = 10;
+
     public static Schema getEmptySchema() {
         return SchemaBuilder.builder().record("empty").fields().endRecord();
     }
@@ -70,6 +70,10 @@ public class TMarketoBulkExecProperties extends MarketoComponentProperties {
 
     public Property<String> logDownloadPath = newString("logDownloadPath").setRequired();
 
+    public Property<Integer> bulkImportMaxFileSize = newInteger("bulkImportMaxFileSize");
+
+    public Property<Integer> bulkImportMaxConcurrentJobs = newInteger("bulkImportMaxConcurrentJobs");
+
     private static final I18nMessages messages = GlobalI18N.getI18nMessageProvider()
             .getI18nMessages(TMarketoBulkExecProperties.class);
 
@@ -106,6 +110,8 @@ public class TMarketoBulkExecProperties extends MarketoComponentProperties {
         bulkFileFormat.setValue(BulkFileFormat.csv);
 
         pollWaitTime.setValue(15);
+        bulkImportMaxFileSize.setValue(MarketoConstants.BULK_IMPORT_MAX_FILE_SIZE);
+        bulkImportMaxConcurrentJobs.setValue(2);
     }
 
     @Override
@@ -124,6 +130,10 @@ public class TMarketoBulkExecProperties extends MarketoComponentProperties {
         mainForm.addRow(pollWaitTime);
         mainForm.addRow(widget(logDownloadPath).setWidgetType(Widget.DIRECTORY_WIDGET_TYPE));
         mainForm.addRow(dieOnError);
+
+        Form advancedForm = getForm(Form.ADVANCED);
+        advancedForm.addRow(bulkImportMaxFileSize);
+        advancedForm.addColumn(bulkImportMaxConcurrentJobs);
     }
 
     @Override
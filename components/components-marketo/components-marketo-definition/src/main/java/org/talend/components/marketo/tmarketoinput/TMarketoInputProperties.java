@@ -54,6 +54,9 @@ import static org.slf4j.LoggerFactory.getLogger;
 import static org.talend.components.marketo.MarketoComponentDefinition.RUNTIME_SOURCEORSINK_CLASS;
 import static org.talend.components.marketo.MarketoComponentDefinition.USE_CURRENT_JVM_PROPS;
 import static org.talend.components.marketo.MarketoComponentDefinition.getSandboxedInstance;
+import static org.talend.components.marketo.MarketoConstants.BULK_EXTRACT_MAX_CONCURRENT_JOBS;
+import static org.talend.components.marketo.MarketoConstants.BULK_EXTRACT_MAX_DAYS;
+import static org.talend.components.marketo.MarketoConstants.BULK_EXTRACT_POLL_INTERVAL;
 import static org.talend.components.marketo.MarketoConstants.DATETIME_PATTERN_PARAM;
 import static org.talend.components.marketo.MarketoConstants.REST_API_LIMIT;
 import static org.talend.components.marketo.MarketoConstants.getRESTSchemaForGetLeadActivity;
@@ -265,6 +268,20 @@ public class TMarketoInputProperties extends MarketoComponentWizardBasePropertie
 
     }
 
+    /**
+     * Order of the records read by parallel activity chains.
+     */
+    public enum ActivityMergeOrder {
+        /**
+         * Records of a partition after the ones of the previous partitions.
+         */
+        Partition,
+        /**
+         * Records as soon as they are fetched.
+         */
+        Arrival
+    }
+
     // Companies / Opportunities / OpportunityRoles
     public enum StandardAction {
         describe,
@@ -331,6 +348,26 @@ public class TMarketoInputProperties extends MarketoComponentWizardBasePropertie
 
     public Property<StandardAction> standardAction = newEnum("standardAction", StandardAction.class);
 
+    /**
+     * Bulk Extract : leads and activities are exported to CSV files by Marketo instead of being paged through REST.
+     */
+    public Property<Boolean> useBulkExtract = newBoolean("useBulkExtract");
+
+    public Property<Integer> bulkExtractChunkDays = newInteger("bulkExtractChunkDays");
+
+    public Property<Integer> bulkExtractMaxConcurrentJobs = newInteger("bulkExtractMaxConcurrentJobs");
+
+    public Property<Integer> bulkExtractPollInterval = newInteger("bulkExtractPollInterval");
+
+    /**
+     * Activities and lead changes : number of page token chains fetched in parallel.
+     */
+    public Property<Integer> activityParallelism = newInteger("activityParallelism");
+
+    public Property<Integer> activityPartitionDays = newInteger("activityPartitionDays");
+
+    public Property<ActivityMergeOrder> activityMergeOrder = newEnum("activityMergeOrder", ActivityMergeOrder.class);
+
     //
     private static final long serialVersionUID = 3335746787979781L;
 
@@ -388,6 +425,20 @@ public class TMarketoInputProperties extends MarketoComponentWizardBasePropertie
         standardAction.setPossibleValues((Object[]) StandardAction.values());
         standardAction.setValue(StandardAction.describe);
         //
+        // Bulk Extract
+        //
+        useBulkExtract.setValue(false);
+        bulkExtractChunkDays.setValue(BULK_EXTRACT_MAX_DAYS);
+        bulkExtractMaxConcurrentJobs.setValue(BULK_EXTRACT_MAX_CONCURRENT_JOBS);
+        bulkExtractPollInterval.setValue(BULK_EXTRACT_POLL_INTERVAL);
+        //
+        // Parallel activities
+        //
+        activityParallelism.setValue(1);
+        activityPartitionDays.setValue(0);
+        activityMergeOrder.setPossibleValues((Object[]) ActivityMergeOrder.values());
+        activityMergeOrder.setValue(ActivityMergeOrder.Partition);
+        //
         schemaInput.schema.setValue(getRESTSchemaForGetLeadOrGetMultipleLeads());
         beforeMappingInput();
         setSchemaListener(new ISchemaListener() {
@@ -419,6 +470,7 @@ public class TMarketoInputProperties extends MarketoComponentWizardBasePropertie
         mainForm.addRow(Widget.widget(fetchCompoundKey).setWidgetType(Widget.BUTTON_WIDGET_TYPE).setLongRunning(true));
         //
         mainForm.addRow(widget(mappingInput).setWidgetType(Widget.TABLE_WIDGET_TYPE));
+        mainForm.addRow(useBulkExtract);
         // leadSelector
         mainForm.addRow(leadSelectorSOAP);
         mainForm.addRow(leadSelectorREST);
@@ -448,7 +500,22 @@ public class TMarketoInputProperties extends MarketoComponentWizardBasePropertie
         //
         mainForm.addRow(batchSize);
         mainForm.addRow(dieOnError);
+        //
+        Form advancedForm = getForm(Form.ADVANCED);
+        advancedForm.addRow(bulkExtractChunkDays);
+        advancedForm.addColumn(bulkExtractMaxConcurrentJobs);
+        advancedForm.addColumn(bulkExtractPollInterval);
+        advancedForm.addRow(activityParallelism);
+        advancedForm.addColumn(activityPartitionDays);
+        advancedForm.addColumn(activityMergeOrder);
+    }
 
+    /**
+     * @return true when leads or activities are read with the Bulk Extract API.
+     */
+    public boolean isBulkExtract() {
+        return isApiREST() && useBulkExtract.getValue()
+                && (getMultipleLeads.equals(inputOperation.getValue()) || getLeadActivity.equals(inputOperation.getValue()));
     }
 
     @Override
@@ -457,6 +524,17 @@ public class TMarketoInputProperties extends MarketoComponentWizardBasePropertie
 
         boolean useSOAP = isApiSOAP();
         //
+        if (form.getName().equals(Form.ADVANCED)) {
+            boolean bulkExtract = isBulkExtract();
+            form.getWidget(bulkExtractChunkDays.getName()).setVisible(bulkExtract);
+            form.getWidget(bulkExtractMaxConcurrentJobs.getName()).setVisible(bulkExtract);
+            form.getWidget(bulkExtractPollInterval.getName()).setVisible(bulkExtract);
+            boolean activityChains = isApiREST() && !bulkExtract
+                    && (getLeadActivity.equals(inputOperation.getValue()) || getLeadChanges.equals(inputOperation.getValue()));
+            form.getWidget(activityParallelism.getName()).setVisible(activityChains);
+            form.getWidget(activityPartitionDays.getName()).setVisible(activityChains);
+            form.getWidget(activityMergeOrder.getName()).setVisible(activityChains);
+        }
         if (form.getName().equals(Form.MAIN)) {
             // first hide everything
             form.getWidget(leadSelectorSOAP.getName()).setVisible(false);
@@ -492,6 +570,7 @@ public class TMarketoInputProperties extends MarketoComponentWizardBasePropertie
             form.getWidget(fetchCompoundKey.getName()).setVisible(false);
             //
             form.getWidget(standardAction.getName()).setVisible(false);
+            form.getWidget(useBulkExtract.getName()).setVisible(false);
             //
             // enable widgets according params
             //
@@ -533,7 +612,12 @@ public class TMarketoInputProperties extends MarketoComponentWizardBasePropertie
                         form.getWidget(batchSize.getName()).setVisible(true);
                         break;
                     }
+                } else if (useBulkExtract.getValue()) {
+                    form.getWidget(useBulkExtract.getName()).setVisible(true);
+                    form.getWidget(oldestCreateDate.getName()).setVisible(true);
+                    form.getWidget(latestCreateDate.getName()).setVisible(true);
                 } else {
+                    form.getWidget(useBulkExtract.getName()).setVisible(true);
                     form.getWidget(leadSelectorREST.getName()).setVisible(true);
                     switch (leadSelectorREST.getValue()) {
                     case LeadKeySelector:
@@ -566,7 +650,13 @@ public class TMarketoInputProperties extends MarketoComponentWizardBasePropertie
                     form.getWidget(leadKeyTypeSOAP.getName()).setVisible(true);
                     form.getWidget(leadKeyValue.getName()).setVisible(true);
                 } else {
-                    form.getWidget(sinceDateTime.getName()).setVisible(true);
+                    form.getWidget(useBulkExtract.getName()).setVisible(true);
+                    if (useBulkExtract.getValue()) {
+                        form.getWidget(oldestCreateDate.getName()).setVisible(true);
+                        form.getWidget(latestCreateDate.getName()).setVisible(true);
+                    } else {
+                        form.getWidget(sinceDateTime.getName()).setVisible(true);
+                    }
                     if (setIncludeTypes.getValue()) {
                         setExcludeTypes.setValue(false);
                         form.getWidget(setExcludeTypes.getName()).setVisible(false);
@@ -576,7 +666,7 @@ public class TMarketoInputProperties extends MarketoComponentWizardBasePropertie
                         form.getWidget(includeTypes.getName()).setVisible(false);
                     }
                 }
-                form.getWidget(batchSize.getName()).setVisible(true);
+                form.getWidget(batchSize.getName()).setVisible(!isBulkExtract());
             }
             // getLeadChanges
             if (inputOperation.getValue().equals(getLeadChanges)) {
@@ -792,12 +882,18 @@ public class TMarketoInputProperties extends MarketoComponentWizardBasePropertie
     public void afterInputOperation() {
         updateSchemaRelated();
         refreshLayout(getForm(Form.MAIN));
+        refreshLayout(getForm(Form.ADVANCED));
     }
 
     public void afterCustomObjectAction() {
         afterInputOperation();
     }
 
+    public void afterUseBulkExtract() {
+        refreshLayout(getForm(Form.MAIN));
+        refreshLayout(getForm(Form.ADVANCED));
+    }
+
     public void afterStandardAction() {
         afterInputOperation();
     }
@@ -12,33 +12,183 @@
 //============================================================================
 package org.talend.components.marketo.runtime;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.components.marketo.runtime.client.type.MarketoException;
+
+/**
+ * JVM wide cache of the access tokens, shared by the clients using the same credentials.
+ *
+ * When a token is missing or must be renewed, only one thread per connection asks for a new one, the others wait for
+ * it. Tokens are renewed a little before they expire, so that calls do not fail with an expired token.
+ */
 public class MarketoAccessTokenPool {
 
-    private static MarketoAccessTokenPool ourInstance = new MarketoAccessTokenPool();
+    private static final Logger LOG = LoggerFactory.getLogger(MarketoAccessTokenPool.class);
+
+    /**
+     * System property with the number of seconds before expiration at which a token is renewed.
+     */
+    public static final String RENEWAL_MARGIN_PROPERTY = "talend.marketo.token.renewalMargin";
+
+    public static final int DEFAULT_RENEWAL_MARGIN = 60;
+
+    /**
+     * Validity of a token when the authentication response does not give it, in seconds.
+     */
+    public static final int DEFAULT_EXPIRES_IN = 3600;
+
+    private static MarketoAccessTokenPool ourInstance = new MarketoAccessTokenPool(
+            Integer.getInteger(RENEWAL_MARGIN_PROPERTY, DEFAULT_RENEWAL_MARGIN), System::currentTimeMillis);
+
+    /**
+     * Asks Marketo for a new token.
+     */
+    public interface TokenLoader {
+
+        /**
+         * @return the token and its validity in seconds, as returned by the identity service.
+         */
+        Token load() throws MarketoException;
+    }
+
+    public static final class Token {
+
+        private final String value;
+
+        private final int expiresIn;
+
+        private long renewAt;
+
+        public Token(String value, int expiresIn) {
+            this.value = value;
+            this.expiresIn = expiresIn;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public int getExpiresIn() {
+            return expiresIn;
+        }
+    }
+
+    private final ConcurrentMap<Integer, Token> tokens = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Integer, Object> locks = new ConcurrentHashMap<>();
+
+    private final long renewalMarginMillis;
 
-    private Map<Integer, String> tokens;
+    private final LongSupplier clock;
+
+    private final AtomicLong fetchCount = new AtomicLong();
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong waitCount = new AtomicLong();
+
+    MarketoAccessTokenPool(int renewalMarginSeconds, LongSupplier clock) {
+        this.renewalMarginMillis = TimeUnit.SECONDS.toMillis(renewalMarginSeconds);
+        this.clock = clock;
+    }
 
     public static MarketoAccessTokenPool getInstance() {
         return ourInstance;
     }
 
-    private MarketoAccessTokenPool() {
-        tokens = new HashMap<>();
+    /**
+     * @return the token of the connection, loaded with <code>loader</code> when there is none or it must be renewed.
+     */
+    public String getToken(Integer connectionHash, TokenLoader loader) throws MarketoException {
+        Token token = getValidToken(connectionHash);
+        if (token != null) {
+            hitCount.incrementAndGet();
+            return token.value;
+        }
+        long start = clock.getAsLong();
+        synchronized (locks.computeIfAbsent(connectionHash, k -> new Object())) {
+            // another thread may have loaded it while we were waiting
+            token = getValidToken(connectionHash);
+            if (token != null) {
+                waitCount.incrementAndGet();
+                LOG.debug("[getToken] token loaded by another thread, waited {}ms.", clock.getAsLong() - start);
+                return token.value;
+            }
+            token = loader.load();
+            put(connectionHash, token);
+            LOG.debug("[getToken] {} token fetches, {} cached tokens used, {} waits for a fetch.", fetchCount.incrementAndGet(),
+                    hitCount.get(), waitCount.get());
+            return token.value;
+        }
+    }
+
+    private Token getValidToken(Integer connectionHash) {
+        Token token = tokens.get(connectionHash);
+        if (token == null) {
+            return null;
+        }
+        if (clock.getAsLong() >= token.renewAt) {
+            tokens.remove(connectionHash, token);
+            return null;
+        }
+        return token;
+    }
+
+    private void put(Integer connectionHash, Token token) {
+        long now = clock.getAsLong();
+        long expiresAt = now + TimeUnit.SECONDS.toMillis(token.expiresIn > 0 ? token.expiresIn : DEFAULT_EXPIRES_IN);
+        // Marketo gives back the current token while it is valid : when it is about to expire, keep it until it does.
+        token.renewAt = expiresAt - renewalMarginMillis > now ? expiresAt - renewalMarginMillis : expiresAt;
+        tokens.put(connectionHash, token);
     }
 
+    /**
+     * Remove the token of the connection.
+     */
     public void invalidateToken(Integer connectionHash) {
         tokens.remove(connectionHash);
     }
 
+    /**
+     * Remove the token of the connection, only if it is still <code>expired</code>, so that a token renewed by
+     * another thread in the meantime is kept.
+     */
+    public void invalidateToken(Integer connectionHash, String expired) {
+        Token token = tokens.get(connectionHash);
+        if (token != null && token.value.equals(expired)) {
+            tokens.remove(connectionHash, token);
+        }
+    }
+
     public void setToken(Integer connectionHash, String token) {
-        tokens.put(connectionHash, token);
+        put(connectionHash, new Token(token, DEFAULT_EXPIRES_IN));
     }
 
     public String getToken(Integer connectionHash) {
-        return tokens.get(connectionHash);
+        Token token = getValidToken(connectionHash);
+        return token == null ? null : token.value;
+    }
+
+    public long getFetchCount() {
+        return fetchCount.get();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return the number of times a thread waited for a token loaded by another thread.
+     */
+    public long getWaitCount() {
+        return waitCount.get();
     }
 
 }
@@ -0,0 +1,357 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.marketo.runtime;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.TimeZone;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.avro.Schema.Field;
+import org.apache.avro.generic.IndexedRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.components.marketo.MarketoConstants;
+import org.talend.components.marketo.runtime.client.MarketoClientUtils;
+import org.talend.components.marketo.runtime.client.MarketoLeadClient;
+import org.talend.components.marketo.runtime.client.type.MarketoRecordResult;
+import org.talend.components.marketo.tmarketoinput.TMarketoInputProperties;
+import org.talend.components.marketo.tmarketoinput.TMarketoInputProperties.ActivityMergeOrder;
+
+/**
+ * Fetches lead activities or lead changes with several page token chains running in parallel.
+ *
+ * The activity window is split in partitions by date range and activity types. Each partition is read by its own page
+ * token chain, with its own client : the chains share the JVM wide rate limiter and access token pool. A date
+ * partition chain stops at the first activity after the end of its range, activities being returned in chronological
+ * order.
+ */
+public class MarketoActivityChains implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MarketoActivityChains.class);
+
+    /**
+     * Pages of records fetched in advance by a chain.
+     */
+    private static final int PREFETCHED_PAGES = 2;
+
+    private static final Object END = new Object();
+
+    /**
+     * Creates the clients used by the chains.
+     */
+    public interface ClientFactory {
+
+        MarketoLeadClient create() throws IOException;
+    }
+
+    public static final class Partition {
+
+        private final String sinceDateTime;
+
+        /**
+         * End of the date range in milliseconds, excluded. Null for the last range.
+         */
+        private final Long end;
+
+        /**
+         * Activity types, null for lead changes.
+         */
+        private final List<Integer> activityTypeIds;
+
+        public Partition(String sinceDateTime, Long end, List<Integer> activityTypeIds) {
+            this.sinceDateTime = sinceDateTime;
+            this.end = end;
+            this.activityTypeIds = activityTypeIds;
+        }
+
+        public String getSinceDateTime() {
+            return sinceDateTime;
+        }
+
+        public Long getEnd() {
+            return end;
+        }
+
+        public List<Integer> getActivityTypeIds() {
+            return activityTypeIds;
+        }
+    }
+
+    private static final class Failure {
+
+        private final RuntimeException error;
+
+        private Failure(RuntimeException error) {
+            this.error = error;
+        }
+    }
+
+    private final TMarketoInputProperties properties;
+
+    private final List<Partition> partitions;
+
+    private final int parallelism;
+
+    private final ActivityMergeOrder order;
+
+    private final ClientFactory clientFactory;
+
+    private final int retryAttemps;
+
+    private final int retryInterval;
+
+    private final List<BlockingQueue<Object>> queues = new ArrayList<>();
+
+    private BlockingQueue<MarketoLeadClient> clients;
+
+    private ExecutorService executor;
+
+    private volatile boolean closed;
+
+    private final AtomicInteger apiCalls = new AtomicInteger();
+
+    private volatile String errorMessage;
+
+    private int endedPartitions;
+
+    private List<IndexedRecord> page;
+
+    private int pageIndex;
+
+    public MarketoActivityChains(TMarketoInputProperties properties, List<Partition> partitions, int parallelism,
+            ActivityMergeOrder order, ClientFactory clientFactory) {
+        this.properties = properties;
+        this.partitions = partitions;
+        this.parallelism = Math.max(Math.min(parallelism, partitions.size()), 1);
+        this.order = order;
+        this.clientFactory = clientFactory;
+        retryAttemps = properties.getConnectionProperties().maxReconnAttemps.getValue();
+        retryInterval = properties.getConnectionProperties().attemptsIntervalTime.getValue();
+    }
+
+    /**
+     * Split the activities since <code>since</code> in partitions.
+     *
+     * @param days number of days of a date range, 0 for a single range.
+     * @param activityTypeGroups activity types fetched by a chain, null for lead changes.
+     * @return the partitions ordered by date range, then by activity types.
+     */
+    public static List<Partition> getPartitions(Date since, Date until, int days, List<List<Integer>> activityTypeGroups) {
+        SimpleDateFormat sdf = new SimpleDateFormat(MarketoConstants.DATETIME_PATTERN_REST_UTC);
+        sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
+        List<List<Integer>> groups = activityTypeGroups == null ? Collections.<List<Integer>> singletonList(null)
+                : activityTypeGroups;
+        List<Partition> result = new ArrayList<>();
+        long start = since.getTime();
+        do {
+            Long end = null;
+            if (days > 0 && start + TimeUnit.DAYS.toMillis(days) < until.getTime()) {
+                end = start + TimeUnit.DAYS.toMillis(days);
+            }
+            for (List<Integer> group : groups) {
+                result.add(new Partition(sdf.format(new Date(start)), end, group));
+            }
+            start = end == null ? Long.MAX_VALUE : end;
+        } while (start != Long.MAX_VALUE);
+        return result;
+    }
+
+    public void start() throws IOException {
+        clients = new ArrayBlockingQueue<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            clients.add(clientFactory.create());
+        }
+        if (ActivityMergeOrder.Arrival.equals(order)) {
+            BlockingQueue<Object> queue = new ArrayBlockingQueue<>(PREFETCHED_PAGES * parallelism + 1);
+            for (int i = 0; i < partitions.size(); i++) {
+                queues.add(queue);
+            }
+        } else {
+            for (int i = 0; i < partitions.size(); i++) {
+                queues.add(new ArrayBlockingQueue<>(PREFETCHED_PAGES + 1));
+            }
+        }
+        final AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "marketo-activity-chain-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        LOG.debug("Fetching {} partitions with {} chains.", partitions.size(), parallelism);
+        // chains run in partition order, so the partition being read is always fetched
+        for (int i = 0; i < partitions.size(); i++) {
+            final Partition partition = partitions.get(i);
+            final BlockingQueue<Object> queue = queues.get(i);
+            executor.execute(() -> fetch(partition, queue));
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * @return true when a record is available.
+     */
+    @SuppressWarnings("unchecked")
+    public boolean advance() throws IOException {
+        while (true) {
+            if (page != null && ++pageIndex < page.size()) {
+                return true;
+            }
+            page = null;
+            if (endedPartitions == partitions.size()) {
+                return false;
+            }
+            Object item;
+            try {
+                item = queues.get(ActivityMergeOrder.Arrival.equals(order) ? 0 : endedPartitions).take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e.getMessage(), e);
+            }
+            if (item == END) {
+                endedPartitions++;
+            } else if (item instanceof Failure) {
+                throw ((Failure) item).error;
+            } else {
+                page = (List<IndexedRecord>) item;
+                pageIndex = -1;
+            }
+        }
+    }
+
+    public IndexedRecord getCurrent() throws NoSuchElementException {
+        if (page == null) {
+            throw new NoSuchElementException();
+        }
+        return page.get(pageIndex);
+    }
+
+    private void fetch(Partition partition, BlockingQueue<Object> queue) {
+        MarketoLeadClient client = null;
+        try {
+            client = clients.take();
+            String offset = null;
+            while (!closed) {
+                MarketoRecordResult result = execute(client, partition, offset);
+                if (!result.isSuccess() || result.getRecordCount() == 0) {
+                    break;
+                }
+                List<IndexedRecord> records = new ArrayList<>();
+                boolean ended = false;
+                for (IndexedRecord record : result.getRecords()) {
+                    if (isAfter(record, partition.end)) {
+                        ended = true;
+                        break;
+                    }
+                    records.add(record);
+                }
+                if (!records.isEmpty()) {
+                    queue.put(records);
+                }
+                if (ended || result.getRemainCount() == 0) {
+                    break;
+                }
+                offset = result.getStreamPosition();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (RuntimeException e) {
+            if (!offer(queue, new Failure(e))) {
+                return;
+            }
+        } finally {
+            if (client != null) {
+                clients.offer(client);
+            }
+        }
+        offer(queue, END);
+    }
+
+    private boolean offer(BlockingQueue<Object> queue, Object item) {
+        try {
+            queue.put(item);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static boolean isAfter(IndexedRecord record, Long end) {
+        if (end == null) {
+            return false;
+        }
+        Field activityDate = record.getSchema().getField(MarketoLeadClient.FIELD_ACTIVITY_DATE);
+        Object value = activityDate == null ? null : record.get(activityDate.pos());
+        return value instanceof Long && (Long) value >= end;
+    }
+
+    /**
+     * Fetch a page of a chain, retrying on recoverable errors.
+     */
+    private MarketoRecordResult execute(MarketoLeadClient client, Partition partition, String offset)
+            throws InterruptedException {
+        MarketoRecordResult result = null;
+        for (int i = 0; i < retryAttemps; i++) {
+            apiCalls.incrementAndGet();
+            if (partition.activityTypeIds == null) {
+                result = client.getLeadChanges(properties, offset, partition.sinceDateTime);
+            } else {
+                result = client.getLeadActivity(properties, offset, partition.sinceDateTime, partition.activityTypeIds);
+            }
+            if (result.isSuccess()) {
+                return result;
+            }
+            if (properties.dieOnError.getValue()) {
+                throw new MarketoRuntimeException(result.getErrorsString());
+            }
+            if (client.isErrorRecoverable(result.getErrors())) {
+                LOG.debug("Recoverable error during operation : `{}`. Retrying...", result.getErrorsString());
+                Thread.sleep(MarketoClientUtils.getRetryDelay(result.getErrors(), retryInterval, i));
+            } else {
+                break;
+            }
+        }
+        errorMessage = result == null ? null : result.getErrorsString();
+        LOG.error("Unrecoverable error : `{}`.", errorMessage);
+        return result;
+    }
+
+    public int getApiCalls() {
+        return apiCalls.get();
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -16,6 +16,7 @@ import static org.talend.components.api.component.ComponentDefinition.RETURN_ERR
 import static org.talend.components.marketo.MarketoComponentDefinition.RETURN_NB_CALL;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 
@@ -25,7 +26,9 @@ import org.slf4j.LoggerFactory;
 import org.talend.components.api.component.runtime.AbstractBoundedReader;
 import org.talend.components.api.component.runtime.Result;
 import org.talend.components.api.container.RuntimeContainer;
+import org.talend.components.marketo.runtime.client.MarketoClientUtils;
 import org.talend.components.marketo.runtime.client.MarketoRESTClient;
+import org.talend.components.marketo.runtime.client.type.MarketoError;
 import org.talend.components.marketo.runtime.client.type.MarketoRecordResult;
 import org.talend.components.marketo.tmarketobulkexec.TMarketoBulkExecProperties;
 import org.talend.daikon.i18n.GlobalI18N;
@@ -45,6 +48,8 @@ public class MarketoBulkExecReader extends AbstractBoundedReader<IndexedRecord>
 
     protected IndexedRecord record;
 
+    protected int recordIndex;
+
     protected String errorMessage;
 
     protected int apiCalls = 0;
@@ -82,7 +87,7 @@ public class MarketoBulkExecReader extends AbstractBoundedReader<IndexedRecord>
                 // is recoverable error
                 if (client.isErrorRecoverable(mktoResult.getErrors())) {
                     LOG.debug("Recoverable error during operation : `{}`. Retrying...", errorMessage);
-                    waitForRetryAttempInterval();
+                    waitForRetryAttempInterval(i, mktoResult.getErrors());
                     continue;
                 } else {
                     LOG.error("Unrecoverable error : `{}`.", errorMessage);
@@ -95,6 +100,7 @@ public class MarketoBulkExecReader extends AbstractBoundedReader<IndexedRecord>
         //
         startable = mktoResult.isSuccess();
         if (startable) {
+            recordIndex = 0;
             record = mktoResult.getRecords().get(0);
         }
         return startable;
@@ -102,8 +108,12 @@ public class MarketoBulkExecReader extends AbstractBoundedReader<IndexedRecord>
 
     @Override
     public boolean advance() throws IOException {
-        // we have only one possible row.
-        return false;
+        // one row per imported batch.
+        if (mktoResult == null || !mktoResult.isSuccess() || recordIndex + 1 >= mktoResult.getRecords().size()) {
+            return false;
+        }
+        record = mktoResult.getRecords().get(++recordIndex);
+        return true;
     }
 
     @Override
@@ -130,12 +140,15 @@ public class MarketoBulkExecReader extends AbstractBoundedReader<IndexedRecord>
     }
 
     /**
-     * Sleeps for retryInterval time
+     * Sleeps before the next attempt of an operation which failed with a recoverable error
      *
+     * @param attempt index of the failed attempt
+     * @param errors errors of the failed attempt
+     * @see MarketoClientUtils#getRetryDelay(List, int, int)
      */
-    protected void waitForRetryAttempInterval() {
+    protected void waitForRetryAttempInterval(int attempt, List<MarketoError> errors) {
         try {
-            Thread.sleep(getRetryInterval());
+            Thread.sleep(MarketoClientUtils.getRetryDelay(errors, getRetryInterval(), attempt));
         } catch (InterruptedException e) {
         }
     }
@@ -0,0 +1,331 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.marketo.runtime;
+
+import static org.talend.components.api.component.ComponentDefinition.RETURN_ERROR_MESSAGE;
+import static org.talend.components.marketo.MarketoComponentDefinition.RETURN_NB_CALL;
+import static org.talend.components.marketo.MarketoConstants.BULK_EXTRACT_POLL_INTERVAL;
+import static org.talend.components.marketo.runtime.client.MarketoBulkExtractClient.BULK_EXTRACT_ACTIVITIES;
+import static org.talend.components.marketo.runtime.client.MarketoBulkExtractClient.BULK_EXTRACT_LEADS;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.IndexedRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.components.api.component.runtime.AbstractBoundedReader;
+import org.talend.components.api.component.runtime.Result;
+import org.talend.components.api.container.RuntimeContainer;
+import org.talend.components.marketo.MarketoUtils;
+import org.talend.components.marketo.runtime.client.MarketoBulkExtractClient;
+import org.talend.components.marketo.runtime.client.MarketoClientUtils;
+import org.talend.components.marketo.runtime.client.MarketoCsvReader;
+import org.talend.components.marketo.runtime.client.rest.response.BulkExtractResult;
+import org.talend.components.marketo.runtime.client.rest.type.BulkExtract;
+import org.talend.components.marketo.runtime.client.type.MarketoError;
+import org.talend.components.marketo.tmarketoinput.TMarketoInputProperties;
+import org.talend.components.marketo.tmarketoinput.TMarketoInputProperties.IncludeExcludeFieldsREST;
+import org.talend.components.marketo.wizard.MarketoComponentWizardBaseProperties.InputOperation;
+
+/**
+ * Reads leads or activities with the Bulk Extract API.
+ *
+ * The creation date range is split in export jobs of at most 31 days. Up to
+ * {@link TMarketoInputProperties#bulkExtractMaxConcurrentJobs} jobs are kept queued on Marketo side, so that the next
+ * files are being generated while the current one is downloaded. Files are read in the order of the ranges and
+ * streamed row by row.
+ */
+public class MarketoBulkExtractReader extends AbstractBoundedReader<IndexedRecord> {
+
+    protected MarketoSource source;
+
+    protected TMarketoInputProperties properties;
+
+    protected MarketoBulkExtractClient client;
+
+    protected IndexedRecord record;
+
+    protected String errorMessage;
+
+    protected int apiCalls = 0;
+
+    protected int recordCount = 0;
+
+    protected int retryAttemps = 1;
+
+    protected int retryInterval;
+
+    private final String entity;
+
+    private final Schema schema;
+
+    private final Map<String, String> mappings;
+
+    private final List<String> fields;
+
+    private final List<Integer> activityTypeIds;
+
+    private final int maxConcurrentJobs;
+
+    private final long pollInterval;
+
+    /**
+     * Date ranges without an export job yet.
+     */
+    private final Deque<String[]> pendingRanges = new ArrayDeque<>();
+
+    /**
+     * Export jobs enqueued, in the order of their ranges.
+     */
+    private final Deque<BulkExtract> jobs = new ArrayDeque<>();
+
+    private MarketoCsvReader csv;
+
+    private Map<String, Integer> columns;
+
+    private static final Logger LOG = LoggerFactory.getLogger(MarketoBulkExtractReader.class);
+
+    public MarketoBulkExtractReader(RuntimeContainer adaptor, MarketoSource source, TMarketoInputProperties properties) {
+        super(source);
+        this.source = source;
+        this.properties = properties;
+        schema = properties.schemaInput.schema.getValue();
+        mappings = properties.mappingInput.getNameMappingsForMarketo();
+        if (InputOperation.getLeadActivity.equals(properties.inputOperation.getValue())) {
+            entity = BULK_EXTRACT_ACTIVITIES;
+            // activities files always have the same columns
+            fields = Collections.emptyList();
+            // no filter on the activity types when none are included or excluded
+            activityTypeIds = new ArrayList<>();
+            if (properties.setIncludeTypes.getValue()) {
+                for (String type : properties.includeTypes.type.getValue()) {
+                    activityTypeIds.add(IncludeExcludeFieldsREST.valueOf(type).fieldVal);
+                }
+            } else if (properties.setExcludeTypes.getValue()) {
+                List<String> excluded = properties.excludeTypes.type.getValue();
+                for (IncludeExcludeFieldsREST type : IncludeExcludeFieldsREST.values()) {
+                    if (!excluded.contains(type.name())) {
+                        activityTypeIds.add(type.fieldVal);
+                    }
+                }
+            }
+        } else {
+            entity = BULK_EXTRACT_LEADS;
+            fields = properties.mappingInput.getMarketoColumns(schema);
+            activityTypeIds = null;
+        }
+        maxConcurrentJobs = Math.max(properties.bulkExtractMaxConcurrentJobs.getValue(), 1);
+        Integer pollSeconds = properties.bulkExtractPollInterval.getValue();
+        pollInterval = TimeUnit.SECONDS.toMillis(pollSeconds == null ? BULK_EXTRACT_POLL_INTERVAL : Math.max(pollSeconds, 1));
+        retryAttemps = properties.getConnectionProperties().maxReconnAttemps.getValue();
+        retryInterval = properties.getConnectionProperties().attemptsIntervalTime.getValue();
+    }
+
+    @Override
+    public boolean start() throws IOException {
+        client = (MarketoBulkExtractClient) source.getClientService(null);
+        try {
+            pendingRanges.addAll(MarketoBulkExtractClient.getBulkExtractDateRanges(
+                    MarketoUtils.parseDateString(properties.oldestCreateDate.getValue()),
+                    MarketoUtils.parseDateString(properties.latestCreateDate.getValue()),
+                    properties.bulkExtractChunkDays.getValue()));
+        } catch (ParseException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        LOG.debug("BulkExtract of {} in {} jobs.", entity, pendingRanges.size());
+        return advance();
+    }
+
+    @Override
+    public boolean advance() throws IOException {
+        while (true) {
+            if (csv != null) {
+                List<String> row = csv.readRow();
+                if (row != null) {
+                    if (row.size() == 1 && row.get(0).isEmpty()) {
+                        continue;
+                    }
+                    record = client.convertBulkExtractRow(columns, row, schema, mappings);
+                    recordCount++;
+                    return true;
+                }
+                closeFile();
+            }
+            enqueueJobs();
+            if (jobs.isEmpty()) {
+                return false;
+            }
+            openFile(waitForJob(jobs.peek()));
+            jobs.poll();
+        }
+    }
+
+    /**
+     * Create and enqueue export jobs until the concurrency limit is reached.
+     */
+    private void enqueueJobs() throws IOException {
+        while (jobs.size() < maxConcurrentJobs && !pendingRanges.isEmpty()) {
+            String[] range = pendingRanges.poll();
+            BulkExtract job = execute(() -> client.createBulkExtract(entity, fields, range[0], range[1], activityTypeIds));
+            if (job == null) {
+                continue;
+            }
+            String exportId = job.getExportId();
+            BulkExtract queued = execute(() -> client.enqueueBulkExtract(entity, exportId));
+            if (queued != null) {
+                LOG.debug("BulkExtract job {} enqueued for {} to {}.", exportId, range[0], range[1]);
+                jobs.add(queued);
+            }
+        }
+    }
+
+    /**
+     * @return the job once completed, or null when it failed.
+     */
+    private BulkExtract waitForJob(BulkExtract job) throws IOException {
+        String exportId = job.getExportId();
+        while (job != null && !job.isCompleted()) {
+            if (job.isAborted()) {
+                handleError(String.format("BulkExtract job %s %s: %s", exportId, job.getStatus(), job.getErrorMsg()));
+                return null;
+            }
+            try {
+                Thread.sleep(pollInterval);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e.getMessage(), e);
+            }
+            job = execute(() -> client.getBulkExtractStatus(entity, exportId));
+        }
+        return job;
+    }
+
+    private void openFile(BulkExtract job) throws IOException {
+        if (job == null) {
+            return;
+        }
+        LOG.debug("BulkExtract job {} completed: {} records.", job.getExportId(), job.getNumberOfRecords());
+        apiCalls++;
+        csv = new MarketoCsvReader(client.getBulkExtractFile(entity, job.getExportId()));
+        List<String> header = csv.readRow();
+        columns = new HashMap<>();
+        if (header == null) {
+            closeFile();
+            return;
+        }
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i), i);
+        }
+    }
+
+    private void closeFile() throws IOException {
+        if (csv != null) {
+            try {
+                csv.close();
+            } finally {
+                csv = null;
+            }
+        }
+    }
+
+    private interface BulkExtractCall {
+
+        BulkExtractResult execute();
+    }
+
+    /**
+     * Execute a call, retrying on recoverable errors.
+     *
+     * @return the job of the response, or null when the call failed and errors are not fatal.
+     */
+    private BulkExtract execute(BulkExtractCall call) throws IOException {
+        BulkExtractResult result = null;
+        for (int i = 0; i < getRetryAttemps(); i++) {
+            apiCalls++;
+            result = call.execute();
+            if (result.isSuccess() && !result.getResult().isEmpty()) {
+                return result.getResult().get(0);
+            }
+            if (client.isErrorRecoverable(result.getErrors())) {
+                LOG.debug("Recoverable error during operation : `{}`. Retrying...", result.getErrorsString());
+                waitForRetryAttempInterval(i, result.getErrors());
+            } else {
+                break;
+            }
+        }
+        handleError(result == null ? null : result.getErrorsString());
+        return null;
+    }
+
+    private void handleError(String error) {
+        if (properties.dieOnError.getValue()) {
+            throw new MarketoRuntimeException(error);
+        }
+        LOG.error("Unrecoverable error : `{}`.", error);
+        errorMessage = error;
+    }
+
+    @Override
+    public IndexedRecord getCurrent() throws NoSuchElementException {
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeFile();
+        super.close();
+    }
+
+    @Override
+    public Map<String, Object> getReturnValues() {
+        Result result = new Result();
+        result.totalCount = recordCount;
+        Map<String, Object> res = result.toMap();
+        res.put(RETURN_NB_CALL, apiCalls);
+        res.put(RETURN_ERROR_MESSAGE, errorMessage);
+        return res;
+    }
+
+    public int getRetryAttemps() {
+        return retryAttemps;
+    }
+
+    public int getRetryInterval() {
+        return retryInterval;
+    }
+
+    /**
+     * Sleeps before the next attempt of an operation which failed with a recoverable error
+     *
+     * @param attempt index of the failed attempt
+     * @param errors errors of the failed attempt
+     * @see MarketoClientUtils#getRetryDelay(List, int, int)
+     */
+    protected void waitForRetryAttempInterval(int attempt, List<MarketoError> errors) {
+        try {
+            Thread.sleep(MarketoClientUtils.getRetryDelay(errors, getRetryInterval(), attempt));
+        } catch (InterruptedException e) {
+        }
+    }
+}
@@ -16,7 +16,9 @@ import static org.talend.components.api.component.ComponentDefinition.RETURN_ERR
 import static org.talend.components.marketo.MarketoComponentDefinition.RETURN_NB_CALL;
 
 import java.io.IOException;
+import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -29,8 +31,12 @@ import org.slf4j.LoggerFactory;
 import org.talend.components.api.component.runtime.AbstractBoundedReader;
 import org.talend.components.api.component.runtime.Result;
 import org.talend.components.api.container.RuntimeContainer;
+import org.talend.components.marketo.MarketoUtils;
 import org.talend.components.marketo.runtime.client.MarketoClientService;
+import org.talend.components.marketo.runtime.client.MarketoClientUtils;
+import org.talend.components.marketo.runtime.client.MarketoLeadClient;
 import org.talend.components.marketo.runtime.client.MarketoRESTClient;
+import org.talend.components.marketo.runtime.client.type.MarketoError;
 import org.talend.components.marketo.runtime.client.type.MarketoRecordResult;
 import org.talend.components.marketo.tmarketoinput.TMarketoInputProperties;
 import org.talend.components.marketo.tmarketoinput.TMarketoInputProperties.IncludeExcludeFieldsREST;
@@ -65,6 +71,8 @@ public class MarketoInputReader extends AbstractBoundedReader<IndexedRecord> {
 
     private int activitiesListIndex = 0;
 
+    private MarketoActivityChains chains;
+
     protected int retryAttemps = 1;
 
     protected int retryInterval;
@@ -220,7 +228,7 @@ public class MarketoInputReader extends AbstractBoundedReader<IndexedRecord> {
                 // is recoverable error
                 if (client.isErrorRecoverable(mkto.getErrors())) {
                     LOG.debug("Recoverable error during operation : `{}`. Retrying...", mkto.getErrorsString());
-                    waitForRetryAttempInterval();
+                    waitForRetryAttempInterval(i, mkto.getErrors());
                     continue;
                 } else {
                     LOG.error("Unrecoverable error : `{}`.", mkto.getErrorsString());
@@ -251,6 +259,13 @@ public class MarketoInputReader extends AbstractBoundedReader<IndexedRecord> {
             if (activities.size() == 0) {
                 throw new IOException(messages.getMessage("error.runtime.leadactivity.activities.empty"));
             }
+        }
+        if (useActivityChains()) {
+            chains = createActivityChains();
+            chains.start();
+            return chains.advance();
+        }
+        if (useActivitiesList) {
             properties.includeTypes.type.setValue(activities.get(activitiesListIndex++));
         }
         mktoResult = executeOperation(null);
@@ -274,8 +289,53 @@ public class MarketoInputReader extends AbstractBoundedReader<IndexedRecord> {
         return startable;
     }
 
+    /**
+     * @return true when activities or lead changes are fetched by parallel page token chains.
+     */
+    public boolean useActivityChains() {
+        InputOperation operation = properties.inputOperation.getValue();
+        return properties.isApiREST() && properties.activityParallelism.getValue() > 1
+                && (InputOperation.getLeadActivity.equals(operation) || InputOperation.getLeadChanges.equals(operation));
+    }
+
+    private MarketoActivityChains createActivityChains() throws IOException {
+        List<List<Integer>> activityTypeGroups = null;
+        if (useActivitiesList) {
+            activityTypeGroups = new ArrayList<>();
+            for (List<String> group : activities) {
+                List<Integer> ids = new ArrayList<>();
+                for (String type : group) {
+                    ids.add(IncludeExcludeFieldsREST.valueOf(type).fieldVal);
+                }
+                activityTypeGroups.add(ids);
+            }
+        }
+        int days = properties.activityPartitionDays.getValue();
+        // Partitions end at the first activity after their range, which needs activity dates as timestamps
+        Field activityDate = properties.schemaInput.schema.getValue().getField(MarketoLeadClient.FIELD_ACTIVITY_DATE);
+        if (days > 0 && (activityDate == null
+                || AvroUtils.unwrapIfNullable(activityDate.schema()).getType() != Schema.Type.LONG)) {
+            LOG.warn("No {} column of date type in schema, activities are not partitioned by date.",
+                    MarketoLeadClient.FIELD_ACTIVITY_DATE);
+            days = 0;
+        }
+        Date since;
+        try {
+            since = MarketoUtils.parseDateString(properties.sinceDateTime.getValue());
+        } catch (ParseException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        List<MarketoActivityChains.Partition> partitions = MarketoActivityChains.getPartitions(since, new Date(), days,
+                activityTypeGroups);
+        return new MarketoActivityChains(properties, partitions, properties.activityParallelism.getValue(),
+                properties.activityMergeOrder.getValue(), () -> source.createRESTClient(null));
+    }
+
     @Override
     public boolean advance() throws IOException {
+        if (chains != null) {
+            return chains.advance();
+        }
         recordIndex++;
         if (recordIndex < records.size()) {
             return true;
@@ -314,13 +374,29 @@ public class MarketoInputReader extends AbstractBoundedReader<IndexedRecord> {
 
     @Override
     public IndexedRecord getCurrent() throws NoSuchElementException {
+        if (chains != null) {
+            return chains.getCurrent();
+        }
         return records.get(recordIndex);
     }
 
+    @Override
+    public void close() throws IOException {
+        if (chains != null) {
+            chains.close();
+        }
+        super.close();
+    }
+
     @Override
     public Map<String, Object> getReturnValues() {
         Result result = new Result();
         Map<String, Object> res = result.toMap();
+        if (chains != null) {
+            res.put(RETURN_NB_CALL, apiCalls + chains.getApiCalls());
+            res.put(RETURN_ERROR_MESSAGE, chains.getErrorMessage() != null ? chains.getErrorMessage() : errorMessage);
+            return res;
+        }
         res.put(RETURN_NB_CALL, apiCalls);
         res.put(RETURN_ERROR_MESSAGE, errorMessage);
         return res;
@@ -335,12 +411,15 @@ public class MarketoInputReader extends AbstractBoundedReader<IndexedRecord> {
     }
 
     /**
-     * Sleeps for retryInterval time
+     * Sleeps before the next attempt of an operation which failed with a recoverable error
      *
+     * @param attempt index of the failed attempt
+     * @param errors errors of the failed attempt
+     * @see MarketoClientUtils#getRetryDelay(List, int, int)
      */
-    protected void waitForRetryAttempInterval() {
+    protected void waitForRetryAttempInterval(int attempt, List<MarketoError> errors) {
         try {
-            Thread.sleep(getRetryInterval());
+            Thread.sleep(MarketoClientUtils.getRetryDelay(errors, getRetryInterval(), attempt));
         } catch (InterruptedException e) {
         }
     }
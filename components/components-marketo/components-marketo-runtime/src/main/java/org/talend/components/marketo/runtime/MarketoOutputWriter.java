@@ -150,7 +150,7 @@ public class MarketoOutputWriter extends MarketoWriter {
                 // is recoverable error
                 if (client.isErrorRecoverable(mktoResult.getErrors())) {
                     LOG.debug("Recoverable error during operation : `{}`. Retrying...", mktoResult.getErrorsString());
-                    waitForRetryAttempInterval();
+                    waitForRetryAttempInterval(i, mktoResult.getErrors());
                     continue;
                 } else {
                     LOG.error("Unrecoverable error : `{}`.", mktoResult.getErrorsString());
@@ -110,8 +110,17 @@ public class MarketoSource extends MarketoSourceOrSink implements BoundedSource
                     return vr;
                 }
             }
+            // Bulk Extract
+            if (p.isBulkExtract()) {
+                if (p.oldestCreateDate.getValue().isEmpty() || p.latestCreateDate.getValue().isEmpty()
+                        || isInvalidDate(p.oldestCreateDate.getValue()) || isInvalidDate(p.latestCreateDate.getValue())) {
+                    vr.setStatus(Result.ERROR);
+                    vr.setMessage(messages.getMessage("error.validation.createdates"));
+                    return vr;
+                }
+            }
             // getMultipleLeads
-            if (p.inputOperation.getValue().equals(InputOperation.getMultipleLeads)) {
+            if (p.inputOperation.getValue().equals(InputOperation.getMultipleLeads) && !p.isBulkExtract()) {
                 LeadSelector sel;
                 if (useSOAP) {
                     sel = p.leadSelectorSOAP.getValue();
@@ -165,7 +174,7 @@ public class MarketoSource extends MarketoSourceOrSink implements BoundedSource
                         vr.setMessage(messages.getMessage("error.validation.leadkeyvalue"));
                         return vr;
                     }
-                } else {
+                } else if (!p.isBulkExtract()) {
                     if (p.sinceDateTime.getValue().isEmpty() || isInvalidDate(p.sinceDateTime.getValue())) {
                         vr.setStatus(Result.ERROR);
                         vr.setMessage(messages.getMessage("error.validation.sincedatetime"));
@@ -312,6 +321,9 @@ public class MarketoSource extends MarketoSourceOrSink implements BoundedSource
     @Override
     public BoundedReader createReader(RuntimeContainer adaptor) {
         if (properties instanceof TMarketoInputProperties) {
+            if (((TMarketoInputProperties) properties).isBulkExtract()) {
+                return new MarketoBulkExtractReader(adaptor, this, (TMarketoInputProperties) properties);
+            }
             return new MarketoInputReader(adaptor, this, (TMarketoInputProperties) properties);
         }
         if (properties instanceof TMarketoBulkExecProperties) {
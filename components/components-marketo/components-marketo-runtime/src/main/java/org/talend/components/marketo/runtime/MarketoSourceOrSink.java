@@ -33,6 +33,7 @@ import org.talend.components.marketo.MarketoProvideConnectionProperties;
 import org.talend.components.marketo.MarketoUtils;
 import org.talend.components.marketo.runtime.client.MarketoClientService;
 import org.talend.components.marketo.runtime.client.MarketoClientServiceExtended;
+import org.talend.components.marketo.runtime.client.MarketoClientUtils;
 import org.talend.components.marketo.runtime.client.MarketoRESTClient;
 import org.talend.components.marketo.runtime.client.MarketoSOAPClient;
 import org.talend.components.marketo.runtime.client.rest.type.FieldDescription;
@@ -53,8 +54,6 @@ import org.talend.daikon.properties.ValidationResult;
 import org.talend.daikon.properties.ValidationResult.Result;
 import org.talend.daikon.properties.ValidationResultMutable;
 
-import com.google.gson.Gson;
-
 public class MarketoSourceOrSink implements SourceOrSink, MarketoSourceOrSinkRuntime, MarketoSourceOrSinkSchemaProvider {
 
     public static final String TALEND6_DYNAMIC_COLUMN_POSITION = "di.dynamic.column.position";
@@ -226,7 +225,8 @@ public class MarketoSourceOrSink implements SourceOrSink, MarketoSourceOrSinkRun
             return null;
         }
         IndexedRecord record = records.get(0);
-        String[] keys = new Gson().fromJson(record.get(describeSchema.getField("dedupeFields").pos()).toString(), String[].class);
+        String[] keys = MarketoClientUtils.getGson()
+                .fromJson(record.get(describeSchema.getField("dedupeFields").pos()).toString(), String[].class);
         // quote keys
         for (int i = 0; i < keys.length; i++) {
             keys[i] = "\"" + keys[i] + "\"";
@@ -355,6 +355,18 @@ public class MarketoSourceOrSink implements SourceOrSink, MarketoSourceOrSinkRun
         return client;
     }
 
+    /**
+     * @return a new REST client, for the operations using several connections at the same time.
+     */
+    public MarketoRESTClient createRESTClient(RuntimeContainer container) throws IOException {
+        try {
+            return new MarketoRESTClient(getEffectiveConnection(container)).connect();
+        } catch (MarketoException e) {
+            LOG.error(e.toString());
+            throw new IOException(e);
+        }
+    }
+
     public static Schema mergeDynamicSchemas(Schema data, Schema flow) {
         // TODO when https://jira.talendforge.org/browse/TDKN-154 will be resolved, use the new property here!
         String dynamicFieldProperty = flow.getProp(TALEND6_DYNAMIC_COLUMN_POSITION);
@@ -24,6 +24,8 @@ import org.talend.components.api.component.runtime.WriteOperation;
 import org.talend.components.api.component.runtime.WriterWithFeedback;
 import org.talend.components.api.container.RuntimeContainer;
 import org.talend.components.marketo.runtime.client.MarketoClientService;
+import org.talend.components.marketo.runtime.client.MarketoClientUtils;
+import org.talend.components.marketo.runtime.client.type.MarketoError;
 import org.talend.daikon.avro.converter.IndexedRecordConverter;
 
 public abstract class MarketoWriter implements WriterWithFeedback<Result, IndexedRecord, IndexedRecord> {
@@ -117,12 +119,15 @@ public abstract class MarketoWriter implements WriterWithFeedback<Result, Indexe
     }
 
     /**
-     * Sleeps for retryInterval time
+     * Sleeps before the next attempt of an operation which failed with a recoverable error
      *
+     * @param attempt index of the failed attempt
+     * @param errors errors of the failed attempt
+     * @see MarketoClientUtils#getRetryDelay(List, int, int)
      */
-    protected void waitForRetryAttempInterval() {
+    protected void waitForRetryAttempInterval(int attempt, List<MarketoError> errors) {
         try {
-            Thread.sleep(getRetryInterval());
+            Thread.sleep(MarketoClientUtils.getRetryDelay(errors, getRetryInterval(), attempt));
         } catch (InterruptedException e) {
         }
     }
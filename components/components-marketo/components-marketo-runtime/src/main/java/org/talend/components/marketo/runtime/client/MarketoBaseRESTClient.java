@@ -17,20 +17,21 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
+import java.io.Writer;
+import java.net.HttpURLConnection;
 import java.net.ProtocolException;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
-
-import javax.net.ssl.HttpsURLConnection;
+import java.util.zip.GZIPInputStream;
 
 import org.apache.avro.Schema;
 import org.apache.avro.Schema.Field;
@@ -52,10 +53,12 @@ import org.talend.components.marketo.tmarketoconnection.TMarketoConnectionProper
 import org.talend.daikon.i18n.GlobalI18N;
 import org.talend.daikon.i18n.I18nMessages;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
 import com.google.gson.internal.LinkedTreeMap;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 import static java.lang.String.format;
 import static org.talend.components.marketo.MarketoConstants.API_REST;
@@ -86,6 +89,8 @@ public abstract class MarketoBaseRESTClient extends MarketoClient {
 
     public static final String FIELD_BATCH_SIZE = "batchSize";
 
+    public static final String FIELD_EXPIRES_IN = "expires_in";
+
     public static final String FIELD_FIELDS = "fields";
 
     public static final String FIELD_FILTER_TYPE = "filterType";
@@ -128,6 +133,10 @@ public abstract class MarketoBaseRESTClient extends MarketoClient {
 
     public static final String REQUEST_PROPERTY_CONTENT_TYPE = "Content-type";
 
+    public static final String REQUEST_PROPERTY_ACCEPT_ENCODING = "Accept-Encoding";
+
+    public static final String REQUEST_VALUE_GZIP = "gzip";
+
     public static final String REQUEST_VALUE_APPLICATION_X_WWW_FORM_URLENCODED = "application/x-www-form-urlencoded";
 
     public static final String FIELD_DEDUPE_FIELDS = "dedupeFields";
@@ -138,6 +147,8 @@ public abstract class MarketoBaseRESTClient extends MarketoClient {
 
     private final Integer connectionHash;
 
+    private final MarketoRateLimiter rateLimiter;
+
     private Map<Integer, String> supportedActivities;
 
     protected StringBuilder current_uri;
@@ -160,6 +171,7 @@ public abstract class MarketoBaseRESTClient extends MarketoClient {
         connectionHash = (endpoint + userId + secretKey).hashCode();
         retryCount = connection.maxReconnAttemps.getValue();
         retryInterval = connection.attemptsIntervalTime.getValue();
+        rateLimiter = MarketoRateLimiter.getInstance(endpoint);
     }
 
     @Override
@@ -173,12 +185,14 @@ public abstract class MarketoBaseRESTClient extends MarketoClient {
     }
 
     public void getToken() throws MarketoException {
-        String token = MarketoAccessTokenPool.getInstance().getToken(connectionHash);
-        if (token != null) {
-            LOG.debug("[getToken] got token from MarketoAccessTokenPool.");
-            accessToken = token;
-            return;
-        }
+        accessToken = MarketoAccessTokenPool.getInstance().getToken(connectionHash, this::requestToken);
+    }
+
+    /**
+     * Ask the identity service for a token. Called by {@link MarketoAccessTokenPool} when the cached token is missing
+     * or must be renewed.
+     */
+    protected MarketoAccessTokenPool.Token requestToken() throws MarketoException {
         try {
             URL basicURI = new URL(endpoint);
             current_uri = new StringBuilder(basicURI.getProtocol())//
@@ -187,18 +201,21 @@ public abstract class MarketoBaseRESTClient extends MarketoClient {
                     .append(API_PATH_IDENTITY_OAUTH_TOKEN)//
                     .append(fmtParams("client_id", userId))//
                     .append(fmtParams("client_secret", secretKey));
-            URL url = new URL(current_uri.toString());
-            HttpsURLConnection urlConn = (HttpsURLConnection) url.openConnection();
-            urlConn.setRequestMethod("GET");
-            urlConn.setRequestProperty(REQUEST_PROPERTY_ACCEPT, REQUEST_VALUE_APPLICATION_JSON);
-
-            Reader reader = getReaderFromHttpResponse(urlConn);
-            LinkedTreeMap js = (LinkedTreeMap) new Gson().fromJson(reader, Object.class);
-            Object ac = js.get("access_token");
+            LinkedTreeMap js;
+            acquireCall();
+            try {
+                HttpURLConnection urlConn = openConnection(QUERY_METHOD_GET, null);
+                urlConn.setRequestProperty(REQUEST_PROPERTY_ACCEPT, REQUEST_VALUE_APPLICATION_JSON);
+                js = (LinkedTreeMap) readJson(urlConn, Object.class);
+            } finally {
+                rateLimiter.release();
+            }
+            Object ac = js.get(FIELD_ACCESS_TOKEN);
             if (ac != null) {
-                accessToken = ac.toString();
-                MarketoAccessTokenPool.getInstance().setToken(connectionHash, accessToken);
+                Object expiresIn = js.get(FIELD_EXPIRES_IN);
                 LOG.debug("[getToken] got token from successful API call.");
+                return new MarketoAccessTokenPool.Token(ac.toString(),
+                        expiresIn == null ? 0 : Double.valueOf(expiresIn.toString()).intValue());
             } else {
                 LinkedTreeMap err = (LinkedTreeMap) ((ArrayList) js.get(FIELD_ERRORS)).get(0);
                 throw new MarketoException(REST, err.get("code").toString(), err.get("message").toString());
@@ -227,37 +244,42 @@ public abstract class MarketoBaseRESTClient extends MarketoClient {
         return false;
     }
 
+    /**
+     * Wait until the rate limiter of the endpoint allows a call. {@link MarketoRateLimiter#release()} must be called
+     * once the response is read.
+     */
+    protected void acquireCall() throws MarketoException {
+        try {
+            rateLimiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MarketoException(REST, "Interrupted while waiting for Marketo rate limit.", e);
+        }
+    }
+
+    protected MarketoRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
     public RequestResult executeGetRequest(Class<?> resultClass) throws MarketoException {
+        acquireCall();
         try {
-            URL url = new URL(current_uri.toString());
-            HttpsURLConnection urlConn = (HttpsURLConnection) url.openConnection();
-            urlConn.setRequestMethod(QUERY_METHOD_GET);
-            urlConn.setDoOutput(true);
-            urlConn.setRequestProperty(REQUEST_PROPERTY_ACCEPT, REQUEST_VALUE_TEXT_JSON);
-            return (RequestResult) new Gson().fromJson(getReaderFromHttpResponse(urlConn), resultClass);
+            HttpURLConnection urlConn = openConnection(QUERY_METHOD_GET, null);
+            return (RequestResult) readJson(urlConn, resultClass);
         } catch (IOException e) {
             LOG.error("GET request failed: {}", e.getMessage());
             throw new MarketoException(REST, e.getMessage());
+        } finally {
+            rateLimiter.release();
         }
     }
 
     public InputStreamReader httpFakeGet(String content, boolean isForLead) throws MarketoException {
         try {
             current_uri.append(fmtParams(QUERY_METHOD, QUERY_METHOD_GET));
-            URL url = new URL(current_uri.toString());
-            HttpsURLConnection urlConn = (HttpsURLConnection) url.openConnection();
-            urlConn.setRequestMethod(QUERY_METHOD_POST);
-            if (isForLead) {
-                urlConn.setRequestProperty(REQUEST_PROPERTY_CONTENT_TYPE, REQUEST_VALUE_APPLICATION_X_WWW_FORM_URLENCODED);
-            } else {
-                urlConn.setRequestProperty(REQUEST_PROPERTY_CONTENT_TYPE, REQUEST_VALUE_APPLICATION_JSON);
-            }
-            urlConn.setRequestProperty(REQUEST_PROPERTY_ACCEPT, REQUEST_VALUE_TEXT_JSON);
-            urlConn.setDoOutput(true);
-            OutputStreamWriter wr = new OutputStreamWriter(urlConn.getOutputStream());
-            wr.write(content);
-            wr.flush();
-            wr.close();
+            HttpURLConnection urlConn = openConnection(QUERY_METHOD_POST,
+                    isForLead ? REQUEST_VALUE_APPLICATION_X_WWW_FORM_URLENCODED : REQUEST_VALUE_APPLICATION_JSON);
+            writeRequestBody(urlConn, content);
             return getReaderFromHttpResponse(urlConn);
         } catch (IOException e) {
             LOG.error("POST request failed: {}", e.getMessage());
@@ -266,33 +288,52 @@ public abstract class MarketoBaseRESTClient extends MarketoClient {
     }
 
     public LeadResult executeFakeGetRequestForLead(String input) throws MarketoException {
-        return new Gson().fromJson(httpFakeGet(input, true), LeadResult.class);
+        acquireCall();
+        try (Reader reader = httpFakeGet(input, true)) {
+            return MarketoClientUtils.getGson().fromJson(reader, LeadResult.class);
+        } catch (IOException e) {
+            LOG.error("POST request failed: {}", e.getMessage());
+            throw new MarketoException(REST, e.getMessage());
+        } finally {
+            rateLimiter.release();
+        }
     }
 
     public RequestResult executeFakeGetRequest(Class<?> resultClass, String input) throws MarketoException {
-        return (RequestResult) new Gson().fromJson(httpFakeGet(input, false), resultClass);
+        acquireCall();
+        try (Reader reader = httpFakeGet(input, false)) {
+            return (RequestResult) MarketoClientUtils.getGson().fromJson(reader, resultClass);
+        } catch (IOException e) {
+            LOG.error("POST request failed: {}", e.getMessage());
+            throw new MarketoException(REST, e.getMessage());
+        } finally {
+            rateLimiter.release();
+        }
     }
 
     public MarketoRecordResult executeFakeGetRequest(Schema schema, String input) throws MarketoException {
-        return fillMarketoRecordResultFromReader(httpFakeGet(input, false), schema);
+        acquireCall();
+        try (Reader reader = httpFakeGet(input, false)) {
+            return readRecordResult(reader, schema);
+        } catch (IOException e) {
+            LOG.error("POST request failed: {}", e.getMessage());
+            throw new MarketoException(REST, e.getMessage());
+        } finally {
+            rateLimiter.release();
+        }
     }
 
     public RequestResult executePostRequest(Class<?> resultClass, JsonObject inputJson) throws MarketoException {
+        acquireCall();
         try {
-            URL url = new URL(current_uri.toString());
-            HttpsURLConnection urlConn = (HttpsURLConnection) url.openConnection();
-            urlConn.setRequestMethod(QUERY_METHOD_POST);
-            urlConn.setRequestProperty(REQUEST_PROPERTY_CONTENT_TYPE, REQUEST_VALUE_APPLICATION_JSON);
-            urlConn.setRequestProperty(REQUEST_PROPERTY_ACCEPT, REQUEST_VALUE_TEXT_JSON);
-            urlConn.setDoOutput(true);
-            OutputStreamWriter wr = new OutputStreamWriter(urlConn.getOutputStream());
-            wr.write(inputJson.toString());
-            wr.flush();
-            wr.close();
-            return (RequestResult) new Gson().fromJson(getReaderFromHttpResponse(urlConn), resultClass);
+            HttpURLConnection urlConn = openConnection(QUERY_METHOD_POST, REQUEST_VALUE_APPLICATION_JSON);
+            writeRequestBody(urlConn, inputJson.toString());
+            return (RequestResult) readJson(urlConn, resultClass);
         } catch (IOException e) {
             LOG.error("GET request failed: {}", e.getMessage());
             throw new MarketoException(REST, e.getMessage());
+        } finally {
+            rateLimiter.release();
         }
     }
 
@@ -356,7 +397,7 @@ public abstract class MarketoBaseRESTClient extends MarketoClient {
             case FIELD_DEDUPE_FIELDS:
             case FIELD_SEARCHABLE_FIELDS:
             case FIELD_RELATIONSHIPS:
-                return (T) new Gson().toJson(value);
+                return (T) MarketoClientUtils.getGson().toJson(value);
             default:
                 return (T) value;
             }
@@ -392,25 +433,87 @@ public abstract class MarketoBaseRESTClient extends MarketoClient {
         return records;
     }
 
-    private MarketoRecordResult fillMarketoRecordResultFromReader(InputStreamReader reader, Schema schema) {
-        Gson gson = new Gson();
+    /**
+     * Decode a response holding records into a {@link MarketoRecordResult}.
+     *
+     * The records of <code>schema</code> are built while the JSON tokens are read, so that a page of records is not
+     * materialized as a tree of maps before being converted. Fields not in the schema are skipped.
+     */
+    protected MarketoRecordResult readRecordResult(Reader reader, Schema schema) throws IOException {
         MarketoRecordResult mkr = new MarketoRecordResult();
-        LinkedTreeMap ltm = (LinkedTreeMap) gson.fromJson(reader, Object.class);
-        mkr.setRequestId(REST + "::" + ltm.get("requestId"));
-        mkr.setSuccess(Boolean.parseBoolean(ltm.get("success").toString()));
-        mkr.setStreamPosition((String) ltm.get(FIELD_NEXT_PAGE_TOKEN));
-        if (!mkr.isSuccess() && ltm.get(FIELD_ERRORS) != null) {
-            List<LinkedTreeMap> errors = (List<LinkedTreeMap>) ltm.get(FIELD_ERRORS);
-            for (LinkedTreeMap err : errors) {
-                MarketoError error = new MarketoError(REST, (String) err.get("code"), (String) err.get("message"));
-                mkr.setErrors(Arrays.asList(error));
+        TypeAdapter<Object> valueAdapter = MarketoClientUtils.getGson().getAdapter(Object.class);
+        String requestId = null;
+        boolean success = false;
+        List<MarketoError> errors = new ArrayList<>();
+        List<IndexedRecord> records = null;
+        int recordCount = 0;
+        JsonReader json = new JsonReader(reader);
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+            case "requestId":
+                requestId = nextString(json);
+                break;
+            case "success":
+                success = Boolean.parseBoolean(nextString(json));
+                break;
+            case FIELD_NEXT_PAGE_TOKEN:
+                mkr.setStreamPosition(nextString(json));
+                break;
+            case FIELD_ERRORS:
+                if (json.peek() == JsonToken.BEGIN_ARRAY) {
+                    json.beginArray();
+                    while (json.hasNext()) {
+                        LinkedTreeMap err = (LinkedTreeMap) valueAdapter.read(json);
+                        errors.add(new MarketoError(REST, (String) err.get("code"), (String) err.get("message")));
+                    }
+                    json.endArray();
+                } else {
+                    json.skipValue();
+                }
+                break;
+            case "result":
+                if (json.peek() != JsonToken.BEGIN_ARRAY) {
+                    json.skipValue();
+                    break;
+                }
+                records = new ArrayList<>();
+                json.beginArray();
+                while (json.hasNext()) {
+                    recordCount++;
+                    if (schema == null) {
+                        json.skipValue();
+                        continue;
+                    }
+                    IndexedRecord record = new GenericData.Record(schema);
+                    json.beginObject();
+                    while (json.hasNext()) {
+                        Field f = schema.getField(json.nextName());
+                        if (f == null) {
+                            json.skipValue();
+                        } else {
+                            record.put(f.pos(), getValueType(f, valueAdapter.read(json)));
+                        }
+                    }
+                    json.endObject();
+                    records.add(record);
+                }
+                json.endArray();
+                break;
+            default:
+                json.skipValue();
             }
         }
-        if (mkr.isSuccess()) {
-            List<LinkedTreeMap> tmp = (List<LinkedTreeMap>) ltm.get("result");
-            if (tmp != null) {
-                mkr.setRecordCount(tmp.size());
-                mkr.setRecords(parseRecords(tmp, schema));
+        json.endObject();
+        mkr.setRequestId(REST + "::" + requestId);
+        mkr.setSuccess(success);
+        if (!success && !errors.isEmpty()) {
+            mkr.setErrors(errors);
+        }
+        if (success) {
+            if (records != null) {
+                mkr.setRecordCount(recordCount);
+                mkr.setRecords(records);
             }
             if (mkr.getStreamPosition() != null) {
                 mkr.setRemainCount(mkr.getRecordCount());
@@ -419,45 +522,111 @@ public abstract class MarketoBaseRESTClient extends MarketoClient {
         return mkr;
     }
 
-    protected InputStreamReader getReaderFromHttpResponse(HttpsURLConnection conn) throws MarketoException, IOException {
+    private static String nextString(JsonReader json) throws IOException {
+        switch (json.peek()) {
+        case NULL:
+            json.nextNull();
+            return null;
+        case BOOLEAN:
+            return String.valueOf(json.nextBoolean());
+        default:
+            return json.nextString();
+        }
+    }
+
+    /**
+     * Open a connection to <code>current_uri</code>.
+     *
+     * Responses are requested gzip encoded. The connections are kept alive and reused by the JVM, as long as the
+     * response streams are entirely read and closed: callers must close the reader they get from
+     * {@link #getReaderFromHttpResponse(HttpURLConnection)}.
+     *
+     * @param contentType content type of the request body, or null when there is none.
+     */
+    protected HttpURLConnection openConnection(String method, String contentType) throws IOException {
+        URL url = new URL(current_uri.toString());
+        HttpURLConnection urlConn = (HttpURLConnection) url.openConnection();
+        urlConn.setRequestMethod(method);
+        if (contentType != null) {
+            urlConn.setRequestProperty(REQUEST_PROPERTY_CONTENT_TYPE, contentType);
+            urlConn.setDoOutput(true);
+        }
+        urlConn.setRequestProperty(REQUEST_PROPERTY_ACCEPT, REQUEST_VALUE_TEXT_JSON);
+        urlConn.setRequestProperty(REQUEST_PROPERTY_ACCEPT_ENCODING, REQUEST_VALUE_GZIP);
+        return urlConn;
+    }
+
+    protected void writeRequestBody(HttpURLConnection conn, String content) throws IOException {
+        try (Writer wr = new OutputStreamWriter(conn.getOutputStream(), StandardCharsets.UTF_8)) {
+            wr.write(content);
+        }
+    }
+
+    protected <T> T readJson(HttpURLConnection conn, Class<T> resultClass) throws MarketoException, IOException {
+        try (Reader reader = getReaderFromHttpResponse(conn)) {
+            return MarketoClientUtils.getGson().fromJson(reader, resultClass);
+        }
+    }
+
+    protected InputStreamReader getReaderFromHttpResponse(HttpURLConnection conn) throws MarketoException, IOException {
         int responseCode = conn.getResponseCode();
         if (responseCode == 200) {
             InputStream inStream = conn.getInputStream();
-            return new InputStreamReader(inStream);
+            if (REQUEST_VALUE_GZIP.equalsIgnoreCase(conn.getContentEncoding())) {
+                inStream = new GZIPInputStream(inStream);
+            }
+            return new InputStreamReader(inStream, StandardCharsets.UTF_8);
         } else {
             LOG.error("{} request failed: {}.", conn.getRequestMethod(), responseCode);
+            discardErrorStream(conn);
             throw new MarketoException(REST, responseCode, "Request failed! Please check your request setting!");
         }
     }
 
+    /**
+     * Read the body of an error response, so that the connection can be reused.
+     */
+    private static void discardErrorStream(HttpURLConnection conn) {
+        try (InputStream err = conn.getErrorStream()) {
+            if (err != null) {
+                byte[] buffer = new byte[4096];
+                while (err.read(buffer) != -1) {
+                    // discard
+                }
+            }
+        } catch (IOException e) {
+            LOG.debug("Failed to read error response: {}.", e.getMessage());
+        }
+    }
+
     public MarketoRecordResult executeGetRequest(Schema schema) throws MarketoException {
+        acquireCall();
         try {
-            URL url = new URL(current_uri.toString());
-            HttpsURLConnection urlConn = (HttpsURLConnection) url.openConnection();
-            urlConn.setRequestMethod("GET");
-            urlConn.setDoOutput(true);
-            urlConn.setRequestProperty(REQUEST_PROPERTY_ACCEPT, REQUEST_VALUE_TEXT_JSON);
-            return fillMarketoRecordResultFromReader(getReaderFromHttpResponse(urlConn), schema);
+            HttpURLConnection urlConn = openConnection(QUERY_METHOD_GET, null);
+            try (Reader reader = getReaderFromHttpResponse(urlConn)) {
+                return readRecordResult(reader, schema);
+            }
         } catch (IOException e) {
             LOG.error("Request failed: {}.", e.getMessage());
             throw new MarketoException(REST, e.getMessage());
+        } finally {
+            rateLimiter.release();
         }
     }
 
     public MarketoRecordResult getRecordResultFromPostRequest(Schema schema, JsonObject inputJson) {
         MarketoRecordResult mkto = new MarketoRecordResult();
         try {
-            URL url = new URL(current_uri.toString());
-            HttpsURLConnection urlConn = (HttpsURLConnection) url.openConnection();
-            urlConn.setRequestMethod("POST");
-            urlConn.setRequestProperty(REQUEST_PROPERTY_CONTENT_TYPE, REQUEST_VALUE_APPLICATION_JSON);// "application/json"
-            urlConn.setRequestProperty(REQUEST_PROPERTY_ACCEPT, REQUEST_VALUE_TEXT_JSON);
-            urlConn.setDoOutput(true);
-            OutputStreamWriter wr = new OutputStreamWriter(urlConn.getOutputStream());
-            wr.write(inputJson.toString());
-            wr.flush();
-            wr.close();
-            return fillMarketoRecordResultFromReader(getReaderFromHttpResponse(urlConn), schema);
+            acquireCall();
+            try {
+                HttpURLConnection urlConn = openConnection(QUERY_METHOD_POST, REQUEST_VALUE_APPLICATION_JSON);
+                writeRequestBody(urlConn, inputJson.toString());
+                try (Reader reader = getReaderFromHttpResponse(urlConn)) {
+                    return readRecordResult(reader, schema);
+                }
+            } finally {
+                rateLimiter.release();
+            }
         } catch (MarketoException | IOException m) {
             LOG.error("POST request failed: {}", m.getMessage());
             mkto.setSuccess(false);
@@ -475,7 +644,7 @@ public abstract class MarketoBaseRESTClient extends MarketoClient {
      * <p>
      * Potential recoverable errors returned by API:
      *
-     * <li><502 Bad Gateway The remote server returned an error. Likely a timeout. The request should be retried with
+     * <li>502 Bad Gateway The remote server returned an error. Likely a timeout. The request should be retried with
      * exponential backoff.</li>
      * <li>602 Access token expired The Access Token included in the call is no longer valid due to expiration.</li>
      * <li>604 Request timed out The request was running for too long, or exceeded the time-out period specified in the
@@ -497,7 +666,7 @@ public abstract class MarketoBaseRESTClient extends MarketoClient {
         if (isAccessTokenExpired(errors)) {
             try {
                 // our token is expired, so removing it from pool
-                MarketoAccessTokenPool.getInstance().invalidateToken(connectionHash);
+                MarketoAccessTokenPool.getInstance().invalidateToken(connectionHash, accessToken);
                 // refresh token : the only action we have a possibility to act by ourselves.
                 getToken();
                 return true;
@@ -533,7 +702,7 @@ public abstract class MarketoBaseRESTClient extends MarketoClient {
             }
             results.add(result);
         }
-        return new Gson().toJsonTree(results);
+        return MarketoClientUtils.getGson().toJsonTree(results);
     }
 
     /**
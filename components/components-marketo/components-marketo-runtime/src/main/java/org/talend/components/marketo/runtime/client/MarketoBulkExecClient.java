@@ -12,19 +12,38 @@
 //============================================================================
 package org.talend.components.marketo.runtime.client;
 
+import static org.talend.components.marketo.MarketoConstants.BULK_IMPORT_MAX_CONCURRENT_JOBS;
+import static org.talend.components.marketo.MarketoConstants.BULK_IMPORT_MAX_FILE_SIZE;
+
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.Writer;
+import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.net.ssl.HttpsURLConnection;
 
+import org.apache.avro.generic.IndexedRecord;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,8 +56,6 @@ import org.talend.components.marketo.tmarketobulkexec.TMarketoBulkExecProperties
 import org.talend.components.marketo.tmarketobulkexec.TMarketoBulkExecProperties.BulkImportTo;
 import org.talend.components.marketo.tmarketoconnection.TMarketoConnectionProperties;
 
-import com.google.gson.Gson;
-
 public class MarketoBulkExecClient extends MarketoCustomObjectClient {
 
     public static final String API_PATH_BULK_CUSTOMOBJECTS = "/v1/customobjects/%s/import.json";
@@ -59,6 +76,21 @@ public class MarketoBulkExecClient extends MarketoCustomObjectClient {
 
     public static final String URI_WARNINGS = "warnings";
 
+    /**
+     * Name of the merged logs of an import split in several batches : entity, first and last batch ids, level.
+     */
+    public static final String MERGED_LOG_FILENAME = "bulk_%s_%d-%d_%s.csv";
+
+    /**
+     * Maximum number of failures or warnings logs downloaded at the same time.
+     */
+    public static final int MAX_PARALLEL_DOWNLOADS = 4;
+
+    /**
+     * Maximum time between two polls of the running batches, as a multiple of the poll wait time.
+     */
+    public static final int MAX_POLL_BACKOFF = 8;
+
     private static final Logger LOG = LoggerFactory.getLogger(MarketoBulkExecClient.class);
 
     public MarketoBulkExecClient(TMarketoConnectionProperties connection) throws MarketoException {
@@ -67,6 +99,7 @@ public class MarketoBulkExecClient extends MarketoCustomObjectClient {
 
     public BulkImportResult executePostFileRequest(Class<?> resultClass, String filePath) throws MarketoException {
         String boundary = "Talend_tMarketoBulkExec_" + String.valueOf(System.currentTimeMillis());
+        acquireCall();
         try {
             URL url = new URL(current_uri.toString());
             HttpsURLConnection urlConn = (HttpsURLConnection) url.openConnection();
@@ -87,10 +120,12 @@ public class MarketoBulkExecClient extends MarketoCustomObjectClient {
             wr.append("--" + boundary);
             wr.flush();
             wr.close();
-            return (BulkImportResult) new Gson().fromJson(getReaderFromHttpResponse(urlConn), resultClass);
+            return (BulkImportResult) readJson(urlConn, resultClass);
         } catch (IOException e) {
             LOG.error("POST request failed: {}", e.getMessage());
             throw new MarketoException(REST, e.getMessage());
+        } finally {
+            getRateLimiter().release();
         }
     }
 
@@ -109,10 +144,19 @@ public class MarketoBulkExecClient extends MarketoCustomObjectClient {
     }
 
     public void executeDownloadFileRequest(File filename) throws MarketoException {
+        executeDownloadFileRequest(current_uri.toString(), filename);
+    }
+
+    /**
+     * Download the file at <code>uri</code>. This method does not use the current URI of the client, so that several
+     * files can be downloaded at the same time.
+     */
+    public void executeDownloadFileRequest(String uri, File filename) throws MarketoException {
         String err;
+        acquireCall();
         try {
-            URL url = new URL(current_uri.toString());
-            HttpsURLConnection urlConn = (HttpsURLConnection) url.openConnection();
+            URL url = new URL(uri);
+            HttpURLConnection urlConn = (HttpURLConnection) url.openConnection();
             urlConn.setRequestMethod("GET");
             urlConn.setRequestProperty("accept", "text/json");
             int responseCode = urlConn.getResponseCode();
@@ -127,34 +171,44 @@ public class MarketoBulkExecClient extends MarketoCustomObjectClient {
             err = String.format("Download failed for %s. Cause: %s", filename, e.getMessage());
             LOG.error(err);
             throw new MarketoException(REST, err);
+        } finally {
+            getRateLimiter().release();
+        }
+    }
+
+    private String getBatchLogUri(BulkImport bulk, String level) {
+        StringBuilder uri = new StringBuilder(bulkPath);
+        if (bulk.isBulkLeadsImport()) {
+            uri.append(String.format(API_PATH_BULK_LEADS_RESULT_FOR, bulk.getBatchId(), level));
+        } else {
+            uri.append(String.format(API_PATH_BULK_CUSTOMOBJECTS_RESULT, bulk.getObjectApiName(), bulk.getBatchId(), level));
+        }
+        uri.append(fmtParams(FIELD_ACCESS_TOKEN, accessToken, true));
+        return uri.toString();
+    }
+
+    private String getBatchStatusUri(BulkImport bulk) {
+        StringBuilder uri = new StringBuilder(bulkPath);
+        if (bulk.isBulkLeadsImport()) {
+            uri.append(String.format(API_PATH_BULK_LEADS_RESULT_STATUS, bulk.getBatchId()));
+        } else {
+            uri.append(String.format(API_PATH_BULK_CUSTOMOBJECTS_RESULT, bulk.getObjectApiName(), bulk.getBatchId(), "status"));
         }
+        uri.append(fmtParams(FIELD_ACCESS_TOKEN, accessToken, true));
+        return uri.toString();
     }
 
     public BulkImport getStatusesForBatch(BulkImport bulk, String downloadPath) throws MarketoException {
         String logFile;
         if (bulk.getNumOfRowsFailed() > 0) {
-            current_uri = new StringBuilder(bulkPath);
-            if (bulk.isBulkLeadsImport()) {
-                current_uri.append(String.format(API_PATH_BULK_LEADS_RESULT_FOR, bulk.getBatchId(), URI_FAILURES));
-            } else {
-                current_uri.append(String.format(API_PATH_BULK_CUSTOMOBJECTS_RESULT, bulk.getObjectApiName(), bulk.getBatchId(),
-                        URI_FAILURES));
-            }
-            current_uri.append(fmtParams(FIELD_ACCESS_TOKEN, accessToken, true));
+            current_uri = new StringBuilder(getBatchLogUri(bulk, URI_FAILURES));
             LOG.debug("failures = {}.", current_uri);
             logFile = Paths.get(Paths.get(downloadPath).toString(), bulk.getFailuresOrWarningsFilename(false)).toString();
             bulk.setFailuresLogFile(logFile);
             executeDownloadFileRequest(new File(logFile));
         }
         if (bulk.getNumOfRowsWithWarning() > 0) {
-            current_uri = new StringBuilder(bulkPath);
-            if (bulk.isBulkLeadsImport()) {
-                current_uri.append(String.format(API_PATH_BULK_LEADS_RESULT_FOR, bulk.getBatchId(), URI_WARNINGS));
-            } else {
-                current_uri.append(String.format(API_PATH_BULK_CUSTOMOBJECTS_RESULT, bulk.getObjectApiName(), bulk.getBatchId(),
-                        URI_WARNINGS));
-            }
-            current_uri.append(fmtParams(FIELD_ACCESS_TOKEN, accessToken, true));
+            current_uri = new StringBuilder(getBatchLogUri(bulk, URI_WARNINGS));
             LOG.debug("warnings = {}.", current_uri);
             logFile = Paths.get(Paths.get(downloadPath).toString(), bulk.getFailuresOrWarningsFilename(true)).toString();
             bulk.setWarningsLogFile(logFile);
@@ -163,6 +217,200 @@ public class MarketoBulkExecClient extends MarketoCustomObjectClient {
         return bulk;
     }
 
+    /**
+     * Download the failures and warnings logs of completed batches, several at a time.
+     *
+     * When the batches are the parts of the same import, the logs of each level are merged in one file, referenced by
+     * all the batches having rows of this level.
+     */
+    public List<BulkImport> getStatusesForBatches(List<BulkImport> batches, String downloadPath) throws MarketoException {
+        List<String> uris = new ArrayList<>();
+        List<File> files = new ArrayList<>();
+        List<File> failures = new ArrayList<>();
+        List<File> warnings = new ArrayList<>();
+        for (BulkImport bulk : batches) {
+            if (!BULK_STATUS_COMPLETE.equals(bulk.getStatus())) {
+                continue;
+            }
+            if (bulk.getNumOfRowsFailed() != null && bulk.getNumOfRowsFailed() > 0) {
+                File logFile = Paths.get(downloadPath, bulk.getFailuresOrWarningsFilename(false)).toFile();
+                bulk.setFailuresLogFile(logFile.toString());
+                uris.add(getBatchLogUri(bulk, URI_FAILURES));
+                files.add(logFile);
+                failures.add(logFile);
+            }
+            if (bulk.getNumOfRowsWithWarning() != null && bulk.getNumOfRowsWithWarning() > 0) {
+                File logFile = Paths.get(downloadPath, bulk.getFailuresOrWarningsFilename(true)).toFile();
+                bulk.setWarningsLogFile(logFile.toString());
+                uris.add(getBatchLogUri(bulk, URI_WARNINGS));
+                files.add(logFile);
+                warnings.add(logFile);
+            }
+        }
+        downloadFiles(uris, files);
+        if (batches.size() > 1) {
+            BulkImport first = batches.get(0);
+            BulkImport last = batches.get(batches.size() - 1);
+            String prefix = first.isBulkLeadsImport() ? "leads" : "customobjects_" + first.getObjectApiName();
+            if (!failures.isEmpty()) {
+                File merged = Paths.get(downloadPath, String.format(MERGED_LOG_FILENAME, prefix, first.getBatchId(),
+                        last.getBatchId(), URI_FAILURES)).toFile();
+                mergeLogFiles(failures, merged);
+                for (BulkImport bulk : batches) {
+                    if (!StringUtils.isEmpty(bulk.getFailuresLogFile())) {
+                        bulk.setFailuresLogFile(merged.toString());
+                    }
+                }
+            }
+            if (!warnings.isEmpty()) {
+                File merged = Paths.get(downloadPath, String.format(MERGED_LOG_FILENAME, prefix, first.getBatchId(),
+                        last.getBatchId(), URI_WARNINGS)).toFile();
+                mergeLogFiles(warnings, merged);
+                for (BulkImport bulk : batches) {
+                    if (!StringUtils.isEmpty(bulk.getWarningsLogFile())) {
+                        bulk.setWarningsLogFile(merged.toString());
+                    }
+                }
+            }
+        }
+        return batches;
+    }
+
+    private void downloadFiles(List<String> uris, List<File> files) throws MarketoException {
+        if (uris.size() <= 1) {
+            for (int i = 0; i < uris.size(); i++) {
+                executeDownloadFileRequest(uris.get(i), files.get(i));
+            }
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(uris.size(), MAX_PARALLEL_DOWNLOADS));
+        try {
+            List<Future<?>> downloads = new ArrayList<>();
+            for (int i = 0; i < uris.size(); i++) {
+                final String uri = uris.get(i);
+                final File file = files.get(i);
+                downloads.add(executor.submit(() -> {
+                    executeDownloadFileRequest(uri, file);
+                    return null;
+                }));
+            }
+            for (Future<?> download : downloads) {
+                download.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MarketoException(REST, "Download interrupted : " + e.getLocalizedMessage());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MarketoException) {
+                throw (MarketoException) e.getCause();
+            }
+            throw new MarketoException(REST, e.getCause().getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Concatenate the logs in <code>merged</code>, keeping only the header of the first one, then delete them.
+     */
+    private void mergeLogFiles(List<File> logs, File merged) throws MarketoException {
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(merged), StandardCharsets.UTF_8)) {
+            char[] buffer = new char[8 * 4096];
+            boolean first = true;
+            for (File log : logs) {
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(new FileInputStream(log), StandardCharsets.UTF_8))) {
+                    String header = reader.readLine();
+                    if (first && header != null) {
+                        writer.write(header);
+                        writer.write("\n");
+                    }
+                    first = false;
+                    int numCharsRead;
+                    while ((numCharsRead = reader.read(buffer, 0, buffer.length)) != -1) {
+                        writer.write(buffer, 0, numCharsRead);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOG.error("Failed to merge batch logs in {}: {}.", merged, e.getMessage());
+            throw new MarketoException(REST, e.getMessage());
+        }
+        for (File log : logs) {
+            FileUtils.deleteQuietly(log);
+        }
+    }
+
+    /**
+     * Split <code>filePath</code> in files of at most <code>maxBytes</code>, each starting with the header of the
+     * file. Rows are never split, even when a quoted value spans several lines.
+     *
+     * @return the parts of the file, or the file itself when it is small enough.
+     */
+    public List<String> splitBulkFile(String filePath, long maxBytes) throws MarketoException {
+        if (filePath == null || !new File(filePath).isFile() || new File(filePath).length() <= maxBytes) {
+            return Collections.singletonList(filePath);
+        }
+        Charset charset = Charset.defaultCharset();
+        List<String> parts = new ArrayList<>();
+        Writer writer = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(filePath), charset))) {
+            String header = reader.readLine() + "\n";
+            long headerSize = header.getBytes(charset).length;
+            long partSize = 0;
+            String row;
+            while ((row = readBulkFileRow(reader)) != null) {
+                long rowSize = row.getBytes(charset).length;
+                if (writer == null || (partSize + rowSize > maxBytes && partSize > headerSize)) {
+                    if (writer != null) {
+                        writer.close();
+                    }
+                    File part = File.createTempFile("talend_bulk_import_", ".part" + parts.size());
+                    part.deleteOnExit();
+                    parts.add(part.getAbsolutePath());
+                    writer = new OutputStreamWriter(new FileOutputStream(part), charset);
+                    writer.write(header);
+                    partSize = headerSize;
+                }
+                writer.write(row);
+                partSize += rowSize;
+            }
+        } catch (IOException e) {
+            LOG.error("Failed to split {}: {}.", filePath, e.getMessage());
+            deleteBulkFileParts(filePath, parts);
+            throw new MarketoException(REST, e.getMessage());
+        } finally {
+            IOUtils.closeQuietly(writer);
+        }
+        LOG.info("{} split in {} files of at most {} bytes.", filePath, parts.size(), maxBytes);
+        return parts.isEmpty() ? Collections.singletonList(filePath) : parts;
+    }
+
+    /**
+     * @return the next row of the file, with its line feed, or null at the end of the file.
+     */
+    private String readBulkFileRow(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        StringBuilder row = new StringBuilder(line).append('\n');
+        int quotes = StringUtils.countMatches(line, "\"");
+        while (quotes % 2 != 0 && (line = reader.readLine()) != null) {
+            row.append(line).append('\n');
+            quotes += StringUtils.countMatches(line, "\"");
+        }
+        return row.toString();
+    }
+
+    private void deleteBulkFileParts(String filePath, List<String> parts) {
+        for (String part : parts) {
+            if (!StringUtils.equals(part, filePath)) {
+                FileUtils.deleteQuietly(new File(part));
+            }
+        }
+    }
+
     /**
      * Imports a spreadsheet of leads or custom objects into the target instance
      *
@@ -170,19 +418,34 @@ public class MarketoBulkExecClient extends MarketoCustomObjectClient {
      *
      * POST /bulk/v1/customobjects/{apiName}/import.json
      *
+     * Files larger than the maximum file size are split, and their parts are imported as several batches. Up to the
+     * maximum number of concurrent jobs are submitted at once. The statuses of the running batches are polled
+     * together, waiting longer between polls while none of them completes.
+     *
      * @param parameters
-     * @return
+     * @return a record for each batch.
      */
     public MarketoRecordResult bulkImport(TMarketoBulkExecProperties parameters) {
         String importFilename = parameters.bulkFilePath.getValue();
         String format = parameters.bulkFileFormat.getValue().name();
         Integer pollWaitTime = parameters.pollWaitTime.getValue();
         String logDownloadPath = parameters.logDownloadPath.getValue();
+        Integer maxFileSize = parameters.bulkImportMaxFileSize.getValue();
+        if (maxFileSize == null || maxFileSize <= 0 || maxFileSize > BULK_IMPORT_MAX_FILE_SIZE) {
+            maxFileSize = BULK_IMPORT_MAX_FILE_SIZE;
+        }
+        Integer maxJobs = parameters.bulkImportMaxConcurrentJobs.getValue();
+        if (maxJobs == null || maxJobs <= 0) {
+            maxJobs = 1;
+        }
+        maxJobs = Math.min(maxJobs, BULK_IMPORT_MAX_CONCURRENT_JOBS);
         String lookupField;
         Integer listId;
         String partitionName;
         String customObjectName;
-        current_uri = new StringBuilder(bulkPath);
+        // the access token may be refreshed during the import, it is added to the uri of each part
+        String importPath;
+        StringBuilder importParams = new StringBuilder();
         Boolean isImportingLeads = parameters.bulkImportTo.getValue().equals(BulkImportTo.Leads);
         if (isImportingLeads) {
             lookupField = parameters.lookupField.getValue().name();
@@ -191,77 +454,150 @@ public class MarketoBulkExecClient extends MarketoCustomObjectClient {
             }
             listId = parameters.listId.getValue();
             partitionName = parameters.partitionName.getValue();
-            current_uri.append(API_PATH_BULK_LEADS)//
-                    .append(fmtParams(FIELD_ACCESS_TOKEN, accessToken, true))//
-                    .append(fmtParams(FIELD_LOOKUP_FIELD, lookupField));
+            importPath = bulkPath + API_PATH_BULK_LEADS;
+            importParams.append(fmtParams(FIELD_LOOKUP_FIELD, lookupField));
             if (listId != null) {
-                current_uri.append(fmtParams(FIELD_LIST_ID, listId));
+                importParams.append(fmtParams(FIELD_LIST_ID, listId));
             }
             if (!StringUtils.isEmpty(partitionName)) {
-                current_uri.append(fmtParams(FIELD_PARTITION_NAME, partitionName));
+                importParams.append(fmtParams(FIELD_PARTITION_NAME, partitionName));
             }
         } else {
             customObjectName = parameters.customObjectName.getValue();
-            current_uri.append(String.format(API_PATH_BULK_CUSTOMOBJECTS, customObjectName))//
-                    .append(fmtParams(FIELD_ACCESS_TOKEN, accessToken, true));
+            importPath = bulkPath + String.format(API_PATH_BULK_CUSTOMOBJECTS, customObjectName);
         }
-        current_uri.append(fmtParams(FIELD_FORMAT, format));
+        importParams.append(fmtParams(FIELD_FORMAT, format));
         //
         MarketoRecordResult mkto = new MarketoRecordResult();
+        List<String> parts = Collections.emptyList();
         try {
-            LOG.debug("bulkImport {}.", current_uri);
-            BulkImportResult rs = executePostFileRequest(BulkImportResult.class, importFilename);
-            LOG.debug("rs = {}.", rs);
-            mkto.setRequestId(REST + "::" + rs.getRequestId());
-            mkto.setSuccess(rs.isSuccess());
-            if (!mkto.isSuccess()) {
-                mkto.setRecordCount(0);
-                mkto.setErrors(Arrays
-                        .asList(new MarketoError(REST, messages.getMessage("bulkimport.error.import", rs.getErrorsString()))));
-                return mkto;
-            }
-            BulkImport bulkResult = rs.getResult().get(0);
-            if (bulkResult.getStatus().equals(BULK_STATUS_FAILED)) { // request Failed
-                String err = messages.getMessage("bulkimport.status.failed", bulkResult.getMessage());
-                LOG.error("{}.", err);
-                mkto.setSuccess(false);
-                mkto.setErrors(Arrays.asList(new MarketoError(REST, err)));
-            } else if (bulkResult.getStatus().equals(BULK_STATUS_COMPLETE)) { // already Complete
-                bulkResult = getStatusesForBatch(bulkResult, logDownloadPath);
-            } else { // Importing, Queued
-                while (true) {
-                    try {
-                        LOG.warn(messages.getMessage("bulkimport.status.waiting", pollWaitTime));
-                        Thread.sleep(pollWaitTime * 1000L);
-                        current_uri = new StringBuilder(bulkPath);
-                        if (bulkResult.isBulkLeadsImport()) {
-                            current_uri.append(String.format(API_PATH_BULK_LEADS_RESULT_STATUS, bulkResult.getBatchId()));
-                        } else {
-                            current_uri.append(String.format(API_PATH_BULK_CUSTOMOBJECTS_RESULT, bulkResult.getObjectApiName(),
-                                    bulkResult.getBatchId(), "status"));
-                        }
-                        current_uri.append(fmtParams(FIELD_ACCESS_TOKEN, accessToken, true));
-                        LOG.debug("status = {}.", current_uri);
-                        rs = (BulkImportResult) executeGetRequest(BulkImportResult.class);
-                        if (rs.isSuccess() && rs.getResult().get(0).getStatus().equals(BULK_STATUS_COMPLETE)) {
-                            bulkResult = getStatusesForBatch(rs.getResult().get(0), logDownloadPath);
-                            break;
-                        } else {
-                            LOG.warn(messages.getMessage("bulkimport.status.current", rs.getResult().get(0).getStatus()));
+            parts = splitBulkFile(importFilename, maxFileSize * 1024L * 1024L);
+            List<BulkImport> batches = new ArrayList<>();
+            List<BulkImport> running = new ArrayList<>();
+            List<MarketoError> errors = new ArrayList<>();
+            long pollInterval = pollWaitTime * 1000L;
+            int nextPart = 0;
+            while (true) {
+                // submit the next parts while there are free job slots
+                while (errors.isEmpty() && nextPart < parts.size() && running.size() < maxJobs) {
+                    BulkImportResult rs = submitBulkImportPart(importPath, importParams.toString(), parts.get(nextPart));
+                    mkto.setRequestId(REST + "::" + rs.getRequestId());
+                    if (!rs.isSuccess()) {
+                        errors.add(new MarketoError(REST, messages.getMessage("bulkimport.error.import", rs.getErrorsString())));
+                        break;
+                    }
+                    nextPart++;
+                    BulkImport bulkResult = rs.getResult().get(0);
+                    batches.add(bulkResult);
+                    if (!isBulkImportDone(bulkResult, errors)) {
+                        running.add(bulkResult);
+                    }
+                }
+                if (running.isEmpty()) {
+                    break;
+                }
+                // poll the running batches, backing off while none of them completes
+                try {
+                    LOG.warn(messages.getMessage("bulkimport.status.waiting", pollInterval / 1000));
+                    Thread.sleep(pollInterval);
+                } catch (InterruptedException e) {
+                    LOG.error("Sleep interrupted : {}", e);
+                    Thread.currentThread().interrupt();
+                    throw new MarketoException(REST, "Sleep interrupted : " + e.getLocalizedMessage());
+                }
+                boolean completed = false;
+                for (int i = 0; i < running.size(); i++) {
+                    BulkImport bulkResult = running.get(i);
+                    current_uri = new StringBuilder(getBatchStatusUri(bulkResult));
+                    LOG.debug("status = {}.", current_uri);
+                    BulkImportResult rs = (BulkImportResult) executeGetRequest(BulkImportResult.class);
+                    if (!rs.isSuccess()) {
+                        if (isErrorRecoverable(rs.getErrors())) {
+                            // token refreshed or throttled, polled again next time
+                            continue;
                         }
-                    } catch (InterruptedException e) {
-                        LOG.error("Sleep interrupted : {}", e);
-                        throw new MarketoException(REST, "Sleep interrupted : " + e.getLocalizedMessage());
+                        throw new MarketoException(REST, rs.getErrorsString());
+                    }
+                    BulkImport status = rs.getResult().get(0);
+                    batches.set(batches.indexOf(bulkResult), status);
+                    running.set(i, status);
+                    if (isBulkImportDone(status, errors)) {
+                        running.remove(i--);
+                        completed = true;
+                    } else {
+                        LOG.warn(messages.getMessage("bulkimport.status.current", status.getStatus()));
                     }
                 }
+                if (completed) {
+                    pollInterval = pollWaitTime * 1000L;
+                } else {
+                    pollInterval = Math.min(pollInterval * 2, pollWaitTime * 1000L * MAX_POLL_BACKOFF);
+                }
+            }
+            if (batches.isEmpty()) {
+                mkto.setSuccess(false);
+                mkto.setRecordCount(0);
+                mkto.setErrors(errors);
+                return mkto;
+            }
+            getStatusesForBatches(batches, logDownloadPath);
+            List<IndexedRecord> records = new ArrayList<>();
+            for (BulkImport bulkResult : batches) {
+                records.add(bulkResult.toIndexedRecord());
             }
-            mkto.setRecords(Arrays.asList(bulkResult.toIndexedRecord()));
-            mkto.setRecordCount(1);
+            mkto.setSuccess(errors.isEmpty());
+            if (!errors.isEmpty()) {
+                mkto.setErrors(errors);
+            }
+            mkto.setRecords(records);
+            mkto.setRecordCount(records.size());
             mkto.setRemainCount(0);
         } catch (MarketoException e) {
             mkto.setSuccess(false);
             mkto.setErrors(Arrays.asList(e.toMarketoError()));
+        } finally {
+            deleteBulkFileParts(importFilename, parts);
         }
         return mkto;
     }
+
+    /**
+     * Posts a part of the file to import, with the current access token. Recoverable errors, such as an expired
+     * token or a rate limit, are retried up to the retry count of the connection.
+     */
+    private BulkImportResult submitBulkImportPart(String importPath, String importParams, String part)
+            throws MarketoException {
+        int attempts = retryCount == null ? 0 : retryCount;
+        int interval = retryInterval == null ? 0 : retryInterval;
+        for (int attempt = 0;; attempt++) {
+            current_uri = new StringBuilder(importPath).append(fmtParams(FIELD_ACCESS_TOKEN, accessToken, true))
+                    .append(importParams);
+            LOG.debug("bulkImport {}.", current_uri);
+            BulkImportResult rs = executePostFileRequest(BulkImportResult.class, part);
+            LOG.debug("rs = {}.", rs);
+            if (rs.isSuccess() || attempt >= attempts || !isErrorRecoverable(rs.getErrors())) {
+                return rs;
+            }
+            try {
+                Thread.sleep(MarketoClientUtils.getRetryDelay(rs.getErrors(), interval, attempt));
+            } catch (InterruptedException e) {
+                LOG.error("Sleep interrupted : {}", e);
+                Thread.currentThread().interrupt();
+                throw new MarketoException(REST, "Sleep interrupted : " + e.getLocalizedMessage());
+            }
+        }
+    }
+
+    /**
+     * @return true when the batch is complete or failed. The error of a failed batch is added to <code>errors</code>.
+     */
+    private boolean isBulkImportDone(BulkImport bulkResult, List<MarketoError> errors) {
+        if (BULK_STATUS_FAILED.equals(bulkResult.getStatus())) {
+            String err = messages.getMessage("bulkimport.status.failed", bulkResult.getMessage());
+            LOG.error("{}.", err);
+            errors.add(new MarketoError(REST, err));
+            return true;
+        }
+        return BULK_STATUS_COMPLETE.equals(bulkResult.getStatus());
+    }
 }
@@ -0,0 +1,253 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.marketo.runtime.client;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.net.HttpURLConnection;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.avro.Schema;
+import org.apache.avro.Schema.Field;
+import org.apache.avro.generic.GenericData.Record;
+import org.apache.avro.generic.IndexedRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.components.marketo.MarketoConstants;
+import org.talend.components.marketo.runtime.client.rest.response.BulkExtractResult;
+import org.talend.components.marketo.runtime.client.type.MarketoException;
+import org.talend.components.marketo.tmarketoconnection.TMarketoConnectionProperties;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+/**
+ * Bulk Extract API : leads and activities are exported by Marketo to CSV files, which are then downloaded.
+ *
+ * An export job is created with a filter on the creation date, enqueued, and its file can be downloaded once its
+ * status is completed.
+ */
+public class MarketoBulkExtractClient extends MarketoOpportunityClient {
+
+    public static final String BULK_EXTRACT_LEADS = "leads";
+
+    public static final String BULK_EXTRACT_ACTIVITIES = "activities";
+
+    public static final String API_PATH_BULK_EXTRACT_CREATE = "/v1/%s/export/create.json";
+
+    public static final String API_PATH_BULK_EXTRACT_ENQUEUE = "/v1/%s/export/%s/enqueue.json";
+
+    public static final String API_PATH_BULK_EXTRACT_STATUS = "/v1/%s/export/%s/status.json";
+
+    public static final String API_PATH_BULK_EXTRACT_FILE = "/v1/%s/export/%s/file.json";
+
+    public static final String BULK_EXTRACT_FORMAT_CSV = "CSV";
+
+    public static final String BULK_EXTRACT_DATETIME_PATTERN = MarketoConstants.DATETIME_PATTERN_REST_UTC;
+
+    public static final String FIELD_FILTER = "filter";
+
+    public static final String FIELD_CREATED_AT = "createdAt";
+
+    public static final String FIELD_START_AT = "startAt";
+
+    public static final String FIELD_END_AT = "endAt";
+
+    /**
+     * Value written by Marketo in export files for empty fields.
+     */
+    public static final String BULK_EXTRACT_NULL_VALUE = "null";
+
+    private static final Logger LOG = LoggerFactory.getLogger(MarketoBulkExtractClient.class);
+
+    public MarketoBulkExtractClient(TMarketoConnectionProperties connection) throws MarketoException {
+        super(connection);
+    }
+
+    /**
+     * Split a creation date range in ranges of at most <code>days</code> days, the maximum range of a job being 31
+     * days. Ranges do not overlap, so that no record is exported twice.
+     *
+     * @return the start and end of each range, formatted for the Bulk Extract API.
+     */
+    public static List<String[]> getBulkExtractDateRanges(Date oldest, Date latest, int days) {
+        SimpleDateFormat sdf = new SimpleDateFormat(BULK_EXTRACT_DATETIME_PATTERN);
+        sdf.setTimeZone(TimeZone.getTimeZone("UTC"));
+        long step = TimeUnit.DAYS.toMillis(Math.max(days, 1));
+        long second = TimeUnit.SECONDS.toMillis(1);
+        List<String[]> ranges = new ArrayList<>();
+        long start = oldest.getTime();
+        long end = latest.getTime();
+        while (start <= end) {
+            long chunkEnd = Math.min(start + step - second, end);
+            ranges.add(new String[] { sdf.format(new Date(start)), sdf.format(new Date(chunkEnd)) });
+            start = chunkEnd + second;
+        }
+        return ranges;
+    }
+
+    /**
+     * Create an export job
+     *
+     * POST /bulk/v1/leads/export/create.json
+     *
+     * POST /bulk/v1/activities/export/create.json
+     *
+     * @param entity {@link #BULK_EXTRACT_LEADS} or {@link #BULK_EXTRACT_ACTIVITIES}.
+     * @param fields fields to export, all the default fields when empty.
+     * @param activityTypeIds activity types to export, for activities only.
+     */
+    public BulkExtractResult createBulkExtract(String entity, List<String> fields, String startAt, String endAt,
+            List<Integer> activityTypeIds) {
+        JsonObject createdAt = new JsonObject();
+        createdAt.addProperty(FIELD_START_AT, startAt);
+        createdAt.addProperty(FIELD_END_AT, endAt);
+        JsonObject filter = new JsonObject();
+        filter.add(FIELD_CREATED_AT, createdAt);
+        if (activityTypeIds != null && !activityTypeIds.isEmpty()) {
+            JsonArray ids = new JsonArray();
+            for (Integer id : activityTypeIds) {
+                ids.add(id);
+            }
+            filter.add(FIELD_ACTIVITY_TYPE_IDS, ids);
+        }
+        JsonObject input = new JsonObject();
+        if (fields != null && !fields.isEmpty()) {
+            JsonArray jsonFields = new JsonArray();
+            for (String f : fields) {
+                jsonFields.add(f);
+            }
+            input.add(FIELD_FIELDS, jsonFields);
+        }
+        input.addProperty(FIELD_FORMAT, BULK_EXTRACT_FORMAT_CSV);
+        input.add(FIELD_FILTER, filter);
+        setBulkExtractUri(API_PATH_BULK_EXTRACT_CREATE, entity, null);
+        LOG.debug("BulkExtract create {}: {}.", entity, input);
+        return executeBulkExtractRequest(input);
+    }
+
+    /**
+     * Put a created export job in the processing queue
+     *
+     * POST /bulk/v1/{leads|activities}/export/{exportId}/enqueue.json
+     */
+    public BulkExtractResult enqueueBulkExtract(String entity, String exportId) {
+        setBulkExtractUri(API_PATH_BULK_EXTRACT_ENQUEUE, entity, exportId);
+        return executeBulkExtractRequest(new JsonObject());
+    }
+
+    /**
+     * GET /bulk/v1/{leads|activities}/export/{exportId}/status.json
+     */
+    public BulkExtractResult getBulkExtractStatus(String entity, String exportId) {
+        setBulkExtractUri(API_PATH_BULK_EXTRACT_STATUS, entity, exportId);
+        return executeBulkExtractRequest(null);
+    }
+
+    /**
+     * Open the file of a completed export job
+     *
+     * GET /bulk/v1/{leads|activities}/export/{exportId}/file.json
+     *
+     * The file is streamed : the returned reader must be closed. The call ends for the rate limiter as soon as the
+     * response headers are received, so reading a large file does not hold a rate limiter slot.
+     */
+    public Reader getBulkExtractFile(String entity, String exportId) throws MarketoException {
+        setBulkExtractUri(API_PATH_BULK_EXTRACT_FILE, entity, exportId);
+        acquireCall();
+        try {
+            HttpURLConnection urlConn = openConnection(QUERY_METHOD_GET, null);
+            return getReaderFromHttpResponse(urlConn);
+        } catch (IOException e) {
+            LOG.error("BulkExtract download failed: {}.", e.getMessage());
+            throw new MarketoException(REST, e.getMessage());
+        } finally {
+            getRateLimiter().release();
+        }
+    }
+
+    /**
+     * Convert a row of an export file to a record of <code>schema</code>.
+     *
+     * @param columns position of the Marketo fields in the rows, as given by the header of the file.
+     * @param mappings Marketo field name of the schema columns.
+     */
+    public IndexedRecord convertBulkExtractRow(Map<String, Integer> columns, List<String> row, Schema schema,
+            Map<String, String> mappings) {
+        IndexedRecord record = new Record(schema);
+        for (Field f : schema.getFields()) {
+            String col = mappings.get(f.name());
+            if (col == null) {
+                col = f.name();
+            }
+            if (FIELD_ACTIVITY_TYPE_VALUE.equals(col)) {
+                String typeId = getBulkExtractValue(columns, row, FIELD_ACTIVITY_TYPE_ID);
+                if (typeId != null) {
+                    record.put(f.pos(), getActivityTypeNameById(Integer.parseInt(typeId)));
+                }
+                continue;
+            }
+            record.put(f.pos(), getValueType(f, getBulkExtractValue(columns, row, col)));
+        }
+        return record;
+    }
+
+    private static String getBulkExtractValue(Map<String, Integer> columns, List<String> row, String column) {
+        Integer idx = columns.get(column);
+        if (idx == null || idx >= row.size()) {
+            return null;
+        }
+        String value = row.get(idx);
+        if (value.isEmpty() || BULK_EXTRACT_NULL_VALUE.equals(value)) {
+            return null;
+        }
+        return value;
+    }
+
+    private void setBulkExtractUri(String path, String entity, String exportId) {
+        current_uri = new StringBuilder(bulkPath) //
+                .append(exportId == null ? String.format(path, entity) : String.format(path, entity, exportId)) //
+                .append(fmtParams(FIELD_ACCESS_TOKEN, accessToken, true));
+    }
+
+    /**
+     * @param input body of the request, null for a GET request.
+     */
+    private BulkExtractResult executeBulkExtractRequest(JsonObject input) {
+        try {
+            BulkExtractResult result;
+            if (input == null) {
+                result = (BulkExtractResult) executeGetRequest(BulkExtractResult.class);
+            } else {
+                result = (BulkExtractResult) executePostRequest(BulkExtractResult.class, input);
+            }
+            if (result == null) {
+                throw new MarketoException(REST, "Empty response.");
+            }
+            return result;
+        } catch (MarketoException e) {
+            LOG.error("BulkExtract request failed: {}.", e.toString());
+            BulkExtractResult result = new BulkExtractResult();
+            result.setSuccess(false);
+            result.setErrors(Collections.singletonList(e.toMarketoError()));
+            return result;
+        }
+    }
+}
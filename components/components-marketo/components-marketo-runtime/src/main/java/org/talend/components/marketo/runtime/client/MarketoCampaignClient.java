@@ -132,7 +132,7 @@ public class MarketoCampaignClient extends MarketoBulkExecClient {
         String clone = parameters.cloneToProgramName.getStringValue();
         String runat = parameters.runAt.getStringValue();
         JsonObject inputJson = new JsonObject();
-        Gson gson = new Gson();
+        Gson gson = MarketoClientUtils.getGson();
         if (!StringUtils.isEmpty(clone)) {
             inputJson.addProperty(FIELD_CLONE_TO_PROGRAM_NAME, parameters.cloneToProgramName.getValue());
         }
@@ -195,7 +195,7 @@ public class MarketoCampaignClient extends MarketoBulkExecClient {
     public MarketoSyncResult requestCampaign(TMarketoCampaignProperties parameters, List<IndexedRecord> records) {
         String campaignId = parameters.campaignId.getStringValue();
         JsonObject inputJson = new JsonObject();
-        Gson gson = new Gson();
+        Gson gson = MarketoClientUtils.getGson();
         List<Map<String, Integer>> leads = new ArrayList<>();
         for (IndexedRecord r : records) {
             Map<String, Integer> lead = new HashMap<>();
@@ -16,6 +16,8 @@ import static org.talend.components.marketo.MarketoConstants.DATETIME_PATTERN_PA
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.apache.avro.Schema.Field;
 import org.apache.avro.Schema.Type;
@@ -25,12 +27,59 @@ import org.joda.time.DateTimeZone;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.talend.components.marketo.MarketoUtils;
+import org.talend.components.marketo.runtime.client.type.MarketoError;
 import org.talend.daikon.avro.SchemaConstants;
 
+import com.google.gson.Gson;
+
 public class MarketoClientUtils extends MarketoUtils {
 
     private static final Logger LOG = LoggerFactory.getLogger(MarketoClientUtils.class);
 
+    /**
+     * Maximum delay between two attempts of an operation, in milliseconds.
+     */
+    public static final long MAX_RETRY_DELAY = 60_000L;
+
+    /**
+     * Gson instances are thread-safe and cache the type adapter of each class they handle, so a single one is shared.
+     */
+    private static final Gson GSON = new Gson();
+
+    public static Gson getGson() {
+        return GSON;
+    }
+
+    /**
+     * Compute the delay before the next attempt of an operation which failed with a recoverable error.
+     *
+     * An expired access token (602) is renewed by the client before the operation is retried, so the operation is
+     * retried after <code>interval</code>. For the other errors (rate limit, timeout, temporary unavailability) the
+     * delay doubles at each attempt, up to {@link #MAX_RETRY_DELAY}, and a random jitter is added so that the
+     * components failing at the same time do not retry at the same time.
+     *
+     * @param errors errors of the failed attempt
+     * @param interval configured interval between two attempts, in milliseconds
+     * @param attempt index of the failed attempt, starting at 0
+     * @return the delay in milliseconds, never lower than <code>interval</code>.
+     */
+    public static long getRetryDelay(List<MarketoError> errors, int interval, int attempt) {
+        if (interval <= 0) {
+            return 0;
+        }
+        boolean tokenExpired = errors != null && !errors.isEmpty();
+        if (errors != null) {
+            for (MarketoError error : errors) {
+                tokenExpired &= "602".equals(error.getCode());
+            }
+        }
+        if (tokenExpired) {
+            return interval;
+        }
+        long delay = Math.max(interval, Math.min((long) interval << Math.min(attempt, 20), MAX_RETRY_DELAY));
+        return delay + ThreadLocalRandom.current().nextLong(interval);
+    }
+
     /**
      * Check if the Avro field is of Date type
      *
@@ -98,7 +98,7 @@ public class MarketoCompanyClient extends MarketoCampaignClient {
         String action = parameters.customObjectSyncAction.getValue().name();
         String dedupeBy = parameters.customObjectDedupeBy.getValue();
         JsonObject inputJson = new JsonObject();
-        Gson gson = new Gson();
+        Gson gson = MarketoClientUtils.getGson();
         inputJson.addProperty("action", action);
         if (!dedupeBy.isEmpty()) {
             inputJson.addProperty("dedupeBy", dedupeBy);
@@ -124,7 +124,7 @@ public class MarketoCompanyClient extends MarketoCampaignClient {
     public MarketoSyncResult deleteCompany(TMarketoOutputProperties parameters, List<IndexedRecord> records) {
         String deleteBy = parameters.customObjectDeleteBy.getValue().name();
         JsonObject inputJson = new JsonObject();
-        Gson gson = new Gson();
+        Gson gson = MarketoClientUtils.getGson();
         if (!deleteBy.isEmpty()) {
             inputJson.addProperty("deleteBy", deleteBy);
         }
@@ -0,0 +1,105 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.marketo.runtime.client;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader of the RFC 4180 CSV files produced by the Bulk Extract API.
+ *
+ * Rows are read one at a time, so that an export file is never held in memory. Quoted values may contain separators,
+ * line breaks and doubled quotes.
+ */
+public class MarketoCsvReader implements Closeable {
+
+    private static final char SEPARATOR = ',';
+
+    private static final char QUOTE = '"';
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final PushbackReader reader;
+
+    private final StringBuilder value = new StringBuilder();
+
+    private long rowNumber;
+
+    public MarketoCsvReader(Reader reader) {
+        this.reader = new PushbackReader(new BufferedReader(reader, BUFFER_SIZE));
+    }
+
+    /**
+     * @return the values of the next row, or null at the end of the file.
+     */
+    public List<String> readRow() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> row = new ArrayList<>();
+        boolean quoted = false;
+        value.setLength(0);
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted value in row " + (rowNumber + 1) + ".");
+                }
+                if (c == QUOTE) {
+                    int next = reader.read();
+                    if (next != QUOTE) {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                }
+                value.append((char) c);
+            } else if (c == QUOTE) {
+                quoted = true;
+            } else if (c == SEPARATOR) {
+                row.add(value.toString());
+                value.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = reader.read();
+                    if (next != '\n' && next != -1) {
+                        reader.unread(next);
+                    }
+                }
+                row.add(value.toString());
+                rowNumber++;
+                return row;
+            } else {
+                value.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    /**
+     * @return the number of rows read so far, header included.
+     */
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
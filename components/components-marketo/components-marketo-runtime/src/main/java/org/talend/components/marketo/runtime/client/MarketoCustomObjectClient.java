@@ -103,7 +103,7 @@ public class MarketoCustomObjectClient extends MarketoLeadClient {
         // Compound Key use
         if (parameters.useCompoundKey.getValue()) {
             JsonObject inputJson = new JsonObject();
-            Gson gson = new Gson();
+            Gson gson = MarketoClientUtils.getGson();
             if (offset != null) {
                 inputJson.addProperty(FIELD_NEXT_PAGE_TOKEN, offset);
             }
@@ -169,7 +169,7 @@ public class MarketoCustomObjectClient extends MarketoLeadClient {
         String deleteBy = parameters.customObjectDeleteBy.getValue().name();
         //
         JsonObject inputJson = new JsonObject();
-        Gson gson = new Gson();
+        Gson gson = MarketoClientUtils.getGson();
         if (!deleteBy.isEmpty()) {
             inputJson.addProperty("deleteBy", deleteBy);
         }
@@ -245,7 +245,7 @@ public class MarketoLeadClient extends MarketoBaseRESTClient implements MarketoC
     public List<IndexedRecord> convertLeadChangesRecords(List<LeadChangeRecord> recordList, Schema schema,
             Map<String, String> mappings) {
         List<IndexedRecord> results = new ArrayList<>();
-        Gson gson = new Gson();
+        Gson gson = MarketoClientUtils.getGson();
         for (LeadChangeRecord input : recordList) {
             IndexedRecord record = new Record(schema);
             for (Field f : schema.getFields()) {
@@ -459,8 +459,6 @@ public class MarketoLeadClient extends MarketoBaseRESTClient implements MarketoC
         List<String> incs = parameters.includeTypes.type.getValue();
         List<String> excs = parameters.setExcludeTypes.getValue() ? parameters.excludeTypes.type.getValue()
                 : new ArrayList<String>();
-        int batchLimit = parameters.batchSize.getValue() > REST_API_LIMIT ? REST_API_LIMIT : parameters.batchSize.getValue();
-        String pgOffset = offset;
         List<Integer> activityTypeIds = new ArrayList<>();
         // no activity provided, we take all
         if (incs.isEmpty()) {
@@ -478,6 +476,20 @@ public class MarketoLeadClient extends MarketoBaseRESTClient implements MarketoC
         for (String i : incs) {
             activityTypeIds.add(IncludeExcludeFieldsREST.valueOf(i).fieldVal);
         }
+        return getLeadActivity(parameters, offset, sinceDateTime, activityTypeIds);
+    }
+
+    /**
+     * Get a page of the activities of the given types created since <code>sinceDateTime</code>. Only the schema, the
+     * mappings and the batch size are read from <code>parameters</code>, so that several page token chains can run at
+     * the same time with different clients.
+     *
+     * @param offset page token, null for the first page.
+     */
+    public MarketoRecordResult getLeadActivity(TMarketoInputProperties parameters, String offset, String sinceDateTime,
+            List<Integer> activityTypeIds) {
+        int batchLimit = parameters.batchSize.getValue() > REST_API_LIMIT ? REST_API_LIMIT : parameters.batchSize.getValue();
+        String pgOffset = offset;
         if (pgOffset == null) {
             try {
                 pgOffset = getPageToken(sinceDateTime);
@@ -508,7 +520,16 @@ public class MarketoLeadClient extends MarketoBaseRESTClient implements MarketoC
 
     @Override
     public MarketoRecordResult getLeadChanges(TMarketoInputProperties parameters, String offset) {
-        String sinceDateTime = parameters.sinceDateTime.getValue();
+        return getLeadChanges(parameters, offset, parameters.sinceDateTime.getValue());
+    }
+
+    /**
+     * Get a page of the lead changes since <code>sinceDateTime</code>.
+     *
+     * @param offset page token, null for the first page.
+     * @see #getLeadActivity(TMarketoInputProperties, String, String, List)
+     */
+    public MarketoRecordResult getLeadChanges(TMarketoInputProperties parameters, String offset, String sinceDateTime) {
         int batchLimit = parameters.batchSize.getValue() > REST_API_LIMIT ? REST_API_LIMIT : parameters.batchSize.getValue();
         String[] fields = parameters.fieldList.getValue().split(",");
         String pgOffset = offset;
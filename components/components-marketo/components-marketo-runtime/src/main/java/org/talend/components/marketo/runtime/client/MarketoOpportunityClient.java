@@ -104,7 +104,7 @@ public class MarketoOpportunityClient extends MarketoCompanyClient {
         //
         if (useCompoundKey) {
             JsonObject inputJson = new JsonObject();
-            Gson gson = new Gson();
+            Gson gson = MarketoClientUtils.getGson();
             if (offset != null) {
                 inputJson.addProperty(FIELD_NEXT_PAGE_TOKEN, offset);
             }
@@ -147,7 +147,7 @@ public class MarketoOpportunityClient extends MarketoCompanyClient {
         String action = parameters.customObjectSyncAction.getValue().name();
         String dedupeBy = parameters.customObjectDedupeBy.getValue();
         JsonObject inputJson = new JsonObject();
-        Gson gson = new Gson();
+        Gson gson = MarketoClientUtils.getGson();
         inputJson.addProperty("action", action);
         if (!dedupeBy.isEmpty()) {
             inputJson.addProperty("dedupeBy", dedupeBy);
@@ -184,7 +184,7 @@ public class MarketoOpportunityClient extends MarketoCompanyClient {
         }
         String deleteBy = parameters.customObjectDeleteBy.getValue().name();
         JsonObject inputJson = new JsonObject();
-        Gson gson = new Gson();
+        Gson gson = MarketoClientUtils.getGson();
         if (!deleteBy.isEmpty()) {
             inputJson.addProperty("deleteBy", deleteBy);
         }
@@ -0,0 +1,154 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.marketo.runtime.client;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JVM wide limiter of the REST calls made to a Marketo instance, shared by all the components of the JVM using the
+ * same endpoint.
+ *
+ * Marketo accepts at most 100 calls in any 20 seconds window and 10 concurrent calls per instance. A call first waits
+ * for a concurrency slot, then for a token. Each token comes back one period after the call which used it started, so
+ * that the number of calls started in any window never exceeds the limit.
+ */
+public final class MarketoRateLimiter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MarketoRateLimiter.class);
+
+    /**
+     * System property with the number of calls allowed per period.
+     */
+    public static final String MAX_CALLS_PROPERTY = "talend.marketo.rateLimit.calls";
+
+    /**
+     * System property with the length of the period, in seconds.
+     */
+    public static final String PERIOD_PROPERTY = "talend.marketo.rateLimit.period";
+
+    /**
+     * System property with the number of concurrent calls allowed.
+     */
+    public static final String MAX_CONCURRENT_CALLS_PROPERTY = "talend.marketo.rateLimit.concurrentCalls";
+
+    public static final int DEFAULT_MAX_CALLS = 100;
+
+    public static final int DEFAULT_PERIOD = 20;
+
+    public static final int DEFAULT_MAX_CONCURRENT_CALLS = 10;
+
+    private static final ConcurrentMap<String, MarketoRateLimiter> LIMITERS = new ConcurrentHashMap<>();
+
+    private final long periodMillis;
+
+    private final Semaphore concurrentCalls;
+
+    /**
+     * Start time of the last calls, used as a ring buffer.
+     */
+    private final long[] callTimes;
+
+    private int nextCall;
+
+    private final AtomicLong callCount = new AtomicLong();
+
+    private final AtomicLong throttledCallCount = new AtomicLong();
+
+    private final AtomicLong throttleTime = new AtomicLong();
+
+    MarketoRateLimiter(int maxCalls, long periodMillis, int maxConcurrentCalls) {
+        this.periodMillis = periodMillis;
+        concurrentCalls = new Semaphore(Math.max(maxConcurrentCalls, 1), true);
+        callTimes = new long[Math.max(maxCalls, 1)];
+        Arrays.fill(callTimes, Long.MIN_VALUE / 2);
+    }
+
+    /**
+     * @param endpoint REST endpoint of the Marketo instance.
+     * @return the limiter shared by the clients of <code>endpoint</code>.
+     */
+    public static MarketoRateLimiter getInstance(String endpoint) {
+        return LIMITERS.computeIfAbsent(String.valueOf(endpoint),
+                key -> new MarketoRateLimiter(Integer.getInteger(MAX_CALLS_PROPERTY, DEFAULT_MAX_CALLS),
+                        TimeUnit.SECONDS.toMillis(Integer.getInteger(PERIOD_PROPERTY, DEFAULT_PERIOD)),
+                        Integer.getInteger(MAX_CONCURRENT_CALLS_PROPERTY, DEFAULT_MAX_CONCURRENT_CALLS)));
+    }
+
+    /**
+     * Wait until a call can be made. {@link #release()} must be called once the call is done.
+     *
+     * @return the time waited, in milliseconds.
+     */
+    public long acquire() throws InterruptedException {
+        long start = System.currentTimeMillis();
+        concurrentCalls.acquire();
+        try {
+            long callTime = reserve();
+            long wait = callTime - System.currentTimeMillis();
+            if (wait > 0) {
+                Thread.sleep(wait);
+            }
+        } catch (InterruptedException e) {
+            concurrentCalls.release();
+            throw e;
+        }
+        callCount.incrementAndGet();
+        long waited = System.currentTimeMillis() - start;
+        if (waited > 0) {
+            throttledCallCount.incrementAndGet();
+            throttleTime.addAndGet(waited);
+            LOG.debug("Marketo call throttled for {}ms. Total throttle time: {}ms for {} calls out of {}.", waited,
+                    throttleTime.get(), throttledCallCount.get(), callCount.get());
+        }
+        return waited;
+    }
+
+    public void release() {
+        concurrentCalls.release();
+    }
+
+    /**
+     * Take the token released by the oldest call.
+     *
+     * @return the time at which the call can start.
+     */
+    private synchronized long reserve() {
+        long callTime = Math.max(System.currentTimeMillis(), callTimes[nextCall] + periodMillis);
+        callTimes[nextCall] = callTime;
+        nextCall = (nextCall + 1) % callTimes.length;
+        return callTime;
+    }
+
+    public long getCallCount() {
+        return callCount.get();
+    }
+
+    public long getThrottledCallCount() {
+        return throttledCallCount.get();
+    }
+
+    /**
+     * @return the total time calls waited for the limiter, in milliseconds.
+     */
+    public long getThrottleTime() {
+        return throttleTime.get();
+    }
+}
@@ -0,0 +1,37 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.marketo.runtime.client.rest.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.talend.components.marketo.runtime.client.rest.type.BulkExtract;
+
+public class BulkExtractResult extends RequestResult {
+
+    List<BulkExtract> result;
+
+    public void setResult(List<BulkExtract> result) {
+        this.result = result;
+    }
+
+    @Override
+    public List<BulkExtract> getResult() {
+        // ensure that result is never null
+        if (result == null) {
+            return new ArrayList<>();
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,174 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.marketo.runtime.client.rest.type;
+
+/**
+ * Lead or activity export job of the Bulk Extract API.
+ */
+public class BulkExtract {
+
+    public static final String STATUS_CREATED = "Created";
+
+    public static final String STATUS_QUEUED = "Queued";
+
+    public static final String STATUS_PROCESSING = "Processing";
+
+    public static final String STATUS_COMPLETED = "Completed";
+
+    public static final String STATUS_CANCELLED = "Cancelled";
+
+    public static final String STATUS_FAILED = "Failed";
+
+    /**
+     * Unique id of the export job
+     */
+    String exportId;
+
+    /**
+     * Status of the export job
+     */
+    String status;
+
+    /**
+     * File format of the export. Only CSV is used
+     */
+    String format;
+
+    String createdAt;
+
+    String queuedAt;
+
+    String startedAt;
+
+    String finishedAt;
+
+    /**
+     * Number of records in the export file, once completed
+     */
+    Long numberOfRecords;
+
+    /**
+     * Size of the export file in bytes, once completed
+     */
+    Long fileSize;
+
+    /**
+     * Reason of the failure of the job
+     */
+    String errorMsg;
+
+    public String getExportId() {
+        return exportId;
+    }
+
+    public void setExportId(String exportId) {
+        this.exportId = exportId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public String getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(String createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getQueuedAt() {
+        return queuedAt;
+    }
+
+    public void setQueuedAt(String queuedAt) {
+        this.queuedAt = queuedAt;
+    }
+
+    public String getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(String startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public String getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(String finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public Long getNumberOfRecords() {
+        return numberOfRecords;
+    }
+
+    public void setNumberOfRecords(Long numberOfRecords) {
+        this.numberOfRecords = numberOfRecords;
+    }
+
+    public Long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public String getErrorMsg() {
+        return errorMsg;
+    }
+
+    public void setErrorMsg(String errorMsg) {
+        this.errorMsg = errorMsg;
+    }
+
+    public boolean isCompleted() {
+        return STATUS_COMPLETED.equals(status);
+    }
+
+    /**
+     * @return true when the job ended without a file to download.
+     */
+    public boolean isAborted() {
+        return STATUS_FAILED.equals(status) || STATUS_CANCELLED.equals(status);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("BulkExtract{");
+        sb.append("exportId='").append(exportId).append('\'');
+        sb.append(", status='").append(status).append('\'');
+        sb.append(", createdAt='").append(createdAt).append('\'');
+        sb.append(", finishedAt='").append(finishedAt).append('\'');
+        sb.append(", numberOfRecords=").append(numberOfRecords);
+        sb.append(", fileSize=").append(fileSize);
+        sb.append(", errorMsg='").append(errorMsg).append('\'');
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -21,6 +21,7 @@ import org.apache.avro.SchemaBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.talend.components.marketo.MarketoConstants;
+import org.talend.components.marketo.runtime.client.MarketoClientUtils;
 import org.talend.daikon.avro.SchemaConstants;
 
 import com.google.gson.Gson;
@@ -235,7 +236,7 @@ public class FieldDescription {
     }
 
     public static Schema getSchemaFromJson(String schemaName, String jsonFields, String jsonKeys) {
-        Gson gson = new Gson();
+        Gson gson = MarketoClientUtils.getGson();
         FieldDescription[] fields = gson.fromJson(jsonFields, FieldDescription[].class);
         String[] keys = gson.fromJson(jsonKeys, String[].class);
         return getSchemaForThisFields(schemaName, fields, keys);
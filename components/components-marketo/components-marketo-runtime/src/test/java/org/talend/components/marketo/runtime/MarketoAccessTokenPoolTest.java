@@ -0,0 +1,111 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.marketo.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.talend.components.marketo.runtime.MarketoAccessTokenPool.Token;
+
+public class MarketoAccessTokenPoolTest {
+
+    private final AtomicLong now = new AtomicLong(1000000L);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final MarketoAccessTokenPool pool = new MarketoAccessTokenPool(60, now::get);
+
+    private Token load(int expiresIn) {
+        return new Token("token" + loads.incrementAndGet(), expiresIn);
+    }
+
+    private Token slowLoad() {
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return load(3600);
+    }
+
+    @Test
+    public void testSingleFlight() throws Exception {
+        int threads = 8;
+        final CountDownLatch ready = new CountDownLatch(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(new Callable<String>() {
+
+                    @Override
+                    public String call() throws Exception {
+                        ready.countDown();
+                        ready.await();
+                        return pool.getToken(1, () -> slowLoad());
+                    }
+                }));
+            }
+            for (Future<String> result : results) {
+                assertEquals("token1", result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, pool.getFetchCount());
+        assertEquals(threads - 1, pool.getHitCount() + pool.getWaitCount());
+    }
+
+    @Test
+    public void testRenewal() throws Exception {
+        assertEquals("token1", pool.getToken(1, () -> load(3600)));
+        // renewed 60s before expiration
+        now.addAndGet(3539000L);
+        assertEquals("token1", pool.getToken(1, () -> load(3600)));
+        now.addAndGet(1000L);
+        assertEquals("token2", pool.getToken(1, () -> load(3600)));
+        // a token close to its expiration is kept until it expires
+        assertEquals("token2", pool.getToken(2, () -> new Token("token2", 30)));
+        now.addAndGet(29000L);
+        assertEquals("token2", pool.getToken(2));
+        now.addAndGet(1000L);
+        assertNull(pool.getToken(2));
+    }
+
+    @Test
+    public void testInvalidateToken() throws Exception {
+        assertEquals("token1", pool.getToken(1, () -> load(3600)));
+        // a token already renewed by another thread is kept
+        pool.invalidateToken(1, "expired");
+        assertEquals("token1", pool.getToken(1));
+        pool.invalidateToken(1, "token1");
+        assertNull(pool.getToken(1));
+        assertEquals("token2", pool.getToken(1, () -> load(3600)));
+        pool.invalidateToken(1);
+        assertNull(pool.getToken(1));
+        pool.setToken(1, "token");
+        assertEquals("token", pool.getToken(1));
+    }
+}
@@ -0,0 +1,203 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.marketo.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.IndexedRecord;
+import org.junit.Before;
+import org.junit.Test;
+import org.talend.components.marketo.MarketoConstants;
+import org.talend.components.marketo.MarketoUtils;
+import org.talend.components.marketo.runtime.MarketoActivityChains.Partition;
+import org.talend.components.marketo.runtime.client.MarketoRESTClient;
+import org.talend.components.marketo.runtime.client.type.MarketoError;
+import org.talend.components.marketo.runtime.client.type.MarketoRecordResult;
+import org.talend.components.marketo.tmarketoinput.TMarketoInputProperties;
+import org.talend.components.marketo.tmarketoinput.TMarketoInputProperties.ActivityMergeOrder;
+import org.talend.components.marketo.wizard.MarketoComponentWizardBaseProperties.InputOperation;
+
+public class MarketoActivityChainsTest {
+
+    private static final long DAY = 24 * 3600 * 1000L;
+
+    TMarketoInputProperties props;
+
+    Schema schema = MarketoConstants.getRESTSchemaForGetLeadActivity();
+
+    AtomicInteger running = new AtomicInteger();
+
+    AtomicInteger maxRunning = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        props = new TMarketoInputProperties("test");
+        props.connection.setupProperties();
+        props.connection.maxReconnAttemps.setValue(2);
+        props.connection.attemptsIntervalTime.setValue(10);
+        props.schemaInput.setupProperties();
+        props.setupProperties();
+        props.inputOperation.setValue(InputOperation.getLeadActivity);
+        props.schemaInput.schema.setValue(schema);
+    }
+
+    private IndexedRecord activity(String guid, long date) {
+        IndexedRecord record = new GenericData.Record(schema);
+        record.put(0, guid);
+        record.put(3, date);
+        return record;
+    }
+
+    private MarketoRecordResult page(String next, IndexedRecord... records) {
+        MarketoRecordResult mkto = new MarketoRecordResult();
+        mkto.setSuccess(true);
+        mkto.setRecords(Arrays.asList(records));
+        mkto.setRecordCount(records.length);
+        mkto.setRemainCount(next == null ? 0 : 1);
+        mkto.setStreamPosition(next);
+        return mkto;
+    }
+
+    /**
+     * Client returning for each partition two pages of two activities, one day apart, starting at the partition start.
+     */
+    private MarketoRESTClient client() {
+        MarketoRESTClient client = mock(MarketoRESTClient.class);
+        when(client.getLeadActivity(any(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    String offset = (String) invocation.getArguments()[1];
+                    String since = (String) invocation.getArguments()[2];
+                    List<Integer> types = (List<Integer>) invocation.getArguments()[3];
+                    long start = MarketoUtils.parseDateString(since.replace("T", " ").replace("Z", " +0000")).getTime();
+                    String prefix = types.get(0) + "@" + since.substring(0, 10) + "#";
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(50);
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                    if (offset == null) {
+                        return page("p2", activity(prefix + 0, start), activity(prefix + 1, start + DAY));
+                    }
+                    return page(null, activity(prefix + 2, start + 2 * DAY), activity(prefix + 3, start + 3 * DAY));
+                });
+        return client;
+    }
+
+    private List<String> readAll(MarketoActivityChains chains) throws Exception {
+        List<String> guids = new ArrayList<>();
+        chains.start();
+        while (chains.advance()) {
+            guids.add(chains.getCurrent().get(0).toString());
+        }
+        chains.close();
+        return guids;
+    }
+
+    @Test
+    public void testGetPartitions() throws Exception {
+        List<Partition> partitions = MarketoActivityChains.getPartitions(
+                MarketoUtils.parseDateString("2017-01-01 00:00:00 +0000"),
+                MarketoUtils.parseDateString("2017-01-06 12:00:00 +0000"), 2, Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3)));
+        assertEquals(6, partitions.size());
+        assertEquals("2017-01-01T00:00:00Z", partitions.get(0).getSinceDateTime());
+        assertEquals(Arrays.asList(1, 2), partitions.get(0).getActivityTypeIds());
+        assertEquals(Arrays.asList(3), partitions.get(1).getActivityTypeIds());
+        assertEquals("2017-01-01T00:00:00Z", partitions.get(1).getSinceDateTime());
+        assertEquals(Long.valueOf(1483401600000L), partitions.get(0).getEnd());
+        assertEquals("2017-01-03T00:00:00Z", partitions.get(2).getSinceDateTime());
+        assertEquals("2017-01-05T00:00:00Z", partitions.get(4).getSinceDateTime());
+        // last range is open
+        assertNull(partitions.get(4).getEnd());
+        // lead changes : no activity types, no date ranges
+        partitions = MarketoActivityChains.getPartitions(MarketoUtils.parseDateString("2017-01-01 00:00:00 +0000"),
+                MarketoUtils.parseDateString("2017-01-06 12:00:00 +0000"), 0, null);
+        assertEquals(1, partitions.size());
+        assertNull(partitions.get(0).getActivityTypeIds());
+        assertNull(partitions.get(0).getEnd());
+    }
+
+    @Test
+    public void testPartitionOrder() throws Exception {
+        // 3 ranges of 2 days : each chain stops at the activity of the next range
+        List<Partition> partitions = MarketoActivityChains.getPartitions(
+                MarketoUtils.parseDateString("2017-01-01 00:00:00 +0000"),
+                MarketoUtils.parseDateString("2017-01-06 00:00:00 +0000"), 2, Collections.singletonList(Arrays.asList(1)));
+        assertEquals(3, partitions.size());
+        MarketoActivityChains chains = new MarketoActivityChains(props, partitions, 3, ActivityMergeOrder.Partition,
+                this::client);
+        List<String> guids = readAll(chains);
+        assertEquals(Arrays.asList("1@2017-01-01#0", "1@2017-01-01#1", "1@2017-01-03#0", "1@2017-01-03#1",
+                "1@2017-01-05#0", "1@2017-01-05#1", "1@2017-01-05#2", "1@2017-01-05#3"), guids);
+        assertTrue(maxRunning.get() > 1);
+        assertTrue(maxRunning.get() <= 3);
+        assertNull(chains.getErrorMessage());
+    }
+
+    @Test
+    public void testArrivalOrder() throws Exception {
+        List<Partition> partitions = MarketoActivityChains.getPartitions(
+                MarketoUtils.parseDateString("2017-01-01 00:00:00 +0000"),
+                MarketoUtils.parseDateString("2017-01-02 00:00:00 +0000"), 0,
+                Arrays.asList(Arrays.asList(1), Arrays.asList(2), Arrays.asList(3), Arrays.asList(6)));
+        MarketoActivityChains chains = new MarketoActivityChains(props, partitions, 2, ActivityMergeOrder.Arrival,
+                this::client);
+        List<String> guids = readAll(chains);
+        assertEquals(16, guids.size());
+        assertTrue(maxRunning.get() <= 2);
+        assertEquals(8, chains.getApiCalls());
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        MarketoRESTClient client = mock(MarketoRESTClient.class);
+        MarketoRecordResult failed = new MarketoRecordResult();
+        failed.setSuccess(false);
+        failed.setErrors(Arrays.asList(new MarketoError("REST", "1003", "Invalid")));
+        when(client.getLeadActivity(any(), any(), any(), any()))
+                .thenReturn(failed);
+        List<Partition> partitions = Collections.singletonList(new Partition("2017-01-01T00:00:00Z", null, Arrays.asList(1)));
+        props.dieOnError.setValue(false);
+        MarketoActivityChains chains = new MarketoActivityChains(props, partitions, 2, ActivityMergeOrder.Partition,
+                () -> client);
+        chains.start();
+        assertFalse(chains.advance());
+        assertEquals("{[1003] Invalid}", chains.getErrorMessage());
+        chains.close();
+        props.dieOnError.setValue(true);
+        chains = new MarketoActivityChains(props, partitions, 2, ActivityMergeOrder.Partition, () -> client);
+        chains.start();
+        try {
+            chains.advance();
+            fail("Should not be here");
+        } catch (MarketoRuntimeException e) {
+        } finally {
+            chains.close();
+        }
+    }
+}
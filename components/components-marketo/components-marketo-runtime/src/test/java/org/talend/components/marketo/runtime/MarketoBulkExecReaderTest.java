@@ -87,6 +87,21 @@ public class MarketoBulkExecReaderTest {
         assertFalse(reader.advance());
     }
 
+    @Test
+    public void testAdvanceBatches() throws Exception {
+        IndexedRecord first = new GenericData.Record(MarketoConstants.getEmptySchema());
+        IndexedRecord second = new GenericData.Record(MarketoConstants.getEmptySchema());
+        MarketoRecordResult mkto = new MarketoRecordResult();
+        mkto.setSuccess(true);
+        mkto.setRecords(Arrays.asList(first, second));
+        when(client.bulkImport(any(TMarketoBulkExecProperties.class))).thenReturn(mkto);
+        assertTrue(reader.start());
+        assertTrue(first == reader.getCurrent());
+        assertTrue(reader.advance());
+        assertTrue(second == reader.getCurrent());
+        assertFalse(reader.advance());
+    }
+
     @Test
     public void testGetCurrent() throws Exception {
         assertNull(reader.getCurrent());
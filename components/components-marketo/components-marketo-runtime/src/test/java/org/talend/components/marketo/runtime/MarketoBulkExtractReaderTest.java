@@ -0,0 +1,228 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.marketo.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.talend.components.api.component.ComponentDefinition.RETURN_ERROR_MESSAGE;
+import static org.talend.components.api.component.ComponentDefinition.RETURN_TOTAL_RECORD_COUNT;
+import static org.talend.components.marketo.MarketoComponentDefinition.RETURN_NB_CALL;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.avro.generic.IndexedRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.talend.components.marketo.runtime.client.MarketoRESTClient;
+import org.talend.components.marketo.tmarketoconnection.TMarketoConnectionProperties.APIMode;
+import org.talend.components.marketo.tmarketoinput.TMarketoInputProperties;
+import org.talend.components.marketo.wizard.MarketoComponentWizardBaseProperties.InputOperation;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+public class MarketoBulkExtractReaderTest {
+
+    private static final Pattern JOB_PATH = Pattern.compile("/bulk/v1/leads/export/(\\w+)/(\\w+)\\.json");
+
+    HttpServer server;
+
+    TMarketoInputProperties props;
+
+    MarketoSource source;
+
+    final List<String> createRequests = Collections.synchronizedList(new ArrayList<String>());
+
+    final AtomicInteger jobCount = new AtomicInteger();
+
+    final AtomicInteger pendingJobs = new AtomicInteger();
+
+    final AtomicInteger maxPendingJobs = new AtomicInteger();
+
+    volatile boolean failJobs;
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/bulk/", this::handle);
+        server.start();
+
+        props = new TMarketoInputProperties("test");
+        props.connection.setupProperties();
+        props.connection.apiMode.setValue(APIMode.REST);
+        props.connection.endpoint.setValue("https://fake.io/rest");
+        props.connection.clientAccessId.setValue("clientaccess");
+        props.connection.secretKey.setValue("sekret");
+        props.connection.maxReconnAttemps.setValue(2);
+        props.connection.attemptsIntervalTime.setValue(10);
+        props.schemaInput.setupProperties();
+        props.setupProperties();
+        props.setupLayout();
+        props.inputOperation.setValue(InputOperation.getMultipleLeads);
+        props.afterInputOperation();
+        props.useBulkExtract.setValue(true);
+        props.oldestCreateDate.setValue("2017-01-01 00:00:00 +0000");
+        props.latestCreateDate.setValue("2017-03-11 23:59:59 +0000");
+        props.bulkExtractPollInterval.setValue(1);
+
+        final String serverPath = "http://localhost:" + server.getAddress().getPort() + "/bulk";
+        MarketoRESTClient client = new MarketoRESTClient(props.connection) {
+
+            {
+                bulkPath = serverPath;
+                accessToken = "token";
+            }
+        };
+        source = mock(MarketoSource.class);
+        when(source.getClientService(any())).thenReturn(client);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String body = read(exchange.getRequestBody());
+        String response;
+        if (path.equals("/bulk/v1/leads/export/create.json")) {
+            createRequests.add(body);
+            String id = "job" + jobCount.incrementAndGet();
+            response = job(id, "Created");
+        } else {
+            Matcher m = JOB_PATH.matcher(path);
+            if (!m.matches()) {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+                return;
+            }
+            String id = m.group(1);
+            switch (m.group(2)) {
+            case "enqueue":
+                maxPendingJobs.accumulateAndGet(pendingJobs.incrementAndGet(), Math::max);
+                response = job(id, "Queued");
+                break;
+            case "status":
+                response = job(id, failJobs ? "Failed" : "Completed");
+                break;
+            case "file":
+                pendingJobs.decrementAndGet();
+                int n = Integer.parseInt(id.substring(3));
+                response = "id,email,firstName,lastName,createdAt,updatedAt\r\n" //
+                        + n + ",lead" + n + "@talend.com,\"Jean, \"\"JJ\"\"\",\"Multi\nLine\",2017-01-02T10:00:00Z,null\r\n";
+                break;
+            default:
+                response = "{\"success\":false}";
+            }
+        }
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String job(String id, String status) {
+        return "{\"requestId\":\"r\",\"success\":true,\"result\":[{\"exportId\":\"" + id + "\",\"status\":\"" + status
+                + "\",\"format\":\"CSV\"}]}";
+    }
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testCreateReader() throws Exception {
+        assertTrue(props.isBulkExtract());
+        MarketoSource marketoSource = new MarketoSource();
+        marketoSource.initialize(null, props);
+        assertTrue(marketoSource.createReader(null) instanceof MarketoBulkExtractReader);
+        props.useBulkExtract.setValue(false);
+        assertTrue(marketoSource.createReader(null) instanceof MarketoInputReader);
+    }
+
+    @Test
+    public void testReadLeads() throws Exception {
+        MarketoBulkExtractReader reader = new MarketoBulkExtractReader(null, source, props);
+        List<IndexedRecord> records = new ArrayList<>();
+        for (boolean available = reader.start(); available; available = reader.advance()) {
+            records.add(reader.getCurrent());
+        }
+        reader.close();
+        // 70 days split in ranges of 31 days
+        assertEquals(3, createRequests.size());
+        assertTrue(createRequests.get(0).contains("\"startAt\":\"2017-01-01T00:00:00Z\""));
+        assertTrue(createRequests.get(0).contains("\"endAt\":\"2017-01-31T23:59:59Z\""));
+        assertTrue(createRequests.get(1).contains("\"startAt\":\"2017-02-01T00:00:00Z\""));
+        assertTrue(createRequests.get(2).contains("\"endAt\":\"2017-03-11T23:59:59Z\""));
+        assertTrue(createRequests.get(0).contains("\"fields\":[\"id\",\"email\",\"firstName\",\"lastName\""));
+        assertTrue(createRequests.get(0).contains("\"format\":\"CSV\""));
+        // never more jobs in Marketo queue than allowed
+        assertTrue(maxPendingJobs.get() <= props.bulkExtractMaxConcurrentJobs.getValue());
+        assertEquals(2, maxPendingJobs.get());
+        // records come in the order of the ranges
+        assertEquals(3, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            IndexedRecord record = records.get(i);
+            assertEquals(i + 1, record.get(0));
+            assertEquals("lead" + (i + 1) + "@talend.com", record.get(1));
+            assertEquals("Jean, \"JJ\"", record.get(2));
+            assertEquals("Multi\nLine", record.get(3));
+            assertEquals(1483351200000L, record.get(4));
+            assertNull(record.get(5));
+        }
+        assertEquals(3, reader.getReturnValues().get(RETURN_TOTAL_RECORD_COUNT));
+    }
+
+    @Test
+    public void testFailedJobs() throws Exception {
+        failJobs = true;
+        props.dieOnError.setValue(false);
+        MarketoBulkExtractReader reader = new MarketoBulkExtractReader(null, source, props);
+        assertFalse(reader.start());
+        assertTrue(reader.getReturnValues().get(RETURN_ERROR_MESSAGE).toString().contains("Failed"));
+        assertTrue((int) reader.getReturnValues().get(RETURN_NB_CALL) > 0);
+        props.dieOnError.setValue(true);
+        reader = new MarketoBulkExtractReader(null, source, props);
+        try {
+            reader.start();
+            fail("Should not be here");
+        } catch (MarketoRuntimeException e) {
+        }
+    }
+}
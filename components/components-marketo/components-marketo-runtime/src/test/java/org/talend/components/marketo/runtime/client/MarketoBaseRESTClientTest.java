@@ -12,6 +12,7 @@
 //============================================================================
 package org.talend.components.marketo.runtime.client;
 
+import java.io.StringReader;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -26,6 +27,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.talend.components.marketo.runtime.client.type.MarketoError;
 import org.talend.components.marketo.runtime.client.type.MarketoException;
+import org.talend.components.marketo.runtime.client.type.MarketoRecordResult;
 import org.talend.components.marketo.tmarketoconnection.TMarketoConnectionProperties;
 import org.talend.components.marketo.tmarketoconnection.TMarketoConnectionProperties.APIMode;
 import org.talend.daikon.avro.AvroUtils;
@@ -36,6 +38,7 @@ import com.google.gson.internal.LinkedTreeMap;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.spy;
@@ -127,4 +130,42 @@ public class MarketoBaseRESTClientTest {
         assertTrue(record.get(8) instanceof Long);
         assertEquals("nullType", record.get(9));
     }
+
+    @Test
+    public void testReadRecordResult() throws Exception {
+        Schema schema = SchemaBuilder.builder().record("test").fields() //
+                .name("id").type().nullable().intType().noDefault() //
+                .name("email").type().nullable().stringType().noDefault() //
+                .name("fields").type().nullable().stringType().noDefault() //
+                .name("score").type().nullable().doubleType().noDefault() //
+                .endRecord();
+        String response = "{\"requestId\":\"e42b#14272d07d78\",\"result\":[" //
+                + "{\"id\":1,\"email\":\"a@talend.com\",\"unknown\":{\"a\":[1,2]},\"fields\":[\"f1\",\"f2\"],\"score\":1.5},"
+                + "{\"id\":2,\"email\":null}],\"success\":true,\"nextPageToken\":\"token\",\"moreResult\":true}";
+        MarketoRecordResult result = client.readRecordResult(new StringReader(response), schema);
+        assertTrue(result.isSuccess());
+        assertEquals("REST::e42b#14272d07d78", result.getRequestId());
+        assertEquals("token", result.getStreamPosition());
+        assertEquals(2, result.getRecordCount());
+        assertEquals(2, result.getRemainCount());
+        IndexedRecord record = result.getRecords().get(0);
+        assertEquals(1, record.get(0));
+        assertEquals("a@talend.com", record.get(1));
+        assertEquals("[\"f1\",\"f2\"]", record.get(2));
+        assertEquals(1.5, record.get(3));
+        record = result.getRecords().get(1);
+        assertEquals(2, record.get(0));
+        assertNull(record.get(1));
+        assertNull(record.get(3));
+    }
+
+    @Test
+    public void testReadRecordResultWithErrors() throws Exception {
+        String response = "{\"requestId\":\"1\",\"success\":false,"
+                + "\"errors\":[{\"code\":\"606\",\"message\":\"Max rate limit exceeded\"}]}";
+        MarketoRecordResult result = client.readRecordResult(new StringReader(response), null);
+        assertFalse(result.isSuccess());
+        assertEquals(0, result.getRecordCount());
+        assertEquals("606", result.getErrors().get(0).getCode());
+    }
 }
@@ -14,6 +14,8 @@ package org.talend.components.marketo.runtime.client;
 
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
@@ -23,11 +25,24 @@ import static org.talend.components.marketo.runtime.client.MarketoBulkExecClient
 import static org.talend.components.marketo.runtime.client.MarketoBulkExecClient.BULK_STATUS_FAILED;
 
 import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.commons.io.FileUtils;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.talend.components.marketo.runtime.client.MarketoBulkExecClient;
@@ -57,6 +72,9 @@ public class MarketoBulkExecClientTest {
 
     private String coFile;
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @Before
     public void setUp() throws Exception {
 
@@ -177,6 +195,127 @@ public class MarketoBulkExecClientTest {
         assertNotNull(recordResult.getRecords());
     }
 
+    @Test
+    public void testSplitBulkFile() throws Exception {
+        File file = folder.newFile("leads.csv");
+        String content = "email,firstName\n" //
+                + "a@talend.com,\"multi\nline\"\n" //
+                + "b@talend.com,b\n" //
+                + "c@talend.com,c\n";
+        FileUtils.write(file, content, Charset.defaultCharset());
+        // small enough
+        assertEquals(Collections.singletonList(file.getPath()), bulkClient.splitBulkFile(file.getPath(), file.length()));
+        // one row per part
+        List<String> parts = bulkClient.splitBulkFile(file.getPath(), 30);
+        assertEquals(3, parts.size());
+        assertEquals("email,firstName\na@talend.com,\"multi\nline\"\n",
+                FileUtils.readFileToString(new File(parts.get(0)), Charset.defaultCharset()));
+        assertEquals("email,firstName\nb@talend.com,b\n", FileUtils.readFileToString(new File(parts.get(1)), Charset.defaultCharset()));
+        assertEquals("email,firstName\nc@talend.com,c\n", FileUtils.readFileToString(new File(parts.get(2)), Charset.defaultCharset()));
+        // two rows per part
+        parts = bulkClient.splitBulkFile(file.getPath(), 50);
+        assertEquals(2, parts.size());
+        assertEquals("email,firstName\nb@talend.com,b\nc@talend.com,c\n",
+                FileUtils.readFileToString(new File(parts.get(1)), Charset.defaultCharset()));
+    }
+
+    @Test
+    public void testBulkImportSplitFile() throws Exception {
+        File file = folder.newFile("bigleads.csv");
+        StringBuilder content = new StringBuilder("email,firstName,lastName\n");
+        for (int i = 0; content.length() < 2_500_000; i++) {
+            content.append("lead").append(i).append("@talend.com,firstName").append(i).append(",lastName").append(i).append('\n');
+        }
+        FileUtils.write(file, content, Charset.defaultCharset());
+        final AtomicInteger batchIds = new AtomicInteger(100);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        doAnswer(invocation -> {
+            File part = new File((String) invocation.getArguments()[1]);
+            assertTrue(part.length() <= 1024 * 1024);
+            assertTrue(FileUtils.readFileToString(part, Charset.defaultCharset()).startsWith("email,firstName,lastName\n"));
+            maxRunning.set(Math.max(maxRunning.get(), running.incrementAndGet()));
+            BulkImportResult rs = getBulkImportResultRunning();
+            rs.getResult().get(0).setBatchId(batchIds.incrementAndGet());
+            return rs;
+        }).when(bulkClient).executePostFileRequest(eq(BulkImportResult.class), any(String.class));
+        final Pattern batch = Pattern.compile("/batch/(\\d+)\\.json");
+        doAnswer(invocation -> {
+            Matcher m = batch.matcher(bulkClient.current_uri);
+            assertTrue(m.find());
+            running.decrementAndGet();
+            BulkImportResult rs = getBulkImportResultOK();
+            BulkImport b = rs.getResult().get(0);
+            b.setBatchId(Integer.valueOf(m.group(1)));
+            b.setNumOfRowsFailed(1);
+            return rs;
+        }).when(bulkClient).executeGetRequest(BulkImportResult.class);
+        final List<String> downloads = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            downloads.add((String) invocation.getArguments()[0]);
+            File log = (File) invocation.getArguments()[1];
+            FileUtils.write(log, "email,reason\n" + log.getName() + ",failed\n", StandardCharsets.UTF_8);
+            return null;
+        }).when(bulkClient).executeDownloadFileRequest(any(String.class), any(File.class));
+        properties.bulkFilePath.setValue(file.getPath());
+        properties.logDownloadPath.setValue(folder.getRoot().getPath());
+        properties.bulkImportMaxFileSize.setValue(1);
+        properties.bulkImportMaxConcurrentJobs.setValue(2);
+        recordResult = bulkClient.bulkImport(properties);
+        LOG.warn("[testBulkImportSplitFile] {}", recordResult);
+        assertTrue(recordResult.isSuccess());
+        assertEquals(3, recordResult.getRecordCount());
+        assertEquals(2, maxRunning.get());
+        assertEquals(3, downloads.size());
+        File merged = new File(folder.getRoot(), "bulk_leads_101-103_failures.csv");
+        for (IndexedRecord record : recordResult.getRecords()) {
+            assertEquals(merged.getPath(), record.get(7));
+        }
+        List<String> lines = Files.readAllLines(merged.toPath(), StandardCharsets.UTF_8);
+        assertEquals(Arrays.asList("email,reason", "bulk_leads_101_failures.csv,failed", "bulk_leads_102_failures.csv,failed",
+                "bulk_leads_103_failures.csv,failed"), lines);
+        assertFalse(new File(folder.getRoot(), "bulk_leads_101_failures.csv").exists());
+    }
+
+    @Test
+    public void testBulkImportRetriesPartWithRefreshedToken() throws Exception {
+        File file = folder.newFile("bigleads.csv");
+        StringBuilder content = new StringBuilder("email,firstName,lastName\n");
+        for (int i = 0; content.length() < 1_500_000; i++) {
+            content.append("lead").append(i).append("@talend.com,firstName").append(i).append(",lastName").append(i).append('\n');
+        }
+        FileUtils.write(file, content, Charset.defaultCharset());
+        bulkClient.accessToken = "expired";
+        final List<String> postedUris = new ArrayList<>();
+        doAnswer(invocation -> {
+            postedUris.add(bulkClient.current_uri.toString());
+            if (postedUris.size() == 1) {
+                BulkImportResult rs = getBulkImportResultFail();
+                rs.setErrors(Arrays.asList(new MarketoError(REST, "602", "Access token expired")));
+                return rs;
+            }
+            return getBulkImportResultRunning();
+        }).when(bulkClient).executePostFileRequest(eq(BulkImportResult.class), any(String.class));
+        doAnswer(invocation -> {
+            bulkClient.accessToken = "refreshed";
+            return true;
+        }).when(bulkClient).isErrorRecoverable(any(List.class));
+        doReturn(getBulkImportResultOK()).when(bulkClient).executeGetRequest(BulkImportResult.class);
+        doNothing().when(bulkClient).executeDownloadFileRequest(any(String.class), any(File.class));
+        properties.bulkFilePath.setValue(file.getPath());
+        properties.logDownloadPath.setValue(folder.getRoot().getPath());
+        properties.bulkImportMaxFileSize.setValue(1);
+        properties.bulkImportMaxConcurrentJobs.setValue(1);
+        recordResult = bulkClient.bulkImport(properties);
+        LOG.warn("[testBulkImportRetriesPartWithRefreshedToken] {}", recordResult);
+        assertTrue(recordResult.isSuccess());
+        assertEquals(2, recordResult.getRecordCount());
+        assertEquals(3, postedUris.size());
+        assertTrue(postedUris.get(0).contains("access_token=expired"));
+        assertTrue(postedUris.get(1).contains("access_token=refreshed"));
+        assertTrue(postedUris.get(2).contains("access_token=refreshed"));
+    }
+
     private BulkImportResult getBulkImportResultFail() {
         BulkImportResult bulkResult = new BulkImportResult();
         bulkResult.setSuccess(false);
@@ -0,0 +1,105 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.marketo.runtime.client;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+import static org.talend.components.marketo.runtime.client.MarketoBaseRESTClient.REST;
+import static org.talend.components.marketo.runtime.client.MarketoBulkExtractClient.BULK_EXTRACT_ACTIVITIES;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.avro.generic.IndexedRecord;
+import org.junit.Before;
+import org.junit.Test;
+import org.talend.components.marketo.MarketoConstants;
+import org.talend.components.marketo.MarketoUtils;
+import org.talend.components.marketo.runtime.client.rest.response.BulkExtractResult;
+import org.talend.components.marketo.runtime.client.type.MarketoException;
+import org.talend.components.marketo.tmarketoconnection.TMarketoConnectionProperties;
+
+import com.google.gson.JsonObject;
+
+public class MarketoBulkExtractClientTest {
+
+    MarketoBulkExtractClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        TMarketoConnectionProperties connection = new TMarketoConnectionProperties("test");
+        connection.setupProperties();
+        connection.endpoint.setValue("https://fake.io/rest");
+        connection.clientAccessId.setValue("clientaccess");
+        connection.secretKey.setValue("sekret");
+        client = spy(new MarketoBulkExtractClient(connection));
+    }
+
+    @Test
+    public void testGetBulkExtractDateRanges() throws Exception {
+        List<String[]> ranges = MarketoBulkExtractClient.getBulkExtractDateRanges(
+                MarketoUtils.parseDateString("2017-01-01 00:00:00 +0000"),
+                MarketoUtils.parseDateString("2017-01-05 12:00:00 +0000"), 2);
+        assertEquals(3, ranges.size());
+        assertArrayEquals(new String[] { "2017-01-01T00:00:00Z", "2017-01-02T23:59:59Z" }, ranges.get(0));
+        assertArrayEquals(new String[] { "2017-01-03T00:00:00Z", "2017-01-04T23:59:59Z" }, ranges.get(1));
+        assertArrayEquals(new String[] { "2017-01-05T00:00:00Z", "2017-01-05T12:00:00Z" }, ranges.get(2));
+        // empty range
+        assertEquals(0, MarketoBulkExtractClient
+                .getBulkExtractDateRanges(MarketoUtils.parseDateString("2017-01-05 00:00:00 +0000"),
+                        MarketoUtils.parseDateString("2017-01-01 00:00:00 +0000"), 31)
+                .size());
+    }
+
+    @Test
+    public void testConvertBulkExtractRow() throws Exception {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = Arrays.asList("marketoGUID", "leadId", "activityDate", "activityTypeId", "campaignId",
+                "primaryAttributeValueId", "primaryAttributeValue", "attributes");
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i), i);
+        }
+        IndexedRecord record = client.convertBulkExtractRow(columns,
+                Arrays.asList("guid-1", "42", "2017-01-02T10:00:00Z", "1", "null", "", "page", "{}"),
+                MarketoConstants.getRESTSchemaForGetLeadActivity(), Collections.<String, String> emptyMap());
+        assertEquals("guid-1", record.get(0));
+        assertNull(record.get(1));
+        assertEquals(42, record.get(2));
+        assertEquals(1483351200000L, record.get(3));
+        assertEquals(1, record.get(4));
+        assertEquals("Visit Webpage", record.get(5));
+        assertNull(record.get(6));
+        assertEquals("page", record.get(7));
+    }
+
+    @Test
+    public void testBulkExtractRequestFailure() throws Exception {
+        doThrow(new MarketoException(REST, "601", "Access token invalid")).when(client)
+                .executePostRequest(any(Class.class), any(JsonObject.class));
+        BulkExtractResult result = client.createBulkExtract(BULK_EXTRACT_ACTIVITIES, null, "2017-01-01T00:00:00Z",
+                "2017-01-31T23:59:59Z", Arrays.asList(1, 2));
+        assertFalse(result.isSuccess());
+        assertEquals("601", result.getErrors().get(0).getCode());
+        doReturn(null).when(client).executeGetRequest(BulkExtractResult.class);
+        assertFalse(client.getBulkExtractStatus(BULK_EXTRACT_ACTIVITIES, "job").isSuccess());
+    }
+}
@@ -20,6 +20,7 @@ import static org.talend.components.marketo.MarketoConstants.DATETIME_PATTERN_PA
 import static org.talend.components.marketo.MarketoConstants.DATETIME_PATTERN_REST;
 
 import java.text.SimpleDateFormat;
+import java.util.Collections;
 import java.util.Date;
 
 import org.apache.avro.Schema;
@@ -27,6 +28,7 @@ import org.apache.avro.Schema.Field;
 import org.apache.avro.Schema.Type;
 import org.junit.Before;
 import org.junit.Test;
+import org.talend.components.marketo.runtime.client.type.MarketoError;
 import org.talend.daikon.avro.AvroUtils;
 import org.talend.daikon.avro.SchemaConstants;
 
@@ -67,4 +69,20 @@ public class MarketoClientUtilsTest {
         assertNull(MarketoClientUtils.formatLongToDateString(null));
     }
 
+    @Test
+    public void testGetRetryDelay() throws Exception {
+        MarketoError expired = new MarketoError("REST", "602", "Access token expired");
+        MarketoError rateLimit = new MarketoError("REST", "606", "Max rate limit exceeded");
+        assertEquals(1000, MarketoClientUtils.getRetryDelay(Collections.singletonList(expired), 1000, 3));
+        for (int attempt = 0; attempt < 4; attempt++) {
+            long delay = MarketoClientUtils.getRetryDelay(Collections.singletonList(rateLimit), 1000, attempt);
+            assertTrue(delay >= 1000L << attempt);
+            assertTrue(delay < (1000L << attempt) + 1000);
+        }
+        long delay = MarketoClientUtils.getRetryDelay(Collections.singletonList(rateLimit), 1000, 30);
+        assertTrue(delay >= MarketoClientUtils.MAX_RETRY_DELAY);
+        assertTrue(delay < MarketoClientUtils.MAX_RETRY_DELAY + 1000);
+        assertEquals(0, MarketoClientUtils.getRetryDelay(null, 0, 0));
+    }
+
 }
@@ -0,0 +1,51 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.marketo.runtime.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class MarketoCsvReaderTest {
+
+    @Test
+    public void testReadRow() throws Exception {
+        String csv = "a,b,c\r\n" //
+                + "1,,\"x, y\"\n" //
+                + "\"say \"\"hi\"\"\",\"two\r\nlines\",null\r\n" //
+                + "last,row,no-eol";
+        try (MarketoCsvReader reader = new MarketoCsvReader(new StringReader(csv))) {
+            assertEquals(Arrays.asList("a", "b", "c"), reader.readRow());
+            assertEquals(Arrays.asList("1", "", "x, y"), reader.readRow());
+            assertEquals(Arrays.asList("say \"hi\"", "two\r\nlines", "null"), reader.readRow());
+            assertEquals(Arrays.asList("last", "row", "no-eol"), reader.readRow());
+            assertNull(reader.readRow());
+            assertEquals(4, reader.getRowNumber());
+        }
+    }
+
+    @Test
+    public void testUnterminatedQuote() throws Exception {
+        try (MarketoCsvReader reader = new MarketoCsvReader(new StringReader("a,\"b\nc"))) {
+            reader.readRow();
+            fail("Should not be here");
+        } catch (IOException e) {
+        }
+    }
+}
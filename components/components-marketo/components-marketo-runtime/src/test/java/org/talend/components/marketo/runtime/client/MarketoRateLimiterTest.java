@@ -0,0 +1,88 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.marketo.runtime.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class MarketoRateLimiterTest {
+
+    @Test
+    public void testCallsArePacedOverPeriod() throws Exception {
+        MarketoRateLimiter limiter = new MarketoRateLimiter(3, 300, 10);
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 7; i++) {
+            limiter.acquire();
+            limiter.release();
+        }
+        // calls 4-6 wait for the first period, call 7 for the second one
+        assertTrue(System.currentTimeMillis() - start >= 600);
+        assertEquals(7, limiter.getCallCount());
+        assertTrue(limiter.getThrottledCallCount() >= 4);
+        assertTrue(limiter.getThrottleTime() >= 500);
+    }
+
+    @Test
+    public void testConcurrentCallsAreBounded() throws Exception {
+        final MarketoRateLimiter limiter = new MarketoRateLimiter(1000, 1000, 2);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                futures.add(executor.submit(new Callable<Void>() {
+
+                    @Override
+                    public Void call() throws Exception {
+                        limiter.acquire();
+                        try {
+                            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                            Thread.sleep(20);
+                            running.decrementAndGet();
+                        } finally {
+                            limiter.release();
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(maxRunning.get() <= 2);
+        assertEquals(12, limiter.getCallCount());
+    }
+
+    @Test
+    public void testLimiterIsSharedByEndpoint() throws Exception {
+        assertSame(MarketoRateLimiter.getInstance("https://123-abc-456.mktorest.com/rest"),
+                MarketoRateLimiter.getInstance("https://123-abc-456.mktorest.com/rest"));
+        assertTrue(MarketoRateLimiter.getInstance("https://123-abc-456.mktorest.com/rest") != MarketoRateLimiter
+                .getInstance("https://789-def-012.mktorest.com/rest"));
+    }
+}
@@ -13,11 +13,21 @@
 package org.talend.components.marklogic.runtime.input;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.avro.Schema;
-import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.IndexedRecord;
 import org.apache.commons.lang3.StringUtils;
 import org.joda.time.Instant;
@@ -34,6 +44,8 @@ import org.talend.components.marklogic.tmarklogicinput.MarkLogicInputProperties;
 import com.marklogic.client.DatabaseClient;
 import com.marklogic.client.admin.QueryOptionsManager;
 import com.marklogic.client.document.DocumentManager;
+import com.marklogic.client.document.DocumentPage;
+import com.marklogic.client.document.DocumentRecord;
 import com.marklogic.client.io.Format;
 import com.marklogic.client.io.SearchHandle;
 import com.marklogic.client.io.StringHandle;
@@ -41,8 +53,17 @@ import com.marklogic.client.query.MatchDocumentSummary;
 import com.marklogic.client.query.QueryManager;
 import com.marklogic.client.query.StringQueryDefinition;
 
+/**
+ * Reads the documents matching a search criteria, page by page.
+ *
+ * <p>When the schema has a document content field, the documents of a page are read together with the search, in a
+ * single multi-document request. The next page is read by a background thread while the records of the current page
+ * are emitted.
+ */
 public class MarkLogicCriteriaReader extends AbstractBoundedReader<IndexedRecord> {
 
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
     private RuntimeContainer container;
 
     private Setting settings;
@@ -65,11 +86,18 @@ public class MarkLogicCriteriaReader extends AbstractBoundedReader<IndexedRecord
 
     private long pageSize;
 
+    private long lastDocument;
+
     private long documentCounter;
 
-    private int pageCounter;
+    /** Position of the first document of the next page in the search results, starting at 1. */
+    private long nextPageStart;
+
+    private Iterator<IndexedRecord> currentPage;
 
-    private MatchDocumentSummary[] currentPage;
+    private Future<List<IndexedRecord>> prefetchedPage;
+
+    private ExecutorService prefetchExecutor;
 
     DocContentReader docContentReader;
 
@@ -125,12 +153,21 @@ public class MarkLogicCriteriaReader extends AbstractBoundedReader<IndexedRecord
 
         pageSize = (settings.pageSize <= 0) ? matchedDocuments : settings.pageSize;
         maxRetrieve = settings.maxRetrieve; //if < 0 - it will be ignored
+        lastDocument = maxRetrieve > 0 ? Math.min(maxRetrieve, matchedDocuments) : matchedDocuments;
+        if (lastDocument <= 0) {
+            return false;
+        }
         queryManager.setPageLength(pageSize);
-        documentCounter = 1;
-
-        readNextPage();
+        if (docContentField != null) {
+            docManager.setPageLength(pageSize);
+            docManager.clearMetadataCategories();
+        }
+        prefetchExecutor = Executors.newSingleThreadExecutor(new PrefetchThreadFactory());
+        documentCounter = 0;
+        nextPageStart = 1;
+        currentPage = Collections.emptyIterator();
 
-        return (matchedDocuments > 0);
+        return advance();
     }
 
     private void prepareQueryOption() {
@@ -155,36 +192,88 @@ public class MarkLogicCriteriaReader extends AbstractBoundedReader<IndexedRecord
 
     @Override
     public boolean advance() throws IOException {
-        if (pageCounter >= pageSize) {
-            readNextPage();
-            pageCounter = 0;
+        if (documentCounter >= lastDocument) {
+            return false;
         }
-        return maxRetrieve > 0 ?
-                (documentCounter <= maxRetrieve) && (documentCounter <= matchedDocuments) :
-                documentCounter <= matchedDocuments;
+        if (!currentPage.hasNext()) {
+            currentPage = nextPage().iterator();
+            if (!currentPage.hasNext()) {
+                // Documents were removed since the search
+                return false;
+            }
+        }
+        current = currentPage.next();
+        documentCounter++;
+        result.totalCountLong++;
+        result.successCountLong++;
+        return true;
     }
 
-    private void readNextPage() {
-        queryManager.search(stringQueryDefinition, searchHandle, documentCounter);
-        currentPage = searchHandle.getMatchResults();
+    /**
+     * Take the prefetched page, or read it if none is prefetched, and start prefetching the page after it.
+     */
+    private List<IndexedRecord> nextPage() {
+        List<IndexedRecord> page = prefetchedPage != null ? awaitPage(prefetchedPage) : readPage(nextPageStart);
+        prefetchedPage = null;
+        nextPageStart += pageSize;
+        if (nextPageStart <= lastDocument) {
+            final long start = nextPageStart;
+            prefetchedPage = prefetchExecutor.submit(new Callable<List<IndexedRecord>>() {
+
+                @Override
+                public List<IndexedRecord> call() {
+                    return readPage(start);
+                }
+            });
+        }
+        return page;
     }
 
-    @Override
-    public IndexedRecord getCurrent() throws NoSuchElementException {
-        ++documentCounter;
-        MatchDocumentSummary currentSummary = currentPage[pageCounter];
-        current = new GenericData.Record(settings.outputSchema);
+    private List<IndexedRecord> readPage(long start) {
+        List<IndexedRecord> records = new ArrayList<>();
         try {
-            String docId = currentSummary.getUri();
-            current = docContentReader.readDocument(docId);
-
-            result.totalCountLong++;
-            result.successCountLong++;
-            pageCounter++;
-            return current;
+            if (docContentField != null) {
+                DocumentPage documentPage = docManager.search(stringQueryDefinition, start);
+                try {
+                    while (documentPage.hasNext()) {
+                        DocumentRecord document = documentPage.next();
+                        records.add(docContentReader.readDocument(document));
+                    }
+                } finally {
+                    documentPage.close();
+                }
+            } else {
+                SearchHandle pageHandle = queryManager.search(stringQueryDefinition, new SearchHandle(), start);
+                for (MatchDocumentSummary summary : pageHandle.getMatchResults()) {
+                    records.add(docContentReader.readDocument(summary.getUri()));
+                }
+            }
+        } catch (MarkLogicException e) {
+            throw e;
         } catch (Exception e) {
             throw new MarkLogicException(new MarkLogicErrorCode("Can't read document from MarkLogic database"), e);
         }
+        return records;
+    }
+
+    private List<IndexedRecord> awaitPage(Future<List<IndexedRecord>> page) {
+        try {
+            return page.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MarkLogicException(new MarkLogicErrorCode("Can't read document from MarkLogic database"), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MarkLogicException) {
+                throw (MarkLogicException) e.getCause();
+            }
+            throw new MarkLogicException(new MarkLogicErrorCode("Can't read document from MarkLogic database"),
+                    e.getCause());
+        }
+    }
+
+    @Override
+    public IndexedRecord getCurrent() throws NoSuchElementException {
+        return current;
     }
 
     @Override
@@ -194,6 +283,9 @@ public class MarkLogicCriteriaReader extends AbstractBoundedReader<IndexedRecord
 
     @Override
     public void close() throws IOException {
+        if (prefetchExecutor != null) {
+            prefetchExecutor.shutdownNow();
+        }
         if (!settings.isReferencedConnectionUsed) {
             connectionClient.release();
         }
@@ -204,6 +296,16 @@ public class MarkLogicCriteriaReader extends AbstractBoundedReader<IndexedRecord
         return result.toMap();
     }
 
+    private static class PrefetchThreadFactory implements ThreadFactory {
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "marklogic-page-prefetch-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
     protected class Setting {
 
         private final Schema outputSchema;
@@ -13,6 +13,7 @@
 package org.talend.components.marklogic.runtime.input.strategies;
 
 import com.marklogic.client.document.DocumentManager;
+import com.marklogic.client.document.DocumentRecord;
 import com.marklogic.client.io.BytesHandle;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
@@ -78,6 +79,38 @@ public class DocContentReader {
         return docContent;
     }
 
+    private Object readDocContent(DocumentRecord document) {
+        Object docContent = null;
+
+        if (docContentType == byte[].class) {
+            docContent = document.getContent(new BytesHandle()).get();
+        } else if (docContentType == File.class) {
+            try {
+                docContent = new SAXReader().read(document.getContentAs(File.class));
+            } catch (DocumentException e) {
+                throw new MarkLogicException(new MarkLogicErrorCode("Can't read document"), e);
+            }
+        } else {
+            docContent = document.getContentAs(docContentType);
+        }
+
+        return docContent;
+    }
+
+    /**
+     * Convert a document which was read with its content, such as a record of a multi-document read.
+     */
+    public GenericData.Record readDocument(DocumentRecord document) {
+        GenericData.Record documentRecord = new GenericData.Record(schema);
+
+        documentRecord.put(0, document.getUri());
+        if (schema.getFields().size() > 1) {
+            documentRecord.put(1, readDocContent(document));
+        }
+
+        return documentRecord;
+    }
+
     public GenericData.Record readDocument(String docId) {
         GenericData.Record documentRecord = new GenericData.Record(schema);
 
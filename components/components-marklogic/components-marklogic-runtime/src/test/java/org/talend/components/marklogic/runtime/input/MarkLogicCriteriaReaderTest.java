@@ -13,23 +13,36 @@
 
 package org.talend.components.marklogic.runtime.input;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 
 import org.apache.avro.Schema;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.talend.components.api.component.ComponentDefinition;
 import org.talend.components.api.container.RuntimeContainer;
 import org.talend.components.marklogic.tmarklogicinput.MarkLogicInputProperties;
 import org.talend.daikon.avro.AvroUtils;
 
 import com.marklogic.client.DatabaseClient;
+import com.marklogic.client.document.DocumentPage;
+import com.marklogic.client.document.DocumentRecord;
+import com.marklogic.client.document.GenericDocumentManager;
 import com.marklogic.client.io.SearchHandle;
 import com.marklogic.client.query.QueryManager;
 import com.marklogic.client.query.StringQueryDefinition;
@@ -72,4 +85,72 @@ public class MarkLogicCriteriaReaderTest {
         System.out.println(criteriaReader.start());
 
     }
+
+    private DocumentPage mockDocumentPage(String... uris) {
+        List<DocumentRecord> documents = new ArrayList<>();
+        for (String uri : uris) {
+            DocumentRecord document = mock(DocumentRecord.class);
+            when(document.getUri()).thenReturn(uri);
+            when(document.getContentAs(String.class)).thenReturn("content of " + uri);
+            documents.add(document);
+        }
+        final Iterator<DocumentRecord> iterator = documents.iterator();
+        DocumentPage page = mock(DocumentPage.class);
+        when(page.hasNext()).thenAnswer(new Answer<Boolean>() {
+
+            @Override
+            public Boolean answer(InvocationOnMock invocation) throws Throwable {
+                return iterator.hasNext();
+            }
+        });
+        when(page.next()).thenAnswer(new Answer<DocumentRecord>() {
+
+            @Override
+            public DocumentRecord answer(InvocationOnMock invocation) throws Throwable {
+                return iterator.next();
+            }
+        });
+        return page;
+    }
+
+    @Test
+    public void testReadPagesOfDocuments() throws IOException {
+        StringQueryDefinition mockedStringQueryDefinition = mock(StringQueryDefinition.class);
+        QueryManager mockedQueryManager = mock(QueryManager.class);
+        when(mockedQueryManager.newStringDefinition()).thenReturn(mockedStringQueryDefinition);
+        SearchHandle searchHandle = mock(SearchHandle.class);
+        when(searchHandle.getTotalResults()).thenReturn(3L);
+        when(mockedQueryManager.search(Mockito.eq(mockedStringQueryDefinition), Mockito.any(SearchHandle.class)))
+                .thenReturn(searchHandle);
+        GenericDocumentManager mockedDocManager = mock(GenericDocumentManager.class);
+        DocumentPage firstPage = mockDocumentPage("doc1", "doc2");
+        DocumentPage secondPage = mockDocumentPage("doc3");
+        when(mockedDocManager.search(mockedStringQueryDefinition, 1L)).thenReturn(firstPage);
+        when(mockedDocManager.search(mockedStringQueryDefinition, 3L)).thenReturn(secondPage);
+        DatabaseClient mockedClient = mock(DatabaseClient.class);
+        when(mockedClient.newDocumentManager()).thenReturn(mockedDocManager);
+        when(mockedClient.newQueryManager()).thenReturn(mockedQueryManager);
+        MarkLogicSource mockedSource = mock(MarkLogicSource.class);
+        when(mockedSource.connect(any(RuntimeContainer.class))).thenReturn(mockedClient);
+
+        MarkLogicInputProperties properties = new MarkLogicInputProperties("inputProperties");
+        properties.init();
+        properties.datasetProperties.pageSize.setValue(2);
+        MarkLogicCriteriaReader criteriaReader = new MarkLogicCriteriaReader(mockedSource, null, properties);
+
+        List<String> contents = new ArrayList<>();
+        for (boolean available = criteriaReader.start(); available; available = criteriaReader.advance()) {
+            assertTrue(criteriaReader.getCurrent().get(0).toString().startsWith("doc"));
+            contents.add((String) criteriaReader.getCurrent().get(1));
+        }
+        criteriaReader.close();
+
+        assertEquals(3, contents.size());
+        assertEquals("content of doc3", contents.get(2));
+        verify(mockedDocManager).setPageLength(2);
+        verify(firstPage).close();
+        verify(secondPage).close();
+        verify(mockedDocManager, never()).readAs(anyString(), Mockito.any(Class.class));
+        assertEquals(3L, criteriaReader.getReturnValues().get(ComponentDefinition.RETURN_TOTAL_RECORD_COUNT));
+    }
 }
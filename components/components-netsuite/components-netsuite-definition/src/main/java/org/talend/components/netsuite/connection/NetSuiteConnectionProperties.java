@@ -56,6 +56,11 @@ public class NetSuiteConnectionProperties extends ComponentPropertiesImpl
 
     public static final NetSuiteVersion DEFAULT_API_VERSION = new NetSuiteVersion(2019, 2);
 
+    /**
+     * Concurrency limit of a NetSuite account without SuiteCloud Plus license.
+     */
+    public static final int DEFAULT_CONCURRENCY_LIMIT = 5;
+
     public static final String DEFAULT_ENDPOINT_URL =
             "https://webservices.netsuite.com/services/NetSuitePort_" + DEFAULT_API_VERSION.getMajorAsString();
 
@@ -92,6 +97,12 @@ public class NetSuiteConnectionProperties extends ComponentPropertiesImpl
 
     public final Property<Boolean> useRequestLevelCredentials = newBoolean("useRequestLevelCredentials");
 
+    /**
+     * Maximum number of requests the NetSuite account accepts at the same time, as set by its
+     * concurrency governance.
+     */
+    public final Property<Integer> concurrencyLimit = newInteger("concurrencyLimit");
+
     public final PresentationItem testConnection = new PresentationItem("testConnection", "Test connection");
 
     public final ComponentReferenceProperties<NetSuiteConnectionProperties> referencedComponent =
@@ -120,6 +131,7 @@ public class NetSuiteConnectionProperties extends ComponentPropertiesImpl
         applicationId.setValue("");
         customizationEnabled.setValue(true);
         useRequestLevelCredentials.setValue(false);
+        concurrencyLimit.setValue(DEFAULT_CONCURRENCY_LIMIT);
     }
 
     @Override
@@ -138,6 +150,7 @@ public class NetSuiteConnectionProperties extends ComponentPropertiesImpl
         Form advForm = new Form(this, Form.ADVANCED);
         advForm.addRow(customizationEnabled);
         advForm.addRow(useRequestLevelCredentials);
+        advForm.addRow(concurrencyLimit);
 
         // A form for a reference to a connection
         Form refForm = Form.create(this, Form.REFERENCE);
@@ -182,6 +195,7 @@ public class NetSuiteConnectionProperties extends ComponentPropertiesImpl
         } else if (form.getName().equals(Form.ADVANCED)) {
             form.getWidget(customizationEnabled.getName()).setHidden(refConnectionUsed);
             form.getWidget(useRequestLevelCredentials.getName()).setHidden(refConnectionUsed);
+            form.getWidget(concurrencyLimit.getName()).setHidden(refConnectionUsed);
         }
     }
 
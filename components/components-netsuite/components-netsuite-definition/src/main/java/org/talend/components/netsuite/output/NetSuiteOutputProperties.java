@@ -45,6 +45,9 @@ public class NetSuiteOutputProperties extends FixedConnectorsComponentProperties
 
     public final Property<Boolean> dieOnError = newBoolean("dieOnError");
 
+    /** Number of batches written at the same time. */
+    public final Property<Integer> writeConcurrency = newInteger("writeConcurrency");
+
     protected transient final PropertyPathConnector mainConnector;
 
     protected transient final PropertyPathConnector flowConnector;
@@ -69,6 +72,7 @@ public class NetSuiteOutputProperties extends FixedConnectorsComponentProperties
 
         batchSize.setValue(NetSuiteOutputProperties.DEFAULT_BATCH_SIZE);
         dieOnError.setValue(Boolean.TRUE);
+        writeConcurrency.setValue(1);
     }
 
     @Override
@@ -83,6 +87,7 @@ public class NetSuiteOutputProperties extends FixedConnectorsComponentProperties
         Form advForm = Form.create(this, Form.ADVANCED);
         advForm.addRow(module.getForm(Form.ADVANCED));
         advForm.addRow(batchSize);
+        advForm.addColumn(writeConcurrency);
     }
 
     @Override
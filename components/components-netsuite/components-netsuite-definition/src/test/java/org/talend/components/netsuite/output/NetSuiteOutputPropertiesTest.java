@@ -79,6 +79,7 @@ public class NetSuiteOutputPropertiesTest extends NetSuitePropertiesTestBase {
         assertEquals(Boolean.FALSE, properties.module.useNativeUpsert.getValue());
         assertEquals((Integer) NetSuiteOutputProperties.DEFAULT_BATCH_SIZE, properties.batchSize.getValue());
         assertEquals(Boolean.TRUE, properties.dieOnError.getValue());
+        assertEquals(Integer.valueOf(1), properties.writeConcurrency.getValue());
 
         assertNotNull(properties.getConnectionProperties());
     }
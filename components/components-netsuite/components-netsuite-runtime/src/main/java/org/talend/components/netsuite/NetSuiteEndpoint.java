@@ -141,6 +141,9 @@ public class NetSuiteEndpoint {
             connectionConfig.setReferenceComponentId(properties.getReferencedComponentId());
             connectionConfig.setCustomizationEnabled(customizationEnabled);
             connectionConfig.setUseRequestLevelCredentials(connProps.useRequestLevelCredentials.getValue());
+            if (connProps.concurrencyLimit.getValue() != null) {
+                connectionConfig.setConcurrencyLimit(connProps.concurrencyLimit.getValue());
+            }
             return connectionConfig;
         } catch (MalformedURLException e) {
             throw new NetSuiteException(new NetSuiteErrorCode(NetSuiteErrorCode.CLIENT_ERROR),
@@ -202,6 +205,7 @@ public class NetSuiteEndpoint {
         clientService.setEndpointUrl(connectionConfig.getEndpointUrl().toString());
         clientService.setCredentials(connectionConfig.getCredentials());
         clientService.setUseRequestLevelCredentials(connectionConfig.isUseRequestLevelCredentials());
+        clientService.setConcurrencyLimit(connectionConfig.getConcurrencyLimit());
         MetaDataSource metaDataSource = clientService.getMetaDataSource();
         metaDataSource.setCustomizationEnabled(connectionConfig.isCustomizationEnabled());
 
@@ -219,6 +223,7 @@ public class NetSuiteEndpoint {
         private NetSuiteCredentials credentials;
         private boolean customizationEnabled;
         private boolean useRequestLevelCredentials;
+        private int concurrencyLimit = NetSuiteClientService.DEFAULT_CONCURRENCY_LIMIT;
         private String referenceComponentId;
 
         public ConnectionConfig() {
@@ -270,6 +275,14 @@ public class NetSuiteEndpoint {
             this.useRequestLevelCredentials = useRequestLevelCredentials;
         }
 
+        public int getConcurrencyLimit() {
+            return concurrencyLimit;
+        }
+
+        public void setConcurrencyLimit(int concurrencyLimit) {
+            this.concurrencyLimit = concurrencyLimit;
+        }
+
         public void setReferenceComponentId(String referenceComponentId) {
             this.referenceComponentId = referenceComponentId;
         }
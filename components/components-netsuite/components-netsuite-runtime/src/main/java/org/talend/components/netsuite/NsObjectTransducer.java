@@ -26,6 +26,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 
 import javax.xml.datatype.DatatypeConfigurationException;
@@ -77,7 +79,10 @@ public abstract class NsObjectTransducer {
     protected final ObjectMapper objectMapper;
 
     /** Cached value converters by value class. */
-    protected Map<Class<?>, AvroConverter<?, ?>> valueConverterCache = new HashMap<>();
+    protected ConcurrentMap<Class<?>, AvroConverter<?, ?>> valueConverterCache = new ConcurrentHashMap<>();
+
+    /** Field plans for last processed schema. */
+    private volatile SchemaPlan schemaPlan;
 
     /**
      * Creates instance of transducer using given NetSuite client.
@@ -224,6 +229,45 @@ public abstract class NsObjectTransducer {
         return avroField;
     }
 
+    /**
+     * Get field plans for given schema and type descriptor.
+     *
+     * <p>Plans are built for fields of the schema which are known to the type descriptor and
+     * are reused as long as the same schema and type descriptor are processed.
+     *
+     * @param schema schema
+     * @param typeDesc type descriptor
+     * @return field plans in order of schema fields
+     */
+    protected List<FieldPlan> getFieldPlans(Schema schema, TypeDesc typeDesc) {
+        SchemaPlan plan = schemaPlan;
+        if (plan == null || plan.schema != schema || plan.typeDesc != typeDesc) {
+            plan = new SchemaPlan(schema, typeDesc, createFieldPlans(schema, typeDesc));
+            schemaPlan = plan;
+        }
+        return plan.fieldPlans;
+    }
+
+    /**
+     * Create field plans for given schema and type descriptor.
+     *
+     * @param schema schema
+     * @param typeDesc type descriptor
+     * @return field plans in order of schema fields
+     */
+    protected List<FieldPlan> createFieldPlans(Schema schema, TypeDesc typeDesc) {
+        Map<String, FieldDesc> fieldMap = typeDesc.getFieldMap();
+        List<FieldPlan> fieldPlans = new ArrayList<>(schema.getFields().size());
+        for (Schema.Field field : schema.getFields()) {
+            String nsFieldName = NetSuiteDatasetRuntimeImpl.getNsFieldName(field);
+            FieldDesc fieldDesc = fieldMap.get(nsFieldName);
+            if (fieldDesc != null) {
+                fieldPlans.add(new FieldPlan(field, nsFieldName, fieldDesc, getValueConverter(fieldDesc)));
+            }
+        }
+        return fieldPlans;
+    }
+
     /**
      * Build and get map of field values by names, including custom fields.
      *
@@ -239,20 +283,15 @@ public abstract class NsObjectTransducer {
         Map<String, Object> valueMap = new HashMap<>();
 
         BeanInfo beanInfo = Beans.getBeanInfo(typeDesc.getTypeClass());
-        Map<String, FieldDesc> fieldMap = typeDesc.getFieldMap();
 
         Map<String, CustomFieldDesc> customFieldMap = new HashMap<>();
 
         // Extract normal fields
 
-        for (Schema.Field field : schema.getFields()) {
+        for (FieldPlan fieldPlan : getFieldPlans(schema, typeDesc)) {
             // Get actual name of the field
-            String nsFieldName = NetSuiteDatasetRuntimeImpl.getNsFieldName(field);
-            FieldDesc fieldDesc = fieldMap.get(nsFieldName);
-
-            if (fieldDesc == null) {
-                continue;
-            }
+            String nsFieldName = fieldPlan.getNsFieldName();
+            FieldDesc fieldDesc = fieldPlan.getFieldDesc();
 
             if (fieldDesc instanceof CustomFieldDesc) {
                 // It's custom field, we will extract it in next stage.
@@ -292,8 +331,22 @@ public abstract class NsObjectTransducer {
      * @return value of a field or <code>null</code>
      */
     protected Object readField(Map<String, Object> valueMap, FieldDesc fieldDesc) {
+        return readField(valueMap, fieldDesc, getValueConverter(fieldDesc));
+    }
+
+    /**
+     * Read a value from a field using a precomputed field plan.
+     *
+     * @param valueMap map containing raw values by names
+     * @param fieldPlan field plan
+     * @return value of a field or <code>null</code>
+     */
+    protected Object readField(Map<String, Object> valueMap, FieldPlan fieldPlan) {
+        return readField(valueMap, fieldPlan.getFieldDesc(), fieldPlan.getValueConverter());
+    }
+
+    private Object readField(Map<String, Object> valueMap, FieldDesc fieldDesc, AvroConverter valueConverter) {
         String fieldName = fieldDesc.getName();
-        AvroConverter valueConverter = getValueConverter(fieldDesc);
         if (fieldDesc instanceof CustomFieldDesc) {
             Object customField = valueMap.get(fieldName);
             if (customField != null) {
@@ -361,10 +414,31 @@ public abstract class NsObjectTransducer {
      */
     protected void writeField(Object nsObject, FieldDesc fieldDesc, Map<String, Object> customFieldMap,
             boolean replace, Collection<String> nullFieldNames, Object value) {
+        writeField(nsObject, fieldDesc, getValueConverter(fieldDesc), customFieldMap, replace, nullFieldNames, value);
+    }
+
+    /**
+     * Write a value to a field using a precomputed field plan.
+     *
+     * @param nsObject target NetSuite data model object which to write field value to
+     * @param fieldPlan field plan
+     * @param customFieldMap map of native custom field objects by names
+     * @param nullFieldNames collection to register null'ed fields
+     * @param value value to be written, can be <code>null</code>
+     */
+    protected void writeField(Object nsObject, FieldPlan fieldPlan, Map<String, Object> customFieldMap,
+            Collection<String> nullFieldNames, Object value) {
+        writeField(nsObject, fieldPlan.getFieldDesc(), fieldPlan.getValueConverter(), customFieldMap, true,
+                nullFieldNames, value);
+    }
+
+    private void writeField(Object nsObject, FieldDesc fieldDesc, AvroConverter valueConverter,
+            Map<String, Object> customFieldMap, boolean replace, Collection<String> nullFieldNames, Object value) {
         if (fieldDesc instanceof CustomFieldDesc) {
-            writeCustomField(nsObject, fieldDesc.asCustom(), customFieldMap, replace, nullFieldNames, value);
+            writeCustomField(nsObject, fieldDesc.asCustom(), valueConverter, customFieldMap, replace,
+                    nullFieldNames, value);
         } else {
-            writeSimpleField(nsObject, fieldDesc.asSimple(), replace, nullFieldNames, value);
+            writeSimpleField(nsObject, fieldDesc.asSimple(), valueConverter, replace, nullFieldNames, value);
         }
     }
 
@@ -380,6 +454,12 @@ public abstract class NsObjectTransducer {
      */
     protected void writeCustomField(Object nsObject, CustomFieldDesc fieldDesc, Map<String, Object> customFieldMap,
             boolean replace, Collection<String> nullFieldNames, Object value) {
+        writeCustomField(nsObject, fieldDesc, getValueConverter(fieldDesc), customFieldMap, replace,
+                nullFieldNames, value);
+    }
+
+    private void writeCustomField(Object nsObject, CustomFieldDesc fieldDesc, AvroConverter valueConverter,
+            Map<String, Object> customFieldMap, boolean replace, Collection<String> nullFieldNames, Object value) {
 
         NsRef ref = fieldDesc.getCustomizationRef();
         CustomFieldRefType customFieldRefType = fieldDesc.getCustomFieldType();
@@ -393,7 +473,6 @@ public abstract class NsObjectTransducer {
         List<Object> customFieldList = (List<Object>) getSimpleProperty(customFieldListWrapper, "customField");
 
         Object customField = customFieldMap.get(ref.getScriptId());
-        AvroConverter valueConverter = getValueConverter(fieldDesc);
 
         Object targetValue = valueConverter.convertToDatum(value);
 
@@ -433,8 +512,11 @@ public abstract class NsObjectTransducer {
      */
     protected void writeSimpleField(Object nsObject, SimpleFieldDesc fieldDesc,
             boolean replace, Collection<String> nullFieldNames, Object value) {
+        writeSimpleField(nsObject, fieldDesc, getValueConverter(fieldDesc), replace, nullFieldNames, value);
+    }
 
-        AvroConverter valueConverter = getValueConverter(fieldDesc);
+    private void writeSimpleField(Object nsObject, SimpleFieldDesc fieldDesc, AvroConverter valueConverter,
+            boolean replace, Collection<String> nullFieldNames, Object value) {
 
         Object targetValue = valueConverter.convertToDatum(value);
 
@@ -542,7 +624,7 @@ public abstract class NsObjectTransducer {
     /**
      * Get value converter for given class.
      *
-     * <p>Converters are created on demand and cached.
+     * <p>Converters are created on demand and cached, the cache can be used by several threads.
      *
      * @param valueClass value class
      * @return value converter or {@code null}
@@ -552,7 +634,10 @@ public abstract class NsObjectTransducer {
         if (converter == null) {
             converter = createValueConverter(valueClass);
             if (converter != null) {
-                valueConverterCache.put(valueClass, converter);
+                AvroConverter<?, ?> existing = valueConverterCache.putIfAbsent(valueClass, converter);
+                if (existing != null) {
+                    converter = existing;
+                }
             }
         }
         return converter;
@@ -582,4 +667,63 @@ public abstract class NsObjectTransducer {
         return null;
     }
 
+    /**
+     * Precomputed data required to read or write a field of a schema.
+     */
+    protected static class FieldPlan {
+
+        /** Schema field. */
+        private final Schema.Field field;
+
+        /** Actual name of the field in NetSuite data model object. */
+        private final String nsFieldName;
+
+        /** Descriptor of the field. */
+        private final FieldDesc fieldDesc;
+
+        /** Value converter of the field. */
+        private final AvroConverter<?, ?> valueConverter;
+
+        public FieldPlan(Schema.Field field, String nsFieldName, FieldDesc fieldDesc,
+                AvroConverter<?, ?> valueConverter) {
+            this.field = field;
+            this.nsFieldName = nsFieldName;
+            this.fieldDesc = fieldDesc;
+            this.valueConverter = valueConverter;
+        }
+
+        public Schema.Field getField() {
+            return field;
+        }
+
+        public String getNsFieldName() {
+            return nsFieldName;
+        }
+
+        public FieldDesc getFieldDesc() {
+            return fieldDesc;
+        }
+
+        public AvroConverter<?, ?> getValueConverter() {
+            return valueConverter;
+        }
+    }
+
+    /**
+     * Field plans built for a schema and type descriptor.
+     */
+    private static class SchemaPlan {
+
+        private final Schema schema;
+
+        private final TypeDesc typeDesc;
+
+        private final List<FieldPlan> fieldPlans;
+
+        SchemaPlan(Schema schema, TypeDesc typeDesc, List<FieldPlan> fieldPlans) {
+            this.schema = schema;
+            this.typeDesc = typeDesc;
+            this.fieldPlans = fieldPlans;
+        }
+    }
 }
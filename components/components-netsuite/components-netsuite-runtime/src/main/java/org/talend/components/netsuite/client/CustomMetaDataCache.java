@@ -0,0 +1,320 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+
+package org.talend.components.netsuite.client;
+
+import static org.talend.components.netsuite.NetSuiteDatasetRuntimeImpl.getCustomFieldValueClass;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.components.netsuite.client.model.CustomFieldDesc;
+import org.talend.components.netsuite.client.model.RefType;
+import org.talend.components.netsuite.client.model.customfield.CustomFieldRefType;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Local file cache of custom meta data of a NetSuite account.
+ *
+ * <p>Custom meta data is stored as JSON document in a file which is named after the account, the role and
+ * the endpoint of web service, so data of different accounts and API versions is never mixed.
+ * The cache is shared by job runs and is enabled when directory for cache files is specified
+ * by {@link #CACHE_DIR_PROPERTY_NAME} system property.
+ *
+ * <p>The cache only reads and writes files, {@link DefaultCustomMetaDataSource} decides whether
+ * cached data is still valid.
+ */
+public class CustomMetaDataCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CustomMetaDataCache.class);
+
+    public static final String CACHE_DIR_PROPERTY_NAME = "org.talend.components.netsuite.client.metaDataCacheDir";
+
+    public static final String CACHE_MAX_AGE_PROPERTY_NAME = "org.talend.components.netsuite.client.metaDataCacheMaxAge";
+
+    /** Default period during which cached data is used, in minutes. */
+    public static final long DEFAULT_MAX_AGE = 60;
+
+    /** Version of format of cache file, files of other versions are ignored. */
+    public static final int FORMAT_VERSION = 1;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** Cache file. */
+    private final File file;
+
+    /** Key which identifies account and endpoint of cached data. */
+    private final String key;
+
+    /** Period during which cached data is used, in milliseconds. */
+    private final long maxAge;
+
+    public CustomMetaDataCache(File file, String key, long maxAge) {
+        this.file = file;
+        this.key = key;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Create cache for a given client according to system properties.
+     *
+     * @param clientService client
+     * @return cache or {@code null} if the cache is disabled or the client has no credentials
+     */
+    public static CustomMetaDataCache forClientService(NetSuiteClientService<?> clientService) {
+        String dir = System.getProperty(CACHE_DIR_PROPERTY_NAME);
+        NetSuiteCredentials credentials = clientService.getCredentials();
+        if (dir == null || dir.isEmpty() || credentials == null || credentials.getAccount() == null) {
+            return null;
+        }
+        long maxAge = DEFAULT_MAX_AGE;
+        String maxAgeValue = System.getProperty(CACHE_MAX_AGE_PROPERTY_NAME);
+        if (maxAgeValue != null) {
+            try {
+                maxAge = Long.parseLong(maxAgeValue.trim());
+            } catch (NumberFormatException e) {
+                LOG.warn("Invalid max age of meta data cache: {}", maxAgeValue);
+            }
+        }
+        String key = credentials.getAccount() + "|" + credentials.getRoleId() + "|" + clientService.getEndpointUrl();
+        File file = new File(dir, "netsuite-metadata-" + digest(key) + ".json");
+        return new CustomMetaDataCache(file, key, TimeUnit.MINUTES.toMillis(maxAge));
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Check whether cached data is too old to be used.
+     *
+     * @param content cached data
+     * @return {@code true} if the data is older than max age and must be retrieved again
+     */
+    public boolean isExpired(Content content) {
+        return System.currentTimeMillis() - content.getTimestamp() > maxAge;
+    }
+
+    /**
+     * Load cached data.
+     *
+     * @return cached data or {@code null} if there is no cache file or the file can't be used
+     */
+    public Content load() {
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            JsonNode root = objectMapper.readTree(file);
+            if (root.path("version").asInt() != FORMAT_VERSION || !key.equals(root.path("key").asText())) {
+                LOG.debug("Ignored incompatible meta data cache file: {}", file);
+                return null;
+            }
+            Content content = new Content();
+            content.setTimestamp(root.path("timestamp").asLong());
+
+            JsonNode customTypesNode = root.get("customTypes");
+            if (customTypesNode != null && customTypesNode.isArray()) {
+                List<NsRef> customTypes = new ArrayList<>();
+                for (JsonNode refNode : customTypesNode) {
+                    customTypes.add(readRef(refNode));
+                }
+                content.setCustomTypes(customTypes);
+            }
+
+            readCustomFields(root.path("recordCustomFields"), content.getRecordCustomFields());
+            readCustomFields(root.path("customRecordCustomFields"), content.getCustomRecordCustomFields());
+            return content;
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Failed to load meta data cache file {}: {}", file, e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Save data to cache file.
+     *
+     * <p>Data is written to a temporary file first which then replaces the cache file,
+     * so concurrent job runs never read a partially written file. Errors are logged and ignored.
+     *
+     * @param content data to be saved
+     */
+    public void save(Content content) {
+        try {
+            ObjectNode root = objectMapper.createObjectNode();
+            root.put("version", FORMAT_VERSION);
+            root.put("key", key);
+            root.put("timestamp", content.getTimestamp());
+
+            if (content.getCustomTypes() != null) {
+                ArrayNode customTypesNode = root.putArray("customTypes");
+                for (NsRef ref : content.getCustomTypes()) {
+                    writeRef(customTypesNode.addObject(), ref);
+                }
+            }
+
+            writeCustomFields(root.putObject("recordCustomFields"), content.getRecordCustomFields());
+            writeCustomFields(root.putObject("customRecordCustomFields"), content.getCustomRecordCustomFields());
+
+            File dir = file.getAbsoluteFile().getParentFile();
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Can't create directory " + dir);
+            }
+            File tempFile = File.createTempFile(file.getName(), ".tmp", dir);
+            try {
+                objectMapper.writeValue(tempFile, root);
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile.toPath());
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Failed to save meta data cache file {}: {}", file, e.toString());
+        }
+    }
+
+    private static void readCustomFields(JsonNode node, Map<String, Map<String, CustomFieldDesc>> target) {
+        Iterator<Map.Entry<String, JsonNode>> records = node.fields();
+        while (records.hasNext()) {
+            Map.Entry<String, JsonNode> recordEntry = records.next();
+            Map<String, CustomFieldDesc> fieldDescMap = new HashMap<>();
+            for (JsonNode fieldNode : recordEntry.getValue()) {
+                CustomFieldRefType customFieldType = CustomFieldRefType.valueOf(fieldNode.path("customFieldType").asText());
+
+                CustomFieldDesc customFieldDesc = new CustomFieldDesc();
+                customFieldDesc.setName(fieldNode.path("name").asText());
+                customFieldDesc.setCustomizationRef(readRef(fieldNode.path("customizationRef")));
+                customFieldDesc.setCustomFieldType(customFieldType);
+                customFieldDesc.setValueType(getCustomFieldValueClass(customFieldType));
+                customFieldDesc.setNullable(true);
+
+                fieldDescMap.put(customFieldDesc.getName(), customFieldDesc);
+            }
+            target.put(recordEntry.getKey(), fieldDescMap);
+        }
+    }
+
+    private static void writeCustomFields(ObjectNode node, Map<String, Map<String, CustomFieldDesc>> source) {
+        for (Map.Entry<String, Map<String, CustomFieldDesc>> recordEntry : source.entrySet()) {
+            ArrayNode fieldsNode = node.putArray(recordEntry.getKey());
+            for (CustomFieldDesc customFieldDesc : recordEntry.getValue().values()) {
+                ObjectNode fieldNode = fieldsNode.addObject();
+                fieldNode.put("name", customFieldDesc.getName());
+                fieldNode.put("customFieldType", customFieldDesc.getCustomFieldType().name());
+                writeRef(fieldNode.putObject("customizationRef"), customFieldDesc.getCustomizationRef());
+            }
+        }
+    }
+
+    private static NsRef readRef(JsonNode node) {
+        NsRef ref = new NsRef();
+        String refType = textOrNull(node, "refType");
+        ref.setRefType(refType != null ? RefType.valueOf(refType) : null);
+        ref.setName(textOrNull(node, "name"));
+        ref.setType(textOrNull(node, "type"));
+        ref.setInternalId(textOrNull(node, "internalId"));
+        ref.setExternalId(textOrNull(node, "externalId"));
+        ref.setScriptId(textOrNull(node, "scriptId"));
+        ref.setTypeId(textOrNull(node, "typeId"));
+        return ref;
+    }
+
+    private static void writeRef(ObjectNode node, NsRef ref) {
+        if (ref.getRefType() != null) {
+            node.put("refType", ref.getRefType().name());
+        }
+        node.put("name", ref.getName());
+        node.put("type", ref.getType());
+        node.put("internalId", ref.getInternalId());
+        node.put("externalId", ref.getExternalId());
+        node.put("scriptId", ref.getScriptId());
+        node.put("typeId", ref.getTypeId());
+    }
+
+    private static String textOrNull(JsonNode node, String fieldName) {
+        JsonNode value = node.get(fieldName);
+        return value != null && !value.isNull() ? value.asText() : null;
+    }
+
+    private static String digest(String value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < 16; i++) {
+                sb.append(String.format("%02x", hash[i]));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Custom meta data stored in cache file.
+     */
+    public static class Content {
+
+        /** Time when the data was retrieved from NetSuite, the oldest retrieval if it was retrieved by several runs. */
+        private long timestamp;
+
+        /** Customization refs of custom record and custom transaction types, {@code null} if not retrieved. */
+        private List<NsRef> customTypes;
+
+        /** Custom field descriptors of standard record types, by record type. */
+        private Map<String, Map<String, CustomFieldDesc>> recordCustomFields = new HashMap<>();
+
+        /** Custom field descriptors of custom record types, by custom record type name. */
+        private Map<String, Map<String, CustomFieldDesc>> customRecordCustomFields = new HashMap<>();
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public void setTimestamp(long timestamp) {
+            this.timestamp = timestamp;
+        }
+
+        public List<NsRef> getCustomTypes() {
+            return customTypes;
+        }
+
+        public void setCustomTypes(List<NsRef> customTypes) {
+            this.customTypes = customTypes;
+        }
+
+        public Map<String, Map<String, CustomFieldDesc>> getRecordCustomFields() {
+            return recordCustomFields;
+        }
+
+        public Map<String, Map<String, CustomFieldDesc>> getCustomRecordCustomFields() {
+            return customRecordCustomFields;
+        }
+    }
+}
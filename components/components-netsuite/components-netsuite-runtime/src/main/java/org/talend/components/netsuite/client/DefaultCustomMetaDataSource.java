@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,26 +41,42 @@ import org.talend.daikon.java8.Function;
 /**
  * Implementation of <code>CustomMetaDataSource</code> which retrieves custom meta data from NetSuite and
  * caches retrieved data.
+ *
+ * <p>Cached data is read without locking, retrieval of missing data is performed within client lock.
+ *
+ * <p>If {@link CustomMetaDataCache} is enabled, retrieved data is also saved to local file and loaded
+ * from it by next job runs. Data which is older than max age of the cache is not used, it is retrieved again.
  */
 public class DefaultCustomMetaDataSource<PortT> implements CustomMetaDataSource {
     protected transient final Logger logger = LoggerFactory.getLogger(getClass());
 
     protected NetSuiteClientService<PortT> clientService;
 
-    protected Map<String, RecordTypeInfo> customRecordTypeMap = new HashMap<>();
+    protected Map<String, RecordTypeInfo> customRecordTypeMap = new ConcurrentHashMap<>();
 
-    protected boolean customRecordTypesLoaded = false;
+    protected volatile boolean customRecordTypesLoaded = false;
 
-    protected Map<BasicRecordType, List<?>> customFieldMap = new HashMap<>();
+    protected Map<BasicRecordType, List<?>> customFieldMap = new ConcurrentHashMap<>();
 
-    protected Map<String, Map<String, CustomFieldDesc>> recordCustomFieldMap = new HashMap<>();
+    protected Map<String, Map<String, CustomFieldDesc>> recordCustomFieldMap = new ConcurrentHashMap<>();
 
-    protected boolean customFieldsLoaded = false;
+    protected volatile boolean customFieldsLoaded = false;
 
-    protected Map<String, Map<String, CustomFieldDesc>> customRecordCustomFieldMap = new HashMap<>();
+    protected Map<String, Map<String, CustomFieldDesc>> customRecordCustomFieldMap = new ConcurrentHashMap<>();
 
     protected CustomMetaDataRetriever customMetaDataRetriever;
 
+    /** Customization refs of custom record and custom transaction types. */
+    protected List<NsRef> customTypeRefs = new ArrayList<>();
+
+    /** Time when the data loaded from local file cache was retrieved, {@code 0} if no data was loaded. */
+    protected volatile long metaDataCacheTimestamp = 0;
+
+    /** Local file cache of custom meta data, {@code null} if the cache is disabled. */
+    protected CustomMetaDataCache metaDataCache;
+
+    protected volatile boolean metaDataCacheLoaded = false;
+
     protected static final List<BasicRecordType> fieldCustomizationTypes = Collections.unmodifiableList(
             Arrays.asList(BasicRecordType.CRM_CUSTOM_FIELD, BasicRecordType.ENTITY_CUSTOM_FIELD, BasicRecordType.ITEM_CUSTOM_FIELD,
                     BasicRecordType.OTHER_CUSTOM_FIELD, BasicRecordType.TRANSACTION_BODY_CUSTOM_FIELD, BasicRecordType.TRANSACTION_COLUMN_CUSTOM_FIELD));
@@ -69,14 +86,34 @@ public class DefaultCustomMetaDataSource<PortT> implements CustomMetaDataSource
         this.customMetaDataRetriever = customMetaDataRetriever;
     }
 
+    public CustomMetaDataCache getMetaDataCache() {
+        return metaDataCache;
+    }
+
+    /**
+     * Set local file cache of custom meta data.
+     *
+     * <p>If the cache is not set, it is created from system properties when custom meta data is requested
+     * for the first time.
+     *
+     * @param metaDataCache cache
+     */
+    public void setMetaDataCache(CustomMetaDataCache metaDataCache) {
+        this.metaDataCache = metaDataCache;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public Collection<RecordTypeInfo> getCustomRecordTypes() {
+        if (customRecordTypesLoaded) {
+            return new ArrayList<>(customRecordTypeMap.values());
+        }
         return clientService.executeWithLock(new Function<Void, Collection<RecordTypeInfo>>() {
 
             @Override public Collection<RecordTypeInfo> apply(Void param) {
+                loadMetaDataCache();
                 retrieveCustomRecordTypes();
                 return new ArrayList(customRecordTypeMap.values());
             }
@@ -88,6 +125,10 @@ public class DefaultCustomMetaDataSource<PortT> implements CustomMetaDataSource
      */
     @Override
     public Map<String, CustomFieldDesc> getCustomFields(RecordTypeInfo recordTypeInfo) {
+        Map<String, CustomFieldDesc> fieldDescMap = getCachedCustomFields(recordTypeInfo);
+        if (fieldDescMap != null) {
+            return fieldDescMap;
+        }
         return clientService.executeWithLock(new Function<RecordTypeInfo, Map<String, CustomFieldDesc>>() {
             @Override public Map<String, CustomFieldDesc> apply(RecordTypeInfo recordTypeInfo) {
                 return getCustomFieldsImpl(recordTypeInfo);
@@ -100,14 +141,32 @@ public class DefaultCustomMetaDataSource<PortT> implements CustomMetaDataSource
      */
     @Override
     public RecordTypeInfo getCustomRecordType(String typeName) {
+        if (customRecordTypesLoaded) {
+            return typeName != null ? customRecordTypeMap.get(typeName) : null;
+        }
         return clientService.executeWithLock(new Function<String, RecordTypeInfo>() {
             @Override public RecordTypeInfo apply(String typeName) {
+                loadMetaDataCache();
                 retrieveCustomRecordTypes();
-                return customRecordTypeMap.get(typeName);
+                return typeName != null ? customRecordTypeMap.get(typeName) : null;
             }
         }, typeName);
     }
 
+    /**
+     * Get custom field descriptors for a given record type if they were already retrieved.
+     *
+     * @param recordTypeInfo record type info
+     * @return custom field descriptors as map or {@code null}
+     */
+    protected Map<String, CustomFieldDesc> getCachedCustomFields(RecordTypeInfo recordTypeInfo) {
+        if (recordTypeInfo instanceof CustomRecordTypeInfo) {
+            return customRecordCustomFieldMap.get(recordTypeInfo.getName());
+        } else {
+            return recordCustomFieldMap.get(recordTypeInfo.getRecordType().getType());
+        }
+    }
+
     /**
      * Get custom field descriptors for a given record type.
      *
@@ -116,6 +175,8 @@ public class DefaultCustomMetaDataSource<PortT> implements CustomMetaDataSource
      * @throws NetSuiteException if an error occurs during obtaining of customization data
      */
     protected Map<String, CustomFieldDesc> getCustomFieldsImpl(RecordTypeInfo recordTypeInfo) throws NetSuiteException {
+        loadMetaDataCache();
+
         RecordTypeDesc recordType = recordTypeInfo.getRecordType();
         Map<String, CustomFieldDesc> fieldDescMap;
         if (recordTypeInfo instanceof CustomRecordTypeInfo) {
@@ -202,6 +263,19 @@ public class DefaultCustomMetaDataSource<PortT> implements CustomMetaDataSource
         List<NsRef> customTransactionTypes = customMetaDataRetriever.retrieveCustomizationIds(BasicRecordType.CUSTOM_TRANSACTION_TYPE);
         customTypes.addAll(customTransactionTypes);
 
+        registerCustomTypes(customTypes);
+
+        customRecordTypesLoaded = true;
+
+        saveMetaDataCache();
+    }
+
+    /**
+     * Create and register custom record type infos for given customization refs.
+     *
+     * @param customTypes customization refs of custom record and custom transaction types
+     */
+    protected void registerCustomTypes(List<NsRef> customTypes) {
         for (NsRef customizationRef : customTypes) {
             String recordType = customizationRef.getType();
             RecordTypeDesc recordTypeDesc = null;
@@ -216,8 +290,7 @@ public class DefaultCustomMetaDataSource<PortT> implements CustomMetaDataSource
                     : new CustomTransactionTypeInfo(customizationRef.getScriptId(), recordTypeDesc);
             customRecordTypeMap.put(customTypeInfo.getName(), customTypeInfo);
         }
-
-        customRecordTypesLoaded = true;
+        customTypeRefs.addAll(customTypes);
     }
 
     /**
@@ -239,6 +312,8 @@ public class DefaultCustomMetaDataSource<PortT> implements CustomMetaDataSource
         }
 
         recordCustomFieldMap.put(recordType.getType(), fieldDescMap);
+
+        saveMetaDataCache();
     }
 
     /**
@@ -279,7 +354,68 @@ public class DefaultCustomMetaDataSource<PortT> implements CustomMetaDataSource
         }
         recordCustomFieldMap = customMetaDataRetriever.retrieveCustomRecordCustomFields(
                 recordTypeInfo.getRecordType(), recordTypeInfo.getCustomizationRef());
-        customRecordCustomFieldMap.put(recordTypeInfo.getName(), recordCustomFieldMap);
+        if (recordCustomFieldMap != null) {
+            customRecordCustomFieldMap.put(recordTypeInfo.getName(), recordCustomFieldMap);
+            saveMetaDataCache();
+        }
+    }
+
+    /**
+     * Load custom meta data from local file cache, if the cache is enabled and cached data is not expired.
+     */
+    protected void loadMetaDataCache() throws NetSuiteException {
+        if (metaDataCacheLoaded) {
+            return;
+        }
+        metaDataCacheLoaded = true;
+
+        if (metaDataCache == null) {
+            metaDataCache = CustomMetaDataCache.forClientService(clientService);
+            if (metaDataCache == null) {
+                return;
+            }
+        }
+
+        CustomMetaDataCache.Content content = metaDataCache.load();
+        if (content == null) {
+            return;
+        }
+        if (metaDataCache.isExpired(content)) {
+            // Customization IDs do not tell whether a customization was modified, so expired data is always reloaded
+            logger.info("Cached custom meta data is expired: {}", metaDataCache.getFile());
+            return;
+        }
+
+        metaDataCacheTimestamp = content.getTimestamp();
+        if (content.getCustomTypes() != null) {
+            registerCustomTypes(content.getCustomTypes());
+            customRecordTypesLoaded = true;
+        }
+        recordCustomFieldMap.putAll(content.getRecordCustomFields());
+        customRecordCustomFieldMap.putAll(content.getCustomRecordCustomFields());
+
+        logger.debug("Loaded custom meta data from cache: {}", metaDataCache.getFile());
+    }
+
+    /**
+     * Save currently retrieved custom meta data to local file cache, if the cache is enabled.
+     *
+     * <p>Data loaded from the cache keeps its time of retrieval: saving newly retrieved data
+     * does not make it fresh, so it still expires and is retrieved again.
+     */
+    protected void saveMetaDataCache() {
+        if (metaDataCache == null) {
+            return;
+        }
+        CustomMetaDataCache.Content content = new CustomMetaDataCache.Content();
+        long now = System.currentTimeMillis();
+        content.setTimestamp(metaDataCacheTimestamp > 0 ? Math.min(metaDataCacheTimestamp, now) : now);
+        if (customRecordTypesLoaded) {
+            content.setCustomTypes(new ArrayList<>(customTypeRefs));
+        }
+        content.getRecordCustomFields().putAll(recordCustomFieldMap);
+        content.getCustomRecordCustomFields().putAll(customRecordCustomFieldMap);
+        metaDataCache.save(content);
     }
 
     public interface CustomMetaDataRetriever {
@@ -15,10 +15,15 @@ package org.talend.components.netsuite.client;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 
 import javax.xml.bind.JAXBException;
@@ -54,6 +59,13 @@ public abstract class NetSuiteClientService<PortT> {
 
     public static final int DEFAULT_SEARCH_PAGE_SIZE = 100;
 
+    public static final int MIN_SEARCH_PAGE_SIZE = 5;
+
+    public static final int MAX_SEARCH_PAGE_SIZE = 1000;
+
+    /** Concurrency limit of a NetSuite account without SuiteCloud Plus license. */
+    public static final int DEFAULT_CONCURRENCY_LIMIT = 5;
+
     /** Base Interval between retries. */
     public static final int FIXED_RETRY_INTERVAL = 2;
 
@@ -70,9 +82,18 @@ public abstract class NetSuiteClientService<PortT> {
 
     protected NsPreferences preferences;
 
-    /** Used for synchronization of access to NetSuite port. */
+    /** Used for synchronization of logging in and of retrieval of meta data. */
     protected ReentrantLock lock = new ReentrantLock();
 
+    /** Limits number of operations executed at the same time to concurrency limit of the account. */
+    private volatile Semaphore permits = new Semaphore(DEFAULT_CONCURRENCY_LIMIT, true);
+
+    /** Number of operations which waited for a free permit. */
+    private final AtomicLong lockWaitCount = new AtomicLong();
+
+    /** Total time operations waited for a free permit, in milliseconds. */
+    private final AtomicLong lockWaitTime = new AtomicLong();
+
     /** Specifies whether logging of SOAP messages is enabled. Intended for test/debug purposes. */
     protected boolean messageLoggingEnabled = false;
 
@@ -91,6 +112,9 @@ public abstract class NetSuiteClientService<PortT> {
     /** Size of search result page. */
     protected int searchPageSize = DEFAULT_SEARCH_PAGE_SIZE;
 
+    /** Maximum number of requests the NetSuite account accepts at the same time. */
+    protected int concurrencyLimit = DEFAULT_CONCURRENCY_LIMIT;
+
     /** Specifies whether to return record body fields only. */
     protected boolean bodyFieldsOnly = true;
 
@@ -107,10 +131,16 @@ public abstract class NetSuiteClientService<PortT> {
     protected boolean useRequestLevelCredentials = false;
 
     /** Flag indicating whether the client is logged in. */
-    protected boolean loggedIn = false;
+    protected volatile boolean loggedIn = false;
+
+    /** NetSuite Web Service port implementor of the first session logged in. */
+    protected volatile PortT port;
+
+    /** Ports of all sessions logged in by the client. */
+    protected final List<PortT> ports = new CopyOnWriteArrayList<>();
 
-    /** NetSuite Web Service port implementor. */
-    protected PortT port;
+    /** Ports of sessions which are logged in and not used by an operation. */
+    protected final Deque<PortT> idlePorts = new ConcurrentLinkedDeque<>();
 
     protected PortAdapter<PortT> portAdapter;
 
@@ -155,8 +185,55 @@ public abstract class NetSuiteClientService<PortT> {
         return searchPageSize;
     }
 
+    /**
+     * Set size of search result page.
+     *
+     * <p>The size is bounded to the range accepted by NetSuite. If the client is logged in
+     * then search preferences are updated.
+     *
+     * @param searchPageSize number of records per page
+     */
     public void setSearchPageSize(int searchPageSize) {
-        this.searchPageSize = searchPageSize;
+        this.searchPageSize = Math.max(MIN_SEARCH_PAGE_SIZE, Math.min(searchPageSize, MAX_SEARCH_PAGE_SIZE));
+        if (searchPreferences != null) {
+            searchPreferences.setPageSize(this.searchPageSize);
+            setSearchPreferencesHeader();
+        }
+    }
+
+    public int getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    /**
+     * Set maximum number of requests the NetSuite account accepts at the same time.
+     *
+     * <p>The client executes at most this number of operations at the same time, each one
+     * in its own session.
+     *
+     * @param concurrencyLimit concurrency limit of the account
+     */
+    public void setConcurrencyLimit(int concurrencyLimit) {
+        this.concurrencyLimit = Math.max(1, concurrencyLimit);
+        permits = new Semaphore(this.concurrencyLimit, true);
+    }
+
+    /**
+     * Get number of operations which had to wait for another operation to complete.
+     *
+     * @return number of operations
+     */
+    public long getLockWaitCount() {
+        return lockWaitCount.get();
+    }
+
+    /**
+     * Get total time operations waited for other operations to complete.
+     *
+     * @return wait time, in milliseconds
+     */
+    public long getLockWaitTime() {
+        return lockWaitTime.get();
     }
 
     public boolean isBodyFieldsOnly() {
@@ -166,12 +243,21 @@ public abstract class NetSuiteClientService<PortT> {
     public void setBodyFieldsOnly(boolean bodyFieldsOnly) {
         this.bodyFieldsOnly = bodyFieldsOnly;
         searchPreferences.setBodyFieldsOnly(bodyFieldsOnly);
+        setSearchPreferencesHeader();
+    }
+
+    /**
+     * Set search preferences SOAP header from current search preferences for all sessions.
+     */
+    private void setSearchPreferencesHeader() {
         Object searchPreferencesObject = createNativeSearchPreferences(searchPreferences);
         try {
             Header searchPreferencesHeader = new Header(
                     new QName(getPlatformMessageNamespaceUri(), "searchPreferences"),
                     searchPreferencesObject, new JAXBDataBinding(searchPreferencesObject.getClass()));
-            setHeader(port, searchPreferencesHeader);
+            for (PortT sessionPort : ports) {
+                setHeader(sessionPort, searchPreferencesHeader);
+            }
         } catch (JAXBException e) {
             throw new NetSuiteException(new NetSuiteErrorCode(NetSuiteErrorCode.INTERNAL_ERROR),
                     NetSuiteRuntimeI18n.MESSAGES.getMessage("error.binding"), e);
@@ -213,12 +299,33 @@ public abstract class NetSuiteClientService<PortT> {
     /**
      * Log in to NetSuite.
      *
+     * <p>If the client is already logged in then sessions which are not used by operations
+     * are re-logged in. Sessions used by running operations are left to these operations,
+     * they re-log in a session themselves when it becomes invalid.
+     *
      * @throws NetSuiteException if an error occurs during logging in
      */
     public void login() throws NetSuiteException {
         lock.lock();
         try {
-            relogin();
+            if (!loggedIn) {
+                loginIfRequired();
+                return;
+            }
+            List<PortT> sessionPorts = new ArrayList<>();
+            PortT sessionPort;
+            while ((sessionPort = idlePorts.pollFirst()) != null) {
+                sessionPorts.add(sessionPort);
+            }
+            try {
+                for (int i = 0; i < sessionPorts.size(); i++) {
+                    sessionPorts.set(i, relogin(sessionPorts.get(i)));
+                }
+            } finally {
+                for (PortT idlePort : sessionPorts) {
+                    releasePort(idlePort);
+                }
+            }
         } finally {
             lock.unlock();
         }
@@ -270,6 +377,10 @@ public abstract class NetSuiteClientService<PortT> {
     /**
      * Retrieve search results page by index.
      *
+     * <p>The page is retrieved from the last search of the session the operation is executed in,
+     * so it should be used only if the client is not used by several threads at the same time.
+     * Otherwise {@link #searchMoreWithId(String, int)} should be used.
+     *
      * @param pageIndex page index
      * @param <RecT> type of record data object
      * @return search result wrapper object
@@ -311,6 +422,10 @@ public abstract class NetSuiteClientService<PortT> {
     /**
      * Retrieve next search results page.
      *
+     * <p>The page is retrieved from the last search of the session the operation is executed in,
+     * so it should be used only if the client is not used by several threads at the same time.
+     * Otherwise {@link #searchMoreWithId(String, int)} should be used.
+     *
      * @param <RecT> type of record data object
      * @return search result wrapper object
      * @throws NetSuiteException if an error occurs during performing of operation
@@ -578,18 +693,55 @@ public abstract class NetSuiteClientService<PortT> {
     /**
      * Execute an operation that use NetSuite web service port.
      *
+     * <p>Operations are executed at the same time up to the concurrency limit of the account,
+     * further operations wait for a running one to complete.
+     *
      * @param op operation to be executed
      * @param <R> type of operation result
      * @return result of operation
      * @throws NetSuiteException if an error occurs during performing of operation
      */
     public <R> R execute(PortOperation<R, PortT> op) throws NetSuiteException {
-        return useRequestLevelCredentials ? executeUsingRequestLevelCredentials(op) : executeUsingLogin(op);
+        Semaphore permits = acquirePermit();
+        try {
+            return useRequestLevelCredentials ? executeUsingRequestLevelCredentials(op) : executeUsingLogin(op);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Wait for a permit to execute an operation.
+     *
+     * @return semaphore the permit was acquired from and which it should be released to
+     * @throws NetSuiteException if the thread is interrupted while waiting
+     */
+    private Semaphore acquirePermit() throws NetSuiteException {
+        Semaphore permits = this.permits;
+        if (permits.tryAcquire()) {
+            return permits;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NetSuiteException(e.getMessage(), e);
+        }
+        long waited = System.currentTimeMillis() - start;
+        lockWaitCount.incrementAndGet();
+        lockWaitTime.addAndGet(waited);
+        logger.debug("Operation waited {}ms for a free session. Total wait time: {}ms for {} operations.", waited,
+                lockWaitTime.get(), lockWaitCount.get());
+        return permits;
     }
 
     /**
      * Execute an operation within client lock.
      *
+     * <p>The lock does not block execution of operations, it is intended for serializing
+     * of retrieval of data which is cached by the client.
+     *
      * @param func operation to be executed
      * @param param parameter object
      * @param <T> type of parameter
@@ -646,15 +798,22 @@ public abstract class NetSuiteClientService<PortT> {
      * @throws NetSuiteException if an error occurs during performing of operation
      */
     protected <R> R executeUsingLogin(PortOperation<R, PortT> op) throws NetSuiteException {
-        lock.lock();
-        try {
-            // Log in if required
-            login(false);
+        // Log in if required
+        if (!loggedIn) {
+            lock.lock();
+            try {
+                loginIfRequired();
+            } finally {
+                lock.unlock();
+            }
+        }
 
+        PortT sessionPort = takePort();
+        try {
             R result = null;
             for (int i = 0; i < getRetryCount(); i++) {
                 try {
-                    result = op.execute(port);
+                    result = op.execute(sessionPort);
                     break;
                 } catch (Exception e) {
                     if (errorCanBeWorkedAround(e)) {
@@ -662,7 +821,7 @@ public abstract class NetSuiteClientService<PortT> {
                         waitForRetryInterval(i);
                         if (errorRequiresNewLogin(e) || i >= getRetriesBeforeLogin() - 1) {
                             logger.debug("Re-logging in ({})", (i + 1));
-                            relogin();
+                            sessionPort = relogin(sessionPort);
                         }
                         continue;
                     } else {
@@ -673,7 +832,78 @@ public abstract class NetSuiteClientService<PortT> {
             return result;
 
         } finally {
-            lock.unlock();
+            releasePort(sessionPort);
+        }
+    }
+
+    /**
+     * Take a logged-in session which is not used by another operation,
+     * log in a new session if there is no such session.
+     *
+     * @return port of the session
+     * @throws NetSuiteException if an error occurs during logging in
+     */
+    private PortT takePort() throws NetSuiteException {
+        PortT sessionPort = idlePorts.pollFirst();
+        if (sessionPort == null) {
+            logger.debug("Logging in new session, {} session(s) logged in", ports.size());
+            sessionPort = loginSession();
+        }
+        return sessionPort;
+    }
+
+    /**
+     * Give back a session taken by {@link #takePort()}.
+     *
+     * @param sessionPort port of the session
+     */
+    private void releasePort(PortT sessionPort) {
+        // Sessions logged out in the meantime are dropped
+        if (ports.contains(sessionPort)) {
+            idlePorts.offerFirst(sessionPort);
+        }
+    }
+
+    /**
+     * Log in a new session and register it in the client.
+     *
+     * @return port of the session
+     * @throws NetSuiteException if an error occurs during logging in
+     */
+    private PortT loginSession() throws NetSuiteException {
+        PortT sessionPort = doLogin();
+        setPreferences(sessionPort, preferences, searchPreferences);
+        ports.add(sessionPort);
+        return sessionPort;
+    }
+
+    /**
+     * Forcibly re-log in a session.
+     *
+     * @param sessionPort port of the session
+     * @return port of the new session
+     * @throws NetSuiteException if an error occurs during logging in
+     */
+    private PortT relogin(PortT sessionPort) throws NetSuiteException {
+        ports.remove(sessionPort);
+        logout(sessionPort);
+        PortT newPort = loginSession();
+        if (port == sessionPort) {
+            port = newPort;
+        }
+        return newPort;
+    }
+
+    /**
+     * Log out a session, errors are ignored.
+     *
+     * @param sessionPort port of the session
+     */
+    private void logout(PortT sessionPort) {
+        try {
+            doLogout(sessionPort);
+        } catch (Exception e) {
+            logger.debug("Failed to log out session: {}", e.getMessage());
         }
     }
 
@@ -686,27 +916,24 @@ public abstract class NetSuiteClientService<PortT> {
      * @throws NetSuiteException if an error occurs during performing of operation
      */
     private <R> R executeUsingRequestLevelCredentials(PortOperation<R, PortT> op) throws NetSuiteException {
-        lock.lock();
-        try {
-            R result = null;
-            for (int i = 0; i < getRetryCount(); i++) {
-                try {
-                    result = op.execute(port);
-                    break;
-                } catch (Exception e) {
-                    if (errorCanBeWorkedAround(e)) {
-                        logger.debug("Attempting workaround, retrying ({})", (i + 1));
-                        waitForRetryInterval(i);
-                        continue;
-                    } else {
-                        throw new NetSuiteException(e.getMessage(), e);
-                    }
+        // Each request is authenticated by its own passport header,
+        // so the port is shared by all operations.
+        R result = null;
+        for (int i = 0; i < getRetryCount(); i++) {
+            try {
+                result = op.execute(port);
+                break;
+            } catch (Exception e) {
+                if (errorCanBeWorkedAround(e)) {
+                    logger.debug("Attempting workaround, retrying ({})", (i + 1));
+                    waitForRetryInterval(i);
+                    continue;
+                } else {
+                    throw new NetSuiteException(e.getMessage(), e);
                 }
             }
-            return result;
-        } finally {
-            lock.unlock();
         }
+        return result;
     }
 
     /**
@@ -768,36 +995,21 @@ public abstract class NetSuiteClientService<PortT> {
     }
 
     /**
-     * Forcibly re-log in the client.
+     * Log in the client if it is not logged in yet.
      *
-     * @throws NetSuiteException if an error occurs during performing of operation
-     */
-    private void relogin() throws NetSuiteException {
-        login(true);
-    }
-
-    /**
-     * Log in the client.
+     * <p>A single session is logged in, further sessions are logged in on demand
+     * when operations are executed at the same time. Sessions are never re-logged in here,
+     * a session used by an operation is re-logged in by that operation only, see {@link #relogin(Object)}.
+     * Must be called within client lock.
      *
-     * @param relogin specifies whether the client should be forcibly re-logged in
      * @throws NetSuiteException if an error occurs during performing of operation
      */
-    private void login(boolean relogin) throws NetSuiteException {
-        if (relogin) {
-            loggedIn = false;
-        }
+    private void loginIfRequired() throws NetSuiteException {
         if (loggedIn) {
             return;
         }
 
-        if (port != null) {
-            try {
-                doLogout();
-            } catch (Exception e) {
-            }
-        }
-
-        doLogin();
+        PortT port = doLogin();
 
         NsSearchPreferences searchPreferences = new NsSearchPreferences();
         searchPreferences.setPageSize(searchPageSize);
@@ -813,22 +1025,28 @@ public abstract class NetSuiteClientService<PortT> {
 
         setPreferences(port, preferences, searchPreferences);
 
+        this.port = port;
+        ports.add(port);
+        idlePorts.offerFirst(port);
+
         loggedIn = true;
     }
 
     /**
-     * Perform 'log out' operation.
+     * Perform 'log out' operation for a session.
      *
+     * @param port port of the session
      * @throws NetSuiteException if an error occurs during performing of operation
      */
-    protected abstract void doLogout() throws NetSuiteException;
+    protected abstract void doLogout(PortT port) throws NetSuiteException;
 
     /**
-     * Perform 'log in' operation.
+     * Perform 'log in' operation for a new session.
      *
+     * @return port of the logged-in session
      * @throws NetSuiteException if an error occurs during performing of operation
      */
-    protected abstract void doLogin() throws NetSuiteException;
+    protected abstract PortT doLogin() throws NetSuiteException;
 
     public long getConnectionTimeout() {
         return connectionTimeout;
@@ -33,4 +33,13 @@ public abstract class ResultSet<T> {
      * @throws NetSuiteException if an error occurs during retrieving of results
      */
     public abstract T get() throws NetSuiteException;
+
+    /**
+     * Release resources held by this result set. Results can not be retrieved after closing.
+     *
+     * @throws NetSuiteException if an error occurs during closing
+     */
+    public void close() throws NetSuiteException {
+        // Nothing to release by default
+    }
 }
@@ -19,6 +19,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /**
  * Descriptor of a bean.
@@ -28,6 +30,9 @@ import java.util.Map;
  */
 public class BeanInfo {
 
+    /** Class of bean, {@code null} if not known. */
+    private Class<?> beanClass;
+
     /** Properties of bean. */
     private List<PropertyInfo> properties;
 
@@ -39,6 +44,11 @@ public class BeanInfo {
     }
 
     public BeanInfo(List<PropertyInfo> properties) {
+        this(null, properties);
+    }
+
+    public BeanInfo(Class<?> beanClass, List<PropertyInfo> properties) {
+        this.beanClass = beanClass;
         this.properties = new ArrayList<>(properties);
         propertyMap = new HashMap<>(properties.size());
         for (PropertyInfo pmd : properties) {
@@ -46,6 +56,10 @@ public class BeanInfo {
         }
     }
 
+    public Class<?> getBeanClass() {
+        return beanClass;
+    }
+
     public List<PropertyInfo> getProperties() {
         return Collections.unmodifiableList(properties);
     }
@@ -58,6 +72,40 @@ public class BeanInfo {
         return propertyMap.get(name);
     }
 
+    /**
+     * Get compiled read accessor for given property of the bean.
+     *
+     * <p>Accessors are compiled on first use and cached in property descriptor.
+     *
+     * @param property property descriptor
+     * @return read accessor or {@code null} if the property has no getter or bean class is not known
+     */
+    public Function<Object, Object> getReader(PropertyInfo property) {
+        Function<Object, Object> reader = property.getReader();
+        if (reader == null && beanClass != null) {
+            reader = PropertyAccessors.createReader(beanClass, property);
+            property.setReader(reader);
+        }
+        return reader;
+    }
+
+    /**
+     * Get compiled write accessor for given property of the bean.
+     *
+     * <p>Accessors are compiled on first use and cached in property descriptor.
+     *
+     * @param property property descriptor
+     * @return write accessor or {@code null} if the property has no setter or bean class is not known
+     */
+    public BiConsumer<Object, Object> getWriter(PropertyInfo property) {
+        BiConsumer<Object, Object> writer = property.getWriter();
+        if (writer == null && beanClass != null) {
+            writer = PropertyAccessors.createWriter(beanClass, property);
+            property.setWriter(writer);
+        }
+        return writer;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("BeanInfo{");
@@ -18,6 +18,8 @@ import java.lang.reflect.Method;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import org.apache.commons.beanutils.MethodUtils;
 import org.apache.commons.beanutils.expression.DefaultResolver;
@@ -71,7 +73,7 @@ public abstract class Beans {
     private static BeanInfo loadBeanInfoForClass(Class<?> clazz) {
         try {
             List<PropertyInfo> properties = BeanIntrospector.getInstance().getProperties(clazz.getName());
-            return new BeanInfo(properties);
+            return new BeanInfo(clazz, properties);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -169,7 +171,7 @@ public abstract class Beans {
         if (target instanceof PropertyAccess) {
             return ((PropertyAccess) target).getPropertyAccessor();
         } else {
-            return (PropertyAccessor<T>) ReflectPropertyAccessor.INSTANCE;
+            return (PropertyAccessor<T>) CompiledPropertyAccessor.INSTANCE;
         }
     }
 
@@ -251,6 +253,49 @@ public abstract class Beans {
         return value.substring(0, 1).toLowerCase() + value.substring(1);
     }
 
+    /**
+     * Property accessor which uses accessors compiled once per bean class to access properties.
+     *
+     * @see BeanInfo#getReader(PropertyInfo)
+     * @see BeanInfo#getWriter(PropertyInfo)
+     */
+    protected static class CompiledPropertyAccessor implements PropertyAccessor<Object> {
+        protected static final CompiledPropertyAccessor INSTANCE = new CompiledPropertyAccessor();
+
+        public Object get(Object target, String name) {
+            BeanInfo metaData = Beans.getBeanInfo(target.getClass());
+            Function<Object, Object> reader = metaData.getReader(getDescriptor(metaData, target, name));
+            if (reader == null) {
+                throw new IllegalArgumentException("Property '" + name +
+                        "' has no getter method in class '" + target.getClass() + "'");
+            }
+            return reader.apply(target);
+        }
+
+        public void set(Object target, String name, Object value) {
+            BeanInfo metaData = Beans.getBeanInfo(target.getClass());
+            BiConsumer<Object, Object> writer = metaData.getWriter(getDescriptor(metaData, target, name));
+            if (writer == null) {
+                throw new IllegalArgumentException("Property '" + name +
+                        "' has no setter method in class '" + target.getClass() + "'");
+            }
+            writer.accept(target, value);
+        }
+
+        private PropertyInfo getDescriptor(BeanInfo metaData, Object target, String name) {
+            if (name == null) {
+                throw new IllegalArgumentException("No name specified for bean class '" +
+                        target.getClass() + "'");
+            }
+            PropertyInfo descriptor = metaData.getProperty(name);
+            if (descriptor == null) {
+                throw new IllegalArgumentException("Unknown property '" +
+                        name + "' on class '" + target.getClass() + "'");
+            }
+            return descriptor;
+        }
+    }
+
     /**
      * Property accessor which uses reflection to access properties.
      */
@@ -0,0 +1,179 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.netsuite.client.model.beans;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.apache.commons.beanutils.MethodUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates compiled accessors of bean properties.
+ *
+ * <p>An accessor is a functional interface generated by {@link LambdaMetafactory} which calls the getter or setter
+ * directly. If the bean class is not visible from class loader of this class the accessor falls back to
+ * invocation of a {@link MethodHandle}.
+ */
+final class PropertyAccessors {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PropertyAccessors.class);
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final Class[] EMPTY_CLASS_PARAMETERS = new Class[0];
+
+    private static final MethodType READER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType WRITER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /** Whether a class can be linked from classes generated by {@link LambdaMetafactory}. */
+    private static final ClassValue<Boolean> LINKABLE = new ClassValue<Boolean>() {
+
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            if (type.isPrimitive()) {
+                return true;
+            }
+            try {
+                return Class.forName(type.getName(), false, PropertyAccessors.class.getClassLoader()) == type;
+            } catch (ClassNotFoundException | LinkageError e) {
+                return false;
+            }
+        }
+    };
+
+    private PropertyAccessors() {
+    }
+
+    /**
+     * Create read accessor for given property.
+     *
+     * @param beanClass class of bean
+     * @param descriptor property descriptor
+     * @return read accessor or {@code null} if the property has no accessible getter
+     */
+    static Function<Object, Object> createReader(Class<?> beanClass, PropertyInfo descriptor) {
+        if (descriptor.getReadMethodName() == null) {
+            return null;
+        }
+        Method readMethod = MethodUtils.getAccessibleMethod(beanClass, descriptor.getReadMethodName(),
+                EMPTY_CLASS_PARAMETERS);
+        if (readMethod == null) {
+            return null;
+        }
+        MethodHandle handle = unreflect(readMethod);
+        if (LINKABLE.get(readMethod.getDeclaringClass()) && LINKABLE.get(readMethod.getReturnType())) {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply",
+                        MethodType.methodType(Function.class), READER_TYPE, handle, handle.type().wrap());
+                return (Function<Object, Object>) site.getTarget().invoke();
+            } catch (Throwable e) {
+                LOG.debug("Failed to compile getter {}: {}", readMethod, e.toString());
+            }
+        }
+        return new HandleReader(handle.asType(READER_TYPE));
+    }
+
+    /**
+     * Create write accessor for given property.
+     *
+     * @param beanClass class of bean
+     * @param descriptor property descriptor
+     * @return write accessor or {@code null} if the property has no accessible setter
+     */
+    static BiConsumer<Object, Object> createWriter(Class<?> beanClass, PropertyInfo descriptor) {
+        if (descriptor.getWriteMethodName() == null) {
+            return null;
+        }
+        Method writeMethod = MethodUtils.getAccessibleMethod(beanClass, descriptor.getWriteMethodName(),
+                new Class[] { descriptor.getWriteType() });
+        if (writeMethod == null) {
+            return null;
+        }
+        MethodHandle handle = unreflect(writeMethod);
+        if (LINKABLE.get(writeMethod.getDeclaringClass()) && LINKABLE.get(descriptor.getWriteType())) {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept",
+                        MethodType.methodType(BiConsumer.class), WRITER_TYPE, handle,
+                        handle.type().wrap().changeReturnType(void.class));
+                return (BiConsumer<Object, Object>) site.getTarget().invoke();
+            } catch (Throwable e) {
+                LOG.debug("Failed to compile setter {}: {}", writeMethod, e.toString());
+            }
+        }
+        return new HandleWriter(handle.asType(WRITER_TYPE));
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        try {
+            return LOOKUP.unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Cannot access " + method.getDeclaringClass().getName() + "."
+                    + method.getName(), e);
+        }
+    }
+
+    /**
+     * Read accessor which invokes a method handle of type {@code (Object)Object}.
+     */
+    private static class HandleReader implements Function<Object, Object> {
+
+        private final MethodHandle handle;
+
+        HandleReader(MethodHandle handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        public Object apply(Object target) {
+            try {
+                return handle.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * Write accessor which invokes a method handle of type {@code (Object,Object)void}.
+     */
+    private static class HandleWriter implements BiConsumer<Object, Object> {
+
+        private final MethodHandle handle;
+
+        HandleWriter(MethodHandle handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        public void accept(Object target, Object value) {
+            try {
+                handle.invokeExact(target, value);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
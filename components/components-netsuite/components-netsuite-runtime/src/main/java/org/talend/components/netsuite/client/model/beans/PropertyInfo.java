@@ -14,6 +14,8 @@
 package org.talend.components.netsuite.client.model.beans;
 
 import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /**
  * Descriptor of bean's property.
@@ -28,6 +30,12 @@ public class PropertyInfo {
     private String readMethodName;
     private String writeMethodName;
 
+    /** Compiled read accessor, created on first read of the property. */
+    private volatile Function<Object, Object> reader;
+
+    /** Compiled write accessor, created on first write of the property. */
+    private volatile BiConsumer<Object, Object> writer;
+
     public PropertyInfo(String name, Class<?> readType, Class<?> writeType,
             Method readMethod, Method writeMethod) {
         this(name, readType, writeType,
@@ -64,6 +72,22 @@ public class PropertyInfo {
         return writeMethodName;
     }
 
+    Function<Object, Object> getReader() {
+        return reader;
+    }
+
+    void setReader(Function<Object, Object> reader) {
+        this.reader = reader;
+    }
+
+    BiConsumer<Object, Object> getWriter() {
+        return writer;
+    }
+
+    void setWriter(BiConsumer<Object, Object> writer) {
+        this.writer = writer;
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("PropertyInfo{");
@@ -78,6 +78,9 @@ public class SearchQuery<SearchT, RecT> {
 
     private String savedSearchId;
 
+    /** Maximum number of result pages retrieved at the same time. */
+    private int pageConcurrency = 1;
+
     /** List of custom search fields. */
     private List<Object> customFieldList = new ArrayList<>();
 
@@ -112,6 +115,17 @@ public class SearchQuery<SearchT, RecT> {
         return this;
     }
 
+    /**
+     * Set maximum number of result pages retrieved at the same time.
+     *
+     * @param pageConcurrency number of pages, {@code 1} to retrieve pages one by one
+     * @return this search query object
+     */
+    public SearchQuery pageConcurrency(int pageConcurrency) {
+        this.pageConcurrency = pageConcurrency;
+        return this;
+    }
+
     public RecordTypeInfo getRecordTypeInfo() {
         initSearch();
         return recordTypeInfo;
@@ -329,6 +343,7 @@ public class SearchQuery<SearchT, RecT> {
         }
         SearchResultSet<RecT> resultSet = new SearchResultSet<>(clientService,
                 recordTypeInfo.getRecordType(), searchRecordTypeDesc, result);
+        resultSet.setConcurrency(pageConcurrency);
         return resultSet;
     }
 
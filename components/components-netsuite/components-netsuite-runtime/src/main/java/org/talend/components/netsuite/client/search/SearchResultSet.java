@@ -13,10 +13,19 @@
 
 package org.talend.components.netsuite.client.search;
 
+import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.talend.components.netsuite.client.NetSuiteClientService;
 import org.talend.components.netsuite.client.NetSuiteException;
@@ -29,6 +38,10 @@ import org.talend.components.netsuite.client.model.SearchRecordTypeDesc;
 /**
  * Result set for search results.
  *
+ * <p>Pages following the first one are retrieved with {@link NetSuiteClientService#searchMoreWithId(String, int)}.
+ * When concurrency is greater than {@code 1}, up to that number of pages are retrieved in background while
+ * records of the current page are consumed. Records are always returned in page order.
+ *
  * @see SearchQuery#search()
  * @see NetSuiteClientService#search(Object)
  */
@@ -58,6 +71,18 @@ public class SearchResultSet<R> extends ResultSet<R> {
     /** Last retrieved record. */
     private R current;
 
+    /** Maximum number of pages retrieved at the same time. */
+    private int concurrency = 1;
+
+    /** Executes retrieval of pages in background. */
+    private ExecutorService executor;
+
+    /** Pages being retrieved in background, in page order. */
+    private Deque<Future<NsSearchResult<R>>> pendingPages;
+
+    /** Index of next page to be submitted for retrieval. */
+    private int nextPageIndex;
+
     public SearchResultSet(NetSuiteClientService<?> clientService,
             RecordTypeDesc recordTypeDesc,
             SearchRecordTypeDesc searchRecordTypeDesc,
@@ -89,6 +114,21 @@ public class SearchResultSet<R> extends ResultSet<R> {
         return searchId;
     }
 
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Set maximum number of pages retrieved at the same time.
+     *
+     * <p>The value is capped by concurrency limit of NetSuite client.
+     *
+     * @param concurrency number of pages, {@code 1} to retrieve pages one by one
+     */
+    public void setConcurrency(int concurrency) {
+        this.concurrency = Math.max(1, Math.min(concurrency, clientService.getConcurrencyLimit()));
+    }
+
     @Override
     public boolean next() throws NetSuiteException {
         if (!recordIterator.hasNext() && hasMore()) {
@@ -107,6 +147,15 @@ public class SearchResultSet<R> extends ResultSet<R> {
         return current;
     }
 
+    @Override
+    public void close() throws NetSuiteException {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+            pendingPages.clear();
+        }
+    }
+
     /**
      * Check whether search has more results that can be retrieved.
      *
@@ -133,8 +182,13 @@ public class SearchResultSet<R> extends ResultSet<R> {
      */
     protected List<R> getMoreRecords() throws NetSuiteException {
         if (searchId != null) {
-            int nextPageIndex = result.getPageIndex().intValue() + 1;
-            NsSearchResult<R> nextPageResult = clientService.searchMoreWithId(searchId, nextPageIndex);
+            NsSearchResult<R> nextPageResult;
+            if (concurrency > 1) {
+                nextPageResult = takeNextPage();
+            } else {
+                int nextPageIndex = result.getPageIndex().intValue() + 1;
+                nextPageResult = clientService.searchMoreWithId(searchId, nextPageIndex);
+            }
             if (!nextPageResult.isSuccess()) {
                 NetSuiteClientService.checkError(nextPageResult.getStatus());
             }
@@ -144,6 +198,58 @@ public class SearchResultSet<R> extends ResultSet<R> {
         return Collections.emptyList();
     }
 
+    /**
+     * Take next page retrieved in background and keep retrieving following pages.
+     *
+     * @return next search result page
+     * @throws NetSuiteException if an error occurs during retrieval
+     */
+    private NsSearchResult<R> takeNextPage() throws NetSuiteException {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(concurrency, new PageThreadFactory());
+            pendingPages = new ArrayDeque<>(concurrency);
+            nextPageIndex = result.getPageIndex().intValue() + 1;
+        }
+        submitPages();
+        Future<NsSearchResult<R>> nextPage = pendingPages.poll();
+        // Keep retrieving while the page is consumed
+        submitPages();
+        try {
+            return nextPage.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new NetSuiteException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            close();
+            if (e.getCause() instanceof NetSuiteException) {
+                throw (NetSuiteException) e.getCause();
+            }
+            throw new NetSuiteException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            if (pendingPages != null && pendingPages.isEmpty() && nextPageIndex > result.getTotalPages().intValue()) {
+                close();
+            }
+        }
+    }
+
+    /**
+     * Submit retrieval of following pages, up to concurrency.
+     */
+    private void submitPages() {
+        int totalPages = result.getTotalPages().intValue();
+        while (pendingPages.size() < concurrency && nextPageIndex <= totalPages) {
+            final int pageIndex = nextPageIndex++;
+            pendingPages.add(executor.submit(new Callable<NsSearchResult<R>>() {
+
+                @Override
+                public NsSearchResult<R> call() throws Exception {
+                    return clientService.searchMoreWithId(searchId, pageIndex);
+                }
+            }));
+        }
+    }
+
     /**
      * Filter list of records before returning to a caller.
      *
@@ -170,4 +276,18 @@ public class SearchResultSet<R> extends ResultSet<R> {
         return processedRecordList;
     }
 
+    /**
+     * Creates daemon threads, so that an unclosed result set does not prevent the JVM from exiting.
+     */
+    private static class PageThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "netsuite-search-page-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
@@ -67,6 +67,9 @@ public class NetSuiteSearchInputReader extends AbstractBoundedReader<IndexedReco
     /** Last indexed record. */
     private IndexedRecord currentIndexedRecord;
 
+    /** Search page size of NetSuite client before start of this reader. */
+    private int originalSearchPageSize;
+
     public NetSuiteSearchInputReader(RuntimeContainer container,
             NetSuiteSource source, NetSuiteInputProperties properties) {
         super(source);
@@ -82,6 +85,10 @@ public class NetSuiteSearchInputReader extends AbstractBoundedReader<IndexedReco
 
             clientService = ((NetSuiteSource) getCurrentSource()).getClientService(container);
             clientService.setBodyFieldsOnly(properties.bodyFieldsOnly.getValue());
+            originalSearchPageSize = clientService.getSearchPageSize();
+            if (properties.searchPageSize.getValue() != null) {
+                clientService.setSearchPageSize(properties.searchPageSize.getValue());
+            }
             // Set up MetaDataSource which retrieves customization meta data from schema.
             // We use MetaDataSource from NetSuite client as base source.
             MetaDataSource originalMetaDataSource = clientService.getMetaDataSource();
@@ -122,10 +129,19 @@ public class NetSuiteSearchInputReader extends AbstractBoundedReader<IndexedReco
 
     @Override
     public void close() throws IOException {
+        try {
+            if (resultSet != null) {
+                resultSet.close();
+            }
+        } catch (NetSuiteException e) {
+            throw new IOException(e);
+        }
         if (!properties.bodyFieldsOnly.getValue()) {
             clientService.setBodyFieldsOnly(true);
         }
-        // Nothing to close
+        if (originalSearchPageSize > 0 && originalSearchPageSize != clientService.getSearchPageSize()) {
+            clientService.setSearchPageSize(originalSearchPageSize);
+        }
     }
 
     @Override
@@ -165,6 +181,9 @@ public class NetSuiteSearchInputReader extends AbstractBoundedReader<IndexedReco
 
         SearchQuery search = clientService.newSearch(metaDataSource);
         search.target(target);
+        if (properties.searchConcurrency.getValue() != null) {
+            search.pageConcurrency(properties.searchConcurrency.getValue());
+        }
 
         // Build search conditions
 
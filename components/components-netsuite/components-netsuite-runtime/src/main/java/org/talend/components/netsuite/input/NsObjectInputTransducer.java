@@ -19,11 +19,9 @@ import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.generic.IndexedRecord;
-import org.talend.components.netsuite.NetSuiteDatasetRuntimeImpl;
 import org.talend.components.netsuite.NsObjectTransducer;
 import org.talend.components.netsuite.SchemaCustomMetaDataSource;
 import org.talend.components.netsuite.client.NetSuiteClientService;
-import org.talend.components.netsuite.client.model.FieldDesc;
 import org.talend.components.netsuite.client.model.TypeDesc;
 import org.talend.daikon.avro.AvroUtils;
 
@@ -66,22 +64,14 @@ public class NsObjectInputTransducer extends NsObjectTransducer {
     public IndexedRecord read(Object data) {
         prepare();
 
-        Map<String, FieldDesc> fieldMap = typeDesc.getFieldMap();
         Map<String, Object> mapView = getMapView(data, runtimeSchema, typeDesc);
 
         GenericRecord indexedRecord = new GenericData.Record(runtimeSchema);
 
-        for (Schema.Field field : runtimeSchema.getFields()) {
-            String nsFieldName = NetSuiteDatasetRuntimeImpl.getNsFieldName(field);
+        for (FieldPlan fieldPlan : getFieldPlans(runtimeSchema, typeDesc)) {
+            Object value = readField(mapView, fieldPlan);
 
-            FieldDesc fieldDesc = fieldMap.get(nsFieldName);
-            if (fieldDesc == null) {
-                continue;
-            }
-
-            Object value = readField(mapView, fieldDesc);
-
-            indexedRecord.put(field.name(), value);
+            indexedRecord.put(fieldPlan.getField().pos(), value);
         }
 
         return indexedRecord;
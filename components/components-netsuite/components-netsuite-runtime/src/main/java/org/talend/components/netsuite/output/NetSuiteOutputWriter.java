@@ -14,8 +14,17 @@
 package org.talend.components.netsuite.output;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
@@ -47,6 +56,12 @@ import org.talend.components.netsuite.client.model.TypeDesc;
  * <li>Delete - {@link NetSuiteDeleteWriter}</li>
  * </ul>
  *
+ * <p>When concurrency is greater than {@code 1}, full batches are written in background and up to that number
+ * of batches are written at the same time, while the next batch is being accumulated and transduced.
+ * Write responses are processed in the order of batches and records, so success and reject flows keep
+ * the order of input records. In this mode feedback of a batch becomes available after a following call
+ * of {@link #write(Object)} or {@link #close()} instead of being forced by the feedback getters.
+ *
  * @param <T> type of NetSuite objects that are passed to {@link NetSuiteClientService}
  * @param <RefT> type of NetSuite reference objects
  */
@@ -74,6 +89,15 @@ public abstract class NetSuiteOutputWriter<T, RefT> implements WriterWithFeedbac
 
     private int batchSize = NetSuiteOutputProperties.DEFAULT_BATCH_SIZE;
 
+    /** Maximum number of batches written at the same time. */
+    private int concurrency = 1;
+
+    /** Executes writing of batches in background. */
+    private ExecutorService executor;
+
+    /** Batches being written in background, in submission order. */
+    private Deque<PendingBatch> pendingBatches;
+
     // Holds accumulated IndexedRecords for a current batch
     private List<IndexedRecord> inputRecordList = new ArrayList<>();
 
@@ -122,6 +146,21 @@ public abstract class NetSuiteOutputWriter<T, RefT> implements WriterWithFeedbac
         this.batchSize = batchSize;
     }
 
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Set maximum number of batches written at the same time.
+     *
+     * <p>The value is capped by concurrency limit of NetSuite client when the writer is opened.
+     *
+     * @param concurrency number of batches, {@code 1} to write batches one by one
+     */
+    public void setConcurrency(int concurrency) {
+        this.concurrency = Math.max(1, concurrency);
+    }
+
     @Override
     public void cleanWrites() {
         writeResponses.clear();
@@ -134,7 +173,9 @@ public abstract class NetSuiteOutputWriter<T, RefT> implements WriterWithFeedbac
         // If successful write feedback is requested before submitting of current batch
         // then write accumulated records to provide feedback to a caller.
         // This is required due to bug in DI job which is not aware of bulk writes.
-        flush();
+        if (concurrency == 1) {
+            flush();
+        }
         return successfulWrites;
     }
 
@@ -143,7 +184,9 @@ public abstract class NetSuiteOutputWriter<T, RefT> implements WriterWithFeedbac
         // If rejected write feedback is requested before submitting of current batch
         // then write accumulated records to provide feedback to a caller.
         // This is required due to bug in DI job which is not aware of bulk writes.
-        flush();
+        if (concurrency == 1) {
+            flush();
+        }
         return rejectedWrites;
     }
 
@@ -151,7 +194,9 @@ public abstract class NetSuiteOutputWriter<T, RefT> implements WriterWithFeedbac
         // If write feedback is requested before submitting of current batch
         // then write accumulated records to provide feedback to a caller.
         // This is required due to bug in DI job which is not aware of bulk writes.
-        flush();
+        if (concurrency == 1) {
+            flush();
+        }
         return writeResponses;
     }
 
@@ -159,6 +204,7 @@ public abstract class NetSuiteOutputWriter<T, RefT> implements WriterWithFeedbac
     public void open(String uId) throws IOException {
         try {
             clientService = writeOperation.getSink().getClientService(container);
+            concurrency = Math.min(concurrency, clientService.getConcurrencyLimit());
 
             // Get descriptor of target NetSuite data model object type.
             String typeName = writeOperation.getProperties().module.moduleName.getValue();
@@ -203,6 +249,12 @@ public abstract class NetSuiteOutputWriter<T, RefT> implements WriterWithFeedbac
      * Flush current batch. If batch is empty the method does nothing.
      */
     private void flush() {
+        if (concurrency > 1) {
+            List<IndexedRecord> indexedRecordList = inputRecordList;
+            inputRecordList = new ArrayList<>();
+            submit(indexedRecordList);
+            return;
+        }
         try {
             write(inputRecordList);
         } finally {
@@ -210,6 +262,81 @@ public abstract class NetSuiteOutputWriter<T, RefT> implements WriterWithFeedbac
         }
     }
 
+    /**
+     * Transduce given list of <code>IndexedRecord</code>s and submit it for writing in background.
+     *
+     * <p>If the number of batches being written reached concurrency, the method waits for the oldest one.
+     * Responses of batches which are already written are processed before return.
+     *
+     * @param indexedRecordList list of records to be processed
+     */
+    private void submit(List<IndexedRecord> indexedRecordList) {
+        if (indexedRecordList.isEmpty()) {
+            return;
+        }
+
+        cleanWrites();
+
+        final List<T> nsObjectList = transduce(indexedRecordList);
+
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(concurrency, new BatchThreadFactory());
+            pendingBatches = new ArrayDeque<>(concurrency);
+        }
+        while (pendingBatches.size() >= concurrency) {
+            processPendingBatch();
+        }
+        Future<List<NsWriteResponse<RefT>>> responses = executor.submit(new Callable<List<NsWriteResponse<RefT>>>() {
+
+            @Override
+            public List<NsWriteResponse<RefT>> call() throws Exception {
+                return doWrite(nsObjectList);
+            }
+        });
+        pendingBatches.add(new PendingBatch(indexedRecordList, responses));
+
+        while (!pendingBatches.isEmpty() && pendingBatches.peek().responses.isDone()) {
+            processPendingBatch();
+        }
+    }
+
+    /**
+     * Wait for the oldest batch being written in background and process its write responses.
+     *
+     * <p>If writing of the batch failed, writing of other batches is cancelled.
+     */
+    private void processPendingBatch() {
+        PendingBatch batch = pendingBatches.poll();
+        try {
+            List<NsWriteResponse<RefT>> responseList = batch.responses.get();
+            processWriteResponses(responseList, batch.indexedRecordList);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            shutdown();
+            throw new NetSuiteException(e.getMessage(), e);
+        } catch (ExecutionException e) {
+            shutdown();
+            if (e.getCause() instanceof NetSuiteException) {
+                throw (NetSuiteException) e.getCause();
+            }
+            throw new NetSuiteException(e.getCause().getMessage(), e.getCause());
+        } catch (RuntimeException e) {
+            shutdown();
+            throw e;
+        }
+    }
+
+    /**
+     * Stop writing of batches in background.
+     */
+    private void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+            pendingBatches.clear();
+        }
+    }
+
     /**
      * Process and write given list of <code>IndexedRecord</code>s.
      *
@@ -222,18 +349,38 @@ public abstract class NetSuiteOutputWriter<T, RefT> implements WriterWithFeedbac
 
         cleanWrites();
 
-        // Transduce IndexedRecords to NetSuite data model objects
+        List<T> nsObjectList = transduce(indexedRecordList);
+
+        // Write NetSuite objects and process write responses
 
+        List<NsWriteResponse<RefT>> responseList = doWrite(nsObjectList);
+
+        processWriteResponses(responseList, indexedRecordList);
+    }
+
+    /**
+     * Transduce <code>IndexedRecord</code>s to NetSuite data model objects.
+     *
+     * @param indexedRecordList list of records to be transduced
+     * @return list of NetSuite objects, the order is the same as in record list
+     */
+    private List<T> transduce(List<IndexedRecord> indexedRecordList) {
         List<T> nsObjectList = new ArrayList<>(indexedRecordList.size());
         for (IndexedRecord indexedRecord : indexedRecordList) {
             Object nsObject = transducer.write(indexedRecord);
             nsObjectList.add((T) nsObject);
         }
+        return nsObjectList;
+    }
 
-        // Write NetSuite objects and process write responses
-
-        List<NsWriteResponse<RefT>> responseList = doWrite(nsObjectList);
-
+    /**
+     * Process write responses of a batch.
+     *
+     * @param responseList write responses, the order is the same as in record list
+     * @param indexedRecordList records which were submitted
+     */
+    private void processWriteResponses(List<NsWriteResponse<RefT>> responseList,
+            List<IndexedRecord> indexedRecordList) {
         for (int i = 0; i < responseList.size(); i++) {
             NsWriteResponse<RefT> response = responseList.get(i);
             IndexedRecord indexedRecord = indexedRecordList.get(i);
@@ -381,6 +528,16 @@ public abstract class NetSuiteOutputWriter<T, RefT> implements WriterWithFeedbac
     public Result close() throws IOException {
         // Write remaining objects
         flush();
+        // Wait for batches being written in background
+        if (executor != null) {
+            try {
+                while (!pendingBatches.isEmpty()) {
+                    processPendingBatch();
+                }
+            } finally {
+                shutdown();
+            }
+        }
         return result;
     }
 
@@ -389,4 +546,36 @@ public abstract class NetSuiteOutputWriter<T, RefT> implements WriterWithFeedbac
         return writeOperation;
     }
 
+    /**
+     * Batch of records being written in background.
+     */
+    private class PendingBatch {
+
+        /** Records which were submitted. */
+        private final List<IndexedRecord> indexedRecordList;
+
+        /** Write responses of the batch, the order is the same as in record list. */
+        private final Future<List<NsWriteResponse<RefT>>> responses;
+
+        PendingBatch(List<IndexedRecord> indexedRecordList, Future<List<NsWriteResponse<RefT>>> responses) {
+            this.indexedRecordList = indexedRecordList;
+            this.responses = responses;
+        }
+    }
+
+    /**
+     * Creates daemon threads, so that an unclosed writer does not prevent the JVM from exiting.
+     */
+    private static class BatchThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "netsuite-write-batch-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
 }
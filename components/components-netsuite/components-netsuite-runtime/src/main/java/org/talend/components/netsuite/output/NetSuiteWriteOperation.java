@@ -94,6 +94,11 @@ public class NetSuiteWriteOperation implements WriteOperation<Result> {
             writer.setBatchSize(batchSize);
         }
 
+        Integer writeConcurrency = properties.writeConcurrency.getValue();
+        if (writeConcurrency != null) {
+            writer.setConcurrency(writeConcurrency);
+        }
+
         Boolean dieOnError = properties.dieOnError.getValue();
         if (dieOnError != null) {
             writer.setExceptionForErrors(dieOnError);
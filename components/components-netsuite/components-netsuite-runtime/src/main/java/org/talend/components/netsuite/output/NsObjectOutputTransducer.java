@@ -26,7 +26,6 @@ import java.util.Set;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.IndexedRecord;
 import org.apache.commons.lang3.StringUtils;
-import org.talend.components.netsuite.NetSuiteDatasetRuntimeImpl;
 import org.talend.components.netsuite.NsObjectTransducer;
 import org.talend.components.netsuite.client.NetSuiteClientService;
 import org.talend.components.netsuite.client.NsRef;
@@ -107,7 +106,6 @@ public class NsObjectOutputTransducer extends NsObjectTransducer {
     public Object write(IndexedRecord indexedRecord) {
         prepare();
 
-        Map<String, FieldDesc> fieldMap = typeDesc.getFieldMap();
         BeanInfo beanInfo = Beans.getBeanInfo(typeDesc.getTypeClass());
 
         Schema schema = indexedRecord.getSchema();
@@ -141,17 +139,10 @@ public class NsObjectOutputTransducer extends NsObjectTransducer {
             }
         }
 
-        for (Schema.Field field : schema.getFields()) {
-            String nsFieldName = NetSuiteDatasetRuntimeImpl.getNsFieldName(field);
+        for (FieldPlan fieldPlan : getFieldPlans(schema, typeDesc)) {
+            Object value = indexedRecord.get(fieldPlan.getField().pos());
 
-            FieldDesc fieldDesc = fieldMap.get(nsFieldName);
-            if (fieldDesc == null) {
-                continue;
-            }
-
-            Object value = indexedRecord.get(field.pos());
-
-            writeField(nsObject, fieldDesc, customFieldMap, nullFieldNames, value);
+            writeField(nsObject, fieldPlan, customFieldMap, nullFieldNames, value);
         }
 
         // Set record type identification data
@@ -18,6 +18,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -27,7 +28,9 @@ import java.util.List;
 import java.util.Map;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.talend.components.netsuite.CustomFieldSpec;
 import org.talend.components.netsuite.NetSuiteMockTestBase;
 import org.talend.components.netsuite.client.model.BasicRecordType;
@@ -53,6 +56,9 @@ import com.netsuite.webservices.test.setup.customization.types.CustomizationFiel
  */
 public class CustomMetaDataSourceTest extends NetSuiteMockTestBase {
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     private DefaultCustomMetaDataSource customMetaDataSource;
 
     private TestCustomMetaDataRetriever customMetaDataRetriever;
@@ -141,6 +147,81 @@ public class CustomMetaDataSourceTest extends NetSuiteMockTestBase {
         }
     }
 
+    @Test
+    public void testMetaDataCache() throws Exception {
+        Map<String, CustomFieldSpec<RecordType, CustomizationFieldType>> customFieldSpecs = createCustomFieldSpecs();
+        Map<String, CustomFieldSpec<RecordType, CustomizationFieldType>> customRecordFieldSpecs = createCustomRecordFieldSpecs();
+        CustomRecordType customRecordType = createCustomRecordType(customRecordFieldSpecs);
+
+        customMetaDataRetriever.setCustomFieldSpecs(customFieldSpecs);
+        customMetaDataRetriever.setCustomRecordType(customRecordType);
+        customMetaDataRetriever.setCustomRecordFieldSpecs(customRecordFieldSpecs);
+
+        File cacheFile = new File(tempFolder.getRoot(), "metadata.json");
+        customMetaDataSource.setMetaDataCache(new CustomMetaDataCache(cacheFile, "test", 60000));
+
+        RecordTypeInfo recordTypeInfo = clientService.getMetaDataSource().getRecordType(
+                TestRecordTypeEnum.OPPORTUNITY.getTypeName());
+        customMetaDataSource.getCustomFields(recordTypeInfo);
+        RecordTypeInfo customRecordTypeInfo = customMetaDataSource.getCustomRecordType(customRecordType.getScriptId());
+        customMetaDataSource.getCustomFields(customRecordTypeInfo);
+        assertTrue(cacheFile.isFile());
+
+        // Cached data is used without retrieving it from NetSuite
+        TestCustomMetaDataRetriever emptyRetriever = new TestCustomMetaDataRetriever();
+        DefaultCustomMetaDataSource cachedMetaDataSource = new DefaultCustomMetaDataSource(clientService, emptyRetriever);
+        cachedMetaDataSource.setMetaDataCache(new CustomMetaDataCache(cacheFile, "test", 60000));
+
+        Map<String, CustomFieldDesc> customFieldDescMap = cachedMetaDataSource.getCustomFields(recordTypeInfo);
+        assertEquals(customFieldSpecs.keySet(), customFieldDescMap.keySet());
+        CustomFieldDesc customFieldDesc = customFieldDescMap.get("custbody_field1");
+        assertEquals(CustomFieldRefType.BOOLEAN, customFieldDesc.getCustomFieldType());
+        assertEquals(Boolean.class, customFieldDesc.getValueType());
+        assertEquals("1001", customFieldDesc.getCustomizationRef().getInternalId());
+        assertEquals(RefType.CUSTOMIZATION_REF, customFieldDesc.getCustomizationRef().getRefType());
+
+        CustomRecordTypeInfo cachedRecordTypeInfo = (CustomRecordTypeInfo) cachedMetaDataSource.getCustomRecordType(
+                customRecordType.getScriptId());
+        assertNotNull(cachedRecordTypeInfo);
+        assertEquals(customRecordType.getInternalId(), cachedRecordTypeInfo.getCustomizationRef().getInternalId());
+        assertNotNull(cachedRecordTypeInfo.getRecordType());
+        assertEquals(customRecordFieldSpecs.keySet(),
+                cachedMetaDataSource.getCustomFields(cachedRecordTypeInfo).keySet());
+
+        // Expired data is not used, it is retrieved again
+        DefaultCustomMetaDataSource staleMetaDataSource = new DefaultCustomMetaDataSource(clientService, emptyRetriever);
+        staleMetaDataSource.setMetaDataCache(new CustomMetaDataCache(cacheFile, "test", -1));
+
+        assertTrue(staleMetaDataSource.getCustomFields(recordTypeInfo).isEmpty());
+        assertNull(staleMetaDataSource.getCustomRecordType(customRecordType.getScriptId()));
+
+        // Cache file of other account is ignored
+        DefaultCustomMetaDataSource otherMetaDataSource = new DefaultCustomMetaDataSource(clientService, emptyRetriever);
+        otherMetaDataSource.setMetaDataCache(new CustomMetaDataCache(cacheFile, "other", 60000));
+        assertTrue(otherMetaDataSource.getCustomRecordTypes().isEmpty());
+    }
+
+    @Test
+    public void testMetaDataCacheKeepsRetrievalTime() throws Exception {
+        CustomRecordType customRecordType = createCustomRecordType(createCustomRecordFieldSpecs());
+        customMetaDataRetriever.setCustomRecordType(customRecordType);
+
+        File cacheFile = new File(tempFolder.getRoot(), "metadata.json");
+        CustomMetaDataCache metaDataCache = new CustomMetaDataCache(cacheFile, "test", 60000);
+        long retrievalTime = System.currentTimeMillis() - 30000;
+        CustomMetaDataCache.Content content = new CustomMetaDataCache.Content();
+        content.setTimestamp(retrievalTime);
+        metaDataCache.save(content);
+
+        // Custom record types are not cached, so they are retrieved and the cache is saved again
+        customMetaDataSource.setMetaDataCache(metaDataCache);
+        assertNotNull(customMetaDataSource.getCustomRecordType(customRecordType.getScriptId()));
+
+        CustomMetaDataCache.Content savedContent = metaDataCache.load();
+        assertNotNull(savedContent.getCustomTypes());
+        assertEquals(retrievalTime, savedContent.getTimestamp());
+    }
+
     @Test
     public void testEmptyCustomMetaDataSource() {
         EmptyCustomMetaDataSource emptyCustomMetaDataSource = new EmptyCustomMetaDataSource();
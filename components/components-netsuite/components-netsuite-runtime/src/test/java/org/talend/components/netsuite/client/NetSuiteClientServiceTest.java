@@ -13,6 +13,7 @@
 
 package org.talend.components.netsuite.client;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -23,7 +24,10 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.internal.verification.VerificationModeFactory.times;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.lang3.time.StopWatch;
@@ -61,6 +65,7 @@ import com.netsuite.webservices.test.platform.messages.GetRequest;
 import com.netsuite.webservices.test.platform.messages.GetResponse;
 import com.netsuite.webservices.test.platform.messages.LoginRequest;
 import com.netsuite.webservices.test.platform.messages.LoginResponse;
+import com.netsuite.webservices.test.platform.messages.LogoutRequest;
 import com.netsuite.webservices.test.platform.messages.ReadResponse;
 import com.netsuite.webservices.test.platform.messages.ReadResponseList;
 import com.netsuite.webservices.test.platform.messages.SessionResponse;
@@ -448,6 +453,119 @@ public class NetSuiteClientServiceTest extends NetSuiteMockTestBase {
         assertTrue(stopWatch.getTime() >= sleeptSeconds * 1000);
     }
 
+    @Test
+    public void testConcurrentOperations() throws Exception {
+        clientService.setConcurrencyLimit(2);
+        clientService.login();
+        TypeDesc typeDesc = clientService.getMetaDataSource().getTypeInfo("RecordRef");
+
+        final RecordRef recordRef = new NsObjectComposer<RecordRef>(clientService.getMetaDataSource(), typeDesc)
+                .composeObject();
+
+        final DeleteResponse response = new DeleteResponse();
+        response.setWriteResponse(createSuccessWriteResponse());
+
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(2);
+        final CountDownLatch finish = new CountDownLatch(1);
+
+        when(port.delete(notNull(DeleteRequest.class))).thenAnswer(new Answer<DeleteResponse>() {
+
+            @Override
+            public DeleteResponse answer(InvocationOnMock invocation) throws Throwable {
+                int count = running.incrementAndGet();
+                synchronized (maxRunning) {
+                    maxRunning.set(Math.max(maxRunning.get(), count));
+                }
+                started.countDown();
+                finish.await(30, TimeUnit.SECONDS);
+                running.decrementAndGet();
+                return response;
+            }
+        });
+
+        Runnable deleteTask = new Runnable() {
+
+            @Override
+            public void run() {
+                clientService.delete(recordRef);
+            }
+        };
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            threads.add(new Thread(deleteTask));
+            threads.get(i).start();
+        }
+        assertTrue(started.await(30, TimeUnit.SECONDS));
+
+        // Third operation waits for one of the running operations
+        Thread waitingThread = new Thread(deleteTask);
+        threads.add(waitingThread);
+        waitingThread.start();
+        while (waitingThread.getState() != Thread.State.WAITING) {
+            Thread.sleep(10);
+        }
+
+        finish.countDown();
+        for (Thread thread : threads) {
+            thread.join(30000);
+        }
+
+        assertEquals(2, maxRunning.get());
+        assertEquals(1, clientService.getLockWaitCount());
+        verify(port, times(2)).login(notNull(LoginRequest.class));
+        verify(port, times(3)).delete(notNull(DeleteRequest.class));
+    }
+
+    @Test
+    public void testLoginKeepsSessionsInUse() throws Exception {
+        clientService.login();
+        TypeDesc typeDesc = clientService.getMetaDataSource().getTypeInfo("RecordRef");
+
+        final RecordRef recordRef = new NsObjectComposer<RecordRef>(clientService.getMetaDataSource(), typeDesc)
+                .composeObject();
+
+        final DeleteResponse response = new DeleteResponse();
+        response.setWriteResponse(createSuccessWriteResponse());
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch finish = new CountDownLatch(1);
+
+        when(port.delete(notNull(DeleteRequest.class))).thenAnswer(new Answer<DeleteResponse>() {
+
+            @Override
+            public DeleteResponse answer(InvocationOnMock invocation) throws Throwable {
+                started.countDown();
+                finish.await(30, TimeUnit.SECONDS);
+                return response;
+            }
+        });
+
+        Thread thread = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                clientService.delete(recordRef);
+            }
+        });
+        thread.start();
+        assertTrue(started.await(30, TimeUnit.SECONDS));
+
+        // Session used by the running operation is not logged out
+        clientService.login();
+        verify(port, times(0)).logout(notNull(LogoutRequest.class));
+
+        finish.countDown();
+        thread.join(30000);
+
+        // Idle session is re-logged in
+        clientService.login();
+        verify(port, times(1)).logout(notNull(LogoutRequest.class));
+        verify(port, times(2)).login(notNull(LoginRequest.class));
+    }
+
     @Test(expected = NetSuiteException.class)
     public void testCheckError() throws Exception {
         Status status = NetSuitePortTypeMockAdapterImpl.createErrorStatus(
@@ -16,12 +16,21 @@ package org.talend.components.netsuite.client;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import org.junit.Test;
 import org.talend.components.netsuite.client.model.RecordTypeInfo;
@@ -209,4 +218,104 @@ public class SearchResultSetTest {
         assertEquals(page1.size(), recordList.size());
     }
 
+    @Test
+    public void testParallelPagination() throws Exception {
+        NetSuiteClientService<?> conn = mock(NetSuiteClientService.class);
+        when(conn.getConcurrencyLimit()).thenReturn(3);
+
+        final int totalPages = 8;
+        final List<List<Record>> pages = new ArrayList<>();
+        for (int i = 0; i < totalPages; i++) {
+            List<Record> page = new ArrayList<>();
+            for (int j = 0; j < 10; j++) {
+                page.add(new Account());
+            }
+            pages.add(page);
+        }
+
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        when(conn.searchMoreWithId(eq("abc123"), anyInt())).thenAnswer(new Answer<NsSearchResult>() {
+
+            @Override
+            public NsSearchResult answer(InvocationOnMock invocation) throws Throwable {
+                int pageIndex = (Integer) invocation.getArguments()[1];
+                int count = running.incrementAndGet();
+                synchronized (maxRunning) {
+                    maxRunning.set(Math.max(maxRunning.get(), count));
+                }
+                try {
+                    // Following pages are retrieved faster than preceding ones
+                    Thread.sleep(10L * (totalPages - pageIndex));
+                } finally {
+                    running.decrementAndGet();
+                }
+                return createPage(pageIndex, totalPages, pages.get(pageIndex - 1));
+            }
+        });
+
+        SearchResultSet<Record> resultSet = createResultSet(conn, createPage(1, totalPages, pages.get(0)));
+        resultSet.setConcurrency(10);
+        assertEquals(3, resultSet.getConcurrency());
+
+        List<Object> recordList = new ArrayList<>();
+        while (resultSet.next()) {
+            recordList.add(resultSet.get());
+        }
+        resultSet.close();
+
+        List<Object> expected = new ArrayList<>();
+        for (List<Record> page : pages) {
+            expected.addAll(page);
+        }
+        assertEquals(expected.size(), recordList.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), recordList.get(i));
+        }
+        assertTrue(maxRunning.get() > 1);
+        assertTrue(maxRunning.get() <= 3);
+    }
+
+    @Test
+    public void testParallelPaginationError() throws Exception {
+        NetSuiteClientService<?> conn = mock(NetSuiteClientService.class);
+        when(conn.getConcurrencyLimit()).thenReturn(5);
+
+        List<Record> page1 = Collections.<Record>singletonList(new Account());
+        when(conn.searchMoreWithId(eq("abc123"), eq(2))).thenReturn(createPage(2, 3, page1));
+        NetSuiteException error = new NetSuiteException("Search failed");
+        when(conn.searchMoreWithId(eq("abc123"), eq(3))).thenThrow(error);
+
+        SearchResultSet<Record> resultSet = createResultSet(conn, createPage(1, 3, page1));
+        resultSet.setConcurrency(2);
+
+        assertTrue(resultSet.next());
+        assertTrue(resultSet.next());
+        try {
+            resultSet.next();
+            fail("NetSuiteException expected");
+        } catch (NetSuiteException e) {
+            assertSame(error, e);
+        }
+    }
+
+    private static NsSearchResult createPage(int pageIndex, int totalPages, List<Record> records) {
+        NsSearchResult<Record> result = new NsSearchResult<>(new NsStatus(true, new ArrayList<NsStatus.Detail>()));
+        result.setSearchId("abc123");
+        result.setPageIndex(pageIndex);
+        result.setTotalPages(totalPages);
+        result.setRecordList(records);
+        return result;
+    }
+
+    private static SearchResultSet<Record> createResultSet(NetSuiteClientService<?> conn,
+            NsSearchResult firstPage) {
+        NetSuiteClientService<?> clientService = new TestNetSuiteClientService();
+        RecordTypeInfo recordTypeInfo = clientService.getMetaDataSource().getRecordType("Account");
+        SearchRecordTypeDesc searchRecordTypeDesc = clientService.getMetaDataSource()
+                .getSearchRecordType(recordTypeInfo.getRecordType().getSearchRecordType());
+
+        return new SearchResultSet<>(conn, recordTypeInfo.getRecordType(), searchRecordTypeDesc, firstPage);
+    }
+
 }
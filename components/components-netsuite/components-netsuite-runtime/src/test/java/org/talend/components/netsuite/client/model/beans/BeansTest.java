@@ -0,0 +1,126 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.netsuite.client.model.beans;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+import com.netsuite.webservices.test.lists.accounting.Account;
+import com.netsuite.webservices.test.platform.core.RecordRef;
+
+/**
+ *
+ */
+public class BeansTest {
+
+    @Test
+    public void testSimpleProperty() {
+        Account account = new Account();
+        RecordRef currency = new RecordRef();
+
+        Beans.setSimpleProperty(account, "acctName", "Test Account");
+        Beans.setSimpleProperty(account, "inventory", Boolean.TRUE);
+        Beans.setSimpleProperty(account, "currency", currency);
+
+        assertEquals("Test Account", account.getAcctName());
+        assertEquals(Boolean.TRUE, account.getInventory());
+        assertSame(currency, account.getCurrency());
+
+        assertEquals("Test Account", Beans.getSimpleProperty(account, "acctName"));
+        assertEquals(Boolean.TRUE, Beans.getSimpleProperty(account, "inventory"));
+        assertSame(currency, Beans.getSimpleProperty(account, "currency"));
+
+        Beans.setSimpleProperty(account, "acctName", null);
+        assertNull(Beans.getSimpleProperty(account, "acctName"));
+    }
+
+    @Test
+    public void testNestedProperty() {
+        Account account = new Account();
+        account.setCurrency(new RecordRef());
+
+        Beans.setProperty(account, "currency.internalId", "1");
+
+        assertEquals("1", account.getCurrency().getInternalId());
+        assertEquals("1", Beans.getProperty(account, "currency.internalId"));
+    }
+
+    @Test
+    public void testPrimitiveAndInheritedProperty() {
+        TestBean bean = new TestBean();
+
+        Beans.setSimpleProperty(bean, "name", "Test");
+        Beans.setSimpleProperty(bean, "count", 10);
+        Beans.setSimpleProperty(bean, "enabled", true);
+
+        assertEquals("Test", Beans.getSimpleProperty(bean, "name"));
+        assertEquals(10, Beans.getSimpleProperty(bean, "count"));
+        assertEquals(true, Beans.getSimpleProperty(bean, "enabled"));
+    }
+
+    @Test
+    public void testAccessorsCached() {
+        BeanInfo beanInfo = Beans.getBeanInfo(Account.class);
+        PropertyInfo propertyInfo = beanInfo.getProperty("acctName");
+
+        assertNotNull(beanInfo.getReader(propertyInfo));
+        assertSame(beanInfo.getReader(propertyInfo), beanInfo.getReader(propertyInfo));
+        assertNotNull(beanInfo.getWriter(propertyInfo));
+        assertSame(beanInfo.getWriter(propertyInfo), beanInfo.getWriter(propertyInfo));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownProperty() {
+        Beans.getSimpleProperty(new Account(), "unknownProperty");
+    }
+
+    public static class BaseTestBean {
+
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class TestBean extends BaseTestBean {
+
+        private int count;
+
+        private boolean enabled;
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+}
@@ -122,7 +122,7 @@ public class TestNetSuiteClientService extends NetSuiteClientService<NetSuitePor
     }
 
     @Override
-    protected void doLogout() throws NetSuiteException {
+    protected void doLogout(NetSuitePortType port) throws NetSuiteException {
         try {
             LogoutRequest request = new LogoutRequest();
             port.logout(request);
@@ -132,8 +132,8 @@ public class TestNetSuiteClientService extends NetSuiteClientService<NetSuitePor
     }
 
     @Override
-    protected void doLogin() throws NetSuiteException {
-        port = getNetSuitePort(endpointUrl, credentials.getAccount());
+    protected NetSuitePortType doLogin() throws NetSuiteException {
+        NetSuitePortType port = getNetSuitePort(endpointUrl, credentials.getAccount());
 
         setHttpClientPolicy(port);
 
@@ -184,6 +184,8 @@ public class TestNetSuiteClientService extends NetSuiteClientService<NetSuitePor
         checkLoginError(toNsStatus(status), exceptionMessage);
 
         updateLoginHeaders(port);
+
+        return port;
     }
 
     @Override
@@ -128,7 +128,7 @@ public class NetSuiteClientServiceImpl extends NetSuiteClientService<NetSuitePor
     }
 
     @Override
-    protected void doLogout() throws NetSuiteException {
+    protected void doLogout(NetSuitePortType port) throws NetSuiteException {
         try {
             LogoutRequest request = new LogoutRequest();
             port.logout(request);
@@ -138,8 +138,8 @@ public class NetSuiteClientServiceImpl extends NetSuiteClientService<NetSuitePor
     }
 
     @Override
-    protected void doLogin() throws NetSuiteException {
-        port = getNetSuitePort(endpointUrl, credentials.getAccount());
+    protected NetSuitePortType doLogin() throws NetSuiteException {
+        NetSuitePortType port = getNetSuitePort(endpointUrl, credentials.getAccount());
 
         setHttpClientPolicy(port);
 
@@ -190,6 +190,8 @@ public class NetSuiteClientServiceImpl extends NetSuiteClientService<NetSuitePor
         checkLoginError(toNsStatus(status), exceptionMessage);
 
         updateLoginHeaders(port);
+
+        return port;
     }
 
     @Override
@@ -37,9 +37,12 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 import org.talend.components.api.component.runtime.Result;
 import org.talend.components.netsuite.NetSuiteDatasetRuntime;
+import org.talend.components.netsuite.NetSuiteDatasetRuntimeImpl;
 import org.talend.components.netsuite.NetSuiteRuntime;
 import org.talend.components.netsuite.NetSuiteSink;
 import org.talend.components.netsuite.client.NetSuiteClientService;
+import org.talend.components.netsuite.client.NsRef;
+import org.talend.components.netsuite.client.NsWriteResponse;
 import org.talend.components.netsuite.client.model.RefType;
 import org.talend.components.netsuite.client.model.TypeDesc;
 import org.talend.components.netsuite.output.NetSuiteOutputProperties;
@@ -169,6 +172,93 @@ public class NetSuiteOutputWriterTest extends NetSuiteMockTestBase {
         assertEquals(indexedRecordList.size(), updatedRecordList.size());
     }
 
+    @Test
+    public void testUpdateConcurrently() throws Exception {
+        final NetSuitePortType port = webServiceMockTestFixture.getPortMock();
+
+        final TypeDesc typeDesc = webServiceMockTestFixture.getClientService().getMetaDataSource()
+                .getTypeInfo(RecordTypeEnum.OPPORTUNITY.getTypeName());
+
+        mockGetListRequestResults(null);
+
+        when(port.updateList(any(UpdateListRequest.class))).then(new Answer<UpdateListResponse>() {
+            @Override public UpdateListResponse answer(InvocationOnMock invocationOnMock) throws Throwable {
+                UpdateListRequest request = (UpdateListRequest) invocationOnMock.getArguments()[0];
+
+                UpdateListResponse response = new UpdateListResponse();
+                WriteResponseList writeResponseList = new WriteResponseList();
+                writeResponseList.setStatus(createSuccessStatus());
+                for (int i = 0; i < request.getRecord().size(); i++) {
+                    Opportunity record = (Opportunity) request.getRecord().get(i);
+
+                    RecordRef recordRef = new RecordRef();
+                    recordRef.setInternalId(record.getInternalId());
+                    recordRef.setType(RecordType.OPPORTUNITY);
+
+                    WriteResponse writeResponse = new WriteResponse();
+                    writeResponse.setStatus(createSuccessStatus());
+                    writeResponse.setBaseRef(recordRef);
+
+                    writeResponseList.getWriteResponse().add(writeResponse);
+                }
+                response.setWriteResponseList(writeResponseList);
+                return response;
+            }
+        });
+
+        properties.module.moduleName.setValue(typeDesc.getTypeName());
+        properties.module.action.setValue(OutputAction.UPDATE);
+        properties.writeConcurrency.setValue(3);
+
+        NetSuiteRuntime netSuiteRuntime = new NetSuiteRuntimeImpl();
+        NetSuiteDatasetRuntime dataSetRuntime = netSuiteRuntime.getDatasetRuntime(properties.getConnectionProperties());
+
+        Schema schema = dataSetRuntime.getSchema(properties.module.moduleName.getValue());
+
+        properties.module.main.schema.setValue(schema);
+
+        NetSuiteSink sink = new NetSuiteSinkImpl();
+        sink.initialize(mockTestFixture.getRuntimeContainer(), properties);
+
+        NetSuiteClientService<?> clientService = sink.getClientService(null);
+
+        NetSuiteWriteOperation writeOperation = (NetSuiteWriteOperation) sink.createWriteOperation();
+        NetSuiteOutputWriter writer = (NetSuiteOutputWriter) writeOperation.createWriter(
+                mockTestFixture.getRuntimeContainer());
+        writer.open(UUID.randomUUID().toString());
+        assertEquals(3, writer.getConcurrency());
+
+        List<IndexedRecord> indexedRecordList = makeIndexedRecords(clientService, schema,
+                new SimpleObjectComposer<>(typeDesc.getTypeClass()), 350);
+
+        List<NsWriteResponse> writeResponses = new ArrayList<>();
+        for (IndexedRecord record : indexedRecordList) {
+            writer.write(record);
+            for (Object response : writer.getWriteResponses()) {
+                writeResponses.add((NsWriteResponse) response);
+            }
+            writer.cleanWrites();
+        }
+
+        Result writerResult = writer.close();
+        for (Object response : writer.getWriteResponses()) {
+            writeResponses.add((NsWriteResponse) response);
+        }
+        assertNotNull(writerResult);
+        assertEquals(indexedRecordList.size(), writerResult.totalCount);
+        assertEquals(indexedRecordList.size(), writerResult.successCount);
+
+        verify(port, times(4)).updateList(any(UpdateListRequest.class));
+
+        // Responses are correlated with records in input order
+        Schema.Field internalIdField = NetSuiteDatasetRuntimeImpl.getNsFieldByName(schema, "internalId");
+        assertEquals(indexedRecordList.size(), writeResponses.size());
+        for (int i = 0; i < indexedRecordList.size(); i++) {
+            NsRef ref = NsRef.fromNativeRef(writeResponses.get(i).getRef());
+            assertEquals(indexedRecordList.get(i).get(internalIdField.pos()), ref.getInternalId());
+        }
+    }
+
     @Test
     public void testDelete() throws Exception {
         final NetSuitePortType port = webServiceMockTestFixture.getPortMock();
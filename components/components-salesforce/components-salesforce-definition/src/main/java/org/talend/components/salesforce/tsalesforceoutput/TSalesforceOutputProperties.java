@@ -59,6 +59,14 @@ public class TSalesforceOutputProperties extends SalesforceOutputProperties impl
 
     public Property<Boolean> dataTimeUTC = newBoolean("dataTimeUTC",true); //$NON-NLS-1$
 
+    public Property<Boolean> asyncWrite = newBoolean("asyncWrite"); //$NON-NLS-1$
+
+    public Property<Integer> asyncConnectionCount = newInteger("asyncConnectionCount", 4); //$NON-NLS-1$
+
+    public Property<Integer> maxInFlightBatches = newInteger("maxInFlightBatches", 8); //$NON-NLS-1$
+
+    public Property<Boolean> preserveOrder = newBoolean("preserveOrder", true); //$NON-NLS-1$
+
     // FIXME - should be file
     public Property<String> logFileName = newString("logFileName"); //$NON-NLS-1$
 
@@ -169,6 +177,10 @@ public class TSalesforceOutputProperties extends SalesforceOutputProperties impl
         advancedForm.addRow(commitLevel);
         advancedForm.addRow(widget(logFileName).setWidgetType(Widget.FILE_WIDGET_TYPE));
         advancedForm.addRow(dataTimeUTC);
+        advancedForm.addRow(asyncWrite);
+        advancedForm.addRow(asyncConnectionCount);
+        advancedForm.addColumn(maxInFlightBatches);
+        advancedForm.addRow(preserveOrder);
     }
 
     public void afterExtendInsert() {
@@ -181,6 +193,10 @@ public class TSalesforceOutputProperties extends SalesforceOutputProperties impl
         updateOutputSchemas();
     }
 
+    public void afterAsyncWrite() {
+        refreshLayout(getForm(Form.ADVANCED));
+    }
+
     public void afterOutputAction() {
         super.afterOutputAction();
         updateOutputSchemas();
@@ -200,6 +216,11 @@ public class TSalesforceOutputProperties extends SalesforceOutputProperties impl
                             || OutputAction.UPSERT.equals(outputAction.getValue())));
             form.getWidget("ignoreNull").setHidden(!(OutputAction.UPDATE.equals(outputAction.getValue())
                     || OutputAction.UPSERT.equals(outputAction.getValue())));
+            form.getWidget(asyncWrite.getName()).setHidden(!extendInsert.getValue());
+            boolean asyncHidden = !(extendInsert.getValue() && asyncWrite.getValue());
+            form.getWidget(asyncConnectionCount.getName()).setHidden(asyncHidden);
+            form.getWidget(maxInFlightBatches.getName()).setHidden(asyncHidden);
+            form.getWidget(preserveOrder.getName()).setHidden(asyncHidden);
         }
     }
 
@@ -81,6 +81,30 @@ public class TSalesforceOutputPropertiesTest extends SalesforceTestBase {
         properties = new TSalesforceOutputProperties("root");
     }
 
+    @Test
+    public void testAsyncWriteLayout() throws Throwable {
+        properties.init();
+        Form advancedForm = properties.getForm(Form.ADVANCED);
+
+        assertTrue(advancedForm.getWidget(properties.asyncWrite.getName()).isVisible());
+        assertFalse(properties.asyncWrite.getValue());
+        assertFalse(advancedForm.getWidget(properties.asyncConnectionCount.getName()).isVisible());
+        assertFalse(advancedForm.getWidget(properties.maxInFlightBatches.getName()).isVisible());
+        assertFalse(advancedForm.getWidget(properties.preserveOrder.getName()).isVisible());
+
+        properties.asyncWrite.setValue(true);
+        assertTrue(advancedForm.getWidget(properties.asyncWrite.getName()).isCallAfter());
+        PropertiesDynamicMethodHelper.afterProperty(properties, properties.asyncWrite.getName());
+        assertTrue(advancedForm.getWidget(properties.asyncConnectionCount.getName()).isVisible());
+        assertTrue(advancedForm.getWidget(properties.maxInFlightBatches.getName()).isVisible());
+        assertTrue(advancedForm.getWidget(properties.preserveOrder.getName()).isVisible());
+
+        properties.extendInsert.setValue(false);
+        PropertiesDynamicMethodHelper.afterProperty(properties, properties.extendInsert.getName());
+        assertFalse(advancedForm.getWidget(properties.asyncWrite.getName()).isVisible());
+        assertFalse(advancedForm.getWidget(properties.asyncConnectionCount.getName()).isVisible());
+    }
+
     @Test
     public void testValuesAndLayout() throws Throwable {
         properties.init();
@@ -0,0 +1,120 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.salesforce.runtime;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.sforce.async.AsyncApiException;
+import com.sforce.async.BatchInfo;
+import com.sforce.ws.ConnectionException;
+
+/**
+ * Uploads the batches of a bulk job from memory on a background thread, so that the next batch is prepared while the
+ * previous one is sent.
+ *
+ * Batches are uploaded one at a time and in submission order: Salesforce handles them according to the job
+ * concurrency mode, and the batch results are matched with the rows of the data file in this order.
+ */
+class BulkBatchUploader implements Closeable {
+
+    interface Upload {
+
+        BatchInfo upload(InputStream input) throws AsyncApiException, ConnectionException;
+    }
+
+    /**
+     * In-memory content of one batch.
+     */
+    static class BatchBuffer extends ByteArrayOutputStream {
+
+        BatchBuffer(int size) {
+            super(size);
+        }
+
+        InputStream toInputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+    }
+
+    private final ExecutorService executor;
+
+    private final Upload upload;
+
+    private final List<BatchInfo> batchInfos = new ArrayList<>();
+
+    private Future<BatchInfo> pending;
+
+    BulkBatchUploader(Upload upload) {
+        this.upload = upload;
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "salesforce-bulk-upload");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start the upload of a batch, once the previous one is done. The buffer must not be modified afterwards.
+     */
+    void submit(final BatchBuffer batch) throws IOException, AsyncApiException, ConnectionException {
+        awaitPending();
+        pending = executor.submit(() -> upload.upload(batch.toInputStream()));
+    }
+
+    /**
+     * Wait for the last upload.
+     *
+     * @return the batch info of every uploaded batch, in submission order.
+     */
+    List<BatchInfo> finish() throws IOException, AsyncApiException, ConnectionException {
+        awaitPending();
+        return batchInfos;
+    }
+
+    private void awaitPending() throws IOException, AsyncApiException, ConnectionException {
+        if (pending == null) {
+            return;
+        }
+        try {
+            batchInfos.add(pending.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof AsyncApiException) {
+                throw (AsyncApiException) cause;
+            } else if (cause instanceof ConnectionException) {
+                throw (ConnectionException) cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            pending = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
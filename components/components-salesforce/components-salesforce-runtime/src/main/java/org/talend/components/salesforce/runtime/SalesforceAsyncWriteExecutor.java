@@ -0,0 +1,217 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.salesforce.runtime;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.avro.generic.IndexedRecord;
+
+import com.sforce.soap.partner.PartnerConnection;
+import com.sforce.ws.ConnectionException;
+import com.sforce.ws.ConnectorConfig;
+
+/**
+ * Submits SOAP write batches on a pool of {@link PartnerConnection}s sharing the same session, keeping at most
+ * <code>maxInFlight</code> batches outstanding.
+ *
+ * Completed batches are handed back to the caller thread, which is the only one allowed to build the feedback flows.
+ * When <code>preserveOrder</code> is set, batches are returned in submission order, otherwise as soon as they
+ * complete.
+ */
+final class SalesforceAsyncWriteExecutor {
+
+    /**
+     * SOAP call performed for one batch.
+     */
+    interface BatchCall {
+
+        Object[] call(PartnerConnection connection) throws ConnectionException;
+    }
+
+    /**
+     * A submitted batch, with the records it was built from and, once done, the SOAP results or the error of the
+     * call.
+     */
+    static final class Batch {
+
+        final List<IndexedRecord> items;
+
+        final String[] changedItemKeys;
+
+        final int dataCount;
+
+        Object[] results;
+
+        ConnectionException error;
+
+        Batch(List<IndexedRecord> items, String[] changedItemKeys, int dataCount) {
+            this.items = items;
+            this.changedItemKeys = changedItemKeys;
+            this.dataCount = dataCount;
+        }
+    }
+
+    private final ExecutorService executor;
+
+    private final CompletionService<Batch> completionService;
+
+    private final BlockingQueue<PartnerConnection> connections;
+
+    private final Deque<Future<Batch>> orderedInFlight = new ArrayDeque<>();
+
+    private final int maxInFlight;
+
+    private final boolean preserveOrder;
+
+    private int inFlight;
+
+    SalesforceAsyncWriteExecutor(List<PartnerConnection> connections, int maxInFlight, boolean preserveOrder) {
+        this.connections = new LinkedBlockingQueue<>(connections);
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.preserveOrder = preserveOrder;
+        final AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(connections.size(), r -> {
+            Thread thread = new Thread(r, "salesforce-writer-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        completionService = new ExecutorCompletionService<>(executor);
+    }
+
+    /**
+     * Create a connection which reuses the session of the given one, no login is performed.
+     */
+    static PartnerConnection createSharedSessionConnection(PartnerConnection connection) throws ConnectionException {
+        ConnectorConfig source = connection.getConfig();
+        ConnectorConfig config = new ConnectorConfig();
+        config.setUsername(source.getUsername());
+        config.setPassword(source.getPassword());
+        config.setAuthEndpoint(source.getAuthEndpoint());
+        config.setServiceEndpoint(source.getServiceEndpoint());
+        config.setSessionId(source.getSessionId());
+        config.setSessionRenewer(source.getSessionRenewer());
+        config.setProxy(source.getProxy());
+        config.setProxyUsername(source.getProxyUsername());
+        config.setProxyPassword(source.getProxyPassword());
+        if (source.getSslContext() != null) {
+            config.setSslContext(source.getSslContext());
+        }
+        config.setConnectionTimeout(source.getConnectionTimeout());
+        config.setReadTimeout(source.getReadTimeout());
+        config.setCompression(source.isCompression());
+        config.setUseChunkedPost(source.useChunkedPost());
+        config.setValidateSchema(source.isValidateSchema());
+
+        PartnerConnection sharedConnection = new PartnerConnection(config);
+        sharedConnection.setSessionHeader(source.getSessionId());
+        if (connection.getCallOptions() != null) {
+            sharedConnection.setCallOptions(connection.getCallOptions().getClient(),
+                    connection.getCallOptions().getDefaultNamespace());
+        }
+        return sharedConnection;
+    }
+
+    /**
+     * Submit a batch. Blocks while the in-flight window is full.
+     *
+     * @return batches that have completed and must be processed by the caller.
+     */
+    List<Batch> submit(final Batch batch, final BatchCall call) throws IOException {
+        List<Batch> completed = new ArrayList<>();
+        while (inFlight >= maxInFlight) {
+            completed.add(take(true));
+        }
+        Callable<Batch> task = () -> {
+            PartnerConnection connection = connections.take();
+            try {
+                batch.results = call.call(connection);
+            } catch (ConnectionException e) {
+                // Only this batch failed, the caller decides whether the whole write fails
+                batch.error = e;
+            } finally {
+                connections.put(connection);
+            }
+            return batch;
+        };
+        if (preserveOrder) {
+            orderedInFlight.addLast(executor.submit(task));
+        } else {
+            completionService.submit(task);
+        }
+        inFlight++;
+        Batch done;
+        while ((done = take(false)) != null) {
+            completed.add(done);
+        }
+        return completed;
+    }
+
+    /**
+     * Wait for every outstanding batch.
+     *
+     * @return remaining batches, to be processed by the caller.
+     */
+    List<Batch> drain() throws IOException {
+        List<Batch> completed = new ArrayList<>();
+        while (inFlight > 0) {
+            completed.add(take(true));
+        }
+        return completed;
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Batch take(boolean wait) throws IOException {
+        if (inFlight == 0) {
+            return null;
+        }
+        Future<Batch> future;
+        try {
+            if (preserveOrder) {
+                future = orderedInFlight.peekFirst();
+                if (!wait && !future.isDone()) {
+                    return null;
+                }
+                orderedInFlight.removeFirst();
+            } else {
+                future = wait ? completionService.take() : completionService.poll();
+                if (future == null) {
+                    return null;
+                }
+            }
+            inFlight--;
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+    }
+}
@@ -21,7 +21,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.talend.components.api.container.RuntimeContainer;
 import org.talend.components.api.exception.ComponentException;
-import org.talend.components.salesforce.soql.SoqlQuery;
+import org.talend.components.salesforce.soql.SoqlQueryCache;
 import org.talend.components.salesforce.tsalesforceinput.TSalesforceInputProperties;
 import org.talend.daikon.avro.AvroUtils;
 import org.talend.daikon.avro.SchemaConstants;
@@ -143,9 +143,7 @@ public class SalesforceBulkQueryInputReader extends SalesforceReader<IndexedReco
         TSalesforceInputProperties inProperties = (TSalesforceInputProperties) properties;
         if (inProperties.manualQuery.getValue()) {
             try {
-                SoqlQuery query = SoqlQuery.getInstance();
-                query.init(inProperties.query.getValue());
-                return query.getDrivingEntityName();
+                return SoqlQueryCache.getInstance().getQuery(inProperties.query.getValue()).getDrivingEntityName();
             } catch (TalendRuntimeException e) {
                 // If the query can't parsed by our api, then still return the configured module name
             }
@@ -15,9 +15,7 @@ package org.talend.components.salesforce.runtime;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.Closeable;
-import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -132,6 +130,8 @@ public class SalesforceBulkRuntime {
 
     private static final int MAX_BATCH_EXECUTION_TIME = 600 * 1000;
 
+    private static final int BATCH_BUFFER_INITIAL_SIZE = 1024 * 1024;
+
     public SalesforceBulkRuntime(BulkConnection bulkConnection) throws IOException {
         this.bulkConnection = bulkConnection;
         if (this.bulkConnection == null) {
@@ -314,7 +314,12 @@ public class SalesforceBulkRuntime {
     }
 
     /**
-     * Create and upload batches using a CSV file. The file into the appropriate size batch files.
+     * Create and upload batches using a CSV file. The file is split into batches of the appropriate size, which are
+     * built in memory and uploaded while the next one is read.
+     *
+     * The file is read once here, records are not streamed from the writer: the file written by tSalesforceOutputBulk
+     * is the input of tSalesforceBulkExec, which may run in another subjob, and it is read again by
+     * {@link #prepareCSVLog()} to match the batch results with the rows of the success and reject flows.
      *
      * @return
      * @throws IOException
@@ -322,15 +327,14 @@ public class SalesforceBulkRuntime {
      * @throws ConnectionException
      */
     private List<BatchInfo> createBatchesFromCSVFile() throws IOException, AsyncApiException, ConnectionException {
-        List<BatchInfo> batchInfos = new ArrayList<BatchInfo>();
-        BufferedReader rdr = new BufferedReader(new InputStreamReader(new FileInputStream(bulkFileName), FILE_ENCODING));
-        // read the CSV header row
-        byte[] headerBytes = (rdr.readLine() + "\n").getBytes("UTF-8");
-        int headerBytesLength = headerBytes.length;
-        File tmpFile = File.createTempFile("sforceBulkAPI", ".csv");
         // Split the CSV file into multiple batches
-        try {
-            FileOutputStream tmpOut = new FileOutputStream(tmpFile);
+        try (BufferedReader rdr = new BufferedReader(
+                new InputStreamReader(new FileInputStream(bulkFileName), FILE_ENCODING));
+                BulkBatchUploader uploader = createBatchUploader()) {
+            // read the CSV header row
+            byte[] headerBytes = (rdr.readLine() + "\n").getBytes("UTF-8");
+            int headerBytesLength = headerBytes.length;
+            BulkBatchUploader.BatchBuffer batch = null;
             int currentBytes = 0;
             int currentLines = 0;
             String nextLine;
@@ -356,18 +360,18 @@ public class SalesforceBulkRuntime {
                 byte[] bytes = (nextLine + "\n").getBytes("UTF-8");
 
                 // Create a new batch when our batch size limit is reached
-                if (currentBytes + bytes.length > maxBytesPerBatch || currentLines > maxRowsPerBatch) {
-                    createBatch(tmpOut, tmpFile, batchInfos);
+                if (currentBytes > 0 && (currentBytes + bytes.length > maxBytesPerBatch || currentLines > maxRowsPerBatch)) {
+                    uploader.submit(batch);
                     currentBytes = 0;
                     currentLines = 0;
                 }
                 if (currentBytes == 0) {
-                    tmpOut = new FileOutputStream(tmpFile);
-                    tmpOut.write(headerBytes);
+                    batch = new BulkBatchUploader.BatchBuffer(Math.min(maxBytesPerBatch, BATCH_BUFFER_INITIAL_SIZE));
+                    batch.write(headerBytes);
                     currentBytes = headerBytesLength;
                     currentLines = 1;
                 }
-                tmpOut.write(bytes);
+                batch.write(bytes);
                 currentBytes += bytes.length;
                 if (!needStart && !needEnds) {
                     currentLines++;
@@ -377,14 +381,15 @@ public class SalesforceBulkRuntime {
             }
             // Finished processing all rows
             // Create a final batch for any remaining data
-            rdr.close();
             if (currentLines > 1) {
-                createBatch(tmpOut, tmpFile, batchInfos);
+                uploader.submit(batch);
             }
-        } finally {
-            tmpFile.delete();
+            return uploader.finish();
         }
-        return batchInfos;
+    }
+
+    private BulkBatchUploader createBatchUploader() {
+        return new BulkBatchUploader(input -> createBatchFromStream(job, input));
     }
 
 
@@ -398,7 +403,13 @@ public class SalesforceBulkRuntime {
      * @throws ConnectionException
      */
     private List<BatchInfo> createBatchesFromJSONFile() throws IOException, AsyncApiException, ConnectionException {
-        List<BatchInfo> batchInfos = new ArrayList<BatchInfo>();
+        try (BulkBatchUploader uploader = createBatchUploader()) {
+            return createBatchesFromJSONFile(uploader);
+        }
+    }
+
+    private List<BatchInfo> createBatchesFromJSONFile(BulkBatchUploader uploader)
+            throws IOException, AsyncApiException, ConnectionException {
         long startTime = System.currentTimeMillis();
         JsonFactory jsonFactory = new JsonFactory();
         int bucket = 0;
@@ -430,7 +441,7 @@ public class SalesforceBulkRuntime {
 
                         if (current - offset > maxBytesPerBatch) {
                             LOGGER.debug("maxBytes {} reached.", maxBytesPerBatch);
-                            createJsonBatch(offset, recodeEnd - offset, batchInfos);
+                            createJsonBatch(offset, recodeEnd - offset, uploader);
                             recordCount = 1;
                             offset = recordStart;
                         }
@@ -438,7 +449,7 @@ public class SalesforceBulkRuntime {
 
                         if (recordCount == maxRowsPerBatch) {
                             LOGGER.debug("maxRecordAmount {} reached.", maxRowsPerBatch);
-                            createJsonBatch(offset, recodeEnd - offset, batchInfos);
+                            createJsonBatch(offset, recodeEnd - offset, uploader);
                             recordCount = 0;
                             recordStart = 0;
                         }
@@ -451,9 +462,10 @@ public class SalesforceBulkRuntime {
         LOGGER.debug("End of File reached");
         LOGGER.debug("RecordCount: {}", recordCount);
         if(recordCount>0) {
-            createJsonBatch(offset, recodeEnd - offset, batchInfos);
+            createJsonBatch(offset, recodeEnd - offset, uploader);
         }
 
+        List<BatchInfo> batchInfos = uploader.finish();
         long endTime = System.currentTimeMillis();
 
         LOGGER.debug("Last time: {} milliseconds", (endTime - startTime));
@@ -461,60 +473,28 @@ public class SalesforceBulkRuntime {
         return batchInfos;
     }
 
-    private void createJsonBatch(long offset,long length,List<BatchInfo> batchInfos)
+    private void createJsonBatch(long offset, long length, BulkBatchUploader uploader)
             throws IOException, AsyncApiException, ConnectionException {
+        LOGGER.debug("Json batch created with offset " + offset + " ,length: " + length);
 
-        File tmpFile = File.createTempFile("sforceBulkAPI", ".json");
-        LOGGER.debug("Temp File: " + tmpFile +" Created with offset " + offset + " ,length: " + length);
-
-        try (RandomAccessFile read = new RandomAccessFile(bulkFileName,"r");
-                FileOutputStream fileOutputStream = new FileOutputStream(tmpFile)){
+        BulkBatchUploader.BatchBuffer batch = new BulkBatchUploader.BatchBuffer((int) Math.min(length + 2, maxBytesPerBatch));
+        try (RandomAccessFile read = new RandomAccessFile(bulkFileName, "r")) {
             read.seek(offset);
-            fileOutputStream.write(91);//write ARRAY_START
+            batch.write(91);//write ARRAY_START
             byte[] buffer = new byte[8192];
             for (;length > 0;length -= 8192){
                 if(length >= 8192){
                     read.read(buffer);
-                    fileOutputStream.write(buffer);
+                    batch.write(buffer);
                 }else {
                     int lastPart = Long.valueOf(length).intValue();
                     read.read(buffer,0, lastPart);
-                    fileOutputStream.write(buffer,0, lastPart);
+                    batch.write(buffer,0, lastPart);
                 }
             }
-            fileOutputStream.write(93);// write ARRAY_END
-            fileOutputStream.flush();
-        }
-
-        try (FileInputStream tmpInputStream = new FileInputStream(tmpFile)){
-            BatchInfo batchInfo = createBatchFromStream(job, tmpInputStream);
-            LOGGER.debug("Batch Infor: " +batchInfo);
-            batchInfos.add(batchInfo);
-        } finally {
-            tmpFile.delete();
-        }
-
-    }
-
-    /**
-     * Create a batch by uploading the contents of the file. This closes the output stream.
-     *
-     * @param tmpOut The output stream used to write the CSV data for a single batch.
-     * @param tmpFile The file associated with the above stream.
-     * @param batchInfos The batch info for the newly created batch is added to this list.
-     *
-     * @throws IOException
-     * @throws AsyncApiException
-     * @throws ConnectionException
-     */
-    private void createBatch(FileOutputStream tmpOut, File tmpFile, List<BatchInfo> batchInfos)
-            throws IOException, AsyncApiException, ConnectionException {
-        tmpOut.flush();
-        tmpOut.close();
-        try(FileInputStream tmpInputStream = new FileInputStream(tmpFile)) {
-            BatchInfo batchInfo = createBatchFromStream(job, tmpInputStream);
-            batchInfos.add(batchInfo);
+            batch.write(93);// write ARRAY_END
         }
+        uploader.submit(batch);
     }
 
     /**
@@ -29,6 +29,7 @@ import org.talend.components.api.exception.ComponentException;
 import org.talend.components.common.avro.AvroTool;
 import org.talend.components.salesforce.soql.FieldDescription;
 import org.talend.components.salesforce.soql.SoqlQuery;
+import org.talend.components.salesforce.soql.SoqlQueryCache;
 import org.talend.components.salesforce.tsalesforceinput.TSalesforceInputProperties;
 import org.talend.daikon.avro.AvroUtils;
 
@@ -62,8 +63,7 @@ public class SalesforceInputReader extends SalesforceReader<IndexedRecord> {
                     List<Schema.Field> copyFieldList = new ArrayList<>();
 
                     // logic almost the same as it is in GuessSchema (SalesforceSourseOrSink): TDI-48569
-                    SoqlQuery query = SoqlQuery.getInstance();
-                    query.init(inProperties.query.getValue());
+                    SoqlQuery query = SoqlQueryCache.getInstance().getQuery(inProperties.query.getValue());
                     for (FieldDescription fieldDescription : query.getFieldDescriptions()) {
                         final String simpleName = fieldDescription.getSimpleName();
                         Schema.Field schemaField = querySchema.getField(simpleName);
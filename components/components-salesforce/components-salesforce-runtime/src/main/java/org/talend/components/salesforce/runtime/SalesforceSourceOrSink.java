@@ -46,11 +46,14 @@ import org.talend.components.salesforce.common.SalesforceRuntimeSourceOrSink;
 import org.talend.components.salesforce.connection.oauth.SalesforceOAuthConnection;
 import org.talend.components.salesforce.runtime.common.ConnectionHolder;
 import org.talend.components.salesforce.runtime.common.SalesforceConstant;
+import org.talend.components.salesforce.runtime.common.SalesforceDescribeCache;
 import org.talend.components.salesforce.runtime.common.SalesforceRuntimeCommon;
+import org.talend.components.salesforce.runtime.common.SalesforceSessionCache;
 import org.talend.components.salesforce.schema.SalesforceSchemaHelper;
 import org.talend.components.salesforce.soql.FieldDescription;
 import org.talend.components.salesforce.soql.SoqlQuery;
 import org.talend.components.salesforce.soql.SoqlQueryBuilder;
+import org.talend.components.salesforce.soql.SoqlQueryCache;
 import org.talend.daikon.NamedThing;
 import org.talend.daikon.SimpleNamedThing;
 import org.talend.daikon.avro.AvroUtils;
@@ -67,7 +70,6 @@ import com.sforce.async.AsyncApiException;
 import com.sforce.async.BulkConnection;
 import com.sforce.soap.partner.DescribeGlobalResult;
 import com.sforce.soap.partner.DescribeGlobalSObjectResult;
-import com.sforce.soap.partner.DescribeSObjectResult;
 import com.sforce.soap.partner.GetUserInfoResult;
 import com.sforce.soap.partner.LoginResult;
 import com.sforce.soap.partner.PartnerConnection;
@@ -213,8 +215,9 @@ public class SalesforceSourceOrSink implements SalesforceRuntimeSourceOrSink, Sa
         PartnerConnection connection = new PartnerConnection(config);
         // Need to discard manual login parameter in configs to avoid execution errors.
         config.setManualLogin(false);
+        LoginResult loginResult = null;
         if (null == config.getSessionId()) {
-            performLogin(config, connection);
+            loginResult = performLogin(config, connection);
         }
         if(connProps.sslProperties.mutualAuth.getValue()) {
             String soapEndpoint = config.getServiceEndpoint();
@@ -226,6 +229,11 @@ public class SalesforceSourceOrSink implements SalesforceRuntimeSourceOrSink, Sa
                 throw new ConnectionException(e.getMessage());
             }
         }
+        String sessionCacheKey = getSessionCacheKey(config);
+        if (loginResult != null && sessionCacheKey != null) {
+            SalesforceSessionCache.getInstance().put(sessionCacheKey, config.getSessionId(), config.getServiceEndpoint(),
+                    loginResult.getUserInfo() != null ? loginResult.getUserInfo().getSessionSecondsValid() : 0);
+        }
         if (openNewSession && isReuseSession()) {
             this.sessionId = config.getSessionId();
             this.serviceEndPoint = config.getServiceEndpoint();
@@ -245,9 +253,10 @@ public class SalesforceSourceOrSink implements SalesforceRuntimeSourceOrSink, Sa
      * @param config connector configuration with endpoint/userId/password
      * @param connection to be used for login in Salesforce.
      * @throws ConnectionException if password has been expired or bad connection to Salesforce.
+     * @return the login result.
      * @see com.sforce.soap.partner.PartnerConnection#PartnerConnection(ConnectorConfig config)
      */
-    private void performLogin(ConnectorConfig config, PartnerConnection connection) throws ConnectionException {
+    private LoginResult performLogin(ConnectorConfig config, PartnerConnection connection) throws ConnectionException {
         config.setServiceEndpoint(config.getAuthEndpoint());
         LoginResult loginResult = null;
         try {
@@ -262,6 +271,34 @@ public class SalesforceSourceOrSink implements SalesforceRuntimeSourceOrSink, Sa
         config.setServiceEndpoint(loginResult.getServerUrl());
 
         connection.setSessionHeader(loginResult.getSessionId());
+        return loginResult;
+    }
+
+    /**
+     * Key of the session shared with the other components using the same credentials, or null when the session can't be
+     * shared: only user/password logins without mutual authentication nor session file are shared.
+     */
+    private String getSessionCacheKey(ConnectorConfig config) {
+        SalesforceConnectionProperties connProps = getConnectionProperties();
+        if (SalesforceConnectionProperties.LoginType.Basic != connProps.loginType.getValue()
+                || connProps.sslProperties.mutualAuth.getValue() || isReuseSession()) {
+            return null;
+        }
+        return SalesforceSessionCache.getKey(connProps.endpoint.getStringValue(), config.getUsername(), config.getPassword());
+    }
+
+    /**
+     * Create a connection using a session opened by another component, no login is performed.
+     */
+    private PartnerConnection connectWithSession(ConnectorConfig config, SalesforceSessionCache.Session session)
+            throws ConnectionException {
+        config.setSessionId(session.getSessionId());
+        config.setServiceEndpoint(session.getServiceEndpoint());
+        config.setManualLogin(true);
+        PartnerConnection connection = new PartnerConnection(config);
+        config.setManualLogin(false);
+        connection.setSessionHeader(session.getSessionId());
+        return connection;
     }
 
     protected ConnectionHolder connect(RuntimeContainer container) throws IOException {
@@ -335,8 +372,16 @@ public class SalesforceSourceOrSink implements SalesforceRuntimeSourceOrSink, Sa
                     this.serviceEndPoint = properties.getProperty(SalesforceConstant.SERVICE_ENDPOINT);
                 }
             }
+            SalesforceSessionCache.Session cachedSession = null;
+            String sessionCacheKey = getSessionCacheKey(config);
+            if (sessionCacheKey != null) {
+                cachedSession = SalesforceSessionCache.getInstance().get(sessionCacheKey);
+            }
             if (this.sessionId != null && this.serviceEndPoint != null) {
                 ch.connection = doConnection(config, false);
+            } else if (cachedSession != null) {
+                LOG.debug("reusing cached session");
+                ch.connection = connectWithSession(config, cachedSession);
             } else {
                 ch.connection = doConnection(config, true);
             }
@@ -436,13 +481,18 @@ public class SalesforceSourceOrSink implements SalesforceRuntimeSourceOrSink, Sa
     }
 
     protected List<NamedThing> getSchemaNames(PartnerConnection connection) throws IOException {
-        List<NamedThing> returnList = new ArrayList<>();
-        DescribeGlobalResult result = null;
         try {
-            result = connection.describeGlobal();
+            // The cached list is shared, callers get their own copy
+            return new ArrayList<>(SalesforceDescribeCache.getInstance()
+                    .getModuleNames(SalesforceDescribeCache.getScope(connection), () -> describeSchemaNames(connection)));
         } catch (ConnectionException e) {
             throw new ComponentException(e);
         }
+    }
+
+    private List<NamedThing> describeSchemaNames(PartnerConnection connection) throws ConnectionException {
+        List<NamedThing> returnList = new ArrayList<>();
+        DescribeGlobalResult result = connection.describeGlobal();
         DescribeGlobalSObjectResult[] objects = result.getSobjects();
         for (DescribeGlobalSObjectResult obj : objects) {
             LOG.debug("module label: " + obj.getLabel() + " name: " + obj.getName());
@@ -458,9 +508,8 @@ public class SalesforceSourceOrSink implements SalesforceRuntimeSourceOrSink, Sa
 
     protected Schema getSchema(PartnerConnection connection, String module) throws IOException {
         try {
-            DescribeSObjectResult[] describeSObjectResults = new DescribeSObjectResult[0];
-            describeSObjectResults = connection.describeSObjects(new String[] { module });
-            return SalesforceAvroRegistry.get().inferSchema(describeSObjectResults[0]);
+            return SalesforceDescribeCache.getInstance().getModuleSchema(SalesforceDescribeCache.getScope(connection), module,
+                    () -> SalesforceAvroRegistry.get().inferSchema(connection.describeSObjects(new String[] { module })[0]));
         } catch (ConnectionException e) {
             throw new IOException(e);
         }
@@ -600,20 +649,30 @@ public class SalesforceSourceOrSink implements SalesforceRuntimeSourceOrSink, Sa
 
     @Override
     public Schema guessSchema(String soqlQuery) throws IOException {
-        SoqlQuery query = SoqlQuery.getInstance();
-        query.init(soqlQuery);
+        final PartnerConnection connection = connect(null).connection;
+        SoqlQuery parsedQuery = SoqlQueryCache.getInstance().getQuery(soqlQuery);
+        String scope = SalesforceDescribeCache.getScope(connection);
+        if (scope == null) {
+            // The organization is unknown, so the schema can't be shared
+            return guessSchema(connection, parsedQuery);
+        }
+        // Field level security differs between users, so the schema is shared per organization and user
+        return SoqlQueryCache.getInstance().getSchema(scope, parsedQuery.getDrivingEntityName(), soqlQuery,
+                query -> guessSchema(connection, query));
+    }
 
+    private Schema guessSchema(PartnerConnection connection, SoqlQuery query) {
         SchemaBuilder.FieldAssembler fieldAssembler = SchemaBuilder.record("GuessedSchema").fields();
-        DescribeSObjectResult describeSObjectResult = null;
+        Schema querySchema = null;
 
         try {
-            describeSObjectResult = connect(null).connection.describeSObject(query.getDrivingEntityName());
+            querySchema = SalesforceDescribeCache.getInstance().getModuleSchema(SalesforceDescribeCache.getScope(connection),
+                    query.getDrivingEntityName(),
+                    () -> SalesforceAvroRegistry.get().inferSchema(connection.describeSObject(query.getDrivingEntityName())));
         } catch (ConnectionException e) {
             throw new RuntimeException(e.getMessage());
         }
 
-        Schema querySchema = SalesforceAvroRegistry.get().inferSchema(describeSObjectResult);
-
         for (FieldDescription fieldDescription : query.getFieldDescriptions()) {
             Schema.Field schemaField = querySchema.getField(fieldDescription.getSimpleName());
 
@@ -21,8 +21,10 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.servlet.http.HttpServletResponse;
 
@@ -44,6 +46,7 @@ import org.talend.components.salesforce.runtime.common.ConnectionHolder;
 import org.talend.components.salesforce.tsalesforceoutput.TSalesforceOutputProperties;
 import org.talend.daikon.avro.AvroUtils;
 import org.talend.daikon.avro.SchemaConstants;
+import org.talend.daikon.avro.converter.AvroConverter;
 import org.talend.daikon.avro.converter.IndexedRecordConverter;
 import org.talend.daikon.exception.ExceptionContext;
 import org.talend.daikon.exception.error.DefaultErrorCode;
@@ -55,6 +58,7 @@ import com.sforce.soap.partner.DeleteResult;
 import com.sforce.soap.partner.Error;
 import com.sforce.soap.partner.PartnerConnection;
 import com.sforce.soap.partner.SaveResult;
+import com.sforce.soap.partner.StatusCode;
 import com.sforce.soap.partner.UpsertResult;
 import com.sforce.soap.partner.sobject.SObject;
 import com.sforce.ws.ConnectionException;
@@ -110,7 +114,11 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
 
     private transient Schema mainSchema;
 
-    private transient List<String> moduleFieldsNameUpperCase =  new ArrayList<>();
+    private transient Set<String> moduleFieldsNameUpperCase = new HashSet<>();
+
+    private transient FieldMapping[] mappingPlan;
+
+    private transient Schema mappingPlanSchema;
 
     private final List<IndexedRecord> successfulWrites = new ArrayList<>();
 
@@ -124,6 +132,8 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
 
     private BufferedWriter logWriter;
 
+    private SalesforceAsyncWriteExecutor asyncExecutor;
+
     public SalesforceWriter(SalesforceWriteOperation salesforceWriteOperation, RuntimeContainer container) {
         this.salesforceWriteOperation = salesforceWriteOperation;
         this.container = container;
@@ -166,6 +176,28 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
         if (!StringUtils.isEmpty(sprops.logFileName.getValue())) {
             logWriter = new BufferedWriter(new FileWriter(sprops.logFileName.getValue()));
         }
+
+        if (sprops.extendInsert.getValue() && sprops.asyncWrite.getValue()) {
+            openAsyncExecutor();
+        }
+    }
+
+    /**
+     * Additional connections reuse the session of the main one, so that no extra login is needed.
+     */
+    private void openAsyncExecutor() throws IOException {
+        int connectionCount = Math.max(1, sprops.asyncConnectionCount.getValue());
+        List<PartnerConnection> connections = new ArrayList<>(connectionCount);
+        connections.add(connection);
+        try {
+            for (int i = 1; i < connectionCount; i++) {
+                connections.add(SalesforceAsyncWriteExecutor.createSharedSessionConnection(connection));
+            }
+        } catch (ConnectionException e) {
+            throw new IOException(e);
+        }
+        asyncExecutor = new SalesforceAsyncWriteExecutor(connections, sprops.maxInFlightBatches.getValue(),
+                sprops.preserveOrder.getValue());
     }
 
     @SuppressWarnings("unchecked")
@@ -205,31 +237,14 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
         SObject so = new SObject();
         so.setType(sprops.module.moduleName.getStringValue());
         nullValueFields.clear();
-        for (Schema.Field f : input.getSchema().getFields()) {
-            // For "Id" column, we should ignore it for "INSERT" action
-            if (!("Id".equals(f.name())
-                    && SalesforceOutputProperties.OutputAction.INSERT.equals(sprops.outputAction.getValue()))) {
-                Object value = input.get(f.pos());
-                Schema.Field se = mainSchema.getField(f.name());
-                if (se != null) {
-                    if (value != null && !value.toString().isEmpty()) {
-                        Schema.Field fieldInModule = moduleSchema.getField(se.name());
-                        if (fieldInModule != null) {
-                            addSObjectField(so, fieldInModule.schema(), se.name(), value);
-                        } else {
-                            if (moduleFieldsNameUpperCase.indexOf(se.name().toUpperCase()) < 0) {
-                                continue;
-                            } else {
-                                // only consider case insensitive issue
-                                addSObjectField(so, se.schema(), se.name(), value);
-                            }
-                        }
-                    } else {
-                        if (UPDATE.equals(sprops.outputAction.getValue())) {
-                            nullValueFields.add(f.name());
-                        }
-                    }
+        for (FieldMapping mapping : getMappingPlan(input.getSchema(), false)) {
+            Object value = input.get(mapping.pos);
+            if (value != null && !value.toString().isEmpty()) {
+                if (mapping.fieldName != null) {
+                    addSObjectField(so, mapping, value);
                 }
+            } else if (mapping.nullFieldName != null) {
+                nullValueFields.add(mapping.nullFieldName);
             }
         }
         if (!sprops.ignoreNull.getValue()) {
@@ -241,47 +256,19 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
     private SObject createSObjectForUpsert(IndexedRecord input) {
         SObject so = new SObject();
         so.setType(sprops.module.moduleName.getStringValue());
-        Map<String, Map<String, String>> referenceFieldsMap = getReferenceFieldsMap();
         nullValueFields.clear();
-        for (Schema.Field f : input.getSchema().getFields()) {
-            Object value = input.get(f.pos());
-            Schema.Field se = mainSchema.getField(f.name());
-            if (se == null) {
-                continue;
-            }
+        for (FieldMapping mapping : getMappingPlan(input.getSchema(), true)) {
+            Object value = input.get(mapping.pos);
             if (value != null && !"".equals(value.toString())) {
-                if (referenceFieldsMap != null && referenceFieldsMap.get(se.name()) != null) {
-                    Map<String, String> relationMap = referenceFieldsMap.get(se.name());
-                    String lookupRelationshipFieldName = relationMap.get("lookupRelationshipFieldName");
-                    so.setField(lookupRelationshipFieldName, null);
-                    so.getChild(lookupRelationshipFieldName).setField("type", relationMap.get("lookupFieldModuleName"));
-                    // No need get the real type. Because of the External IDs should not be special type in addSObjectField()
-                    addSObjectField(so.getChild(lookupRelationshipFieldName), se.schema(),
-                            relationMap.get("lookupFieldExternalIdName"), value);
-                } else {
-                    // Skip column "Id" for upsert, when "Id" is not specified as "upsertKeyColumn"
-                    if (!"Id".equals(se.name()) || se.name().equals(sprops.upsertKeyColumn.getValue())) {
-                        Schema.Field fieldInModule = moduleSchema.getField(se.name());
-                        if (fieldInModule != null) {
-                            // The real type is need in addSObjectField()
-                            addSObjectField(so, fieldInModule.schema(), se.name(), value);
-                        } else {
-                            // This is keep old behavior, when set a field which is not exist.
-                            // It would throw a exception for this.
-                            addSObjectField(so, se.schema(), se.name(), value);
-                        }
-                    }
-                }
-            } else {
-                if (referenceFieldsMap != null && referenceFieldsMap.get(se.name()) != null) {
-                    Map<String, String> relationMap = referenceFieldsMap.get(se.name());
-                    String lookupFieldName = relationMap.get("lookupFieldName");
-                    if (lookupFieldName != null && !lookupFieldName.trim().isEmpty()) {
-                        nullValueFields.add(lookupFieldName);
-                    }
-                } else if (!("Id".equals(se.name()) || se.name().equals(sprops.upsertKeyColumn.getValue()))) {
-                    nullValueFields.add(se.name());
+                if (mapping.relationshipName != null) {
+                    so.setField(mapping.relationshipName, null);
+                    so.getChild(mapping.relationshipName).setField("type", mapping.relationshipModule);
+                    addSObjectField(so.getChild(mapping.relationshipName), mapping, value);
+                } else if (mapping.fieldName != null) {
+                    addSObjectField(so, mapping, value);
                 }
+            } else if (mapping.nullFieldName != null) {
+                nullValueFields.add(mapping.nullFieldName);
             }
         }
         if (!sprops.ignoreNull.getValue()) {
@@ -290,13 +277,86 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
         return so;
     }
 
-    private void addSObjectField(XmlObject xmlObject, Schema expected, String fieldName, Object value) {
+    /**
+     * Return the mapping plan of the incoming schema, it is only computed for the first record as all the records of a
+     * flow share the same schema.
+     */
+    private FieldMapping[] getMappingPlan(Schema inputSchema, boolean forUpsert) {
+        if (mappingPlan == null || mappingPlanSchema != inputSchema) {
+            mappingPlan = forUpsert ? compileUpsertMappingPlan(inputSchema) : compileMappingPlan(inputSchema);
+            mappingPlanSchema = inputSchema;
+        }
+        return mappingPlan;
+    }
+
+    private FieldMapping[] compileMappingPlan(Schema inputSchema) {
+        List<FieldMapping> plan = new ArrayList<>();
+        for (Schema.Field f : inputSchema.getFields()) {
+            // For "Id" column, we should ignore it for "INSERT" action
+            if ("Id".equals(f.name()) && SalesforceOutputProperties.OutputAction.INSERT.equals(sprops.outputAction.getValue())) {
+                continue;
+            }
+            Schema.Field se = mainSchema.getField(f.name());
+            if (se == null) {
+                continue;
+            }
+            String nullFieldName = UPDATE.equals(sprops.outputAction.getValue()) ? f.name() : null;
+            Schema.Field fieldInModule = moduleSchema.getField(se.name());
+            if (fieldInModule != null) {
+                plan.add(new FieldMapping(f.pos(), se.name(), fieldInModule.schema(), fieldInModule, null, null,
+                        nullFieldName));
+            } else if (moduleFieldsNameUpperCase.contains(se.name().toUpperCase())) {
+                // only consider case insensitive issue
+                plan.add(new FieldMapping(f.pos(), se.name(), se.schema(), null, null, null, nullFieldName));
+            } else if (nullFieldName != null) {
+                plan.add(new FieldMapping(f.pos(), null, null, null, null, null, nullFieldName));
+            }
+        }
+        return plan.toArray(new FieldMapping[plan.size()]);
+    }
+
+    private FieldMapping[] compileUpsertMappingPlan(Schema inputSchema) {
+        Map<String, Map<String, String>> referenceFieldsMap = getReferenceFieldsMap();
+        String upsertKey = sprops.upsertKeyColumn.getValue();
+        List<FieldMapping> plan = new ArrayList<>();
+        for (Schema.Field f : inputSchema.getFields()) {
+            Schema.Field se = mainSchema.getField(f.name());
+            if (se == null) {
+                continue;
+            }
+            if (referenceFieldsMap != null && referenceFieldsMap.get(se.name()) != null) {
+                Map<String, String> relationMap = referenceFieldsMap.get(se.name());
+                String lookupFieldName = relationMap.get("lookupFieldName");
+                String externalIdName = relationMap.get("lookupFieldExternalIdName");
+                // No need get the real type. Because of the External IDs should not be special type in addSObjectField()
+                plan.add(new FieldMapping(f.pos(), externalIdName, se.schema(), moduleSchema.getField(externalIdName),
+                        relationMap.get("lookupRelationshipFieldName"), relationMap.get("lookupFieldModuleName"),
+                        lookupFieldName != null && !lookupFieldName.trim().isEmpty() ? lookupFieldName : null));
+            } else if (!"Id".equals(se.name()) || se.name().equals(upsertKey)) {
+                // Skip column "Id" for upsert, when "Id" is not specified as "upsertKeyColumn"
+                String nullFieldName = se.name().equals(upsertKey) ? null : se.name();
+                Schema.Field fieldInModule = moduleSchema.getField(se.name());
+                if (fieldInModule != null) {
+                    // The real type is need in addSObjectField()
+                    plan.add(new FieldMapping(f.pos(), se.name(), fieldInModule.schema(), fieldInModule, null, null,
+                            nullFieldName));
+                } else {
+                    // This is keep old behavior, when set a field which is not exist.
+                    // It would throw a exception for this.
+                    plan.add(new FieldMapping(f.pos(), se.name(), se.schema(), null, null, null, nullFieldName));
+                }
+            }
+        }
+        return plan.toArray(new FieldMapping[plan.size()]);
+    }
+
+    private void addSObjectField(XmlObject xmlObject, FieldMapping mapping, Object value) {
+        String fieldName = mapping.fieldName;
         Object valueToAdd = null;
         // Convert stuff here
         // For Nillable base64 type field, we retrieve it as UNION type:[bytes,null]
         // So need to unwrap it and get its real type
-        Schema unwrapSchema = AvroUtils.unwrapIfNullable(expected);
-        switch (unwrapSchema.getType()) {
+        switch (mapping.expected.getType()) {
         case BYTES:
             if ((value instanceof String) || (value instanceof byte[])) {
                 byte[] base64Data = null;
@@ -314,8 +374,8 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
             valueToAdd = value;
             break;
         }
-        Schema.Field se = moduleSchema.getField(fieldName);
-        String datePattern = se != null? se.getProp(SchemaConstants.TALEND_COLUMN_PATTERN):"";
+        Schema.Field se = mapping.moduleField;
+        String datePattern = mapping.datePattern;
         if (valueToAdd instanceof Date) {
             boolean useLocalTZ = (!sprops.dataTimeUTC.getValue()) || (sprops.dataTimeUTC.getValue() && datePattern != null
                     && !datePattern.isEmpty() && "yyyy-MM-dd".equals(datePattern));
@@ -333,8 +393,10 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
                         xmlObject.setField(fieldName, new Time((String) valueToAdd));
                     }
                 } else {
-                    xmlObject.setField(fieldName,
-                            SalesforceAvroRegistry.get().getConverterFromString(se).convertToAvro((String) valueToAdd));
+                    if (mapping.stringConverter == null) {
+                        mapping.stringConverter = SalesforceAvroRegistry.get().getConverterFromString(se);
+                    }
+                    xmlObject.setField(fieldName, mapping.stringConverter.convertToAvro((String) valueToAdd));
                 }
             } else {
                 xmlObject.setField(fieldName, valueToAdd);
@@ -360,20 +422,15 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
             }
 
             String[] changedItemKeys = new String[accs.length];
+            if (asyncExecutor != null) {
+                submitAsync(insertItems, changedItemKeys, c -> c.create(accs));
+                insertItems.clear();
+                return null;
+            }
             SaveResult[] saveResults;
             try {
                 saveResults = connection.create(accs);
-                if (saveResults != null && saveResults.length != 0) {
-                    int batch_idx = -1;
-                    for (int i = 0; i < saveResults.length; i++) {
-                        ++batch_idx;
-                        if (saveResults[i].getSuccess()) {
-                            handleSuccess(insertItems.get(i), saveResults[i].getId(), null, -saveResults.length + i);
-                        } else {
-                            handleReject(insertItems.get(i), saveResults[i].getErrors(), changedItemKeys, batch_idx);
-                        }
-                    }
-                }
+                handleSaveResults(insertItems, saveResults, changedItemKeys, 0);
                 insertItems.clear();
                 return saveResults;
             } catch (ConnectionException e) {
@@ -404,21 +461,17 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
             for (int ix = 0; ix < upds.length; ++ix) {
                 changedItemKeys[ix] = upds[ix].getId();
             }
+            if (asyncExecutor != null) {
+                final SObject[] asyncUpds = upds;
+                submitAsync(updateItems, changedItemKeys, c -> c.update(asyncUpds));
+                updateItems.clear();
+                return null;
+            }
             SaveResult[] saveResults;
             try {
                 saveResults = connection.update(upds);
                 upds = null;
-                if (saveResults != null && saveResults.length != 0) {
-                    int batch_idx = -1;
-                    for (int i = 0; i < saveResults.length; i++) {
-                        ++batch_idx;
-                        if (saveResults[i].getSuccess()) {
-                            handleSuccess(updateItems.get(i), saveResults[i].getId(), null, -saveResults.length + i);
-                        } else {
-                            handleReject(updateItems.get(i), saveResults[i].getErrors(), changedItemKeys, batch_idx);
-                        }
-                    }
-                }
+                handleSaveResults(updateItems, saveResults, changedItemKeys, 0);
                 updateItems.clear();
                 return saveResults;
             } catch (ConnectionException e) {
@@ -452,25 +505,18 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
                     changedItemKeys[ix] = String.valueOf(value);
                 }
             }
+            if (asyncExecutor != null) {
+                final SObject[] asyncUpds = upds;
+                final String externalIdFieldName = upsertKeyColumn;
+                submitAsync(upsertItems, changedItemKeys, c -> c.upsert(externalIdFieldName, asyncUpds));
+                upsertItems.clear();
+                return null;
+            }
             UpsertResult[] upsertResults;
             try {
                 upsertResults = connection.upsert(upsertKeyColumn, upds);
                 upds = null;
-                if (upsertResults != null && upsertResults.length != 0) {
-                    int batch_idx = -1;
-                    for (int i = 0; i < upsertResults.length; i++) {
-                        ++batch_idx;
-                        if (upsertResults[i].getSuccess()) {
-                            if (upsertResults[i].getCreated()) {
-                                handleSuccess(upsertItems.get(i), upsertResults[i].getId(), "created", -upsertResults.length + i);
-                            } else {
-                                handleSuccess(upsertItems.get(i), upsertResults[i].getId(), "updated", -upsertResults.length + i);
-                            }
-                        } else {
-                            handleReject(upsertItems.get(i), upsertResults[i].getErrors(), changedItemKeys, batch_idx);
-                        }
-                    }
-                }
+                handleUpsertResults(upsertItems, upsertResults, changedItemKeys, 0);
                 upsertItems.clear();
                 return upsertResults;
             } catch (ConnectionException e) {
@@ -481,6 +527,103 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
 
     }
 
+    private void handleSaveResults(List<IndexedRecord> items, SaveResult[] saveResults, String[] changedItemKeys,
+            int dataCountShift) throws IOException {
+        if (saveResults != null && saveResults.length != 0) {
+            int batch_idx = -1;
+            for (int i = 0; i < saveResults.length; i++) {
+                ++batch_idx;
+                if (saveResults[i].getSuccess()) {
+                    handleSuccess(items.get(i), saveResults[i].getId(), null, dataCountShift - saveResults.length + i);
+                } else {
+                    handleReject(items.get(i), saveResults[i].getErrors(), changedItemKeys, batch_idx);
+                }
+            }
+        }
+    }
+
+    private void handleUpsertResults(List<IndexedRecord> items, UpsertResult[] upsertResults, String[] changedItemKeys,
+            int dataCountShift) throws IOException {
+        if (upsertResults != null && upsertResults.length != 0) {
+            int batch_idx = -1;
+            for (int i = 0; i < upsertResults.length; i++) {
+                ++batch_idx;
+                if (upsertResults[i].getSuccess()) {
+                    if (upsertResults[i].getCreated()) {
+                        handleSuccess(items.get(i), upsertResults[i].getId(), "created",
+                                dataCountShift - upsertResults.length + i);
+                    } else {
+                        handleSuccess(items.get(i), upsertResults[i].getId(), "updated",
+                                dataCountShift - upsertResults.length + i);
+                    }
+                } else {
+                    handleReject(items.get(i), upsertResults[i].getErrors(), changedItemKeys, batch_idx);
+                }
+            }
+        }
+    }
+
+    private void handleDeleteResults(List<IndexedRecord> items, DeleteResult[] dr, String[] changedItemKeys,
+            int dataCountShift) throws IOException {
+        if (dr != null && dr.length != 0) {
+            int batch_idx = -1;
+            for (int i = 0; i < dr.length; i++) {
+                ++batch_idx;
+                if (dr[i].getSuccess()) {
+                    handleSuccess(items.get(i), dr[i].getId(), null, dataCountShift - dr.length + i);
+                } else {
+                    handleReject(items.get(i), dr[i].getErrors(), changedItemKeys, batch_idx);
+                }
+            }
+        }
+    }
+
+    /**
+     * Hand a batch over to the asynchronous executor and process the batches which have completed in the meantime.
+     * The records list is copied as the caller clears it right after.
+     */
+    private void submitAsync(List<IndexedRecord> items, String[] changedItemKeys, SalesforceAsyncWriteExecutor.BatchCall call)
+            throws IOException {
+        SalesforceAsyncWriteExecutor.Batch batch = new SalesforceAsyncWriteExecutor.Batch(new ArrayList<>(items),
+                changedItemKeys, dataCount);
+        handleAsyncResults(asyncExecutor.submit(batch, call));
+    }
+
+    private void handleAsyncResults(List<SalesforceAsyncWriteExecutor.Batch> batches) throws IOException {
+        for (SalesforceAsyncWriteExecutor.Batch batch : batches) {
+            int dataCountShift = batch.dataCount - dataCount;
+            if (batch.error != null) {
+                handleBatchError(batch);
+            } else if (batch.results instanceof SaveResult[]) {
+                handleSaveResults(batch.items, (SaveResult[]) batch.results, batch.changedItemKeys, dataCountShift);
+            } else if (batch.results instanceof UpsertResult[]) {
+                handleUpsertResults(batch.items, (UpsertResult[]) batch.results, batch.changedItemKeys, dataCountShift);
+            } else if (batch.results instanceof DeleteResult[]) {
+                handleDeleteResults(batch.items, (DeleteResult[]) batch.results, batch.changedItemKeys, dataCountShift);
+            }
+        }
+    }
+
+    /**
+     * Reject every record of a batch whose call failed, the write fails only when it must cease on error.
+     */
+    private void handleBatchError(SalesforceAsyncWriteExecutor.Batch batch) throws IOException {
+        if (exceptionForErrors) {
+            if (logWriter != null) {
+                logWriter.close();
+            }
+            throw new IOException(batch.error);
+        }
+        Error error = new Error();
+        error.setStatusCode(StatusCode.UNKNOWN_EXCEPTION);
+        error.setMessage(batch.error.getMessage() != null ? batch.error.getMessage() : batch.error.toString());
+        error.setFields(new String[0]);
+        Error[] errors = new Error[] { error };
+        for (int i = 0; i < batch.items.size(); i++) {
+            handleReject(batch.items.get(i), errors, batch.changedItemKeys, i);
+        }
+    }
+
     private void handleSuccess(IndexedRecord input, String id, String status, int dataCountOffset) {
         successCount++;
         Schema outSchema = sprops.schemaFlow.schema.getValue();
@@ -649,20 +792,15 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
                 delIDs[ix] = (String) deleteItems.get(ix).get(deleteFieldId);
                 changedItemKeys[ix] = delIDs[ix];
             }
+            if (asyncExecutor != null) {
+                submitAsync(deleteItems, changedItemKeys, c -> c.delete(delIDs));
+                deleteItems.clear();
+                return null;
+            }
             DeleteResult[] dr;
             try {
                 dr = connection.delete(delIDs);
-                if (dr != null && dr.length != 0) {
-                    int batch_idx = -1;
-                    for (int i = 0; i < dr.length; i++) {
-                        ++batch_idx;
-                        if (dr[i].getSuccess()) {
-                            handleSuccess(deleteItems.get(i), dr[i].getId(), null, -dr.length + i);
-                        } else {
-                            handleReject(deleteItems.get(i), dr[i].getErrors(), changedItemKeys, batch_idx);
-                        }
-                    }
-                }
+                handleDeleteResults(deleteItems, dr, changedItemKeys, 0);
                 deleteItems.clear();
                 return dr;
             } catch (ConnectionException e) {
@@ -687,10 +825,20 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
 
     private void logout() throws IOException {
         // Finish anything uncommitted
-        doInsert();
-        doDelete();
-        doUpdate();
-        doUpsert();
+        try {
+            doInsert();
+            doDelete();
+            doUpdate();
+            doUpsert();
+            if (asyncExecutor != null) {
+                handleAsyncResults(asyncExecutor.drain());
+            }
+        } finally {
+            if (asyncExecutor != null) {
+                asyncExecutor.shutdown();
+                asyncExecutor = null;
+            }
+        }
     }
 
     @Override
@@ -761,4 +909,45 @@ final class SalesforceWriter implements WriterWithFeedback<Result, IndexedRecord
             return false;
         }
     }
+
+    /**
+     * Resolution of one input column against the design and module schemas.
+     */
+    private static final class FieldMapping {
+
+        final int pos;
+
+        /** Name of the field to set, null when a value of this column is not sent. */
+        final String fieldName;
+
+        /** Unwrapped schema of the expected value. */
+        final Schema expected;
+
+        /** Module field matching {@link #fieldName}, used for date pattern and String conversion. */
+        final Schema.Field moduleField;
+
+        final String datePattern;
+
+        /** Relationship holding the external id, only for upsert reference columns. */
+        final String relationshipName;
+
+        final String relationshipModule;
+
+        /** Name of the field to set to null when the value is empty, null when nothing is done. */
+        final String nullFieldName;
+
+        AvroConverter<String, ?> stringConverter;
+
+        FieldMapping(int pos, String fieldName, Schema expected, Schema.Field moduleField, String relationshipName,
+                String relationshipModule, String nullFieldName) {
+            this.pos = pos;
+            this.fieldName = fieldName;
+            this.expected = expected != null ? AvroUtils.unwrapIfNullable(expected) : null;
+            this.moduleField = moduleField;
+            this.datePattern = moduleField != null ? moduleField.getProp(SchemaConstants.TALEND_COLUMN_PATTERN) : "";
+            this.relationshipName = relationshipName;
+            this.relationshipModule = relationshipModule;
+            this.nullFieldName = nullFieldName;
+        }
+    }
 }
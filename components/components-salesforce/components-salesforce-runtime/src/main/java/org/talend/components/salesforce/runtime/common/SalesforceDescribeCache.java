@@ -0,0 +1,161 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.salesforce.runtime.common;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.apache.avro.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.daikon.NamedThing;
+
+import com.sforce.soap.partner.PartnerConnection;
+import com.sforce.ws.ConnectionException;
+import com.sforce.ws.ConnectorConfig;
+
+/**
+ * JVM wide cache of the describe calls results, so that the components of a job working on the same module don't
+ * describe it again. Entries expire after a configurable time to live.
+ *
+ * Results are scoped by organization and user, as the fields visible to a user depend on its profile.
+ *
+ * Only values derived from the describe results are kept: the JSON of the schema inferred for a module and the
+ * unmodifiable list of module names. Schemas and describe results are mutable, so they are never shared between
+ * components: each call returns a new schema parsed from the cached JSON.
+ */
+public final class SalesforceDescribeCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SalesforceDescribeCache.class);
+
+    /**
+     * System property with the time to live of an entry, in seconds.
+     */
+    public static final String TTL_PROPERTY = "talend.salesforce.describe.ttl";
+
+    public static final int DEFAULT_TTL = 600;
+
+    private static final String GLOBAL_KEY = "\n<global>";
+
+    private static final SalesforceDescribeCache INSTANCE = new SalesforceDescribeCache(
+            Integer.getInteger(TTL_PROPERTY, DEFAULT_TTL), System::currentTimeMillis);
+
+    /**
+     * Performs the describe call and derives the cached value from its result, when the value is not cached.
+     */
+    public interface Loader<T> {
+
+        T load() throws ConnectionException;
+    }
+
+    private static final class Entry {
+
+        private final Object result;
+
+        private final long expiresAt;
+
+        private Entry(Object result, long expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final long ttlMillis;
+
+    private final LongSupplier clock;
+
+    private final AtomicLong describeCount = new AtomicLong();
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    SalesforceDescribeCache(int ttlSeconds, LongSupplier clock) {
+        this.ttlMillis = ttlSeconds * 1000L;
+        this.clock = clock;
+    }
+
+    public static SalesforceDescribeCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return the scope of the results obtained with this connection, or null when it can't be determined, in which
+     * case nothing is cached.
+     */
+    public static String getScope(PartnerConnection connection) {
+        ConnectorConfig config = connection.getConfig();
+        if (config == null || config.getServiceEndpoint() == null) {
+            return null;
+        }
+        // The service endpoint contains the organization id
+        return config.getServiceEndpoint() + '\n' + config.getUsername();
+    }
+
+    /**
+     * @return a new instance of the schema of <code>module</code>, inferred by <code>loader</code> from the description
+     * of the module.
+     */
+    public Schema getModuleSchema(String scope, String module, Loader<Schema> loader) throws ConnectionException {
+        String schema = get(scope, scope + '\n' + module, () -> {
+            Schema loaded = loader.load();
+            return loaded == null ? null : loaded.toString();
+        });
+        return schema == null ? null : new Schema.Parser().parse(schema);
+    }
+
+    /**
+     * @return the unmodifiable list of the modules of the organization, built by <code>loader</code> from the global
+     * description.
+     */
+    public List<NamedThing> getModuleNames(String scope, Loader<List<NamedThing>> loader) throws ConnectionException {
+        return get(scope, scope + GLOBAL_KEY, () -> Collections.unmodifiableList(loader.load()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(String scope, String key, Loader<T> loader) throws ConnectionException {
+        if (scope != null && ttlMillis > 0) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (clock.getAsLong() < entry.expiresAt) {
+                    hitCount.incrementAndGet();
+                    return (T) entry.result;
+                }
+                entries.remove(key, entry);
+            }
+        }
+        T result = loader.load();
+        LOG.debug("Salesforce describe cache: {} describe calls, {} cached results used", describeCount.incrementAndGet(),
+                hitCount.get());
+        if (scope != null && ttlMillis > 0 && result != null) {
+            entries.put(key, new Entry(result, clock.getAsLong() + ttlMillis));
+        }
+        return result;
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public long getDescribeCount() {
+        return describeCount.get();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+}
@@ -0,0 +1,168 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.salesforce.runtime.common;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JVM wide cache of the sessions opened with a user/password login, so that the components of a job using the same
+ * credentials share one login.
+ *
+ * A session is renewed proactively: once it gets close to the end of its validity, the next component which asks for
+ * it logs in again and registers the new session, while the other components keep using the current session until it
+ * expires. Connections which are already open renew their session with their own session renewer.
+ */
+public final class SalesforceSessionCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SalesforceSessionCache.class);
+
+    /**
+     * System property with the number of seconds before the end of validity at which a session is renewed.
+     */
+    public static final String RENEWAL_MARGIN_PROPERTY = "talend.salesforce.session.renewalMargin";
+
+    public static final int DEFAULT_RENEWAL_MARGIN = 300;
+
+    /**
+     * Salesforce default session timeout, used when the login result doesn't give it.
+     */
+    public static final int DEFAULT_SESSION_SECONDS_VALID = 2 * 60 * 60;
+
+    private static final SalesforceSessionCache INSTANCE = new SalesforceSessionCache(
+            Integer.getInteger(RENEWAL_MARGIN_PROPERTY, DEFAULT_RENEWAL_MARGIN), System::currentTimeMillis);
+
+    public static final class Session {
+
+        private final String sessionId;
+
+        private final String serviceEndpoint;
+
+        private final long renewAt;
+
+        private final long expiresAt;
+
+        /** Set once a component has been chosen to renew the session. */
+        private final AtomicBoolean renewing = new AtomicBoolean();
+
+        private Session(String sessionId, String serviceEndpoint, long renewAt, long expiresAt) {
+            this.sessionId = sessionId;
+            this.serviceEndpoint = serviceEndpoint;
+            this.renewAt = renewAt;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getSessionId() {
+            return sessionId;
+        }
+
+        public String getServiceEndpoint() {
+            return serviceEndpoint;
+        }
+    }
+
+    private final ConcurrentMap<String, Session> sessions = new ConcurrentHashMap<>();
+
+    private final long renewalMarginMillis;
+
+    private final LongSupplier clock;
+
+    private final AtomicLong loginCount = new AtomicLong();
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    SalesforceSessionCache(int renewalMarginSeconds, LongSupplier clock) {
+        this.renewalMarginMillis = renewalMarginSeconds * 1000L;
+        this.clock = clock;
+    }
+
+    public static SalesforceSessionCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Build the key of a session. The password is part of it, so that a session is never given to a component with
+     * different credentials.
+     */
+    public static String getKey(String endpoint, String username, String password) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(String.valueOf(password).getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder().append(endpoint).append('\n').append(username).append('\n');
+            for (byte b : hash) {
+                key.append(String.format("%02x", b));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return the session opened for <code>key</code>, or null when there is none, it is expired, or the caller has to
+     * renew it by logging in and registering the new session with {@link #put(String, String, String, int)}. A session
+     * is renewed by a single caller.
+     */
+    public Session get(String key) {
+        Session session = sessions.get(key);
+        if (session == null) {
+            return null;
+        }
+        long now = clock.getAsLong();
+        if (now >= session.expiresAt) {
+            sessions.remove(key, session);
+            return null;
+        }
+        if (now >= session.renewAt && session.renewing.compareAndSet(false, true)) {
+            LOG.debug("Salesforce session cache: renewing session before it expires");
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return session;
+    }
+
+    /**
+     * Register a session just obtained by a login.
+     *
+     * @param secondsValid validity of the session, as given by the login result.
+     */
+    public void put(String key, String sessionId, String serviceEndpoint, int secondsValid) {
+        long validity = (secondsValid > 0 ? secondsValid : DEFAULT_SESSION_SECONDS_VALID) * 1000L;
+        long now = clock.getAsLong();
+        // Sessions which are too short lived are renewed by the next component
+        long renewAt = now + Math.max(validity - renewalMarginMillis, 0);
+        sessions.put(key, new Session(sessionId, serviceEndpoint, renewAt, now + validity));
+        LOG.debug("Salesforce session cache: {} logins, {} reused sessions", loginCount.incrementAndGet(), hitCount.get());
+    }
+
+    public void invalidate(String key) {
+        sessions.remove(key);
+    }
+
+    public long getLoginCount() {
+        return loginCount.get();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+}
@@ -32,7 +32,7 @@ import org.talend.components.salesforce.runtime.BulkResult;
 import org.talend.components.salesforce.runtime.BulkResultSet;
 import org.talend.components.salesforce.runtime.SalesforceBulkRuntime;
 import org.talend.components.salesforce.runtime.common.ConnectionHolder;
-import org.talend.components.salesforce.soql.SoqlQuery;
+import org.talend.components.salesforce.soql.SoqlQueryCache;
 import org.talend.daikon.avro.converter.IndexedRecordConverter;
 
 import com.sforce.async.AsyncApiException;
@@ -197,9 +197,7 @@ public final class SalesforceBulkQueryReader extends AbstractBoundedReader<Index
         } else {
             String query = dataset.query.getValue();
             if (query != null && !query.isEmpty()) {
-                SoqlQuery soqlInstance = SoqlQuery.getInstance();
-                soqlInstance.init(query);
-                return soqlInstance.getDrivingEntityName();
+                return SoqlQueryCache.getInstance().getQuery(query).getDrivingEntityName();
             }
             return null;
         }
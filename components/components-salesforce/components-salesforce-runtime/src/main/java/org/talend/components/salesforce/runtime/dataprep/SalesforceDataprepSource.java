@@ -39,6 +39,7 @@ import org.talend.components.salesforce.runtime.common.SalesforceRuntimeCommon;
 import org.talend.components.salesforce.schema.SalesforceSchemaHelper;
 import org.talend.components.salesforce.soql.FieldDescription;
 import org.talend.components.salesforce.soql.SoqlQuery;
+import org.talend.components.salesforce.soql.SoqlQueryCache;
 import org.talend.daikon.NamedThing;
 import org.talend.daikon.avro.AvroUtils;
 import org.talend.daikon.properties.ValidationResult;
@@ -221,8 +222,7 @@ public class SalesforceDataprepSource
 
     @Override
     public Schema guessSchema(String soqlQuery) throws IOException {
-        SoqlQuery query = SoqlQuery.getInstance();
-        query.init(soqlQuery);
+        SoqlQuery query = SoqlQueryCache.getInstance().getQuery(soqlQuery);
 
         List<FieldDescription> fieldDescriptions = query.getFieldDescriptions();
         String drivingEntityName = query.getDrivingEntityName();
@@ -13,6 +13,7 @@
 package org.talend.components.salesforce.soql;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.antlr.v4.runtime.ANTLRInputStream;
@@ -48,6 +49,19 @@ public class SoqlQuery {
     private SoqlQuery() {
     }
 
+    /**
+     * Parses <code>queryString</code> into a new instance, which can be shared between threads as long as it is not
+     * initialized again.
+     *
+     * @param queryString SOQL query
+     * @see SoqlQueryCache#getQuery(String)
+     */
+    public static SoqlQuery parse(String queryString) {
+        SoqlQuery query = new SoqlQuery();
+        query.init(queryString);
+        return query;
+    }
+
     public static SoqlQuery getInstance() {
         if (SoqlQuery.soqlQueryRef == null) {
             SoqlQuery.soqlQueryRef = new SoqlQuery();
@@ -95,10 +109,10 @@ public class SoqlQuery {
     /**
      * Returns list of field descriptions from SOQL query
      *
-     * @return list of collected field descriptions
+     * @return unmodifiable list of collected field descriptions, parsed queries are shared by {@link SoqlQueryCache}
      */
     public List<FieldDescription> getFieldDescriptions() {
-        return fieldDescriptions;
+        return Collections.unmodifiableList(fieldDescriptions);
     }
 
     /**
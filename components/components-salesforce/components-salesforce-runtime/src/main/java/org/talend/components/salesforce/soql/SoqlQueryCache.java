@@ -0,0 +1,176 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.salesforce.soql;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.avro.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * JVM wide LRU cache of parsed SOQL queries and of the Avro schemas derived from them.
+ *
+ * Parsing a query with ANTLR is expensive and the same query text is parsed again by every component instance, so
+ * parsed {@link SoqlQuery} are shared. They must be treated as read-only.
+ *
+ * Derived schemas are stored as their JSON representation and a new {@link Schema} instance is returned on each call,
+ * as callers add properties to the fields of the schema they get.
+ */
+public final class SoqlQueryCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SoqlQueryCache.class);
+
+    /**
+     * System property which can be used to change the number of entries kept by each cache.
+     */
+    public static final String MAX_ENTRIES_PROPERTY = "talend.salesforce.soql.cache.maxEntries";
+
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    private static final SoqlQueryCache INSTANCE = new SoqlQueryCache(
+            Integer.getInteger(MAX_ENTRIES_PROPERTY, DEFAULT_MAX_ENTRIES));
+
+    /**
+     * Loads the schema of a query when it is not cached yet.
+     */
+    public interface SchemaLoader {
+
+        Schema load(SoqlQuery query) throws IOException;
+    }
+
+    private final Map<String, SoqlQuery> queries;
+
+    private final Map<String, String> schemas;
+
+    private final AtomicLong queryHits = new AtomicLong();
+
+    private final AtomicLong queryMisses = new AtomicLong();
+
+    private final AtomicLong schemaHits = new AtomicLong();
+
+    private final AtomicLong schemaMisses = new AtomicLong();
+
+    SoqlQueryCache(int maxEntries) {
+        queries = createLruMap(maxEntries);
+        schemas = createLruMap(maxEntries);
+    }
+
+    public static SoqlQueryCache getInstance() {
+        return INSTANCE;
+    }
+
+    private static <V> Map<String, V> createLruMap(final int maxEntries) {
+        return new LinkedHashMap<String, V>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the parsed form of <code>queryText</code>, parsing it only if it was not already.
+     *
+     * @param queryText SOQL query
+     */
+    public SoqlQuery getQuery(String queryText) {
+        SoqlQuery query;
+        synchronized (queries) {
+            query = queries.get(queryText);
+        }
+        if (query != null) {
+            queryHits.incrementAndGet();
+            return query;
+        }
+        queryMisses.incrementAndGet();
+        query = SoqlQuery.parse(queryText);
+        synchronized (queries) {
+            queries.put(queryText, query);
+        }
+        return query;
+    }
+
+    /**
+     * Returns the schema derived from <code>queryText</code>, calling <code>loader</code> only if it was not already.
+     *
+     * @param scope identifies the organization and user the schema comes from, as two organizations or two users
+     * can see the same module differently
+     * @param module module the schema is based on
+     * @param queryText SOQL query
+     * @param loader computes the schema from the parsed query
+     * @return a new schema instance, which can be modified by the caller.
+     */
+    public Schema getSchema(String scope, String module, String queryText, SchemaLoader loader) throws IOException {
+        String key = scope + '\n' + module + '\n' + queryText;
+        String schema;
+        synchronized (schemas) {
+            schema = schemas.get(key);
+        }
+        if (schema != null) {
+            schemaHits.incrementAndGet();
+            return new Schema.Parser().parse(schema);
+        }
+        schemaMisses.incrementAndGet();
+        Schema loaded = loader.load(getQuery(queryText));
+        synchronized (schemas) {
+            schemas.put(key, loaded.toString());
+        }
+        LOG.debug("SOQL cache: {} query hits, {} query misses, {} schema hits, {} schema misses", getQueryHitCount(),
+                getQueryMissCount(), getSchemaHitCount(), getSchemaMissCount());
+        return loaded;
+    }
+
+    public long getQueryHitCount() {
+        return queryHits.get();
+    }
+
+    public long getQueryMissCount() {
+        return queryMisses.get();
+    }
+
+    public long getSchemaHitCount() {
+        return schemaHits.get();
+    }
+
+    public long getSchemaMissCount() {
+        return schemaMisses.get();
+    }
+
+    public int getQueryCount() {
+        synchronized (queries) {
+            return queries.size();
+        }
+    }
+
+    public int getSchemaCount() {
+        synchronized (schemas) {
+            return schemas.size();
+        }
+    }
+
+    public void clear() {
+        synchronized (queries) {
+            queries.clear();
+        }
+        synchronized (schemas) {
+            schemas.clear();
+        }
+    }
+}
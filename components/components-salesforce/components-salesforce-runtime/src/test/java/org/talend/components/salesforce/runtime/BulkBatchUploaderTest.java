@@ -0,0 +1,82 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.salesforce.runtime;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.sforce.async.AsyncApiException;
+import com.sforce.async.AsyncExceptionCode;
+import com.sforce.async.BatchInfo;
+
+/**
+ * Unit-tests for {@link BulkBatchUploader} class
+ */
+public class BulkBatchUploaderTest {
+
+    private static String read(InputStream input) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[128];
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static BulkBatchUploader.BatchBuffer batch(String content) throws IOException {
+        BulkBatchUploader.BatchBuffer batch = new BulkBatchUploader.BatchBuffer(4);
+        batch.write(content.getBytes(StandardCharsets.UTF_8));
+        return batch;
+    }
+
+    @Test
+    public void testBatchesAreUploadedInOrder() throws Exception {
+        try (BulkBatchUploader uploader = new BulkBatchUploader(input -> {
+            BatchInfo info = new BatchInfo();
+            try {
+                info.setId(read(input));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return info;
+        })) {
+            uploader.submit(batch("Name\nfirst\n"));
+            uploader.submit(batch("Name\nsecond\n"));
+            uploader.submit(batch("Name\nthird\n"));
+            List<BatchInfo> batchInfos = uploader.finish();
+
+            assertEquals(3, batchInfos.size());
+            assertEquals("Name\nfirst\n", batchInfos.get(0).getId());
+            assertEquals("Name\nsecond\n", batchInfos.get(1).getId());
+            assertEquals("Name\nthird\n", batchInfos.get(2).getId());
+        }
+    }
+
+    @Test(expected = AsyncApiException.class)
+    public void testUploadFailureIsPropagated() throws Exception {
+        try (BulkBatchUploader uploader = new BulkBatchUploader(input -> {
+            throw new AsyncApiException("failure", AsyncExceptionCode.InvalidBatch);
+        })) {
+            uploader.submit(batch("Name\nfirst\n"));
+            uploader.finish();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.salesforce.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.avro.generic.IndexedRecord;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.sforce.soap.partner.PartnerConnection;
+import com.sforce.ws.ConnectionException;
+
+/**
+ * Unit-tests for {@link SalesforceAsyncWriteExecutor} class
+ */
+public class SalesforceAsyncWriteExecutorTest {
+
+    private SalesforceAsyncWriteExecutor executor;
+
+    @After
+    public void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private static List<PartnerConnection> connections(int count) {
+        List<PartnerConnection> connections = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            connections.add(Mockito.mock(PartnerConnection.class));
+        }
+        return connections;
+    }
+
+    private static SalesforceAsyncWriteExecutor.Batch batch(int id) {
+        return new SalesforceAsyncWriteExecutor.Batch(Collections.<IndexedRecord> emptyList(), new String[0], id);
+    }
+
+    private static SalesforceAsyncWriteExecutor.BatchCall sleepingCall(final int id, final long sleepMillis) {
+        return connection -> {
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new Object[] { id };
+        };
+    }
+
+    @Test
+    public void testBatchesAreReturnedInSubmissionOrder() throws Exception {
+        executor = new SalesforceAsyncWriteExecutor(connections(4), 4, true);
+        List<SalesforceAsyncWriteExecutor.Batch> done = new ArrayList<>();
+        long[] sleeps = { 200, 10, 100, 0, 50, 0 };
+        for (int i = 0; i < sleeps.length; i++) {
+            done.addAll(executor.submit(batch(i), sleepingCall(i, sleeps[i])));
+        }
+        done.addAll(executor.drain());
+
+        assertEquals(sleeps.length, done.size());
+        for (int i = 0; i < done.size(); i++) {
+            assertEquals(i, done.get(i).dataCount);
+            assertEquals(Arrays.asList(i), Arrays.asList(done.get(i).results));
+        }
+    }
+
+    @Test
+    public void testInFlightWindowIsBounded() throws Exception {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        executor = new SalesforceAsyncWriteExecutor(connections(8), 2, false);
+        int completed = 0;
+        for (int i = 0; i < 10; i++) {
+            final int id = i;
+            completed += executor.submit(batch(i), connection -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                return new Object[] { id };
+            }).size();
+        }
+        completed += executor.drain().size();
+
+        assertEquals(10, completed);
+        assertTrue(maxRunning.get() <= 2);
+    }
+
+    @Test
+    public void testCallFailureIsKeptOnBatch() throws Exception {
+        executor = new SalesforceAsyncWriteExecutor(connections(1), 2, true);
+        final ConnectionException failure = new ConnectionException("failure");
+        List<SalesforceAsyncWriteExecutor.Batch> done = new ArrayList<>();
+        done.addAll(executor.submit(batch(0), connection -> {
+            throw failure;
+        }));
+        done.addAll(executor.submit(batch(1), sleepingCall(1, 0)));
+        done.addAll(executor.drain());
+
+        assertEquals(2, done.size());
+        assertSame(failure, done.get(0).error);
+        assertNull(done.get(0).results);
+        assertNull(done.get(1).error);
+        assertEquals(Arrays.asList(1), Arrays.asList(done.get(1).results));
+    }
+}
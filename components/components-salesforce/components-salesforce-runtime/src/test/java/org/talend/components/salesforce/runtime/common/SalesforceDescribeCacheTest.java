@@ -0,0 +1,99 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.salesforce.runtime.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.junit.Test;
+import org.talend.daikon.NamedThing;
+import org.talend.daikon.SimpleNamedThing;
+
+import com.sforce.ws.ConnectionException;
+
+/**
+ * Unit-tests for {@link SalesforceDescribeCache} class
+ */
+public class SalesforceDescribeCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1000L);
+
+    @Test
+    public void testSchemaIsCachedUntilTtl() throws ConnectionException {
+        SalesforceDescribeCache cache = new SalesforceDescribeCache(60, now::get);
+        final AtomicLong calls = new AtomicLong();
+        SalesforceDescribeCache.Loader<Schema> loader = () -> {
+            calls.incrementAndGet();
+            return SchemaBuilder.record("Account").fields().requiredString("Id").endRecord();
+        };
+
+        Schema first = cache.getModuleSchema("org", "Account", loader);
+        assertEquals(first, cache.getModuleSchema("org", "Account", loader));
+        cache.getModuleSchema("org", "Contact", loader);
+        cache.getModuleSchema(null, "Account", loader);
+        assertEquals(3, calls.get());
+
+        now.addAndGet(60 * 1000L);
+        cache.getModuleSchema("org", "Account", loader);
+        assertEquals(4, calls.get());
+        assertEquals(4, cache.getDescribeCount());
+        assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testSchemaChangesAreNotShared() throws ConnectionException {
+        SalesforceDescribeCache cache = new SalesforceDescribeCache(60, now::get);
+        SalesforceDescribeCache.Loader<Schema> loader = () -> SchemaBuilder.record("Account").fields().requiredString("Id")
+                .endRecord();
+
+        Schema first = cache.getModuleSchema("org", "Account", loader);
+        first.addProp("talend.component.delimiter", ";");
+        first.getField("Id").addProp("talend.field.pattern", "yyyy");
+
+        Schema second = cache.getModuleSchema("org", "Account", loader);
+        assertNotSame(first, second);
+        assertNull(second.getProp("talend.component.delimiter"));
+        assertNull(second.getField("Id").getProp("talend.field.pattern"));
+        // A component can set its own value
+        second.addProp("talend.component.delimiter", ",");
+        assertEquals(1, cache.getDescribeCount());
+    }
+
+    @Test
+    public void testModuleNamesAreReadOnly() throws ConnectionException {
+        SalesforceDescribeCache cache = new SalesforceDescribeCache(60, now::get);
+        SalesforceDescribeCache.Loader<List<NamedThing>> loader = () -> {
+            List<NamedThing> names = new ArrayList<>();
+            names.add(new SimpleNamedThing("Account", "Account"));
+            return names;
+        };
+
+        List<NamedThing> names = cache.getModuleNames("org", loader);
+        assertSame(names, cache.getModuleNames("org", loader));
+        try {
+            names.clear();
+            fail("cached module names must not be modified");
+        } catch (UnsupportedOperationException e) {
+            assertEquals(1, cache.getModuleNames("org", loader).size());
+        }
+    }
+}
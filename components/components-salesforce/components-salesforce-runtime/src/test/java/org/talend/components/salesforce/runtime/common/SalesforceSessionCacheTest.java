@@ -0,0 +1,71 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.salesforce.runtime.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+/**
+ * Unit-tests for {@link SalesforceSessionCache} class
+ */
+public class SalesforceSessionCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1000L);
+
+    @Test
+    public void testSessionIsRenewedBeforeExpiry() {
+        SalesforceSessionCache cache = new SalesforceSessionCache(300, now::get);
+        String key = SalesforceSessionCache.getKey("https://login.salesforce.com", "user", "password");
+
+        cache.put(key, "session", "https://eu1.salesforce.com/services/Soap/u/42.0/00D", 3600);
+
+        assertEquals("session", cache.get(key).getSessionId());
+        now.addAndGet(3299 * 1000L);
+        assertEquals("session", cache.get(key).getSessionId());
+        now.addAndGet(1000L);
+        // A single caller renews the session, the others keep using it until it expires
+        assertNull(cache.get(key));
+        assertEquals("session", cache.get(key).getSessionId());
+        now.addAndGet(300 * 1000L);
+        assertNull(cache.get(key));
+        assertEquals(1, cache.getLoginCount());
+        assertEquals(3, cache.getHitCount());
+    }
+
+    @Test
+    public void testRenewedSessionReplacesCurrentOne() {
+        SalesforceSessionCache cache = new SalesforceSessionCache(300, now::get);
+        String key = SalesforceSessionCache.getKey("https://login.salesforce.com", "user", "password");
+
+        cache.put(key, "session", "https://eu1.salesforce.com/services/Soap/u/42.0/00D", 3600);
+        now.addAndGet(3300 * 1000L);
+        assertNull(cache.get(key));
+
+        cache.put(key, "renewed", "https://eu1.salesforce.com/services/Soap/u/42.0/00D", 3600);
+        assertEquals("renewed", cache.get(key).getSessionId());
+        assertEquals(2, cache.getLoginCount());
+    }
+
+    @Test
+    public void testKeyDependsOnPassword() {
+        assertEquals(SalesforceSessionCache.getKey("endpoint", "user", "password"),
+                SalesforceSessionCache.getKey("endpoint", "user", "password"));
+        assertNotEquals(SalesforceSessionCache.getKey("endpoint", "user", "password"),
+                SalesforceSessionCache.getKey("endpoint", "user", "other"));
+    }
+}
@@ -0,0 +1,92 @@
+//============================================================================
+//
+// Copyright (C) 2006-2024 Talend Inc. - www.talend.com
+//
+// This source code is available under agreement available at
+// %InstallDIR%\features\org.talend.rcp.branding.%PRODUCTNAME%\%PRODUCTNAME%license.txt
+//
+// You should have received a copy of the agreement
+// along with this program; if not, write to Talend SA
+// 9 rue Pages 92150 Suresnes, France
+//
+//============================================================================
+package org.talend.components.salesforce.soql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.junit.Test;
+
+/**
+ * Unit-tests for {@link SoqlQueryCache} class
+ */
+public class SoqlQueryCacheTest {
+
+    private static final String QUERY = "SELECT Id, Name FROM Account";
+
+    @Test
+    public void testParsedQueryIsShared() {
+        SoqlQueryCache cache = new SoqlQueryCache(10);
+
+        SoqlQuery query = cache.getQuery(QUERY);
+
+        assertEquals("Account", query.getDrivingEntityName());
+        assertEquals(2, query.getFieldDescriptions().size());
+        try {
+            query.getFieldDescriptions().clear();
+            fail("shared field descriptions must not be modifiable");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+        assertSame(query, cache.getQuery(QUERY));
+        assertEquals(1, cache.getQueryHitCount());
+        assertEquals(1, cache.getQueryMissCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedQueryIsEvicted() {
+        SoqlQueryCache cache = new SoqlQueryCache(2);
+
+        SoqlQuery first = cache.getQuery(QUERY);
+        cache.getQuery("SELECT Id FROM Contact");
+        cache.getQuery(QUERY);
+        cache.getQuery("SELECT Id FROM Lead");
+
+        assertEquals(2, cache.getQueryCount());
+        assertSame(first, cache.getQuery(QUERY));
+        assertEquals(3, cache.getQueryMissCount());
+        // Contact was the least recently used query
+        cache.getQuery("SELECT Id FROM Contact");
+        assertEquals(4, cache.getQueryMissCount());
+    }
+
+    @Test
+    public void testSchemaIsLoadedOncePerScope() throws Exception {
+        SoqlQueryCache cache = new SoqlQueryCache(10);
+        final AtomicInteger loads = new AtomicInteger();
+        SoqlQueryCache.SchemaLoader loader = query -> {
+            loads.incrementAndGet();
+            return SchemaBuilder.record("GuessedSchema").fields().name("Id").type().stringType().noDefault().name("Name")
+                    .type().stringType().noDefault().endRecord();
+        };
+
+        Schema first = cache.getSchema("org1", "Account", QUERY, loader);
+        Schema second = cache.getSchema("org1", "Account", QUERY, loader);
+        cache.getSchema("org2", "Account", QUERY, loader);
+
+        assertEquals(2, loads.get());
+        assertEquals(first, second);
+        assertNotSame(first, second);
+        // Each caller gets its own instance, which can be modified
+        second.getField("Id").addProp("pattern", "value");
+        assertEquals(null, cache.getSchema("org1", "Account", QUERY, loader).getField("Id").getProp("pattern"));
+        assertEquals(2, cache.getSchemaHitCount());
+        assertEquals(2, cache.getSchemaMissCount());
+    }
+}